@@ -0,0 +1,63 @@
+#!/usr/bin/env bash
+# 기동 모드별 time-to-first-request / RSS 측정
+#
+# 사전 준비:
+#   ./gradlew cdsArchive -PaotProfiles=lean -PcdsWithAot   # bootJar(+AOT) → build/cds/app + application.jsa
+#   ./gradlew nativeCompile -PaotProfiles=lean             # (선택, GraalVM 필요) build/native/nativeCompile/transit
+#
+# 사용: scripts/measure-startup.sh [반복횟수=3]
+# - 프로세스 시작 시각부터 첫 HTTP 200 응답까지(ms), 그 시점의 VmRSS(MB) 를 잰다.
+# - 로컬 측정용이라 in-memory 스토어(lean 프로파일)만 사용한다.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+RUNS="${1:-3}"
+PORT="${PORT:-18084}"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+FAT_JAR="$ROOT/build/libs/transit-0.0.1-SNAPSHOT.jar"
+CDS_DIR="$ROOT/build/cds/app"
+NATIVE="$ROOT/build/native/nativeCompile/transit"
+URL="http://127.0.0.1:$PORT/api/transit/stops/nearby?lat=37.4979&lon=127.0276"
+
+export SPRING_PROFILES_ACTIVE=lean
+export SPRING_SECURITY_USER_NAME=bench
+export SPRING_SECURITY_USER_PASSWORD=bench
+VECTOR="--add-modules jdk.incubator.vector"
+
+measure() {
+  local name="$1"; shift
+  local dir="$1"; shift
+  local total_ms=0 total_rss=0
+  for _ in $(seq "$RUNS"); do
+    local start end pid rss
+    start=$(date +%s%N)
+    (cd "$dir" && exec "$@" --server.port="$PORT" >/dev/null 2>&1) &
+    pid=$!
+    until curl -sf -u bench:bench -o /dev/null "$URL"; do
+      if ! kill -0 "$pid" 2>/dev/null; then echo "$name: process exited before serving" >&2; return 1; fi
+      sleep 0.02
+    done
+    end=$(date +%s%N)
+    rss=$(awk '/VmRSS/ {print int($2/1024)}' "/proc/$pid/status")
+    kill "$pid" 2>/dev/null; wait "$pid" 2>/dev/null || true
+    total_ms=$((total_ms + (end - start) / 1000000))
+    total_rss=$((total_rss + rss))
+  done
+  printf '%-22s ttfr=%6d ms  rss=%5d MB  (avg of %d)\n' "$name" $((total_ms / RUNS)) $((total_rss / RUNS)) "$RUNS"
+}
+
+echo "mode                   time-to-first-request / RSS"
+measure "jvm"                 "$ROOT" "$JAVA" $VECTOR -jar "$FAT_JAR"
+measure "jvm+lazy"            "$ROOT" "$JAVA" $VECTOR -jar "$FAT_JAR" --spring.main.lazy-initialization=true
+if [ -d "$CDS_DIR" ]; then
+  measure "jvm+extracted"     "$CDS_DIR" "$JAVA" $VECTOR -jar transit-0.0.1-SNAPSHOT.jar
+  measure "jvm+aot"           "$CDS_DIR" "$JAVA" $VECTOR -Dspring.aot.enabled=true -jar transit-0.0.1-SNAPSHOT.jar
+  if [ -f "$CDS_DIR/application.jsa" ]; then
+    measure "jvm+aot+cds"     "$CDS_DIR" "$JAVA" $VECTOR -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar transit-0.0.1-SNAPSHOT.jar
+  fi
+fi
+if [ -x "$NATIVE" ]; then
+  measure "native"            "$ROOT" "$NATIVE"
+else
+  echo "native                 skipped (build/native/nativeCompile/transit 없음, GraalVM 필요)"
+fi
@@ -0,0 +1,68 @@
+package com.smartcane.transit.bench;
+
+import com.smartcane.transit.util.GeoUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 점 간 거리: 하버사인 vs 평면(평균 위도 cos) vs 평면(미리 계산한 cos).
+ * 서울 부근 10m~2km 떨어진 점 쌍 1,024개를 돌아가며 계산한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GeoDistanceBenchmark {
+
+    private double[] lat1;
+    private double[] lon1;
+    private double[] lat2;
+    private double[] lon2;
+    private double cosRef;
+    private int i;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rnd = new Random(42);
+        int n = 1024;
+        lat1 = new double[n];
+        lon1 = new double[n];
+        lat2 = new double[n];
+        lon2 = new double[n];
+        for (int k = 0; k < n; k++) {
+            lat1[k] = 37.45 + rnd.nextDouble() * 0.15;
+            lon1[k] = 126.9 + rnd.nextDouble() * 0.2;
+            double d = 10 + rnd.nextDouble() * 1_990;
+            double brg = rnd.nextDouble() * 2 * Math.PI;
+            lat2[k] = lat1[k] + Math.toDegrees(d * Math.cos(brg) / 6_371_000.0);
+            lon2[k] = lon1[k] + Math.toDegrees(d * Math.sin(brg) / 6_371_000.0 / Math.cos(Math.toRadians(lat1[k])));
+        }
+        cosRef = GeoUtils.cosLat(37.5);
+    }
+
+    @Benchmark
+    public double haversine() {
+        int k = i++ & 1023;
+        return GeoUtils.haversine(lat1[k], lon1[k], lat2[k], lon2[k]);
+    }
+
+    @Benchmark
+    public double planar() {
+        int k = i++ & 1023;
+        return GeoUtils.planarDistance(lat1[k], lon1[k], lat2[k], lon2[k]);
+    }
+
+    @Benchmark
+    public double planarPrecomputedCos() {
+        int k = i++ & 1023;
+        return GeoUtils.planarDistance(lat1[k], lon1[k], lat2[k], lon2[k], cosRef);
+    }
+}
@@ -0,0 +1,79 @@
+package com.smartcane.transit.bench;
+
+import com.smartcane.transit.util.PreparedPolyline;
+import com.smartcane.transit.util.SegmentKernel;
+import com.smartcane.transit.util.SegmentKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 전역 스냅: 스칼라 vs Vector API 커널, 전체 스캔 vs 선분 BVH.
+ * 노선 형상을 흉내 낸 랜덤 워크 폴리라인(기본 5,000 정점)에 경로 주변 점을 스냅한다.
+ * (cold start / 재접속 / 경로 이탈 복구 시의 전역 최근접 선분 질의)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SnapKernelBenchmark {
+
+    @Param({"500", "5000"})
+    int vertices;
+
+    @Param({"scalar", "vector"})
+    String kernel;
+
+    private PreparedPolyline polyline;
+    private double[] qLat;
+    private double[] qLon;
+    private int q;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("vector".equals(kernel) && !SegmentKernels.vectorAvailable()) {
+            throw new IllegalStateException("jdk.incubator.vector is not loaded");
+        }
+        SegmentKernel k = SegmentKernels.select(kernel);
+        Random rnd = new Random(42);
+        List<double[]> pts = new ArrayList<>(vertices);
+        double lat = 37.4979, lon = 127.0276, heading = 0;
+        for (int i = 0; i < vertices; i++) {
+            pts.add(new double[]{lat, lon});
+            heading += rnd.nextGaussian() * 0.3;
+            lat += Math.cos(heading) * 0.00015;   // ≈ 17m
+            lon += Math.sin(heading) * 0.00019;
+        }
+        polyline = PreparedPolyline.of(pts, k);
+
+        qLat = new double[1024];
+        qLon = new double[1024];
+        for (int i = 0; i < qLat.length; i++) {
+            double[] p = pts.get(rnd.nextInt(vertices));
+            qLat[i] = p[0] + rnd.nextGaussian() * 0.0001;
+            qLon[i] = p[1] + rnd.nextGaussian() * 0.0001;
+        }
+    }
+
+    @Benchmark
+    public double fullScanSnap() {
+        int i = q++ & (qLat.length - 1);
+        return polyline.snapScan(qLat[i], qLon[i]).snappedMetersFromStart;
+    }
+
+    @Benchmark
+    public double bvhSnap() {
+        int i = q++ & (qLat.length - 1);
+        return polyline.snap(qLat[i], qLon[i]).snappedMetersFromStart;
+    }
+}
@@ -1,9 +1,14 @@
 package com.smartcane.transit;
 
+import com.smartcane.transit.config.TransitRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ImportRuntimeHints(TransitRuntimeHints.class)
+@EnableScheduling
 public class TransitApplication {
 
 	public static void main(String[] args) {
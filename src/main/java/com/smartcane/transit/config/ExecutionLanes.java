@@ -0,0 +1,141 @@
+package com.smartcane.transit.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 작업 종류별로 격리된 실행 레인 (bulkhead).
+ *
+ * - cpu : 진행 판정(스냅/도착/안내) 전용 고정 크기 플랫폼 스레드 풀 (laneCpuThreads, 대기열 laneCpuQueueCapacity).
+ *         대기열이 차면 호출 스레드에서 바로 처리해 지연 상한을 지킨다 (거절 대신 자기 부담).
+ * - io  : 블로킹 I/O(트립 초기화 Redis, OD 이력 JDBC, 계획 등록 후처리)용 가상 스레드.
+ *         진행 업링크의 상태 로드/저장도 여기서 한다 (판정만 cpu 레인).
+ *         동시 실행 laneIoMaxConcurrent, 대기 laneIoQueueCapacity 를 넘으면 RejectedExecutionException (→ 503).
+ * - SK HTTP 는 WebClientConfig 의 전용 Netty 이벤트 루프/커넥션 풀(sk.transit.event-loop-threads, max-connections)로 분리.
+ *
+ * SK 가 느려져 계획 요청이 쌓여도 io 레인과 SK 이벤트 루프 안에서만 대기하고,
+ * 진행 업링크는 cpu 레인에서 그대로 처리된다.
+ */
+@Slf4j
+@Component
+public class ExecutionLanes implements MeterBinder {
+
+    private final ThreadPoolExecutor cpu;
+    private final ExecutorService ioThreads;
+    private final Semaphore ioPermits;
+    private final int ioMaxConcurrent;
+    private final int ioMaxPending;
+    private final Executor io;
+    private final Scheduler ioScheduler;
+
+    private final AtomicInteger ioPending = new AtomicInteger();   // 실행 중 + 대기 중
+    private final AtomicLong ioRejected = new AtomicLong();
+    private final AtomicLong cpuInline = new AtomicLong();
+
+    public ExecutionLanes(GuidanceProperties props) {
+        int cpuThreads = props.getLaneCpuThreads() > 0
+                ? props.getLaneCpuThreads()
+                : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        this.cpu = new ThreadPoolExecutor(cpuThreads, cpuThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, props.getLaneCpuQueueCapacity())),
+                r -> {
+                    Thread t = new Thread(r, "cpu-lane-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.ioThreads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("io-lane-", 0).factory());
+        this.ioMaxConcurrent = Math.max(1, props.getLaneIoMaxConcurrent());
+        this.ioPermits = new Semaphore(ioMaxConcurrent);
+        this.ioMaxPending = ioMaxConcurrent + Math.max(0, props.getLaneIoQueueCapacity());
+        this.io = this::executeIo;
+        this.ioScheduler = Schedulers.fromExecutor(io);
+    }
+
+    /** cpu 레인에서 계산, 대기열이 차 있으면 호출 스레드에서 바로 계산 */
+    public <T> CompletableFuture<T> supplyCpu(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, cpu);
+        } catch (RejectedExecutionException e) {
+            cpuInline.incrementAndGet();
+            try {
+                return CompletableFuture.completedFuture(task.get());
+            } catch (RuntimeException ex) {
+                return CompletableFuture.failedFuture(ex);
+            }
+        }
+    }
+
+    /** 블로킹 I/O 레인 (가상 스레드) */
+    public Executor io() {
+        return io;
+    }
+
+    /** Reactor publishOn/subscribeOn 용 io 레인 */
+    public Scheduler ioScheduler() {
+        return ioScheduler;
+    }
+
+    private void executeIo(Runnable task) {
+        if (ioPending.incrementAndGet() > ioMaxPending) {
+            ioPending.decrementAndGet();
+            ioRejected.incrementAndGet();
+            throw new RejectedExecutionException("io lane saturated");
+        }
+        ioThreads.execute(() -> {
+            try {
+                ioPermits.acquire();
+                try {
+                    task.run();
+                } finally {
+                    ioPermits.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                ioPending.decrementAndGet();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cpu.shutdown();
+        ioThreads.shutdown();
+        ioScheduler.dispose();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartcane.lane.cpu.active", cpu, ThreadPoolExecutor::getActiveCount).register(registry);
+        Gauge.builder("smartcane.lane.cpu.queue", cpu, e -> e.getQueue().size()).register(registry);
+        Gauge.builder("smartcane.lane.cpu.inline", cpuInline, AtomicLong::get)
+                .description("cpu 레인 포화로 호출 스레드에서 바로 처리된 작업 수")
+                .register(registry);
+        Gauge.builder("smartcane.lane.io.active", this, l -> l.ioMaxConcurrent - l.ioPermits.availablePermits())
+                .register(registry);
+        Gauge.builder("smartcane.lane.io.pending", ioPending, AtomicInteger::get).register(registry);
+        Gauge.builder("smartcane.lane.io.rejected", ioRejected, AtomicLong::get).register(registry);
+    }
+}
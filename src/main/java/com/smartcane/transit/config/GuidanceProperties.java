@@ -26,5 +26,94 @@ public class GuidanceProperties {
     // --- 히스테리시스(깜빡임 방지) ---
     private int    arrivalHysteresisN  = 2;     // 연속 N회 조건 만족 시 도착 인정 (2~3)
 
-    // (선택) 업링크 권고: 클라에서 1초/3m 이상 변화 시 업링크
+    // --- 탑승 구간 시간표 추정 (OnboardScheduleEstimator) ---
+    private boolean onboardScheduleEnabled     = true;
+    private double  onboardGoodFixMaxDistanceM = 40.0;  // 노선 형상에서 이 거리 이내인 fix 만 진행 위치 보정에 사용
+
+    // --- 업링크 간격 권고 (GuidanceResponse.nextUplinkAfterMs / nextUplinkAfterM) ---
+    private long   medianMaxGapMs       = 3_000;   // 직전 fix 와 이보다 벌어지면 중앙값 창을 비움
+    private int    uplinkMinIntervalMs  = 1_000;   // 판단 지점 근처 최소 간격
+    private int    uplinkMaxIntervalMs  = 30_000;  // 긴 직선 보행/탑승 구간 최대 간격
+    private double uplinkMinDistanceM   = 3.0;
+    private double uplinkMaxDistanceM   = 250.0;
+    private double uplinkSafetyFactor   = 0.5;     // 다음 판단 지점까지 여유 거리 중 몇 배까지 건너뛸지
+    private double uplinkSpeedFloorMps  = 0.5;     // 정지 시 간격 계산용 최소 속도
+    private double speedSmoothingAlpha  = 0.3;     // 속도 지수 평활 계수 (0~1, 클수록 최근 값 비중)
+
+    // --- 목적지 ETA (GuidanceResponse.etaToTargetSec) ---
+    private double etaDefaultWalkSpeedMps     = 1.0;  // 개인 보행 속도 관측 전 기본값 (시각장애인 보행 기준)
+    private double etaTransitFallbackSpeedMps = 6.0;  // sectionTime 없는 대중교통 leg 의 평균 속도 가정
+
+    // --- 정류장 인덱스 (/stops/nearby) ---
+    private String stationsFile        = null;  // CSV(stationId,stationName,lat,lon), 예: file:/data/stations.csv
+    private int    nearbyStopsLimit    = 20;    // 반경 검색 최대 반환 개수
+    private double nearbyStopsMaxRadiusM = 2_000; // 반경 검색 최대 반경 (이보다 크면 잘라서 검색)
+
+    // --- 경로 계획 등록/공유 ---
+    private int    internMaxEntries    = 20_000;  // 인터닝 풀(노선 leg/형상 등) 최대 항목 수
+    private int    maxRegisteredPlans  = 100_000; // 등록 계획 수 상한 (넘으면 가장 오래된 등록부터 축출)
+    private long   planTtlMinutes      = 180;     // 등록 계획 유지 시간 (Redis TripState TTL 과 동일)
+    private long   planPurgeIntervalMs = 60_000;  // 만료 계획 정리 주기
+
+    // --- 반복 OD 경로 계획 예열 (PlanPrewarmer, MySQL od_departure_history) ---
+    private boolean planPrewarmEnabled      = false;
+    private long    planPrewarmIntervalMs   = 60_000;       // 예열 스케줄 주기
+    private int     planPrewarmSlotMinutes  = 15;           // 출발 시간대 단위(분)
+    private int     planPrewarmLeadMinutes  = 10;           // 이 시간 안에 시작하는 시간대를 미리 받음
+    private int     planPrewarmMinCount     = 3;            // 이 횟수 이상 요청된 (OD, 시간대)만 예열
+    private int     planPrewarmLookbackDays = 14;           // 이 기간 안에 요청된 이력만 사용
+    private int     planPrewarmDailyQuota   = 300;          // 하루 예열용 SK 호출 상한
+    private int     planPrewarmMaxPerRun    = 20;           // 1회 실행당 SK 호출 상한
+    private long    planPrewarmTtlMinutes   = 30;           // 예열 계획 유효 시간
+    private String  planPrewarmZone         = "Asia/Seoul"; // 출발 시간대 계산 기준
+
+    // --- 사전 계산 지오메트리 / 증분 스냅 ---
+    private int    preparedLegCacheSize = 10_000; // PreparedLeg 캐시 최대 항목 수
+    private int    snapWindowSegments   = 8;      // 증분 스냅: 커서 앞쪽으로 검사할 선분 수
+    private double snapRecoverDistanceM = 60.0;   // 증분 스냅 결과가 이보다 멀면 전체 스캔으로 복구
+    private String snapKernel = "scalar";        // 최근접 선분 커널: scalar | vector (jdk.incubator.vector 필요)
+
+    // --- 후보 itinerary 자동 판별 ---
+    private boolean itineraryDetectionEnabled = false;
+    private double itineraryDetectionSigmaM   = 15.0;  // 스냅 거리 가우시안 σ(m)
+    private double itineraryDetectionMaxZ     = 4.0;   // 이상치 영향 제한(σ 배수 상한)
+    private double itineraryDetectionDecay    = 0.9;   // 점수 지수 감쇠(과거 fix 망각)
+    private double itineraryDetectionSwitchMargin = 12.0; // 전환에 필요한 점수 차(로그우도)
+    private int    itineraryDetectionParallelMinVertices = 20_000; // 후보 정점 합이 이 이상이면 병렬 스냅
+
+    // --- 실행 레인 (ExecutionLanes) ---
+    private int    laneCpuThreads       = 0;       // 진행 판정 전용 풀 스레드 수 (0 = CPU 코어 수)
+    private int    laneCpuQueueCapacity = 1_000;   // 넘치면 호출 스레드에서 바로 처리
+    private int    laneIoMaxConcurrent  = 256;     // 블로킹 I/O 가상 스레드 동시 실행 상한
+    private int    laneIoQueueCapacity  = 10_000;  // 동시 실행 상한을 넘은 대기 상한 (넘치면 거절)
+
+    // --- 진행 업링크 마이크로 배칭 ---
+    private boolean progressBatchEnabled = false;
+    private double progressBatchWindowMs = 2.0;      // 첫 fix 이후 모으는 시간(1~5ms 권장) = 추가 지연 상한
+    private int    progressBatchMaxSize  = 256;      // 배치 최대 fix 수 (차면 window 전에 바로 평가)
+    private int    progressBatchQueueCapacity = 10_000; // 가득 차면 offerTimeout 만큼 기다린 뒤 503
+    private long   progressBatchOfferTimeoutMs = 50;     // 큐 자리를 기다리는 최대 시간
+    private int    progressBatchWorkers  = 0;        // 그룹 평가 워커 수 (0 = CPU 코어 수)
+
+    // --- 정지/중복 fix 빠른 경로 (LastGuidanceCache) ---
+    private boolean stationaryFastPathEnabled = true;
+    private double stationaryMaxMoveM        = 2.0;     // 직전 판정 fix 와 이보다 가까우면 판정 생략
+    private long   stationaryMaxAgeMs        = 5_000;   // 직전 판정 후 이 시간이 지나면 정지 중이어도 다시 판정
+    private int    stationaryCacheMaxEntries = 100_000;
+
+    // --- 트립별 업링크 입장 제어 (TripAdmission) ---
+    private boolean admissionEnabled        = true;
+    private double admissionMaxFixesPerSec  = 2.0;      // 트립당 평균 업링크 상한 (정상 클라이언트는 1Hz 이하)
+    private int    admissionBurst           = 5;        // 재연결 직후 몰려 오는 fix 허용량
+    private int    admissionMaxTrips        = 200_000;
+
+    // --- 트립 상태 구독 스트림 (TripWatchService) ---
+    private long   watchHeartbeatMs = 15_000;   // SSE keepalive 주석 간격 (프록시 유휴 타임아웃보다 짧게)
+
+    // --- 인메모리 트립 상태 스냅샷 (TripSnapshotService, redis 프로파일 제외) ---
+    private String snapshotFile          = null;  // 정상 종료 시 저장 / 기동 시 복원할 파일 (비우면 사용 안 함)
+    private long   snapshotMaxAgeMinutes = 30;    // 이보다 오래된 스냅샷은 복원하지 않음
+
+    // --- Redis 활성 트립 보조 인덱스 (RedisTripIndex, redis 프로파일) ---
+    private long   tripIndexSweepIntervalMs = 60_000; // TTL 로 사라진 트립의 인덱스 항목 정리 주기
 }
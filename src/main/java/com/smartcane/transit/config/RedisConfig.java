@@ -6,6 +6,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.*;
 
@@ -13,7 +14,7 @@ import org.springframework.data.redis.serializer.*;
 public class RedisConfig {
 
     @Bean
-    public RedisConnectionFactory redisConnectionFactory(
+    public LettuceConnectionFactory redisConnectionFactory(
             @Value("${spring.data.redis.host}") String host,
             @Value("${spring.data.redis.port}") int port
     ) {
@@ -36,4 +37,14 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    /** 논블로킹 경로(ReactiveRedisTripStore)용: 같은 Lettuce 연결, 같은 키/JSON 형식 */
+    @Bean
+    public ReactiveRedisTemplate<String, TripState> reactiveTripRedisTemplate(LettuceConnectionFactory cf) {
+        RedisSerializationContext<String, TripState> context = RedisSerializationContext
+                .<String, TripState>newSerializationContext(new StringRedisSerializer())
+                .value(new Jackson2JsonRedisSerializer<>(TripState.class))
+                .build();
+        return new ReactiveRedisTemplate<>(cf, context);
+    }
 }
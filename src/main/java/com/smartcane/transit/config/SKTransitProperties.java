@@ -8,9 +8,61 @@ public class SKTransitProperties {
     private String baseUrl;
     private String appKey;
 
+    // --- 호출 스케줄러 (SkCallScheduler) ---
+    private double ratePerSecond = 10.0;    // 토큰 버킷 충전 속도 (SK 초당 호출 한도에 맞춤)
+    private int    burst = 20;              // 토큰 버킷 크기 (순간 허용량)
+    private int    maxConcurrent = 16;      // 동시 진행 호출 수 상한
+    private int    queueCapacity = 256;     // 대기열 상한 (넘치면 낮은 우선순위부터 버림)
+    private long   timeoutMs = 5_000;       // 시도 1회 타임아웃
+    private long   hedgeAfterMs = 1_500;    // 응답이 이보다 늦으면 두 번째 시도 병행 (0 = 끔, 예열은 항상 끔)
+    private long   rerouteMaxWaitMs = 3_000;   // 대기열 대기 기한 (넘으면 버림)
+    private long   planMaxWaitMs = 5_000;
+    private long   prefetchMaxWaitMs = 60_000;
+
+    // --- SK 전용 HTTP 레인 (WebClientConfig) ---
+    private int    eventLoopThreads = 2;        // SK 응답 수신/디코딩 전용 Netty 이벤트 루프 수
+    private int    maxConnections = 64;         // SK 커넥션 풀 상한
+    private int    pendingAcquireMax = 1_000;   // 커넥션 대기 상한 (넘치면 즉시 실패)
+
     public String getBaseUrl() { return baseUrl; }
     public void setBaseUrl(String baseUrl) { this.baseUrl = baseUrl; }
 
     public String getAppKey() { return appKey; }
     public void setAppKey(String appKey) { this.appKey = appKey; }
+
+    public double getRatePerSecond() { return ratePerSecond; }
+    public void setRatePerSecond(double ratePerSecond) { this.ratePerSecond = ratePerSecond; }
+
+    public int getBurst() { return burst; }
+    public void setBurst(int burst) { this.burst = burst; }
+
+    public int getMaxConcurrent() { return maxConcurrent; }
+    public void setMaxConcurrent(int maxConcurrent) { this.maxConcurrent = maxConcurrent; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public long getTimeoutMs() { return timeoutMs; }
+    public void setTimeoutMs(long timeoutMs) { this.timeoutMs = timeoutMs; }
+
+    public long getHedgeAfterMs() { return hedgeAfterMs; }
+    public void setHedgeAfterMs(long hedgeAfterMs) { this.hedgeAfterMs = hedgeAfterMs; }
+
+    public long getRerouteMaxWaitMs() { return rerouteMaxWaitMs; }
+    public void setRerouteMaxWaitMs(long rerouteMaxWaitMs) { this.rerouteMaxWaitMs = rerouteMaxWaitMs; }
+
+    public long getPlanMaxWaitMs() { return planMaxWaitMs; }
+    public void setPlanMaxWaitMs(long planMaxWaitMs) { this.planMaxWaitMs = planMaxWaitMs; }
+
+    public long getPrefetchMaxWaitMs() { return prefetchMaxWaitMs; }
+    public void setPrefetchMaxWaitMs(long prefetchMaxWaitMs) { this.prefetchMaxWaitMs = prefetchMaxWaitMs; }
+
+    public int getEventLoopThreads() { return eventLoopThreads; }
+    public void setEventLoopThreads(int eventLoopThreads) { this.eventLoopThreads = eventLoopThreads; }
+
+    public int getMaxConnections() { return maxConnections; }
+    public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+
+    public int getPendingAcquireMax() { return pendingAcquireMax; }
+    public void setPendingAcquireMax(int pendingAcquireMax) { this.pendingAcquireMax = pendingAcquireMax; }
 }
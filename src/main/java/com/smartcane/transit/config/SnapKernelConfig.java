@@ -0,0 +1,27 @@
+package com.smartcane.transit.config;
+
+import com.smartcane.transit.util.SegmentKernel;
+import com.smartcane.transit.util.SegmentKernels;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 폴리라인 스냅용 최근접 선분 커널 선택 (smartcane.transit.snapKernel).
+ * vector 는 JVM 에 --add-modules jdk.incubator.vector 가 있어야 하며, 없으면 scalar 로 동작한다.
+ */
+@Slf4j
+@Configuration
+public class SnapKernelConfig {
+
+    @Bean
+    public SegmentKernel segmentKernel(GuidanceProperties props) {
+        SegmentKernel kernel = SegmentKernels.select(props.getSnapKernel());
+        if ("vector".equalsIgnoreCase(props.getSnapKernel()) && !SegmentKernels.vectorAvailable()) {
+            log.warn("snapKernel=vector requested but jdk.incubator.vector is not loaded, falling back to {}", kernel.name());
+        } else {
+            log.info("snap kernel: {}", kernel.name());
+        }
+        return kernel;
+    }
+}
@@ -0,0 +1,33 @@
+package com.smartcane.transit.config;
+
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.TripState;
+import com.smartcane.transit.util.SegmentKernels;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * AOT / native-image 용 리플렉션 힌트.
+ *
+ * - 컨트롤러 @RequestBody/반환 타입은 Spring AOT 가 자동 등록하지만,
+ *   WebClient.bodyToMono 로 받는 SK 응답(SkTransitRootDto 와 중첩 record 전부)과
+ *   Redis JSON 직렬화 대상 TripState 는 코드 경로에서 보이지 않아 직접 등록한다.
+ * - Jackson 바인딩에 필요한 생성자/접근자/필드를 BindingReflectionHintsRegistrar 로 재귀 등록.
+ * - VectorSegmentKernel 은 SegmentKernels 가 이름으로 생성하므로 생성자를 등록한다.
+ */
+public class TransitRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindings.registerReflectionHints(hints.reflection(), SkTransitRootDto.class);
+        bindings.registerReflectionHints(hints.reflection(), SkTransitRootDto.class.getDeclaredClasses());
+        bindings.registerReflectionHints(hints.reflection(), TripState.class);
+        hints.reflection().registerType(TypeReference.of(SegmentKernels.VECTOR_KERNEL_CLASS),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+    }
+}
@@ -1,20 +1,49 @@
 // config/WebClientConfig.java
 package com.smartcane.transit.config;
 
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @Configuration
 @EnableConfigurationProperties(SKTransitProperties.class)
 public class WebClientConfig {
 
+    // SK 전용 이벤트 루프/커넥션 풀 (서버·Redis 의 기본 루프와 분리 — ExecutionLanes 참고)
+    private final List<LoopResources> loops = new CopyOnWriteArrayList<>();
+    private final List<ConnectionProvider> pools = new CopyOnWriteArrayList<>();
+
     @Bean
     public WebClient skTransitWebClient(SKTransitProperties props) {
+        LoopResources loop = LoopResources.create("sk-http", Math.max(1, props.getEventLoopThreads()), true);
+        ConnectionProvider pool = ConnectionProvider.builder("sk")
+                .maxConnections(Math.max(1, props.getMaxConnections()))
+                .pendingAcquireMaxCount(Math.max(1, props.getPendingAcquireMax()))
+                .pendingAcquireTimeout(Duration.ofMillis(props.getTimeoutMs()))
+                .metrics(true)
+                .build();
+        loops.add(loop);
+        pools.add(pool);
+
+        HttpClient http = HttpClient.create(pool)
+                .runOn(loop)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) Math.min(Integer.MAX_VALUE, props.getTimeoutMs()));
+
         return WebClient.builder()
                 .baseUrl(props.getBaseUrl()) // ✅ getter 사용
+                .clientConnector(new ReactorClientHttpConnector(http))
                 .defaultHeader("accept", "application/json")
                 .defaultHeader("content-type", "application/json")
                 .defaultHeader("appKey", props.getAppKey())
@@ -25,4 +54,10 @@ public class WebClientConfig {
                 )
                 .build();
     }
+
+    @PreDestroy
+    public void disposeSkResources() {
+        pools.forEach(ConnectionProvider::dispose);
+        loops.forEach(LoopResources::dispose);
+    }
 }
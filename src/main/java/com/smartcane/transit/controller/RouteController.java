@@ -1,18 +1,33 @@
 package com.smartcane.transit.controller;
 
+import com.smartcane.transit.config.ExecutionLanes;
+import com.smartcane.transit.config.GuidanceProperties;
 import com.smartcane.transit.dto.request.*;
 import com.smartcane.transit.dto.response.*;
+import com.smartcane.transit.service.LastGuidanceCache;
 import com.smartcane.transit.service.RouteProgressService;
 import com.smartcane.transit.service.RouteService;
+import com.smartcane.transit.service.TripAdmission;
 import com.smartcane.transit.service.TripState;
 import com.smartcane.transit.service.TripStore;
+import com.smartcane.transit.service.plan.PlanRegistry;
+import com.smartcane.transit.service.prewarm.PlanPrewarmer;
+import com.smartcane.transit.service.station.StationIndex;
+import com.smartcane.transit.service.watch.TripEventBus;
+import com.smartcane.transit.service.watch.TripTransition;
+import com.smartcane.transit.service.watch.TripWatchService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/transit") // ✅ 초기 설계에 맞춘 베이스 경로
@@ -22,6 +37,15 @@ public class RouteController {
     private final RouteService routeService;
     private final RouteProgressService progressService;
     private final TripStore tripStore; // 상태 조회용 (InMemoryTripStore → 이후 Redis 교체)
+    private final StationIndex stationIndex; // 주변 정류장 검색용 공간 인덱스
+    private final PlanRegistry planRegistry; // tripId → 공유(인터닝)된 경로 계획
+    private final GuidanceProperties props;
+    private final PlanPrewarmer planPrewarmer; // 반복 OD 예열 계획 조회 + OD 이력 기록
+    private final ExecutionLanes lanes; // cpu / io 실행 레인 (bulkhead)
+    private final LastGuidanceCache lastGuidanceCache; // 정지/중복 fix 빠른 경로 (이벤트로 phase 가 바뀌면 무효화)
+    private final TripAdmission admission; // 트립별 업링크 입장 제어 (종료된 트립은 정리)
+    private final TripEventBus tripEventBus; // 상태 전이 팬아웃 (이벤트 업링크로 바뀐 phase 도 알림)
+    private final TripWatchService tripWatchService; // 보호자/운영자용 상태 구독 스트림
 
 
     /**
@@ -42,11 +66,25 @@ public class RouteController {
     public Mono<RoutePlanInitResponse> plan(@RequestBody RoutePlanRequest query) {
         String tripId = UUID.randomUUID().toString(); // 서버 발급 tripId
 
-        return routeService.searchRoutes(query)      // Mono<SkTransitRootDto>
+        // 자주 가는 OD 는 스케줄러가 미리 받아 둔 계획을 바로 사용 (SK 왕복 생략)
+        SkTransitRootDto prewarmed = planPrewarmer.cached(query);
+        planPrewarmer.record(query);
+        Mono<SkTransitRootDto> routes = prewarmed != null
+                ? Mono.just(prewarmed)
+                : routeService.searchRoutes(query);
+
+        return routes                                // Mono<SkTransitRootDto>
+                // 등록 후처리(인터닝/정류장 수집/ETA 누적합/트립 초기화)는 SK 이벤트 루프 대신 io 레인에서
+                .publishOn(lanes.ioScheduler())
                 .map((SkTransitRootDto root) -> {
                     // ✅ 이 시점의 root.metaData().plan().itineraries() 는
                     //    이미 "버스 우선 → 지하철+버스" 로 필터된 상태
-                    SkTransitRootDto.MetaDataDto meta = root.metaData();
+                    // 계획 등록: 같은 노선의 정류장/형상은 트립 간 공유 인스턴스로 치환됨
+                    //          (목적지 ETA 용 itinerary 누적합도 이때 함께 계산)
+                    SkTransitRootDto.MetaDataDto meta = planRegistry.register(tripId, root.metaData());
+
+                    // 응답에 포함된 정류장을 주변 정류장 인덱스에 누적
+                    stationIndex.harvest(meta);
 
                     // 초기 Trip 상태 등록 (보행 시작 기준)
                     tripStore.init(tripId, 0, 0, 0, "WALKING");
@@ -59,12 +97,26 @@ public class RouteController {
     /**
      * POST /api/transit/trips/{tripId}/progress
      * - 진행상황 업링크: iOS 현재 위치/센서 → 안내/다음 타겟 응답
-     * - Redis 붙기 전까지는 ProgressUpdateEnvelope(metaData, progress)를 받는다.
+     * - ProgressUpdateEnvelope(metaData, progress)를 받는다.
+     *   metaData 를 생략하면 /plan 때 등록된 계획(PlanRegistry)을 사용한다.
+     * - 마이크로 배칭이 켜져 있으면 수 ms 단위로 모아 같은 노선끼리 묶어 평가한다.
+     * - 이미 반영한 fix 보다 오래된 fix 는 409(STALE_FIX), 트립별 빈도 상한 초과는 429(TOO_MANY_FIXES).
      */
     @PostMapping("/trips/{tripId}/progress")
-    public GuidanceResponse progress(@PathVariable String tripId,
-                                     @RequestBody ProgressUpdateEnvelope req) {
-        return progressService.updateProgress(tripId, req);
+    public CompletableFuture<GuidanceResponse> progress(@PathVariable String tripId,
+                                                        @RequestBody ProgressUpdateEnvelope req) {
+        return progressService.updateProgressAsync(tripId, req);
+    }
+
+    /**
+     * POST /api/transit/trips/{tripId}/progress/rx
+     * - /progress 와 같은 판정, 상태 로드/저장을 ReactiveTripStore 로 하는 논블로킹 버전
+     * - reactive 프로파일(Reactor Netty)로 띄우면 요청 수신부터 Redis I/O 까지 스레드를 점유하지 않는다.
+     */
+    @PostMapping("/trips/{tripId}/progress/rx")
+    public Mono<GuidanceResponse> progressReactive(@PathVariable String tripId,
+                                                   @RequestBody ProgressUpdateEnvelope req) {
+        return progressService.updateProgressReactive(tripId, req);
     }
 
     /**
@@ -72,9 +124,26 @@ public class RouteController {
      * - 현재 Trip 상태 조회(디버깅/복구용)
      */
     @GetMapping("/trips/{tripId}")
-    public ResponseEntity<TripState> getTrip(@PathVariable String tripId) {
-        TripState state = tripStore.load(tripId);
-        return (state != null) ? ResponseEntity.ok(state) : ResponseEntity.notFound().build();
+    public Mono<ResponseEntity<TripState>> getTrip(@PathVariable String tripId) {
+        // 블로킹 저장소 읽기는 io 레인에서 (reactive 프로파일에서 이벤트 루프를 막지 않게)
+        return Mono.fromCallable(() -> tripStore.load(tripId))
+                .subscribeOn(lanes.ioScheduler())
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * GET /api/transit/trips/{tripId}/events
+     * - 보호자/운영자용 실시간 상태 구독 (SSE, text/event-stream)
+     * - 첫 이벤트는 현재 상태(SNAPSHOT), 이후 PHASE / LEG / STEP / ARRIVAL 전이를 일어날 때만 보낸다.
+     * - 어느 노드로 붙어도 된다 (redis 프로파일: 노드당 pub/sub 연결 하나에 다중화).
+     * - 없는 트립은 404. 존재 확인은 스트림의 스냅샷 읽기로 하므로 요청 스레드에서 저장소를 읽지 않는다.
+     */
+    @GetMapping(value = "/trips/{tripId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Mono<ResponseEntity<Flux<ServerSentEvent<TripTransition>>>> watchTrip(@PathVariable String tripId) {
+        return tripWatchService.open(tripId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
     /**
@@ -83,12 +152,19 @@ public class RouteController {
      * - 최소 구현: phase 업데이트 정도만 처리(향후 고도화)
      */
     @PostMapping("/trips/{tripId}/event")
-    public ResponseEntity<Void> pushEvent(@PathVariable String tripId,
-                                          @RequestBody TripEventRequest event) {
+    public Mono<ResponseEntity<Void>> pushEvent(@PathVariable String tripId,
+                                                @RequestBody TripEventRequest event) {
+        // 로드/저장은 블로킹 TripStore 라 io 레인에서 (reactive 프로파일에서 이벤트 루프를 막지 않게)
+        return Mono.fromCallable(() -> applyEvent(tripId, event))
+                .subscribeOn(lanes.ioScheduler());
+    }
+
+    private ResponseEntity<Void> applyEvent(String tripId, TripEventRequest event) {
         TripState state = tripStore.load(tripId);
         if (state == null) return ResponseEntity.notFound().build();
 
         // 간단한 상태 전이(예시). 실제 전이는 RouteProgressService로 이동 가능.
+        String prevPhase = state.getPhase();
         switch (event.type()) {
             case "BOARD" -> state.setPhase("ONBOARD");
             case "ALIGHT" -> state.setPhase("TRANSFER");
@@ -97,21 +173,34 @@ public class RouteController {
             case "CANCEL" -> state.setPhase("CANCELLED");
             default -> { /* no-op */ }
         }
+        boolean changed = !Objects.equals(prevPhase, state.getPhase());
+        if (changed) state.setTransitionSeq(state.getTransitionSeq() + 1);
         tripStore.save(tripId, state);
+        lastGuidanceCache.invalidate(tripId);
+        if (changed) {
+            tripEventBus.publish(new TripTransition(tripId, "PHASE", state.getPhase(), state.getItineraryIndex(),
+                    state.getLegIndex(), state.getStepIndex(), System.currentTimeMillis(), state.getTransitionSeq()));
+        }
+        if ("ARRIVED".equals(state.getPhase()) || "CANCELLED".equals(state.getPhase())) {
+            admission.forget(tripId);
+        }
         return ResponseEntity.ok().build();
     }
 
     /**
      * GET /api/transit/stops/nearby
      * - 반경 내 정류장/역 검색(보조)
-     * - 현재는 스텁: 추후 SK 주변정류장/역 조회 API 연동
+     * - SK 호출 없이 인메모리 공간 인덱스(StationIndex)에서 조회, 거리 오름차순
+     * - 좌표가 유한값이 아니거나 |lat| >= 85 이면 400, 반경은 nearbyStopsMaxRadiusM 으로 자름
      */
     @GetMapping("/stops/nearby")
-    public ResponseEntity<Void> nearbyStops(@RequestParam double lon,
-                                            @RequestParam double lat,
-                                            @RequestParam(defaultValue = "150") double radiusM) {
-        // TODO: SK 주변 정류장/역 검색 API 연동 후 DTO로 응답
-        return ResponseEntity.status(501).build(); // Not Implemented
+    public ResponseEntity<List<NearbyStopResponse>> nearbyStops(@RequestParam double lon,
+                                                                @RequestParam double lat,
+                                                                @RequestParam(defaultValue = "150") double radiusM,
+                                                                @RequestParam(required = false) Integer limit) {
+        if (!StationIndex.isQueryable(lat, lon) || !(radiusM >= 0)) return ResponseEntity.badRequest().build();
+        int max = (limit != null && limit > 0) ? limit : props.getNearbyStopsLimit();
+        return ResponseEntity.ok(stationIndex.nearby(lat, lon, radiusM, max));
     }
 
     // ------------------------------
@@ -0,0 +1,60 @@
+package com.smartcane.transit.controller;
+
+import com.smartcane.transit.dto.response.TripIdListResponse;
+import com.smartcane.transit.service.RedisTripIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 운영자용 트립 id 조회/일괄 정리 (redis 프로파일).
+ * 트립 id 는 조회·구독·취소의 유일한 자격이므로, id 를 돌려주거나 상태를 지우는 작업은 공개 /api/transit 대신
+ * 관리 포트(management.server.port)의 actuator 로만 노출한다. 공개 쪽(TripOpsController)은 수만 준다.
+ *
+ * GET  /actuator/tripindex/{phase}?limit=100      해당 phase 트립 수 + id 최대 limit 개
+ * GET  /actuator/tripindex?minutes=5&limit=100    minutes 분 넘게 업링크가 없는 트립 수 + 오래된 순 id
+ * POST /actuator/tripindex  {"minutes": 30}       minutes 분 넘게 조용한 트립의 상태와 인덱스 항목 삭제
+ */
+@Component
+@Endpoint(id = "tripindex")
+@Profile("redis")
+@RequiredArgsConstructor
+public class TripIndexEndpoint {
+
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 10_000;
+
+    private final RedisTripIndex tripIndex;
+
+    @ReadOperation
+    public TripIdListResponse byPhase(@Selector String phase, @Nullable Integer limit) {
+        return new TripIdListResponse(tripIndex.countInPhase(phase), tripIndex.tripsInPhase(phase, clamp(limit)));
+    }
+
+    @ReadOperation
+    public TripIdListResponse silent(@Nullable Long minutes, @Nullable Integer limit) {
+        long cutoff = System.currentTimeMillis() - (minutes != null ? minutes : 5) * 60_000L;
+        return new TripIdListResponse(tripIndex.countSilentSince(cutoff), tripIndex.silentSince(cutoff, clamp(limit)));
+    }
+
+    @WriteOperation
+    public Map<String, Long> sweep(long minutes) {
+        if (minutes < 1) {
+            throw new InvalidEndpointRequestException("minutes must be >= 1", "minutes 는 1 이상이어야 합니다");
+        }
+        long cutoff = System.currentTimeMillis() - minutes * 60_000L;
+        return Map.of("removed", tripIndex.sweep(cutoff, true));
+    }
+
+    private static int clamp(Integer limit) {
+        return Math.max(1, Math.min(limit != null ? limit : DEFAULT_LIMIT, MAX_LIMIT));
+    }
+}
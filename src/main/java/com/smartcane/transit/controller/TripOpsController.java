@@ -0,0 +1,31 @@
+package com.smartcane.transit.controller;
+
+import com.smartcane.transit.dto.response.TripIndexSummaryResponse;
+import com.smartcane.transit.service.RedisTripIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 운영자용 활성 트립 집계 (redis 프로파일).
+ * RedisTripIndex 보조 인덱스만 읽어서 트립 수가 수백만이어도 KEYS/SCAN 없이 답한다.
+ * 트립 id 목록과 일괄 정리는 id 가 곧 자격이라 관리 포트의 actuator(TripIndexEndpoint)에만 있다.
+ */
+@RestController
+@RequestMapping("/api/transit/ops/trips")
+@Profile("redis")
+@RequiredArgsConstructor
+public class TripOpsController {
+
+    private final RedisTripIndex tripIndex;
+
+    /**
+     * GET /api/transit/ops/trips
+     * - 활성 트립 수와 phase 별 트립 수 (예: ONBOARD 몇 명). 트립 id 는 돌려주지 않는다.
+     */
+    @GetMapping
+    public ResponseEntity<TripIndexSummaryResponse> summary() {
+        return ResponseEntity.ok(new TripIndexSummaryResponse(tripIndex.activeCount(), tripIndex.countByPhase()));
+    }
+}
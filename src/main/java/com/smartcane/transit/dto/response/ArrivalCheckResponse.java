@@ -11,5 +11,6 @@ public record ArrivalCheckResponse(
 
         // 👇 새로 추가
         Integer currentStationIndex,  // 현재 위치에서 가장 가까운 정류장 index
-        Integer stopsLeft             // 도착 정류장까지 남은 정거장 수
+        Integer stopsLeft,            // 도착 정류장까지 남은 정거장 수
+        double legRemainingMeters     // 현재 leg 끝까지 남은 거리 (보행은 남은 step 포함, 목적지 ETA 용)
 ) {}
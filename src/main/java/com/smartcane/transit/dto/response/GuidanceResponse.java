@@ -6,6 +6,10 @@ public record GuidanceResponse(
         int legIndex,
         String phase,             // WALKING/ONBOARD/TRANSFER/ARRIVED...
         String tts,     // 음성 안내 문구
-        double distanceToTargetM,  // 남은 거리
-        Integer etaToTargetSec // 선택
+        double distanceToTargetM,  // 남은 거리 (현재 step/leg 판단 지점까지)
+        Integer etaToTargetSec,    // 목적지까지 예상 소요(초)
+        Integer nextUplinkAfterMs, // 권고: 이 시간이 지나거나
+        Double nextUplinkAfterM,   //       이 거리만큼 이동하면 다음 업링크 (먼저 오는 쪽)
+        Integer stopsLeft,         // 탑승 중: 하차 정류장까지 남은 정거장 수 (보행 중 null)
+        Double remainingToDestinationM // 목적지까지 남은 전체 거리
 ) {}
@@ -0,0 +1,12 @@
+package com.smartcane.transit.dto.response;
+
+/**
+ * GET /api/transit/stops/nearby 응답 항목 (거리 오름차순)
+ */
+public record NearbyStopResponse(
+        String stationId,
+        String stationName,
+        double lat,
+        double lon,
+        double distanceM
+) {}
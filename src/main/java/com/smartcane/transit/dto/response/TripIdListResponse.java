@@ -0,0 +1,11 @@
+package com.smartcane.transit.dto.response;
+
+import java.util.List;
+
+/**
+ * 운영 조회용 트립 목록 응답 (count = 전체 수, tripIds = 그중 최대 limit 개)
+ */
+public record TripIdListResponse(
+        long count,
+        List<String> tripIds
+) {}
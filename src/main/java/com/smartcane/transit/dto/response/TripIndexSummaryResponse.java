@@ -0,0 +1,11 @@
+package com.smartcane.transit.dto.response;
+
+import java.util.Map;
+
+/**
+ * GET /api/transit/ops/trips 응답 (redis 프로파일, 보조 인덱스 기준)
+ */
+public record TripIndexSummaryResponse(
+        long active,                 // 인덱스에 있는 트립 수
+        Map<String, Long> byPhase    // phase → 트립 수
+) {}
@@ -0,0 +1,23 @@
+package com.smartcane.transit.exception;
+
+/**
+ * 진행 업링크 fix 를 판정 전에 거절했을 때 (TripAdmission / ProgressCoordinator).
+ *
+ * - STALE        : 이미 반영한 fix 보다 오래된 timestampEpochMs (재전송/순서 뒤바뀜) → 409
+ * - RATE_LIMITED : 트립별 업링크 빈도 상한 초과 → 429
+ */
+public class FixRejectedException extends RuntimeException {
+
+    public enum Reason { STALE, RATE_LIMITED }
+
+    private final Reason reason;
+
+    public FixRejectedException(Reason reason, String tripId, String detail) {
+        super("fix 거절 (" + reason + ", " + tripId + "): " + detail);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -18,6 +19,46 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(PlanNotFoundException.class)
+    public ResponseEntity<?> handlePlanNotFound(PlanNotFoundException e) {
+        return ResponseEntity.badRequest().body(
+                Map.of("error", "PLAN_NOT_FOUND", "message", e.getMessage())
+        );
+    }
+
+    @ExceptionHandler(SkCallRejectedException.class)
+    public ResponseEntity<?> handleSkRejected(SkCallRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(Map.of("error", "SK_BUSY", "message", e.getMessage()));
+    }
+
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<?> handleOverloaded(OverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(Map.of("error", "OVERLOADED", "message", e.getMessage()));
+    }
+
+    /** ExecutionLanes(io 레인) 포화 */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<?> handleLaneRejected(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(Map.of("error", "OVERLOADED", "message", String.valueOf(e.getMessage())));
+    }
+
+    @ExceptionHandler(FixRejectedException.class)
+    public ResponseEntity<?> handleFixRejected(FixRejectedException e) {
+        if (e.getReason() == FixRejectedException.Reason.RATE_LIMITED) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", "1")
+                    .body(Map.of("error", "TOO_MANY_FIXES", "message", e.getMessage()));
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "STALE_FIX", "message", e.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleAny(Exception e) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
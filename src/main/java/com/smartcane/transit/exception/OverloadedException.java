@@ -0,0 +1,19 @@
+package com.smartcane.transit.exception;
+
+/**
+ * 내부 대기열/실행 레인이 가득 차서 요청을 받지 못했을 때 → 503 (Retry-After).
+ * 호출 스레드에서 대신 처리하면 순서 보장/격리가 깨지므로 처리하지 않고 거절한다.
+ */
+public class OverloadedException extends RuntimeException {
+
+    private final String resource;
+
+    public OverloadedException(String resource, String detail) {
+        super(resource + " 포화: " + detail);
+        this.resource = resource;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+}
@@ -0,0 +1,19 @@
+package com.smartcane.transit.exception;
+
+/**
+ * 진행 업링크에 metaData 가 없고 /plan 등록 계획도 없을 때 (미등록/만료/축출) → 400.
+ * 클라이언트는 metaData 를 실어 다시 보내거나 /plan 부터 다시 한다.
+ */
+public class PlanNotFoundException extends RuntimeException {
+
+    private final String tripId;
+
+    public PlanNotFoundException(String tripId) {
+        super("경로 계획(metaData)이 없습니다: " + tripId);
+        this.tripId = tripId;
+    }
+
+    public String getTripId() {
+        return tripId;
+    }
+}
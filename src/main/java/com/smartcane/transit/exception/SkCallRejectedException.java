@@ -0,0 +1,20 @@
+package com.smartcane.transit.exception;
+
+import com.smartcane.transit.service.sk.SkCallPriority;
+
+/**
+ * SK 호출 스케줄러가 요청을 내보내지 못하고 버렸을 때 (대기열 초과 / 대기 기한 초과).
+ */
+public class SkCallRejectedException extends RuntimeException {
+
+    private final SkCallPriority priority;
+
+    public SkCallRejectedException(SkCallPriority priority, String reason) {
+        super("SK 호출 대기 중 취소됨 (" + priority + "): " + reason);
+        this.priority = priority;
+    }
+
+    public SkCallPriority getPriority() {
+        return priority;
+    }
+}
@@ -9,7 +9,7 @@ import org.springframework.stereotype.Component;
  *
  * - WALK : 남은 거리 위주로 안내
  * - BUS / SUBWAY : 이번 leg가 대중교통 구간인지에 따라 간단한 상태 안내
- *   (상세 "몇 정거장 남음"은 추후 ItineraryDto / TripState 확장 시 추가)
+ *   (탑승 중이고 stopsLeft 를 알면 "N 정거장 남음" 안내)
  */
 @Component
 public class GuidanceTextGenerator {
@@ -57,7 +57,21 @@ public class GuidanceTextGenerator {
             return String.format("다음 안내까지 약 %.0f미터 이동해 주세요.", remain);
         }
 
-        // 3) 버스 구간 안내
+        // 3) 탑승 중 남은 정거장 안내 (GPS 가 나빠도 시간표 추정값으로 채워짐)
+        if ("ONBOARD".equals(phase) && arrival.stopsLeft() != null
+                && ("BUS".equals(mode) || "SUBWAY".equals(mode))) {
+            String stop = "BUS".equals(mode) ? "정류장" : "역";
+            int left = arrival.stopsLeft();
+            if (left == 0) {
+                return String.format("곧 하차 %s입니다. 내릴 준비를 해 주세요.", stop);
+            }
+            if (left == 1) {
+                return String.format("다음 %s에서 하차합니다. 내릴 준비를 해 주세요.", stop);
+            }
+            return String.format("하차 %s까지 %d정거장 남았습니다.", stop, left);
+        }
+
+        // 4) 버스 구간 안내
         if ("BUS".equals(mode)) {
             return switch (phase) {
                 case "ONBOARD" ->
@@ -69,7 +83,7 @@ public class GuidanceTextGenerator {
             };
         }
 
-        // 4) 지하철 구간 안내
+        // 5) 지하철 구간 안내
         if ("SUBWAY".equals(mode)) {
             return switch (phase) {
                 case "ONBOARD" ->
@@ -81,7 +95,7 @@ public class GuidanceTextGenerator {
             };
         }
 
-        // 5) 그 외(확장용: 택시, KTX 등 들어올 때 커버)
+        // 6) 그 외(확장용: 택시, KTX 등 들어올 때 커버)
         return "경로를 따라 이동해 주세요.";
     }
 
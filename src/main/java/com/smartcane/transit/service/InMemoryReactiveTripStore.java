@@ -0,0 +1,32 @@
+package com.smartcane.transit.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * 로컬(비 redis) 프로파일용: InMemoryTripStore 를 그대로 감싼다 (메모리 접근이라 블로킹 없음).
+ */
+@Component
+@Profile("!redis")
+@RequiredArgsConstructor
+public class InMemoryReactiveTripStore implements ReactiveTripStore {
+
+    private final InMemoryTripStore delegate;
+
+    @Override
+    public Mono<Void> init(String tripId, int itineraryIndex, int legIndex, Integer stepIndex, String phase) {
+        return Mono.fromRunnable(() -> delegate.init(tripId, itineraryIndex, legIndex, stepIndex, phase));
+    }
+
+    @Override
+    public Mono<TripState> load(String tripId) {
+        return Mono.fromSupplier(() -> delegate.load(tripId));
+    }
+
+    @Override
+    public Mono<Void> save(String tripId, TripState state) {
+        return Mono.fromRunnable(() -> delegate.save(tripId, state));
+    }
+}
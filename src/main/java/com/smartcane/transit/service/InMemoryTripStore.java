@@ -1,26 +1,58 @@
 package com.smartcane.transit.service;
 
+import com.smartcane.transit.util.jfr.TripStoreEvent;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 @Component
+@Profile("!redis") // redis 프로파일에서는 RedisTripStore 사용
 public class InMemoryTripStore implements TripStore {
     private final Map<String, TripState> store = new ConcurrentHashMap<>();
 
     @Override
     public void init(String tripId, int itineraryIndex, int legIndex, Integer stepIndex, String phase) {
+        TripStoreEvent event = new TripStoreEvent();
+        event.begin();
         store.put(tripId, new TripState(tripId, itineraryIndex, legIndex, stepIndex, phase));
+        commit(event, "init", tripId, true);
     }
 
     @Override
     public TripState load(String tripId) {
-        return store.get(tripId);
+        TripStoreEvent event = new TripStoreEvent();
+        event.begin();
+        TripState state = store.get(tripId);
+        commit(event, "load", tripId, state != null);
+        return state;
     }
 
     @Override
     public void save(String tripId, TripState state) {
+        TripStoreEvent event = new TripStoreEvent();
+        event.begin();
         store.put(tripId, state);
+        commit(event, "save", tripId, true);
+    }
+
+    /** 스냅샷용 전체 순회 (TripSnapshotService) */
+    public void forEach(BiConsumer<String, TripState> action) {
+        store.forEach(action);
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    private static void commit(TripStoreEvent event, String operation, String tripId, boolean found) {
+        if (!event.shouldCommit()) return;
+        event.store = "memory";
+        event.operation = operation;
+        event.tripId = tripId;
+        event.found = found;
+        event.commit();
     }
 }
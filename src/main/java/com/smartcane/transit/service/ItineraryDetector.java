@@ -0,0 +1,129 @@
+package com.smartcane.transit.service;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.geometry.PreparedGeometryCache;
+import com.smartcane.transit.service.geometry.PreparedLeg;
+import com.smartcane.transit.util.PolylineSnapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 후보 itinerary 자동 판별기.
+ *
+ * - /plan 은 여러 itinerary 를 내려주지만 사용자가 실제로 어느 버스를 탔는지는 모른다.
+ * - 매 fix 마다 모든 후보 itinerary 의 "활성 leg" 에 증분 스냅하고,
+ *   스냅 거리로 가우시안 로그우도를 계산해 후보별 점수(지수 감쇠 누적)를 유지한다.
+ * - 현재 추적 중인 후보보다 다른 후보의 점수가 switchMargin 이상 높아지면 itineraryIndex 를 전환한다.
+ * - 후보 정점 수 합이 크면 후보별 스냅을 병렬로 수행한다.
+ *
+ * 후보별 상태(점수/활성 leg/스냅 커서)는 TripState 에 저장된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItineraryDetector {
+
+    private final PreparedGeometryCache geometryCache;
+    private final GuidanceProperties props;
+
+    /**
+     * @return itineraryIndex 를 전환했으면 true
+     */
+    public boolean observe(TripState state, List<SkTransitRootDto.ItineraryDto> itineraries, double lat, double lon) {
+        int n = itineraries.size();
+        if (!props.isItineraryDetectionEnabled() || n < 2) return false;
+
+        ensureCandidates(state, n);
+        double[] scores = state.getCandidateScores();
+        int[] legs = state.getCandidateLegs();
+        int[] cursors = state.getCandidateSegments();
+
+        int current = Math.max(0, Math.min(state.getItineraryIndex(), n - 1));
+        if (legs[current] != state.getLegIndex()) {
+            legs[current] = state.getLegIndex();   // 추적 중인 후보는 실제 진행 상태와 동기화
+            cursors[current] = -1;
+        }
+
+        // 1) 후보별 활성 leg 스냅 (정점이 많으면 병렬)
+        int vertices = 0;
+        for (int c = 0; c < n; c++) {
+            PreparedLeg leg = activeLeg(itineraries.get(c), legs[c]);
+            if (leg != null) vertices += leg.path().vertexCount();
+        }
+        IntStream candidates = IntStream.range(0, n);
+        if (vertices >= props.getItineraryDetectionParallelMinVertices()) {
+            candidates = candidates.parallel();
+        }
+        candidates.forEach(c -> updateCandidate(itineraries.get(c), c, scores, legs, cursors, lat, lon));
+
+        // 2) 지배적인 후보가 있으면 전환
+        int best = current;
+        for (int c = 0; c < n; c++) {
+            if (scores[c] > scores[best]) best = c;
+        }
+        if (best == current || scores[best] - scores[current] < props.getItineraryDetectionSwitchMargin()) {
+            return false;
+        }
+
+        var leg = itineraries.get(best).legs().get(Math.max(0, legs[best]));
+        boolean walk = leg.mode() == null || "WALK".equalsIgnoreCase(leg.mode());
+        state.setItineraryIndex(best);
+        state.setLegIndex(legs[best]);
+        state.setStepIndex(walk ? 0 : null);
+        state.setArrivalStreak(0);
+        return true;
+    }
+
+    private void updateCandidate(SkTransitRootDto.ItineraryDto itin, int c,
+                                 double[] scores, int[] legs, int[] cursors,
+                                 double lat, double lon) {
+        PreparedLeg leg = activeLeg(itin, legs[c]);
+        int legIndex = Math.max(0, Math.min(legs[c], itin.legs().size() - 1));
+
+        double z;
+        if (leg == null || leg.path().isEmpty()) {
+            z = 2.0; // 형상 정보 없음: 중립에 가까운 약한 패널티
+        } else {
+            PolylineSnapper.SnapResult snap = leg.path().snapNear(lat, lon, cursors[c],
+                    props.getSnapWindowSegments(), props.getSnapRecoverDistanceM());
+            double d = snap.distanceToPolyline;
+            int cursor = snap.segmentIndex;
+
+            // leg 끝 근처면 다음 leg 도 확인해 더 가까우면 후보의 활성 leg 를 전진
+            if (legIndex + 1 < itin.legs().size()
+                    && leg.path().length() - snap.snappedMetersFromStart <= props.getArriveRadiusTransitM()) {
+                PreparedLeg next = geometryCache.leg(itin.legs().get(legIndex + 1));
+                if (!next.path().isEmpty()) {
+                    PolylineSnapper.SnapResult ns = next.path().snap(lat, lon);
+                    if (ns.distanceToPolyline < d) {
+                        legIndex++;
+                        d = ns.distanceToPolyline;
+                        cursor = ns.segmentIndex;
+                    }
+                }
+            }
+            legs[c] = legIndex;
+            cursors[c] = cursor;
+            z = Math.min(d / props.getItineraryDetectionSigmaM(), props.getItineraryDetectionMaxZ());
+        }
+        scores[c] = props.getItineraryDetectionDecay() * scores[c] - 0.5 * z * z;
+    }
+
+    private PreparedLeg activeLeg(SkTransitRootDto.ItineraryDto itin, int legIndex) {
+        if (itin.legs() == null || itin.legs().isEmpty()) return null;
+        int li = Math.max(0, Math.min(legIndex, itin.legs().size() - 1));
+        return geometryCache.leg(itin.legs().get(li));
+    }
+
+    private static void ensureCandidates(TripState state, int n) {
+        if (state.getCandidateScores() != null && state.getCandidateScores().length == n) return;
+        state.setCandidateScores(new double[n]);
+        state.setCandidateLegs(new int[n]);
+        int[] cursors = new int[n];
+        java.util.Arrays.fill(cursors, -1);
+        state.setCandidateSegments(cursors);
+    }
+}
@@ -0,0 +1,110 @@
+package com.smartcane.transit.service;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.ProgressUpdateRequest;
+import com.smartcane.transit.dto.response.GuidanceResponse;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.util.GeoUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 트립별 마지막 판정 결과 캐시 (정지/중복 fix 빠른 경로).
+ *
+ * - 같은 timestampEpochMs 로 다시 온 fix(클라이언트 재전송)는 위치와 관계없이 직전 응답을 그대로 돌려준다.
+ * - 직전 판정 fix 에서 stationaryMaxMoveM 미만으로 움직였고 stationaryMaxAgeMs 안이면 역시 직전 응답을 쓴다.
+ *   기준 시각은 마지막으로 "판정한" fix 라서, 계속 서 있어도 maxAge 마다 한 번은 실제로 판정한다.
+ *   시각 비교는 양쪽 모두 클라이언트 timestampEpochMs 일 때만 한다 — 서버 시각과 클라이언트 시각을 섞으면
+ *   시계 차만큼 maxAge 가 늘거나 줄어드므로, 어느 한쪽이라도 timestamp 가 없으면 정지 빠른 경로를 쓰지 않는다.
+ * - 도착 히스테리시스가 진행 중(arrivalStreak > 0)이던 판정은 재사용하지 않는다 (도착 확정이 늦어지지 않게).
+ * - 노드 로컬 캐시다. 다른 노드가 더 최근 fix 를 처리했다면 시각 차가 maxAge 를 넘어 자연히 판정 경로로 간다.
+ * - 크기 상한(stationaryCacheMaxEntries)을 넘으면 일부를 비워 근사적으로 제한한다.
+ * - 계획이 바뀌었는지는 계획 전체를 비교하지 않고 판별한다: 등록 계획은 같은 인스턴스(==),
+ *   업링크에 매번 새로 실려 오는 계획은 SK 요청 파라미터(출발/도착 좌표, 요청 시각 — 사실상 계획 id)로 본다.
+ */
+@Component
+@RequiredArgsConstructor
+public class LastGuidanceCache implements MeterBinder {
+
+    private record Entry(SkTransitRootDto.MetaDataDto meta, SkTransitRootDto.RequestParametersDto planKey,
+                         double lat, double lon, Long clientTs, boolean settled,
+                         GuidanceResponse response) {}
+
+    private final GuidanceProperties props;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+
+    /** 재사용할 수 있으면 직전 응답, 아니면 null */
+    public GuidanceResponse reuse(String tripId, SkTransitRootDto.MetaDataDto meta, ProgressUpdateRequest p) {
+        if (!props.isStationaryFastPathEnabled() || meta == null) return null;
+        Entry e = entries.get(tripId);
+        // 계획이 바뀌었으면(재탐색) 판정부터 다시
+        if (e == null || !samePlan(e, meta)) return null;
+
+        if (p.timestampEpochMs() != null && p.timestampEpochMs().equals(e.clientTs())) {
+            hits.incrementAndGet();
+            return e.response();
+        }
+        if (!e.settled() || p.timestampEpochMs() == null || e.clientTs() == null) return null;
+        if (p.timestampEpochMs() - e.clientTs() > props.getStationaryMaxAgeMs()) return null;
+        if (GeoUtils.planarDistance(e.lat(), e.lon(), p.lat(), p.lon()) >= props.getStationaryMaxMoveM()) return null;
+
+        hits.incrementAndGet();
+        return e.response();
+    }
+
+    /** 실제 판정 직후 호출 (settled = 도착 히스테리시스 대기 없음) */
+    public void remember(String tripId, SkTransitRootDto.MetaDataDto meta, ProgressUpdateRequest p,
+                         boolean settled, GuidanceResponse response) {
+        if (!props.isStationaryFastPathEnabled()) return;
+        if (!entries.containsKey(tripId) && entries.size() >= props.getStationaryCacheMaxEntries()) {
+            evictSome();
+        }
+        entries.put(tripId, new Entry(meta, meta != null ? meta.requestParameters() : null,
+                p.lat(), p.lon(), p.timestampEpochMs(), settled, response));
+    }
+
+    private static boolean samePlan(Entry e, SkTransitRootDto.MetaDataDto meta) {
+        if (e.meta() == meta) return true;
+        return e.planKey() != null && e.planKey().equals(meta.requestParameters());
+    }
+
+    /** 이벤트 등으로 상태가 판정 밖에서 바뀌었을 때 */
+    public void invalidate(String tripId) {
+        entries.remove(tripId);
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** 약 1/8 을 비운다 (정확한 LRU 대신 핫패스 경합이 없는 근사 제한) */
+    private void evictSome() {
+        int toRemove = Math.max(1, entries.size() / 8);
+        Iterator<String> it = entries.keySet().iterator();
+        while (toRemove-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartcane.progress.fastpath.hits", hits, AtomicLong::get)
+                .description("판정 없이 직전 응답을 재사용한 정지/중복 fix 수")
+                .register(registry);
+        Gauge.builder("smartcane.progress.fastpath.entries", entries, Map::size).register(registry);
+    }
+}
@@ -7,16 +7,30 @@ import com.smartcane.transit.dto.request.ProgressUpdateRequest;
 import com.smartcane.transit.dto.response.ArrivalCheckResponse;
 import com.smartcane.transit.dto.response.GuidanceResponse;
 import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.exception.FixRejectedException;
+import com.smartcane.transit.exception.PlanNotFoundException;
 import com.smartcane.transit.service.arrival.TransitArrivalService;
 import com.smartcane.transit.service.arrival.WalkArrivalService;
+import com.smartcane.transit.service.geometry.PreparedItinerary;
+import com.smartcane.transit.service.plan.PlanRegistry;
+import com.smartcane.transit.service.watch.TripEventBus;
+import com.smartcane.transit.service.watch.TripTransition;
+import com.smartcane.transit.util.GeoUtils;
+import com.smartcane.transit.util.jfr.ArrivalDecisionEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * 진행 업데이트의 오케스트레이션 레이어.
  * - TripState 로드/초기화/저장
  * - 현재 Leg의 모드에 따라 적절한 도착판정 서비스(Walk/Transit) 호출
  * - ArrivalCheckResponse를 기반으로 상태 전이 및 TTS 생성
+ * - phase/leg/step/도착 전이는 TripEventBus 로 구독자에게 알린다
+ * - 거의 움직이지 않았거나 재전송된 fix 는 LastGuidanceCache 의 직전 응답으로 바로 답한다
  */
 @Service
 @RequiredArgsConstructor
@@ -27,6 +41,12 @@ public class ProgressCoordinator {
     private final WalkArrivalService walkArrivalService;
     private final TransitArrivalService transitArrivalService;
     private final GuidanceProperties props;
+    private final PlanRegistry planRegistry;
+    private final ItineraryDetector itineraryDetector;
+    private final UplinkAdvisor uplinkAdvisor;
+    private final TripEtaEstimator tripEtaEstimator;
+    private final LastGuidanceCache lastGuidanceCache;
+    private final TripEventBus tripEventBus;
 
     /** 보행 구간 판정(테스트/디버깅용 공개) */
     public ArrivalCheckResponse checkWalkStep(SkTransitRootDto.ItineraryDto itin,
@@ -58,18 +78,116 @@ public class ProgressCoordinator {
      * - Envelope(metaData, progress) 수신 → 상태 로드 → 도착판정 → 상태전이 → TTS → 응답
      */
     public GuidanceResponse updateProgress(String tripId, ProgressUpdateEnvelope envelope) {
-        // metaData 타입: SkTransitRootDto.MetaDataDto
-        SkTransitRootDto.MetaDataDto meta = envelope.metaData();
-        ProgressUpdateRequest p = envelope.progress();
+        GuidanceResponse cached = cachedResponse(tripId, envelope);
+        if (cached != null) return cached;
+        SkTransitRootDto.MetaDataDto meta = resolvePlan(tripId, envelope);
+        TripState state = loadOrInit(tripId);
+        return advance(tripId, state, meta, envelope.progress());
+    }
 
-        // 1) 상태 로드/초기화
+    /** metaData 타입: SkTransitRootDto.MetaDataDto (생략 시 /plan 등록분 사용) */
+    public SkTransitRootDto.MetaDataDto resolvePlan(String tripId, ProgressUpdateEnvelope envelope) {
+        SkTransitRootDto.MetaDataDto meta = envelope.metaData() != null
+                ? envelope.metaData()
+                : planRegistry.find(tripId);
+        if (meta == null || meta.plan() == null || meta.plan().itineraries() == null
+                || meta.plan().itineraries().isEmpty()) {
+            throw new PlanNotFoundException(tripId);
+        }
+        return meta;
+    }
+
+    /**
+     * 정지/중복 fix 빠른 경로: 직전 판정 결과를 그대로 쓸 수 있으면 반환 (상태 로드/판정/저장 모두 생략).
+     * 계획을 찾을 수 없으면 null 을 돌려 정상 경로에서 오류를 내게 한다.
+     */
+    public GuidanceResponse cachedResponse(String tripId, ProgressUpdateEnvelope envelope) {
+        SkTransitRootDto.MetaDataDto meta = envelope.metaData() != null
+                ? envelope.metaData()
+                : planRegistry.find(tripId);
+        return lastGuidanceCache.reuse(tripId, meta, envelope.progress());
+    }
+
+    /** 1) 상태 로드/초기화 */
+    public TripState loadOrInit(String tripId) {
         TripState state = tripStore.load(tripId);
         if (state == null) {
             state = new TripState(tripId, 0, 0, null, "WALKING");
             tripStore.init(tripId, 0, 0, null, "WALKING");
         }
+        return state;
+    }
+
+    /** 1) 여러 트립 상태를 한 번에 로드, 없는 트립은 초기화 (마이크로 배치용) */
+    public Map<String, TripState> loadOrInitAll(Collection<String> tripIds) {
+        Map<String, TripState> states = new HashMap<>(tripStore.loadAll(tripIds));
+        for (String tripId : tripIds) {
+            if (!states.containsKey(tripId)) {
+                states.put(tripId, new TripState(tripId, 0, 0, null, "WALKING"));
+                tripStore.init(tripId, 0, 0, null, "WALKING");
+            }
+        }
+        return states;
+    }
 
-        // 2) 속도 게이팅: 너무 느리면(정지/튐) 샘플 반영을 보수적으로
+    /**
+     * 현재 추적 중인 leg (범위 밖이면 0번으로 보정한 위치 기준, 없으면 null).
+     * 인터닝된 계획이면 같은 노선을 타는 트립끼리 같은 인스턴스라 배치 그룹핑 키로 쓴다.
+     */
+    public static SkTransitRootDto.LegDto activeLeg(TripState state, SkTransitRootDto.MetaDataDto meta) {
+        var itineraries = meta.plan().itineraries();
+        int ii = (state.getItineraryIndex() < 0 || state.getItineraryIndex() >= itineraries.size())
+                ? 0 : state.getItineraryIndex();
+        var legs = itineraries.get(ii).legs();
+        if (legs == null || legs.isEmpty()) return null;
+        int li = (state.getLegIndex() < 0 || state.getLegIndex() >= legs.size()) ? 0 : state.getLegIndex();
+        return legs.get(li);
+    }
+
+    /**
+     * 이미 로드된 상태에 fix 1개를 반영하고 저장한다 (2~11 단계).
+     * 같은 트립의 fix 는 호출자가 순서대로, 동시에 하나씩만 넘겨야 한다.
+     */
+    public GuidanceResponse advance(String tripId, TripState state,
+                                    SkTransitRootDto.MetaDataDto meta, ProgressUpdateRequest p) {
+        GuidanceResponse res = evaluate(tripId, state, meta, p);
+        save(tripId, state);
+        return res;
+    }
+
+    /** 11) 상태 저장 (레인을 나눠 실행하는 호출자용) */
+    public void save(String tripId, TripState state) {
+        tripStore.save(tripId, state);
+    }
+
+    /**
+     * 순수 판정 단계: state 를 갱신하고 응답을 만든다. 저장소 I/O 는 하지 않는다
+     * (블로킹/리액티브 파이프라인이 각자 저장).
+     */
+    public GuidanceResponse evaluate(String tripId, TripState state,
+                                     SkTransitRootDto.MetaDataDto meta, ProgressUpdateRequest p) {
+        // 1-1) 저장된 상태보다 오래된 fix(다른 노드가 먼저 받은 최신 fix 포함)는 상태를 되돌리지 않게 거절
+        //      클라이언트 시계끼리만 비교한다 (timestamp 없이 온 fix 의 서버 시각과는 비교하지 않음)
+        if (p.timestampEpochMs() != null && state.getLastClientTs() > 0
+                && p.timestampEpochMs() < state.getLastClientTs()) {
+            throw new FixRejectedException(FixRejectedException.Reason.STALE, tripId,
+                    "timestamp " + p.timestampEpochMs() + " < lastClientTs " + state.getLastClientTs());
+        }
+        ArrivalDecisionEvent decision = new ArrivalDecisionEvent();
+        decision.begin();
+        long now = (p.timestampEpochMs() != null) ? p.timestampEpochMs() : System.currentTimeMillis();
+        String prevPhase = state.getPhase();
+        int prevItinerary = state.getItineraryIndex();
+        int prevLeg = state.getLegIndex();
+        Integer prevStep = state.getStepIndex();
+
+        // 2) 업링크 간격이 벌어졌으면(적응형 업링크) 이전 샘플은 위치가 너무 달라 중앙값 창을 비운다
+        if (state.getLastTs() > 0 && now - state.getLastTs() > props.getMedianMaxGapMs()) {
+            state.getLatBuf().clear();
+            state.getLonBuf().clear();
+        }
+
+        // 속도 게이팅: 너무 느리면(정지/튐) 샘플 반영을 보수적으로
         if (p.speedMps() != null && p.speedMps() < props.getMinSpeedMps()) {
             pushWithCap(state.getLatBuf(), p.lat(), props.getMedianWindow());
             pushWithCap(state.getLonBuf(), p.lon(), props.getMedianWindow());
@@ -86,8 +204,9 @@ public class ProgressCoordinator {
             lonMed = p.lon();
         }
 
-        // 4) 현재 Itinerary / Leg 인덱스 보정
+        // 4) (옵션) 후보 itinerary 자동 판별 → 현재 Itinerary / Leg 인덱스 보정
         var itineraries = meta.plan().itineraries();
+        itineraryDetector.observe(state, itineraries, latMed, lonMed);
         if (state.getItineraryIndex() < 0 || state.getItineraryIndex() >= itineraries.size()) {
             state.setItineraryIndex(0);
         }
@@ -126,7 +245,7 @@ public class ProgressCoordinator {
         // 7) 도착 판정
         ArrivalCheckResponse ares = isWalk
                 ? walkArrivalService.evaluate(itinerary, areq)
-                : transitArrivalService.evaluate(itinerary, areq);
+                : transitArrivalService.evaluate(itinerary, areq, state, now);
 
         // 8) 히스테리시스: 연속 N번 도착이어야 진짜 도착
         if (ares.arrived()) {
@@ -137,38 +256,119 @@ public class ProgressCoordinator {
         boolean arrivedStable = state.getArrivalStreak() >= props.getArrivalHysteresisN();
 
         Integer nextLeg = arrivedStable ? ares.nextLegIndex() : null;
-        Integer nextStep = arrivedStable ? ares.nextStepIndex() : null;
+        // 보행 step 전진은 leg 전체 스냅 기준이라 히스테리시스 없이 바로 반영 (여러 step 건너뛰기 가능)
+        Integer nextStep = ares.nextStepIndex();
 
         if (nextLeg != null) {
             int bounded = Math.min(nextLeg, Math.max(0, itinerary.legs().size() - 1));
+            if (bounded != state.getLegIndex()) {
+                // 새 leg 는 첫 step 부터 (대중교통은 step 없음)
+                var next = itinerary.legs().get(bounded);
+                boolean nextWalk = next.mode() == null || "WALK".equalsIgnoreCase(next.mode());
+                state.setStepIndex(nextWalk ? 0 : null);
+                state.setArrivalStreak(0);
+            }
             state.setLegIndex(bounded);
-        }
-        if (nextStep != null) {
+        } else if (nextStep != null) {
             state.setStepIndex(nextStep);
         }
 
         // 9) phase 업데이트
         state.setPhase(isWalk ? "WALKING" : "ONBOARD");
 
-        // 10) 최근 업링크 시각/좌표 업데이트
-        long now = (p.timestampEpochMs() != null) ? p.timestampEpochMs() : System.currentTimeMillis();
+        // 9-1) 구독자에게 전이 알림 (마지막 leg 도착은 히스테리시스를 처음 넘긴 순간 한 번)
+        boolean arrivedNow = arrivedStable && state.getArrivalStreak() == props.getArrivalHysteresisN();
+        String transition = transitionType(prevPhase, prevItinerary, prevLeg, prevStep, state, arrivedNow);
+        if (transition != null) {
+            state.setTransitionSeq(state.getTransitionSeq() + 1);
+            tripEventBus.publish(new TripTransition(tripId, transition, state.getPhase(),
+                    state.getItineraryIndex(), state.getLegIndex(), state.getStepIndex(), now,
+                    state.getTransitionSeq()));
+        }
+
+        // 10) 최근 업링크 시각/좌표 업데이트 (+ 평활 속도)
+        updateSmoothedSpeed(state, p, now, isWalk);
         state.setLastLon(p.lon());
         state.setLastLat(p.lat());
         state.setLastTs(now);
-
-        tripStore.save(tripId, state);
+        if (p.timestampEpochMs() != null) state.setLastClientTs(p.timestampEpochMs());
 
         // 11) 안내 문구 생성 (Sk DTO 기준 GuidanceTextGenerator)
         String tts = guidanceTextGenerator.from(ares, state, itinerary, currentLeg);
 
-        return new GuidanceResponse(
+        // 12) 다음 업링크 권고 (판단 지점까지 여유 + 평활 속도)
+        UplinkAdvisor.UplinkHint hint = uplinkAdvisor.advise(state.getPhase(), ares.remainingMeters(),
+                lookAhead != null ? lookAhead : 0, arriveRadius, state.getSmoothedSpeedMps());
+
+        // 13) 목적지까지 남은 거리/ETA (itinerary 누적합 + 현재 leg 남은 거리)
+        //     등록된 계획이면 등록 시 만든 누적합을 참조로 쓴다
+        PreparedItinerary prepared = planRegistry.prepared(tripId, meta, areq.itineraryIndex());
+        TripEtaEstimator.TripEta eta = prepared != null
+                ? tripEtaEstimator.estimate(prepared, areq.legIndex(), isWalk, ares.legRemainingMeters(), state)
+                : tripEtaEstimator.estimate(itinerary, areq.legIndex(), isWalk, ares.legRemainingMeters(), state);
+
+        GuidanceResponse res = new GuidanceResponse(
                 tripId,
                 state.getItineraryIndex(),
                 state.getLegIndex(),
                 state.getPhase(),
                 tts,
                 Math.max(0, ares.remainingMeters()),
-                null
+                eta != null ? eta.etaSec() : null,
+                hint.afterMs(),
+                hint.afterM(),
+                ares.stopsLeft(),
+                eta != null ? eta.remainingM() : null
         );
+        lastGuidanceCache.remember(tripId, meta, p, state.getArrivalStreak() == 0, res);
+
+        if (decision.shouldCommit()) {
+            decision.tripId = tripId;
+            decision.mode = mode;
+            decision.itineraryIndex = areq.itineraryIndex();
+            decision.legIndex = areq.legIndex();
+            decision.stepIndex = areq.stepIndex() != null ? areq.stepIndex() : -1;
+            decision.arrived = ares.arrived();
+            decision.arrivedStable = arrivedStable;
+            decision.remainingMeters = ares.remainingMeters();
+            decision.transition = transition;
+            decision.commit();
+        }
+        return res;
+    }
+
+    /** 가장 큰 변화 하나 (phase > leg > 도착 > step), 변화가 없으면 null */
+    private static String transitionType(String prevPhase, int prevItinerary, int prevLeg, Integer prevStep,
+                                         TripState state, boolean arrivedNow) {
+        if (!java.util.Objects.equals(prevPhase, state.getPhase())) return "PHASE";
+        if (prevItinerary != state.getItineraryIndex() || prevLeg != state.getLegIndex()) return "LEG";
+        if (arrivedNow) return "ARRIVAL";
+        if (!java.util.Objects.equals(prevStep, state.getStepIndex())) return "STEP";
+        return null;
+    }
+
+    /**
+     * 클라이언트 속도(없으면 직전 fix 와의 거리/시간)를 지수 평활.
+     * 보행 중 이동 샘플(minSpeedMps 이상)은 개인 보행 속도(ETA 용)에도 따로 반영한다.
+     */
+    private void updateSmoothedSpeed(TripState state, ProgressUpdateRequest p, long now, boolean walking) {
+        double sample;
+        if (p.speedMps() != null && p.speedMps() >= 0) {
+            sample = p.speedMps();
+        } else if (state.getLastTs() > 0 && now > state.getLastTs()) {
+            sample = GeoUtils.planarDistance(state.getLastLat(), state.getLastLon(), p.lat(), p.lon())
+                    / ((now - state.getLastTs()) / 1000.0);
+        } else {
+            return;
+        }
+        double alpha = props.getSpeedSmoothingAlpha();
+        state.setSmoothedSpeedMps(state.getLastTs() > 0
+                ? alpha * sample + (1 - alpha) * state.getSmoothedSpeedMps()
+                : sample);
+        if (walking && sample >= props.getMinSpeedMps()) {
+            state.setWalkSpeedMps(state.getWalkSpeedMps() > 0
+                    ? alpha * sample + (1 - alpha) * state.getWalkSpeedMps()
+                    : sample);
+        }
     }
 }
@@ -0,0 +1,42 @@
+package com.smartcane.transit.service;
+
+import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
+import com.smartcane.transit.dto.response.GuidanceResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * 논블로킹 진행 업링크 파이프라인: 상태 로드(I/O) → 판정(CPU) → 상태 저장(I/O).
+ *
+ * - I/O 는 ReactiveTripStore 로만 하고, 판정은 ProgressCoordinator.evaluate 를 그대로 재사용한다.
+ * - 정지/중복 fix 는 ProgressCoordinator.cachedResponse 로 Redis 왕복 없이 직전 응답을 돌려준다.
+ * - 판정은 수~수십 µs 라 Redis 응답을 받은 스레드(이벤트 루프)에서 바로 실행한다.
+ *   스레드를 점유한 채 기다리는 구간이 없어서 느린 모바일 연결이 수천 개여도 스레드 수가 늘지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveProgressCoordinator {
+
+    private final ProgressCoordinator coordinator;
+    private final ReactiveTripStore tripStore;
+
+    public Mono<GuidanceResponse> updateProgress(String tripId, ProgressUpdateEnvelope envelope) {
+        GuidanceResponse cached = coordinator.cachedResponse(tripId, envelope);
+        if (cached != null) return Mono.just(cached);
+        return Mono.fromCallable(() -> coordinator.resolvePlan(tripId, envelope))
+                .flatMap(meta -> loadOrInit(tripId)
+                        .flatMap(state -> {
+                            GuidanceResponse res = coordinator.evaluate(tripId, state, meta, envelope.progress());
+                            return tripStore.save(tripId, state).thenReturn(res);
+                        }));
+    }
+
+    private Mono<TripState> loadOrInit(String tripId) {
+        return tripStore.load(tripId)
+                .switchIfEmpty(Mono.defer(() -> {
+                    TripState fresh = new TripState(tripId, 0, 0, null, "WALKING");
+                    return tripStore.init(tripId, 0, 0, null, "WALKING").thenReturn(fresh);
+                }));
+    }
+}
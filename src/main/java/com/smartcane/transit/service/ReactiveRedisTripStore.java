@@ -0,0 +1,45 @@
+package com.smartcane.transit.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ReactiveRedisTemplate(Lettuce 논블로킹) 기반 TripStore.
+ * 키/TTL/직렬화 형식은 RedisTripStore 와 같아서 두 경로가 같은 상태를 읽고 쓴다.
+ * 저장은 RedisTripStore 와 같은 RedisTripIndex 스크립트를 써서 보조 인덱스도 함께 갱신한다.
+ */
+@Component
+@Profile("redis")
+@RequiredArgsConstructor
+public class ReactiveRedisTripStore implements ReactiveTripStore {
+
+    private final ReactiveRedisTemplate<String, TripState> reactiveTripRedisTemplate;
+    private final RedisTripIndex tripIndex;
+
+    private String key(String tripId) {
+        return RedisTripIndex.KEY_PREFIX + tripId;
+    }
+
+    @Override
+    public Mono<Void> init(String tripId, int itineraryIndex, int legIndex, Integer stepIndex, String phase) {
+        return save(tripId, new TripState(tripId, itineraryIndex, legIndex, stepIndex, phase));
+    }
+
+    @Override
+    public Mono<TripState> load(String tripId) {
+        return reactiveTripRedisTemplate.opsForValue().get(key(tripId));
+    }
+
+    @Override
+    public Mono<Void> save(String tripId, TripState state) {
+        ByteBuffer buf = reactiveTripRedisTemplate.getSerializationContext().getValueSerializationPair().write(state);
+        byte[] json = new byte[buf.remaining()];
+        buf.get(json);
+        return tripIndex.saveReactive(tripId, json, state.getPhase());
+    }
+}
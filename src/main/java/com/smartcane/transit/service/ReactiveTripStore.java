@@ -0,0 +1,13 @@
+package com.smartcane.transit.service;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * TripStore 의 논블로킹 버전 (/progress/rx 파이프라인용).
+ * - load 는 상태가 없으면 빈 Mono 를 돌려준다.
+ */
+public interface ReactiveTripStore {
+    Mono<Void> init(String tripId, int itineraryIndex, int legIndex, Integer stepIndex, String phase);
+    Mono<TripState> load(String tripId);
+    Mono<Void> save(String tripId, TripState state);
+}
@@ -0,0 +1,278 @@
+package com.smartcane.transit.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 활성 트립 보조 인덱스 (redis 프로파일). KEYS/SCAN 없이 운영 질의에 답한다.
+ *
+ * - trips:lastSeen          ZSET  tripId → 마지막 저장 시각(서버 ms). 클라이언트 시계가 틀어져도 정리 대상이 숨지 않게 서버 시각을 쓴다.
+ * - trips:phaseOf           HASH  tripId → 현재 phase (phase 가 바뀔 때 이전 집합에서 빼기 위함)
+ * - trips:phase:{PHASE}     SET   phase 별 tripId
+ * - trips:phases            SET   지금까지 나온 phase 이름 (집계 시 phase 목록)
+ *
+ * 저장은 trip:{id} SET 과 인덱스 갱신을 Lua 스크립트 하나로 묶어 원자적으로 처리한다
+ * (RedisTripStore / ReactiveRedisTripStore 공통). 스크립트가 건드리는 키는 모두 KEYS 로 넘긴다:
+ * 이전 phase 집합은 "phase 가 그대로" 라고 가정해 넘기고, 틀리면 스크립트가 아무것도 바꾸지 않고 실제 phase 를
+ * 돌려주므로 그 키로 한 번 더 보낸다 (평소 1 왕복, phase 가 바뀔 때만 2 왕복).
+ * trip:{id} 는 TTL 로 사라지므로, TTL 보다 오래 조용한 인덱스 항목은 스케줄 정리(sweepExpired)가 지운다.
+ */
+@Slf4j
+@Component
+@Profile("redis")
+public class RedisTripIndex implements MeterBinder {
+
+    static final String KEY_PREFIX = "trip:";
+    static final Duration TTL = Duration.ofHours(3);   // trip:{id} 자동 만료 (원하는 값으로 조정)
+
+    private static final String LAST_SEEN = "trips:lastSeen";
+    private static final String PHASE_OF = "trips:phaseOf";
+    private static final String PHASE_PREFIX = "trips:phase:";
+    private static final String PHASES = "trips:phases";
+    private static final int SWEEP_BATCH = 1_000;   // 스크립트 1회가 Redis 를 붙잡는 시간을 짧게
+
+    private static final int SAVE_ATTEMPTS = 5;     // phase 가 그 사이 계속 바뀌는 경우의 상한
+
+    /**
+     * KEYS: trip:{id}, lastSeen, phaseOf, phase:{새 phase}, phases, phase:{예상 이전 phase}
+     * ARGV: json, ttlSec, tripId, nowMs, phase, 예상 이전 phase('' = 없음)
+     * 성공하면 'ok', 예상과 다르면 아무것도 바꾸지 않고 'prev:' .. 실제 이전 phase
+     */
+    private static final RedisScript<String> SAVE = RedisScript.of("""
+            local prev = redis.call('HGET', KEYS[3], ARGV[3]) or ''
+            if prev ~= ARGV[6] then return 'prev:' .. prev end
+            redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[2])
+            redis.call('ZADD', KEYS[2], ARGV[4], ARGV[3])
+            if prev ~= ARGV[5] then
+              if prev ~= '' then redis.call('SREM', KEYS[6], ARGV[3]) end
+              redis.call('SADD', KEYS[4], ARGV[3])
+              redis.call('SADD', KEYS[5], ARGV[5])
+              redis.call('HSET', KEYS[3], ARGV[3], ARGV[5])
+            end
+            return 'ok'
+            """, String.class);
+
+    /**
+     * KEYS: lastSeen, phaseOf, 그리고 트립마다 trip:{id}, phase:{phase}
+     * ARGV: cutoffMs, deleteTrips(0|1), 그리고 트립마다 id, phase('' = 없음)
+     * 그 사이 다시 저장된 트립(lastSeen 갱신 / phase 변경)은 건너뛴다. 지운 수 반환
+     */
+    private static final RedisScript<Long> SWEEP = RedisScript.of("""
+            local n = 0
+            for i = 1, (#ARGV - 2) / 2 do
+              local id, phase = ARGV[1 + 2 * i], ARGV[2 + 2 * i]
+              local seen = redis.call('ZSCORE', KEYS[1], id)
+              if seen and tonumber(seen) <= tonumber(ARGV[1])
+                  and (redis.call('HGET', KEYS[2], id) or '') == phase then
+                if phase ~= '' then redis.call('SREM', KEYS[2 + 2 * i], id) end
+                redis.call('HDEL', KEYS[2], id)
+                redis.call('ZREM', KEYS[1], id)
+                if ARGV[2] == '1' then redis.call('DEL', KEYS[1 + 2 * i]) end
+                n = n + 1
+              end
+            end
+            return n
+            """, Long.class);
+
+    private final StringRedisTemplate redis;
+    private final ReactiveStringRedisTemplate reactiveRedis;
+    private final AtomicLong swept = new AtomicLong();
+
+    public RedisTripIndex(LettuceConnectionFactory connectionFactory) {
+        this.redis = new StringRedisTemplate(connectionFactory);
+        this.reactiveRedis = new ReactiveStringRedisTemplate(connectionFactory);
+    }
+
+    // ---------------------------------------------------------------- 저장 (TripStore 에서 호출)
+
+    /** trip:{id} 저장 + 인덱스 갱신 (원자적, phase 가 그대로면 1 왕복) */
+    void save(String tripId, byte[] json, String phase) {
+        String p = phaseOrUnknown(phase);
+        String expectedPrev = p;
+        for (int attempt = 0; attempt < SAVE_ATTEMPTS; attempt++) {
+            String prev = actualPrev(redis.execute(SAVE, saveKeys(tripId, p, expectedPrev),
+                    saveArgs(tripId, json, p, expectedPrev)));
+            if (prev == null) return;
+            expectedPrev = prev;
+        }
+        throw new IllegalStateException("trip index: phase 가 계속 바뀌어 저장하지 못함 tripId=" + tripId);
+    }
+
+    Mono<Void> saveReactive(String tripId, byte[] json, String phase) {
+        String p = phaseOrUnknown(phase);
+        return saveReactive(tripId, json, p, p, 0);
+    }
+
+    private Mono<Void> saveReactive(String tripId, byte[] json, String phase, String expectedPrev, int attempt) {
+        if (attempt >= SAVE_ATTEMPTS) {
+            return Mono.error(new IllegalStateException("trip index: phase 가 계속 바뀌어 저장하지 못함 tripId=" + tripId));
+        }
+        return reactiveRedis.execute(SAVE, saveKeys(tripId, phase, expectedPrev),
+                        List.of(saveArgs(tripId, json, phase, expectedPrev)))
+                .next()
+                .flatMap(result -> {
+                    String prev = actualPrev(result);
+                    return prev == null ? Mono.<Void>empty() : saveReactive(tripId, json, phase, prev, attempt + 1);
+                });
+    }
+
+    private static List<String> saveKeys(String tripId, String phase, String expectedPrev) {
+        return List.of(KEY_PREFIX + tripId, LAST_SEEN, PHASE_OF, PHASE_PREFIX + phase, PHASES,
+                PHASE_PREFIX + (expectedPrev.isEmpty() ? phase : expectedPrev));
+    }
+
+    private static Object[] saveArgs(String tripId, byte[] json, String phase, String expectedPrev) {
+        return new Object[]{
+                new String(json, StandardCharsets.UTF_8),
+                Long.toString(TTL.toSeconds()),
+                tripId,
+                Long.toString(System.currentTimeMillis()),
+                phase,
+                expectedPrev
+        };
+    }
+
+    /** SAVE 결과가 'prev:X' 면 실제 이전 phase X, 성공이면 null */
+    private static String actualPrev(String result) {
+        if (result == null || !result.startsWith("prev:")) return null;
+        return result.substring("prev:".length());
+    }
+
+    private static String phaseOrUnknown(String phase) {
+        return phase != null ? phase : "UNKNOWN";
+    }
+
+    // ---------------------------------------------------------------- 조회
+
+    /** 인덱스에 있는 트립 수 (O(1)) */
+    public long activeCount() {
+        return orZero(redis.opsForZSet().zCard(LAST_SEEN));
+    }
+
+    /** phase 별 트립 수 (phase 수만큼 SCARD, 한 번의 파이프라인) */
+    public Map<String, Long> countByPhase() {
+        Set<String> phases = new TreeSet<>(orEmpty(redis.opsForSet().members(PHASES)));
+        List<String> order = new ArrayList<>(phases);
+        List<Object> counts = redis.executePipelined((RedisCallback<Object>) conn -> {
+            for (String phase : order) {
+                conn.setCommands().sCard((PHASE_PREFIX + phase).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        Map<String, Long> out = new LinkedHashMap<>();
+        for (int i = 0; i < order.size(); i++) {
+            out.put(order.get(i), orZero((Long) counts.get(i)));
+        }
+        return out;
+    }
+
+    /** 특정 phase 트립 수 (O(1)) */
+    public long countInPhase(String phase) {
+        return orZero(redis.opsForSet().size(PHASE_PREFIX + phase));
+    }
+
+    /** 특정 phase 트립 id 최대 limit 개 (SSCAN, 집합 크기와 무관하게 limit 만큼만 읽음) */
+    public List<String> tripsInPhase(String phase, int limit) {
+        List<String> out = new ArrayList<>(Math.min(limit, 1_024));
+        ScanOptions options = ScanOptions.scanOptions().count(Math.min(limit, 1_000)).build();
+        try (Cursor<String> cursor = redis.opsForSet().scan(PHASE_PREFIX + phase, options)) {
+            while (out.size() < limit && cursor.hasNext()) out.add(cursor.next());
+        }
+        return out;
+    }
+
+    /** cutoffMs 이전부터 저장이 없는 트립 수 (O(log N)) */
+    public long countSilentSince(long cutoffMs) {
+        return orZero(redis.opsForZSet().count(LAST_SEEN, Double.NEGATIVE_INFINITY, cutoffMs));
+    }
+
+    /** cutoffMs 이전부터 저장이 없는 트립 id, 오래된 순 최대 limit 개 (O(log N + limit)) */
+    public List<String> silentSince(long cutoffMs, int limit) {
+        return new ArrayList<>(orEmpty(redis.opsForZSet()
+                .rangeByScore(LAST_SEEN, Double.NEGATIVE_INFINITY, cutoffMs, 0, limit)));
+    }
+
+    // ---------------------------------------------------------------- 정리
+
+    /**
+     * cutoffMs 이전부터 조용한 트립을 인덱스에서 뺀다. deleteTrips 면 trip:{id} 상태도 지운다.
+     * SWEEP_BATCH 개씩 대상 id 와 phase 를 먼저 읽고, 그 키들을 KEYS 로 넘긴 스크립트로 지운다.
+     * 배치 단위라 백만 단위라도 Redis 를 길게 막지 않는다. 지운 수 반환.
+     */
+    public long sweep(long cutoffMs, boolean deleteTrips) {
+        long total = 0;
+        while (true) {
+            List<String> ids = silentSince(cutoffMs, SWEEP_BATCH);
+            if (ids.isEmpty()) break;
+            List<Object> phases = redis.opsForHash().multiGet(PHASE_OF, new ArrayList<>(ids));
+
+            List<String> keys = new ArrayList<>(2 + ids.size() * 2);
+            List<String> args = new ArrayList<>(2 + ids.size() * 2);
+            keys.add(LAST_SEEN);
+            keys.add(PHASE_OF);
+            args.add(Long.toString(cutoffMs));
+            args.add(deleteTrips ? "1" : "0");
+            for (int i = 0; i < ids.size(); i++) {
+                String phase = phases.get(i) != null ? phases.get(i).toString() : "";
+                keys.add(KEY_PREFIX + ids.get(i));
+                keys.add(PHASE_PREFIX + phase);
+                args.add(ids.get(i));
+                args.add(phase);
+            }
+            total += orZero(redis.execute(SWEEP, keys, args.toArray()));
+            if (ids.size() < SWEEP_BATCH) break;
+        }
+        swept.addAndGet(total);
+        return total;
+    }
+
+    /** TTL 이 지나 trip:{id} 가 이미 사라진 항목만 인덱스에서 정리 */
+    @Scheduled(fixedDelayString = "${smartcane.transit.tripIndexSweepIntervalMs:60000}",
+            initialDelayString = "${smartcane.transit.tripIndexSweepIntervalMs:60000}")
+    public void sweepExpired() {
+        try {
+            long n = sweep(System.currentTimeMillis() - TTL.toMillis(), false);
+            if (n > 0) log.debug("trip index: 만료 항목 {}개 정리", n);
+        } catch (RuntimeException e) {
+            log.warn("trip index 만료 정리 실패", e);
+        }
+    }
+
+    private static long orZero(Long v) {
+        return v != null ? v : 0L;
+    }
+
+    private static <T> Set<T> orEmpty(Set<T> v) {
+        return v != null ? v : Set.of();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartcane.trips.index.swept", swept, AtomicLong::get)
+                .description("보조 인덱스에서 정리한 조용한/만료 트립 수")
+                .register(registry);
+    }
+}
@@ -1,39 +1,84 @@
 package com.smartcane.transit.service;
 
+import com.smartcane.transit.util.jfr.TripStoreEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
 @Profile("redis") // prod에서만 활성화, local은 in-memory 사용
 @RequiredArgsConstructor
 public class RedisTripStore implements TripStore {
 
-    private static final String KEY_PREFIX = "trip:";          // trip:UUID 형태로 저장
-    private static final Duration TTL = Duration.ofHours(3);   // 3시간 후 자동 만료 (원하는 값으로 조정)
-
     private final RedisTemplate<String, TripState> tripRedisTemplate;
+    private final RedisTripIndex tripIndex; // 저장과 같은 스크립트로 phase/lastSeen 인덱스 갱신
 
     private String key(String tripId) {
-        return KEY_PREFIX + tripId;
+        return RedisTripIndex.KEY_PREFIX + tripId; // trip:UUID 형태로 저장 (TTL 3시간)
     }
 
     @Override
     public void init(String tripId, int itineraryIndex, int legIndex, Integer stepIndex, String phase) {
+        TripStoreEvent event = new TripStoreEvent();
+        event.begin();
         TripState state = new TripState(tripId, itineraryIndex, legIndex, stepIndex, phase);
-        tripRedisTemplate.opsForValue().set(key(tripId), state, TTL);
+        tripIndex.save(tripId, serialize(state), phase);
+        commit(event, "init", tripId, true);
     }
 
     @Override
     public TripState load(String tripId) {
-        return tripRedisTemplate.opsForValue().get(key(tripId));
+        TripStoreEvent event = new TripStoreEvent();
+        event.begin();
+        TripState state = tripRedisTemplate.opsForValue().get(key(tripId));
+        commit(event, "load", tripId, state != null);
+        return state;
+    }
+
+    /** MGET 한 번 (마이크로 배치가 트립마다 왕복하지 않게) */
+    @Override
+    public Map<String, TripState> loadAll(Collection<String> tripIds) {
+        TripStoreEvent event = new TripStoreEvent();
+        event.begin();
+        List<String> ids = new ArrayList<>(tripIds);
+        List<TripState> states = tripRedisTemplate.opsForValue().multiGet(ids.stream().map(this::key).toList());
+        Map<String, TripState> out = new HashMap<>();
+        for (int i = 0; states != null && i < ids.size(); i++) {
+            if (states.get(i) != null) out.put(ids.get(i), states.get(i));
+        }
+        commit(event, "loadAll", ids.size() + " trips", !out.isEmpty());
+        return out;
     }
 
     @Override
     public void save(String tripId, TripState state) {
-        tripRedisTemplate.opsForValue().set(key(tripId), state, TTL);
+        TripStoreEvent event = new TripStoreEvent();
+        event.begin();
+        tripIndex.save(tripId, serialize(state), state.getPhase());
+        commit(event, "save", tripId, true);
+    }
+
+    /** 템플릿과 같은 JSON 형식 (load 는 그대로 opsForValue 로 읽는다) */
+    @SuppressWarnings("unchecked")
+    private byte[] serialize(TripState state) {
+        return ((RedisSerializer<TripState>) tripRedisTemplate.getValueSerializer()).serialize(state);
+    }
+
+    /** JFR: Redis 왕복 + JSON 직렬화 시간 */
+    private static void commit(TripStoreEvent event, String operation, String tripId, boolean found) {
+        if (!event.shouldCommit()) return;
+        event.store = "redis";
+        event.operation = operation;
+        event.tripId = tripId;
+        event.found = found;
+        event.commit();
     }
 }
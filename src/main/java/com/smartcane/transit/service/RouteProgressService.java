@@ -1,18 +1,31 @@
 package com.smartcane.transit.service;
 
+import com.smartcane.transit.config.ExecutionLanes;
 import com.smartcane.transit.dto.request.ArrivalCheckRequest;
 import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
 import com.smartcane.transit.dto.response.ArrivalCheckResponse;
 import com.smartcane.transit.dto.response.GuidanceResponse;
 import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.exception.FixRejectedException;
+import com.smartcane.transit.service.batch.ProgressBatcher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 경로 진행 상황 처리 서비스
  *
  * - updateProgress : iOS에서 주기적으로 보내는 진행 상황(위치/센서)을 기반으로
  *                    ProgressCoordinator에 위임하여 도착 체크 + 안내문(TTS) 생성.
+ * - updateProgressAsync : 마이크로 배칭(ProgressBatcher)이 켜져 있으면 배치로 평가,
+ *                         꺼져 있으면 ExecutionLanes 로 나눠 실행 (요청 스레드와 분리):
+ *                         상태 로드/저장(블로킹 저장소 I/O)은 io 레인, 판정(evaluate)만 cpu 레인.
+ *                         저장소가 느려져도 cpu 레인 스레드는 I/O 를 기다리지 않는다.
+ *                         io 레인 포화(RejectedExecutionException)는 503 으로 응답된다.
+ * - updateProgressReactive : ReactiveTripStore 기반 논블로킹 파이프라인 (Mono).
+ * - 세 경로 모두 TripAdmission 으로 오래된 fix / 빈도 초과를 상태 로드 전에 먼저 거절한다 (409 / 429).
  * - checkWalkStep / checkTransitLeg : (선택) 레거시 도착 체크용 헬퍼.
  *   컨트롤러에서 _legacy 엔드포인트를 완전히 막는다면 제거해도 무방하다.
  */
@@ -21,6 +34,10 @@ import org.springframework.stereotype.Service;
 public class RouteProgressService {
 
     private final ProgressCoordinator coordinator;
+    private final ProgressBatcher batcher;
+    private final ReactiveProgressCoordinator reactiveCoordinator;
+    private final ExecutionLanes lanes;
+    private final TripAdmission admission;
 
     /**
      * (선택) 레거시: 보행 구간 도착 여부만 단건 체크
@@ -50,6 +67,33 @@ public class RouteProgressService {
      *  - 최종 GuidanceResponse 반환
      */
     public GuidanceResponse updateProgress(String tripId, ProgressUpdateEnvelope envelope) {
+        admission.admit(tripId, envelope.progress());
         return coordinator.updateProgress(tripId, envelope);
     }
-}
\ No newline at end of file
+
+    public CompletableFuture<GuidanceResponse> updateProgressAsync(String tripId, ProgressUpdateEnvelope envelope) {
+        admission.admit(tripId, envelope.progress());
+        if (batcher.isEnabled()) {
+            return batcher.submit(tripId, envelope);
+        }
+        GuidanceResponse cached = coordinator.cachedResponse(tripId, envelope);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+        SkTransitRootDto.MetaDataDto meta = coordinator.resolvePlan(tripId, envelope);
+        return CompletableFuture.supplyAsync(() -> coordinator.loadOrInit(tripId), lanes.io())
+                .thenCompose(state -> lanes.supplyCpu(
+                                () -> coordinator.evaluate(tripId, state, meta, envelope.progress()))
+                        .thenApplyAsync(res -> {
+                            coordinator.save(tripId, state);
+                            return res;
+                        }, lanes.io()));
+    }
+
+    public Mono<GuidanceResponse> updateProgressReactive(String tripId, ProgressUpdateEnvelope envelope) {
+        try {
+            admission.admit(tripId, envelope.progress());
+        } catch (FixRejectedException e) {
+            return Mono.error(e);
+        }
+        return reactiveCoordinator.updateProgress(tripId, envelope);
+    }
+}
@@ -3,6 +3,9 @@ package com.smartcane.transit.service;
 
 import com.smartcane.transit.dto.response.SkTransitRootDto;
 import com.smartcane.transit.dto.request.RoutePlanRequest;
+import com.smartcane.transit.service.sk.SkCallPriority;
+import com.smartcane.transit.service.sk.SkCallScheduler;
+import com.smartcane.transit.util.jfr.SkFetchEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -15,6 +18,7 @@ import java.util.List;
 public class RouteService {
 
     private final WebClient skTransitWebClient;
+    private final SkCallScheduler skCallScheduler; // 할당량/우선순위/타임아웃/헤지
 
     // 우선순위 선택 로직 (stateless라 new로 둬도 되고 @Bean으로 빼도 됨)
     private final SkRouteSelector routeSelector = new SkRouteSelector();
@@ -23,11 +27,37 @@ public class RouteService {
      * 1) SK 길찾기 원본 호출 (필터링 X, 그대로 받고 싶을 때 사용)
      */
     public Mono<SkTransitRootDto> searchRawRoutes(RoutePlanRequest query) {
-        return skTransitWebClient.post()
-                .uri("/transit/routes/")
-                .bodyValue(query)
-                .retrieve()
-                .bodyToMono(SkTransitRootDto.class);
+        return searchRawRoutes(query, SkCallPriority.PLAN);
+    }
+
+    /**
+     * 우선순위 지정 호출 — SkCallScheduler 대기열을 거쳐 나간다.
+     * (재탐색은 REROUTE, 예열은 PREFETCH)
+     */
+    public Mono<SkTransitRootDto> searchRawRoutes(RoutePlanRequest query, SkCallPriority priority) {
+        return skCallScheduler.submit(priority, () -> fetch(query, priority));
+    }
+
+    /** HTTP 시도 1회 (시도마다 JFR SkFetchEvent) */
+    private Mono<SkTransitRootDto> fetch(RoutePlanRequest query, SkCallPriority priority) {
+        return Mono.defer(() -> {
+            SkFetchEvent event = new SkFetchEvent();
+            event.begin();
+            return skTransitWebClient.post()
+                    .uri("/transit/routes/")
+                    .bodyValue(query)
+                    .retrieve()
+                    .bodyToMono(SkTransitRootDto.class)
+                    .doOnError(e -> event.error = e.getClass().getSimpleName() + ": " + e.getMessage())
+                    .doFinally(signal -> {
+                        if (!event.shouldCommit()) return;
+                        event.priority = priority.name();
+                        event.origin = query.startX() + "," + query.startY();
+                        event.destination = query.endX() + "," + query.endY();
+                        event.outcome = signal.name();
+                        event.commit();
+                    });
+        });
     }
 
     /**
@@ -35,7 +65,11 @@ public class RouteService {
      *    /plan 엔드포인트에서 이 메서드를 사용하면 됨.
      */
     public Mono<SkTransitRootDto> searchPreferredRoutes(RoutePlanRequest query) {
-        return searchRawRoutes(query)
+        return searchPreferredRoutes(query, SkCallPriority.PLAN);
+    }
+
+    public Mono<SkTransitRootDto> searchPreferredRoutes(RoutePlanRequest query, SkCallPriority priority) {
+        return searchRawRoutes(query, priority)
                 .map(raw -> {
                     // metaData 혹시 null일 때 방어 코드
                     SkTransitRootDto.MetaDataDto meta = raw.metaData();
@@ -75,4 +109,8 @@ public class RouteService {
         // 지금부터는 "우선순위 적용된 결과"가 기본 행동
         return searchPreferredRoutes(query);
     }
+
+    public Mono<SkTransitRootDto> searchRoutes(RoutePlanRequest query, SkCallPriority priority) {
+        return searchPreferredRoutes(query, priority);
+    }
 }
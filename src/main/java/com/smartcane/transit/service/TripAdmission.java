@@ -0,0 +1,107 @@
+package com.smartcane.transit.service;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.ProgressUpdateRequest;
+import com.smartcane.transit.exception.FixRejectedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 트립별 진행 업링크 입장 제어. 상태 로드 전에 메모리만 보고 싸게 거절한다.
+ *
+ * - 이 노드가 이미 받은 fix 보다 오래된 timestampEpochMs → STALE (같은 시각 재전송은 통과, 직전 응답 재사용 경로로)
+ * - 트립별 토큰 버킷(admissionMaxFixesPerSec, admissionBurst) 초과 → RATE_LIMITED
+ *
+ * 노드 로컬이라 다른 노드가 받은 fix 는 모른다. 저장된 TripState.lastTs 기준의 최종 확인은
+ * ProgressCoordinator.evaluate 가 상태 로드 후에 한 번 더 한다.
+ * 크기 상한(admissionMaxTrips)을 넘으면 일부를 비워 근사적으로 제한한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TripAdmission implements MeterBinder {
+
+    /** 트립별 토큰 버킷 + 마지막으로 받은 fix 시각 (트립 단위로 동기화) */
+    private static final class Bucket {
+        double tokens;
+        long refilledNanos;
+        long lastTs = Long.MIN_VALUE;
+    }
+
+    private final GuidanceProperties props;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong stale = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+
+    /** 통과하면 그대로 반환, 아니면 FixRejectedException */
+    public void admit(String tripId, ProgressUpdateRequest p) {
+        admit(tripId, p, System.nanoTime());
+    }
+
+    void admit(String tripId, ProgressUpdateRequest p, long nowNanos) {
+        if (!props.isAdmissionEnabled() || p == null) return;
+        Bucket b = buckets.get(tripId);
+        if (b == null) {
+            if (buckets.size() >= props.getAdmissionMaxTrips()) evictSome();
+            Bucket fresh = new Bucket();
+            fresh.tokens = props.getAdmissionBurst();
+            fresh.refilledNanos = nowNanos;
+            b = buckets.computeIfAbsent(tripId, k -> fresh);
+        }
+        synchronized (b) {
+            Long ts = p.timestampEpochMs();
+            if (ts != null && ts < b.lastTs) {
+                stale.incrementAndGet();
+                throw new FixRejectedException(FixRejectedException.Reason.STALE, tripId,
+                        "timestamp " + ts + " < " + b.lastTs);
+            }
+            double burst = props.getAdmissionBurst();
+            double refill = (nowNanos - b.refilledNanos) / 1e9 * props.getAdmissionMaxFixesPerSec();
+            b.tokens = Math.min(burst, b.tokens + refill);
+            b.refilledNanos = nowNanos;
+            if (b.tokens < 1) {
+                rateLimited.incrementAndGet();
+                throw new FixRejectedException(FixRejectedException.Reason.RATE_LIMITED, tripId,
+                        "최대 " + props.getAdmissionMaxFixesPerSec() + " fix/s");
+            }
+            b.tokens -= 1;
+            if (ts != null) b.lastTs = ts;
+        }
+    }
+
+    /** 트립 종료 등으로 더 이상 업링크가 없을 때 */
+    public void forget(String tripId) {
+        buckets.remove(tripId);
+    }
+
+    public long stale() { return stale.get(); }
+    public long rateLimited() { return rateLimited.get(); }
+
+    /** 약 1/8 을 비운다 (정확한 LRU 대신 핫패스 경합이 없는 근사 제한) */
+    private void evictSome() {
+        int toRemove = Math.max(1, buckets.size() / 8);
+        Iterator<String> it = buckets.keySet().iterator();
+        while (toRemove-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartcane.progress.admission.stale", stale, AtomicLong::get)
+                .description("이미 받은 fix 보다 오래되어 거절한 fix 수")
+                .register(registry);
+        Gauge.builder("smartcane.progress.admission.rate_limited", rateLimited, AtomicLong::get)
+                .description("트립별 업링크 빈도 상한으로 거절한 fix 수")
+                .register(registry);
+        Gauge.builder("smartcane.progress.admission.trips", buckets, Map::size).register(registry);
+    }
+}
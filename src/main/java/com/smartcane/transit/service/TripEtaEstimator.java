@@ -0,0 +1,64 @@
+package com.smartcane.transit.service;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.geometry.PreparedGeometryCache;
+import com.smartcane.transit.service.geometry.PreparedItinerary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 목적지까지 남은 거리 / 예상 소요시간.
+ *
+ * - 남은 거리 = 현재 leg 남은 거리(스냅 기준) + 이후 leg 길이 합(PreparedItinerary 누적합).
+ * - 소요시간
+ *   · 보행: 거리 / 개인 보행 속도 (보행 중 평활한 TripState.walkSpeedMps, 관측 전이면 기본값)
+ *   · 대중교통: SK sectionTime 비율 (현재 leg 는 남은 거리 비율만큼)
+ * - 누적합은 /plan 등록 시 PlanRegistry 가 미리 만들어 항목에 들고 있으므로, 등록된 계획이면 fix 마다 O(1).
+ *   계획을 업링크에 직접 실어 보낸 경우에만 PreparedGeometryCache 를 itinerary 내용으로 조회한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TripEtaEstimator {
+
+    public record TripEta(double remainingM, int etaSec) {}
+
+    private final PreparedGeometryCache geometryCache;
+    private final GuidanceProperties props;
+
+    /** 등록되지 않은 계획용: itinerary 내용으로 캐시를 조회한다 */
+    public TripEta estimate(SkTransitRootDto.ItineraryDto itinerary, int legIndex, boolean walk,
+                            double legRemainingM, TripState state) {
+        return estimate(geometryCache.itinerary(itinerary), legIndex, walk, legRemainingM, state);
+    }
+
+    /**
+     * @param prepared      등록 시 만들어 둔 누적합 (PlanRegistry.prepared)
+     * @param legRemainingM 현재 leg 끝까지 남은 거리 (ArrivalCheckResponse.legRemainingMeters)
+     * @return 계산할 수 없으면 null
+     */
+    public TripEta estimate(PreparedItinerary prepared, int legIndex, boolean walk,
+                            double legRemainingM, TripState state) {
+        if (Double.isNaN(legRemainingM) || legIndex < 0 || legIndex >= prepared.legCount()) return null;
+
+        double walkSpeed = state.getWalkSpeedMps() > 0 ? state.getWalkSpeedMps() : props.getEtaDefaultWalkSpeedMps();
+        double legRemaining = Math.max(0, legRemainingM);
+
+        double currentSec;
+        if (walk) {
+            currentSec = legRemaining / walkSpeed;
+        } else {
+            double length = prepared.legLength(legIndex);
+            int sectionTime = prepared.sectionTime(legIndex);
+            currentSec = sectionTime > 0 && length > 0
+                    ? Math.min(1.0, legRemaining / length) * sectionTime
+                    : legRemaining / props.getEtaTransitFallbackSpeedMps();
+        }
+
+        double remainingM = legRemaining + prepared.metersAfter(legIndex);
+        double etaSec = currentSec
+                + prepared.walkMetersAfter(legIndex) / walkSpeed
+                + prepared.transitSecondsAfter(legIndex);
+        return new TripEta(remainingM, (int) Math.round(etaSec));
+    }
+}
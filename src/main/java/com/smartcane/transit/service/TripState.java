@@ -8,8 +8,12 @@ public class TripState {
     private String phase;             // WALKING/ONBOARD/TRANSFER/ARRIVED...
     private double lastLon;
     private double lastLat;
-    private long lastTs;
+    private long lastTs;              // 마지막 fix 시각 (클라이언트 timestamp, 없으면 서버 시각)
+    private long lastClientTs;        // 마지막 fix 의 클라이언트 timestamp (0 = 없음, 오래된 fix 판별 전용)
     private double cumulativeWalkMeter;
+    private double smoothedSpeedMps;  // 지수 평활 속도 (업링크 간격 권고용)
+    private double walkSpeedMps;      // 보행 중에만 평활한 개인 보행 속도 (ETA 용, 0 = 관측 전)
+    private long transitionSeq;       // 구독자에게 알린 전이 순번 (단조 증가, 시계와 무관하게 스냅샷 이후 전이 판별)
 
     public TripState() {}
 
@@ -37,8 +41,16 @@ public class TripState {
     public void setLastLat(double lastLat) { this.lastLat = lastLat; }
     public long getLastTs() { return lastTs; }
     public void setLastTs(long lastTs) { this.lastTs = lastTs; }
+    public long getLastClientTs() { return lastClientTs; }
+    public void setLastClientTs(long lastClientTs) { this.lastClientTs = lastClientTs; }
     public double getCumulativeWalkMeter() { return cumulativeWalkMeter; }
     public void setCumulativeWalkMeter(double cumulativeWalkMeter) { this.cumulativeWalkMeter = cumulativeWalkMeter; }
+    public double getSmoothedSpeedMps() { return smoothedSpeedMps; }
+    public void setSmoothedSpeedMps(double smoothedSpeedMps) { this.smoothedSpeedMps = smoothedSpeedMps; }
+    public double getWalkSpeedMps() { return walkSpeedMps; }
+    public void setWalkSpeedMps(double walkSpeedMps) { this.walkSpeedMps = walkSpeedMps; }
+    public long getTransitionSeq() { return transitionSeq; }
+    public void setTransitionSeq(long transitionSeq) { this.transitionSeq = transitionSeq; }
 
     private int arrivalStreak = 0; // 도착 조건 연속 만족 횟수(히스테리시스)
     private final java.util.ArrayDeque<Double> latBuf = new java.util.ArrayDeque<>();
@@ -48,4 +60,34 @@ public class TripState {
     public void setArrivalStreak(int s) { this.arrivalStreak = s; }
     public java.util.ArrayDeque<Double> getLatBuf() { return latBuf; }
     public java.util.ArrayDeque<Double> getLonBuf() { return lonBuf; }
+
+    // 후보 itinerary 자동 판별 상태 (ItineraryDetector, 비활성 시 null)
+    private double[] candidateScores;   // 후보별 누적 로그우도 점수
+    private int[] candidateLegs;        // 후보별 활성 leg index
+    private int[] candidateSegments;    // 후보별 증분 스냅 커서(선분 index, -1 = 없음)
+
+    public double[] getCandidateScores() { return candidateScores; }
+    public void setCandidateScores(double[] candidateScores) { this.candidateScores = candidateScores; }
+    public int[] getCandidateLegs() { return candidateLegs; }
+    public void setCandidateLegs(int[] candidateLegs) { this.candidateLegs = candidateLegs; }
+    public int[] getCandidateSegments() { return candidateSegments; }
+    public void setCandidateSegments(int[] candidateSegments) { this.candidateSegments = candidateSegments; }
+
+    // 탑승 구간 시간표 추정 상태 (OnboardScheduleEstimator)
+    private int onboardItineraryIndex = -1;  // 추정 중인 탑승 leg 의 itinerary (-1 = 없음)
+    private int onboardLegIndex = -1;        // 추정 중인 탑승 leg (-1 = 없음)
+    private long scheduleAnchorTs;           // 마지막 보정 시각
+    private double scheduleAnchorFraction;   // 마지막 보정 시점 진행률 (0~1)
+    private int stationCursor = -1;          // 현재 정류장 index (시간표 추정으로는 뒤로 가지 않음, -1 = 없음)
+
+    public int getOnboardItineraryIndex() { return onboardItineraryIndex; }
+    public void setOnboardItineraryIndex(int onboardItineraryIndex) { this.onboardItineraryIndex = onboardItineraryIndex; }
+    public int getOnboardLegIndex() { return onboardLegIndex; }
+    public void setOnboardLegIndex(int onboardLegIndex) { this.onboardLegIndex = onboardLegIndex; }
+    public long getScheduleAnchorTs() { return scheduleAnchorTs; }
+    public void setScheduleAnchorTs(long scheduleAnchorTs) { this.scheduleAnchorTs = scheduleAnchorTs; }
+    public double getScheduleAnchorFraction() { return scheduleAnchorFraction; }
+    public void setScheduleAnchorFraction(double scheduleAnchorFraction) { this.scheduleAnchorFraction = scheduleAnchorFraction; }
+    public int getStationCursor() { return stationCursor; }
+    public void setStationCursor(int stationCursor) { this.stationCursor = stationCursor; }
 }
@@ -1,7 +1,21 @@
 package com.smartcane.transit.service;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 public interface TripStore {
     void init(String tripId, int itineraryIndex, int legIndex, Integer stepIndex, String phase);
     TripState load(String tripId); // 없으면 null
     void save(String tripId, TripState state);
+
+    /** 여러 트립을 한 번에 로드 (없는 트립은 결과에 없음). 원격 저장소는 한 왕복으로 구현한다 */
+    default Map<String, TripState> loadAll(Collection<String> tripIds) {
+        Map<String, TripState> out = new HashMap<>();
+        for (String tripId : tripIds) {
+            TripState state = load(tripId);
+            if (state != null) out.put(tripId, state);
+        }
+        return out;
+    }
 }
@@ -0,0 +1,40 @@
+package com.smartcane.transit.service;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 서버 주도 업링크 간격 권고.
+ *
+ * - 다음 판단 지점(보행: lookAhead 프리뷰 구역, 대중교통: 도착 반경)까지의 여유 거리를 구하고,
+ *   그중 safetyFactor 만큼만 건너뛰도록 거리(afterM)를 정한다.
+ * - 시간(afterMs)은 afterM / 평활 속도. 정지 중에는 speedFloor 로 계산해 간격이 무한히 늘지 않게 한다.
+ * - 판단 지점 근처(여유 0)에서는 최소 간격 → 히스테리시스(연속 N회) 판정에 필요한 fix 를 확보한다.
+ * - 도착/취소 이후에는 최대 간격.
+ */
+@Component
+@RequiredArgsConstructor
+public class UplinkAdvisor {
+
+    public record UplinkHint(int afterMs, double afterM) {}
+
+    private final GuidanceProperties props;
+
+    public UplinkHint advise(String phase, double remainingM, double lookAheadM, double arriveRadiusM, double speedMps) {
+        if ("ARRIVED".equals(phase) || "CANCELLED".equals(phase)) {
+            return new UplinkHint(props.getUplinkMaxIntervalMs(), props.getUplinkMaxDistanceM());
+        }
+        double zone = "ONBOARD".equals(phase) ? arriveRadiusM : Math.max(lookAheadM, arriveRadiusM);
+        double slack = Double.isNaN(remainingM) ? 0 : Math.max(0, remainingM - zone);
+
+        double afterM = clamp(slack * props.getUplinkSafetyFactor(), props.getUplinkMinDistanceM(), props.getUplinkMaxDistanceM());
+        double speed = Math.max(speedMps, props.getUplinkSpeedFloorMps());
+        int afterMs = (int) clamp(afterM / speed * 1000.0, props.getUplinkMinIntervalMs(), props.getUplinkMaxIntervalMs());
+        return new UplinkHint(afterMs, afterM);
+    }
+
+    private static double clamp(double v, double lo, double hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+}
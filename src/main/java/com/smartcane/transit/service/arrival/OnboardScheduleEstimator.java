@@ -0,0 +1,75 @@
+package com.smartcane.transit.service.arrival;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.TripState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 탑승(ONBOARD) 구간의 시간표 기반 진행 추정기.
+ *
+ * - 지하철 터널/버스 차내처럼 GPS 가 나쁘거나 업링크가 드문 구간에서도
+ *   "지금 몇 번째 정류장 / 몇 정거장 남음" 을 유지하기 위한 모델.
+ * - 진행률(0~1) = 기준점 진행률 + (now - 기준 시각) / leg.sectionTime
+ *   · 탑승(leg 진입) 시 기준점 = (진입 시각, 0)
+ *   · 노선 형상에 가깝게 스냅되는 좋은 fix 가 오면 기준점을 (now, 관측 진행률) 로 다시 잡는다.
+ *     정류장에서 기다리는 동안 오는 좋은 fix 도 기준점을 (now, ~0) 으로 옮기므로 대기 시간이 주행으로 세지지 않는다.
+ * - 추정 진행률 × 형상 길이를 정류장 along-track 오프셋에 대응시켜 현재 정류장을 정한다
+ *   (형상이 없으면 정류장 간 균등 간격으로 가정).
+ * - 시간표만으로는 절대 도착(하차)을 선언하지 않는다. 하차 판정은 좋은 fix 로만 한다.
+ *
+ * 추정 상태는 TripState(onboardItineraryIndex, onboardLegIndex, scheduleAnchor*, stationCursor) 에 저장되며
+ * leg 진입 시(ItineraryDetector 가 itinerary 를 바꾼 경우 포함) 초기화된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class OnboardScheduleEstimator {
+
+    private final GuidanceProperties props;
+
+    public boolean isEnabled() {
+        return props.isOnboardScheduleEnabled();
+    }
+
+    /** itinerary 또는 leg 가 바뀌었으면 기준점/정류장 커서를 새로 잡는다 */
+    public void board(TripState state, int itineraryIndex, int legIndex, long nowMs) {
+        if (state.getOnboardItineraryIndex() == itineraryIndex && state.getOnboardLegIndex() == legIndex) return;
+        state.setOnboardItineraryIndex(itineraryIndex);
+        state.setOnboardLegIndex(legIndex);
+        state.setScheduleAnchorTs(nowMs);
+        state.setScheduleAnchorFraction(0);
+        state.setStationCursor(-1);
+    }
+
+    /** GPS 로 진행 위치를 믿어도 되는 fix 인가 (노선 형상과의 거리 기준) */
+    public boolean isGoodFix(double distanceToPathM) {
+        return distanceToPathM <= props.getOnboardGoodFixMaxDistanceM();
+    }
+
+    /** 좋은 fix 의 관측 진행률로 기준점 보정 */
+    public void correct(TripState state, double observedFraction, long nowMs) {
+        state.setScheduleAnchorTs(nowMs);
+        state.setScheduleAnchorFraction(clamp01(observedFraction));
+    }
+
+    /** 시간표 기준 현재 진행률 (sectionTime 이 없으면 마지막 기준점에 머문다) */
+    public double predictFraction(TripState state, SkTransitRootDto.LegDto leg, long nowMs) {
+        double f = state.getScheduleAnchorFraction();
+        Integer sectionTime = leg.sectionTime();
+        if (sectionTime != null && sectionTime > 0 && nowMs > state.getScheduleAnchorTs()) {
+            f += (nowMs - state.getScheduleAnchorTs()) / (sectionTime * 1000.0);
+        }
+        return clamp01(f);
+    }
+
+    /** 진행률 → 가장 가까운 정류장 index (형상이 없어 정류장 오프셋을 모를 때, 정류장 간 균등 가정) */
+    public static int stationIndexAt(double fraction, int stationCount) {
+        if (stationCount <= 1) return 0;
+        return (int) Math.round(clamp01(fraction) * (stationCount - 1));
+    }
+
+    private static double clamp01(double v) {
+        return Math.max(0, Math.min(1, v));
+    }
+}
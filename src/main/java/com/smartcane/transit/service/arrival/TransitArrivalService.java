@@ -3,8 +3,11 @@ package com.smartcane.transit.service.arrival;
 import com.smartcane.transit.dto.request.ArrivalCheckRequest;
 import com.smartcane.transit.dto.response.ArrivalCheckResponse;
 import com.smartcane.transit.dto.response.SkTransitRootDto;
-import com.smartcane.transit.util.GeoUtils;
-import com.smartcane.transit.util.PolylineSnapper;
+import com.smartcane.transit.service.TripState;
+import com.smartcane.transit.service.geometry.PreparedGeometryCache;
+import com.smartcane.transit.service.geometry.PreparedLeg;
+import com.smartcane.transit.util.PreparedPolyline;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,21 +17,28 @@ import java.util.List;
  *
  * - 기본 도착 판정 기준:
  *   · leg.passShape.linestring 에 있는 polyline 을 기준으로
+ *     (PreparedGeometryCache 에서 미리 파싱/투영된 형상을 공유해 사용)
  *   · 현재 위치를 가장 가까운 지점으로 스냅한 뒤
  *   · 전체 polyline 길이 - 시작점부터 스냅지점까지의 길이 를 "남은 거리"로 사용
  *
  * - 추가 기능:
- *   · passStopList.stations[] 를 이용해
- *     "현재 위치에서 가장 가까운 정류장 index" 를 찾고,
+ *   · passStopList.stations[] 를 형상에 미리 스냅해 둔 along-track 오프셋(PreparedLeg)에서
+ *     스냅 거리로 이진 탐색해 "현재 정류장 index" 를 찾고,
  *     마지막 정류장까지 남은 정류장 수(N 정거장 남음)를 계산한다.
+ *   · TripState 가 있으면 정류장 커서를 유지한다. 좋은 fix 는 커서를 스냅된 정류장으로 바로잡고
+ *     (시간표가 앞서 나간 추정도 되돌린다), 시간표 추정은 커서를 뒤로 보내지 않는다.
  *
  * - 출력:
  *   · ArrivalCheckResponse 에 남은 거리, 도착 여부,
  *     현재 안내 문구, nextLegIndex, currentStationIndex, stopsLeft 를 채워서 반환.
  */
 @Service
+@RequiredArgsConstructor
 public class TransitArrivalService {
 
+    private final PreparedGeometryCache geometryCache;
+    private final OnboardScheduleEstimator scheduleEstimator;
+
     /** 안전한 리스트 접근용 유틸 */
     private static <T> T safeGet(List<T> list, int idx) {
         if (list == null || idx < 0 || idx >= list.size()) return null;
@@ -45,87 +55,72 @@ public class TransitArrivalService {
                 null,
                 null,
                 null,
-                null
+                null,
+                Double.NaN
         );
     }
 
     /**
-     * Haversine 공식을 이용해 두 좌표 사이 거리(m)를 계산하는 내부 유틸.
-     * (GeoUtils 에 distanceMeters 가 이미 있으면 그걸 써도 됨)
-     */
-    private static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
-        double R = 6371000.0; // 지구 반지름(m)
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c;
-    }
-
-    /**
-     * 현재 좌표에서 가장 가까운 정류장 index 를 찾는다.
+     * 대중교통(BUS / SUBWAY) 구간의 도착 판정 및 남은 정거장 계산 (GPS 스냅만 사용).
      *
-     * @param stations SK passStopList.stations[]
-     * @param currLat  현재 위도
-     * @param currLon  현재 경도
-     * @return 가장 가까운 정류장 index (없으면 null)
+     * @param itin SK ItineraryDto (한 개의 경로 후보)
+     * @param req  ArrivalCheckRequest (현재 위치/판정 파라미터)
+     * @return ArrivalCheckResponse
      */
-    private static Integer findNearestStationIndex(
-            List<SkTransitRootDto.StationDto> stations,
-            double currLat,
-            double currLon
-    ) {
-        double best = Double.MAX_VALUE;
-        Integer bestIdx = null;
-
-        for (int i = 0; i < stations.size(); i++) {
-            SkTransitRootDto.StationDto st = stations.get(i);
-            if (st == null || st.lat() == null || st.lon() == null) continue;
-
-            try {
-                double sLat = Double.parseDouble(st.lat());
-                double sLon = Double.parseDouble(st.lon());
-                double d = distanceMeters(currLat, currLon, sLat, sLon);
-                if (d < best) {
-                    best = d;
-                    bestIdx = i;
-                }
-            } catch (NumberFormatException ignore) {
-                // 좌표 파싱 실패 시 해당 정류장은 스킵
-            }
-        }
-        return bestIdx;
+    public ArrivalCheckResponse evaluate(SkTransitRootDto.ItineraryDto itin, ArrivalCheckRequest req) {
+        return evaluate(itin, req, null, 0L);
     }
 
     /**
-     * 대중교통(BUS / SUBWAY) 구간의 도착 판정 및 남은 정거장 계산.
+     * 시간표 추정을 포함한 판정.
      *
-     * @param itin SK ItineraryDto (한 개의 경로 후보)
-     * @param req  ArrivalCheckRequest (현재 위치/판정 파라미터)
-     * @return ArrivalCheckResponse
+     * @param state 트립 상태 (null 이면 GPS 스냅만 사용)
+     * @param nowMs 이번 fix 시각
      */
-    public ArrivalCheckResponse evaluate(SkTransitRootDto.ItineraryDto itin, ArrivalCheckRequest req) {
+    public ArrivalCheckResponse evaluate(SkTransitRootDto.ItineraryDto itin, ArrivalCheckRequest req,
+                                         TripState state, long nowMs) {
         // 1) 현재 진행 중인 leg 추출
         var leg = safeGet(itin.legs(), req.legIndex());
         if (leg == null) return notFound();
 
-        // 2) 노선 형상 라인스트링 파싱 (필수 기준)
-        String line = (leg.passShape() != null) ? leg.passShape().linestring() : null;
-        var pts = GeoUtils.parseLineString(line);
+        if (state != null) {
+            scheduleEstimator.board(state, req.itineraryIndex(), req.legIndex(), nowMs);
+        }
+        boolean useSchedule = state != null && scheduleEstimator.isEnabled();
 
-        // polyline 이 없거나 파싱 실패 시 보호
-        if (pts == null || pts.isEmpty()) {
+        // 2) 노선 형상 (필수 기준, 캐시된 사전 계산 형상 + 정류장 오프셋)
+        PreparedLeg prepared = geometryCache.leg(leg);
+        PreparedPolyline path = prepared.path();
+
+        // polyline 이 없거나 파싱 실패 시 보호 (시간표 추정은 형상 없이도 가능)
+        if (path.isEmpty() && !useSchedule) {
             return notFound();
         }
 
         // 3) 전체 polyline 길이와, 현재 위치를 스냅한 지점까지의 거리 계산
-        double total = GeoUtils.polylineLength(pts);
-        var snap = PolylineSnapper.snapToPolyline(req.currLat(), req.currLon(), pts);
-
-        double remaining = Math.max(0, total - snap.snappedMetersFromStart);
-        boolean arrived = remaining <= req.arriveRadiusM();
+        double total = path.length();
+        var snap = path.isEmpty() ? null : path.snap(req.currLat(), req.currLon());
+        boolean goodFix = snap != null && (!useSchedule || scheduleEstimator.isGoodFix(snap.distanceToPolyline));
+
+        double remaining;
+        boolean arrived;
+        double along;
+        double scheduleFraction = Double.NaN;
+        if (goodFix) {
+            along = snap.snappedMetersFromStart;
+            remaining = Math.max(0, total - along);
+            arrived = remaining <= req.arriveRadiusM();
+            if (useSchedule && total > 0) {
+                scheduleEstimator.correct(state, snap.snappedMetersFromStart / total, nowMs);
+            }
+        } else {
+            // 3') GPS 를 믿을 수 없으면 시간표로 진행률 추정 (하차 판정은 하지 않음)
+            scheduleFraction = scheduleEstimator.predictFraction(state, leg, nowMs);
+            along = total * scheduleFraction;
+            double length = total > 0 ? total : (leg.distance() != null ? leg.distance() : Double.NaN);
+            remaining = length * (1 - scheduleFraction);
+            arrived = false;
+        }
 
         // 4) 현재 안내 문구(기본: "출발지 → 도착지")
         String curr = (leg.start() != null ? leg.start().name() : "") +
@@ -143,12 +138,18 @@ public class TransitArrivalService {
                 && !passStopList.stations().isEmpty()) {
 
             var stations = passStopList.stations();
-            currentStationIndex = findNearestStationIndex(stations, req.currLat(), req.currLon());
-
-            if (currentStationIndex != null) {
-                int lastIdx = stations.size() - 1;  // 도착 정류장은 리스트의 마지막이라고 가정
-                stopsLeft = Math.max(0, lastIdx - currentStationIndex);
+            int idx = prepared.hasStationOffsets()
+                    ? prepared.nearestStation(along)
+                    : OnboardScheduleEstimator.stationIndexAt(scheduleFraction, stations.size());
+
+            // 관측(좋은 fix)은 커서를 그대로 바로잡고, 시간표 추정만 커서를 뒤로 보내지 않는다
+            if (state != null) {
+                if (!goodFix) idx = Math.max(idx, state.getStationCursor());
+                state.setStationCursor(idx);
             }
+            currentStationIndex = idx;
+            int lastIdx = stations.size() - 1;  // 도착 정류장은 리스트의 마지막이라고 가정
+            stopsLeft = Math.max(0, lastIdx - currentStationIndex);
         }
 
         // 6) 도착 시 다음 leg 로 전이 (마지막 leg 를 넘어가면 이후 로직에서 보정)
@@ -163,7 +164,8 @@ public class TransitArrivalService {
                 nextLegIndex,
                 null,             // nextStepIndex (대중교통은 step 없음)
                 currentStationIndex,
-                stopsLeft
+                stopsLeft,
+                remaining         // 대중교통은 leg 끝이 곧 판정 지점
         );
     }
 }
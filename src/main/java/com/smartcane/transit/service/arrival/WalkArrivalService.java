@@ -3,8 +3,10 @@ package com.smartcane.transit.service.arrival;
 import com.smartcane.transit.dto.request.ArrivalCheckRequest;
 import com.smartcane.transit.dto.response.ArrivalCheckResponse;
 import com.smartcane.transit.dto.response.SkTransitRootDto;
-import com.smartcane.transit.util.GeoUtils;
-import com.smartcane.transit.util.PolylineSnapper;
+import com.smartcane.transit.service.geometry.PreparedGeometryCache;
+import com.smartcane.transit.service.geometry.PreparedLeg;
+import com.smartcane.transit.util.PreparedPolyline;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -13,20 +15,27 @@ import java.util.List;
  * 보행(WALK) 구간의 진행/도착 판정을 담당하는 서비스.
  *
  * - 기본 판정 기준:
- *   · leg.steps[stepIndex].linestring 이 있으면 그 polyline 으로 도착 판정
- *   · 없으면 leg.passShape.linestring 으로 fallback
+ *   · steps[].linestring 을 이어 붙인 leg 전체 보행 경로(PreparedLeg, 캐시 공유)에 한 번 스냅하고,
+ *     step 경계 누적거리를 이진 탐색해 현재 step 과 step 끝까지 남은 거리를 구한다.
+ *   · 스냅은 현재 step 시작 선분 이후만 보므로 지나온 step 으로 되돌아가지 않는다.
+ *   · steps 가 없으면 leg.passShape.linestring 전체를 한 구간으로 본다.
  *
  * - 기능:
  *   · 현재 step 의 안내 문구(description)를 currentInstruction 으로 제공
- *   · 도착 시 nextStepIndex/nextLegIndex 를 계산하여 다음 안내로 전진
- *   · lookAheadM 이 설정된 경우, 아직 도착 전이어도
- *     일정 거리 이내에 들어오면 다음 step 안내문을 미리 nextInstruction 로 내려준다.
+ *   · 짧은 step 을 지나쳤거나 fix 가 여러 step 앞에 찍혀도 한 번에 nextStepIndex 로 전진
+ *     (step 전진은 leg 전체 스냅 기준이라 히스테리시스 없이 바로 반영)
+ *   · 마지막 step 끝(도착 반경)에 들어오면 arrived + nextLegIndex
+ *   · lookAheadM 이 설정된 경우, step 끝까지 일정 거리 이내에 들어오면
+ *     다음 step 안내문을 미리 nextInstruction 로 내려준다.
  *
  * - 정류장 개념이 없으므로 currentStationIndex / stopsLeft 는 항상 null.
  */
 @Service
+@RequiredArgsConstructor
 public class WalkArrivalService {
 
+    private final PreparedGeometryCache geometryCache;
+
     /** 안전한 리스트 접근용 유틸 */
     private static <T> T safeGet(List<T> list, int idx) {
         if (list == null || idx < 0 || idx >= list.size()) return null;
@@ -43,7 +52,8 @@ public class WalkArrivalService {
                 null,
                 null,
                 null,
-                null
+                null,
+                Double.NaN
         );
     }
 
@@ -59,69 +69,52 @@ public class WalkArrivalService {
         var leg = safeGet(itin.legs(), req.legIndex());
         if (leg == null) return notFound();
 
-        String currentInst = null; // 현재 step 의 안내 문구
-        String line = null;        // 판정에 사용할 polyline (WKT-like "lon lat, ...")
-
-        // 2) 우선 step.linestring 사용 (step 단위 보행 안내)
-        if (leg.steps() != null && req.stepIndex() != null) {
-            var step = safeGet(leg.steps(), req.stepIndex());
-            if (step != null) {
-                currentInst = step.description();
-                line = step.linestring();
-            }
-        }
-
-        // 3) step 에 라인스트링이 없으면 leg.passShape.linestring 으로 fallback
-        if (line == null || line.isBlank()) {
-            if (leg.passShape() != null) {
-                line = leg.passShape().linestring();
-            }
-        }
+        // 2) leg 전체 보행 경로 (step 경계 포함, 캐시된 사전 계산 형상)
+        PreparedLeg prepared = geometryCache.leg(leg);
+        PreparedPolyline path = prepared.path();
 
         // polyline 이 없거나 파싱 실패 시 보호
-        var pts = GeoUtils.parseLineString(line);
-        if (pts == null || pts.isEmpty()) {
+        if (path.isEmpty()) {
             return notFound();
         }
 
-        // 4) 전체 polyline 길이와 현재 위치를 스냅한 지점까지의 거리 계산
-        double total = GeoUtils.polylineLength(pts);
-        var snap = PolylineSnapper.snapToPolyline(req.currLat(), req.currLon(), pts);
-
-        double remaining = Math.max(0, total - snap.snappedMetersFromStart);
-        boolean arrived = remaining <= req.arriveRadiusM();
+        int steps = prepared.stepCount();
+        int current = steps == 0 ? 0
+                : Math.max(0, Math.min(req.stepIndex() != null ? req.stepIndex() : 0, steps - 1));
+
+        // 3) 현재 step 시작 이후 구간에 한 번 스냅
+        var snap = path.snapFrom(req.currLat(), req.currLon(), steps == 0 ? 0 : prepared.stepFirstSegment(current));
+        double along = snap.snappedMetersFromStart;
+        double total = path.length();
+
+        // 4) 현재 step: 스냅 위치가 속한 step, step 끝 도착 반경 안이면 다음 step 으로 (여러 개 건너뛰기 가능)
+        int step = current;
+        if (steps > 0) {
+            step = Math.max(current, prepared.stepAt(along));
+            while (step < steps - 1 && prepared.stepEnd(step) - along <= req.arriveRadiusM()) {
+                step++;
+            }
+        }
+        boolean lastStep = steps == 0 || step == steps - 1;
+        double remaining = Math.max(0, (lastStep ? total : prepared.stepEnd(step)) - along);
+        boolean arrived = lastStep && remaining <= req.arriveRadiusM();
 
         // 5) 다음 안내(스텝 인덱스 / 레그 인덱스) 계산
+        Integer nextLegIndex = arrived ? req.legIndex() + 1 : null;
+        Integer nextStepIndex = (steps > 0 && step != current) ? step : null;
+
         String nextInstruction = null;
-        Integer nextLegIndex = null;
-        Integer nextStepIndex = null;
-
-        if (arrived) {
-            // 도착: 다음 스텝으로 전진, 마지막 스텝이면 다음 레그로 전이
-            if (leg.steps() != null && req.stepIndex() != null) {
-                int ni = req.stepIndex() + 1;
-                if (ni < leg.steps().size()) {
-                    nextStepIndex = ni;
-                    nextInstruction = leg.steps().get(ni).description();
-                } else {
-                    nextLegIndex = req.legIndex() + 1;
-                }
-            } else {
-                // stepIndex 가 없으면 해당 leg 전체를 하나의 구간으로 보고 바로 다음 leg 로
-                nextLegIndex = req.legIndex() + 1;
-            }
-        } else if (req.lookAheadM() != null && remaining <= req.lookAheadM()) {
-            // 도착 직전(lookAheadM 이내)에 들어오면, 다음 스텝 안내를 미리 알려준다.
-            if (leg.steps() != null && req.stepIndex() != null) {
-                int ni = req.stepIndex() + 1;
-                if (ni < leg.steps().size()) {
-                    nextStepIndex = ni; // 프리뷰 할 step index
-                    nextInstruction = leg.steps().get(ni).description();
-                }
-            }
+        if (!lastStep && req.lookAheadM() != null && remaining <= req.lookAheadM()) {
+            // step 끝 직전(lookAheadM 이내)에 들어오면, 다음 스텝 안내를 미리 알려준다.
+            var next = leg.steps().get(step + 1);
+            nextInstruction = next != null ? next.description() : null;
         }
 
-        // 6) 현재 안내 문구 기본값
+        // 6) 현재 안내 문구 (step.description, 없으면 기본값)
+        String currentInst = null;
+        if (steps > 0 && leg.steps().get(step) != null) {
+            currentInst = leg.steps().get(step).description();
+        }
         if (currentInst == null || currentInst.isBlank()) {
             currentInst = "직진하세요.";
         }
@@ -135,7 +128,8 @@ public class WalkArrivalService {
                 nextLegIndex,
                 nextStepIndex,
                 null,   // currentStationIndex (보행 구간은 정류장 개념 없음)
-                null    // stopsLeft
+                null,   // stopsLeft
+                Math.max(0, total - along)
         );
     }
 }
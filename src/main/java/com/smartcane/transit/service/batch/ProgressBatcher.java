@@ -0,0 +1,296 @@
+package com.smartcane.transit.service.batch;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
+import com.smartcane.transit.dto.response.GuidanceResponse;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.exception.OverloadedException;
+import com.smartcane.transit.service.ProgressCoordinator;
+import com.smartcane.transit.service.TripState;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 진행 업링크 마이크로 배칭 (smartcane.transit.progressBatchEnabled).
+ *
+ * - 요청 스레드는 fix 를 큐에 넣고 future 만 받는다.
+ * - 수집 스레드가 첫 fix 도착 후 progressBatchWindowMs 동안(또는 progressBatchMaxSize 개까지) 모은 뒤
+ *   배치의 트립 상태를 TripStore.loadAll 로 한 번에 로드하고(Redis 면 MGET 1왕복),
+ *   현재 leg(인터닝된 LegDto 인스턴스) 기준으로 그룹핑한다.
+ *   같은 버스 노선을 탄 트립들은 한 그룹이 되어 같은 PreparedLeg 형상을 연달아 스냅하므로 캐시 적중이 높다.
+ *   판정 자체는 fix 마다 스칼라 커널을 호출한다 (여러 점을 한 번에 스냅하는 배치 커널은 없다).
+ * - 그룹은 워커 풀에서 병렬 평가하고, 트립 상태는 배치당 트립마다 한 번만 저장한다.
+ *   배치가 모두 끝난 뒤 다음 배치를 모은다.
+ *   → 같은 트립의 fix 가 두 배치에 걸쳐 동시에 평가되는 일이 없고, 같은 배치 안에서는 도착 순서대로 평가된다.
+ * - 추가 지연 상한 ≈ window + 직전 배치 처리 시간.
+ * - 큐가 가득 차면 progressBatchOfferTimeoutMs 만큼만 기다리고, 그래도 자리가 없으면 503(OverloadedException)으로 거절한다.
+ *   호출 스레드에서 바로 평가하면 같은 트립의 큐 안 fix 와 동시에 평가되어 순서/상태 갱신이 깨진다.
+ */
+@Slf4j
+@Component
+public class ProgressBatcher implements MeterBinder {
+
+    private record Pending(String tripId, ProgressUpdateEnvelope envelope, long enqueuedNanos,
+                           CompletableFuture<GuidanceResponse> future) {}
+
+    private record Resolved(Pending pending, SkTransitRootDto.MetaDataDto meta, TripState state) {}
+
+    private final ProgressCoordinator coordinator;
+    private final GuidanceProperties props;
+
+    private final BlockingQueue<Pending> queue;
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedFixes = new AtomicLong();
+    private final AtomicLong groups = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private ExecutorService workers;
+    private Thread collector;
+    private volatile boolean running;
+
+    public ProgressBatcher(ProgressCoordinator coordinator, GuidanceProperties props) {
+        this.coordinator = coordinator;
+        this.props = props;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, props.getProgressBatchQueueCapacity()));
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!props.isProgressBatchEnabled() || running) return;
+        int n = props.getProgressBatchWorkers() > 0
+                ? props.getProgressBatchWorkers()
+                : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(n, r -> {
+            Thread t = new Thread(r, "progress-batch-worker-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        running = true;
+        collector = new Thread(this::collectLoop, "progress-batch-collector");
+        collector.setDaemon(true);
+        collector.start();
+        log.info("progress micro-batching enabled: window={}ms maxSize={} workers={}",
+                props.getProgressBatchWindowMs(), props.getProgressBatchMaxSize(), n);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!running) return;
+        running = false;
+        collector.interrupt();
+        try {
+            collector.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdown();
+        // 남은 요청은 호출 스레드 대신 여기서 마저 처리
+        List<Pending> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        rest.forEach(this::evaluateInline);
+    }
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+    /**
+     * 배칭이 꺼져 있으면 호출 스레드에서 바로 처리한 결과를 돌려준다.
+     * @throws OverloadedException 큐가 progressBatchOfferTimeoutMs 동안 계속 가득 차 있을 때
+     */
+    public CompletableFuture<GuidanceResponse> submit(String tripId, ProgressUpdateEnvelope envelope) {
+        // 정지/중복 fix 는 큐에 넣지 않고 직전 응답으로 바로 완료
+        GuidanceResponse cached = coordinator.cachedResponse(tripId, envelope);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+        if (!running) {
+            return CompletableFuture.completedFuture(coordinator.updateProgress(tripId, envelope));
+        }
+        Pending p = new Pending(tripId, envelope, System.nanoTime(), new CompletableFuture<>());
+        try {
+            if (queue.offer(p, props.getProgressBatchOfferTimeoutMs(), TimeUnit.MILLISECONDS)) return p.future();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.incrementAndGet();
+        throw new OverloadedException("progress-batch", "대기열 " + queue.size() + "건");
+    }
+
+    private void collectLoop() {
+        int max = Math.max(1, props.getProgressBatchMaxSize());
+        long windowNanos = TimeUnit.MICROSECONDS.toNanos(Math.round(props.getProgressBatchWindowMs() * 1000));
+        List<Pending> batch = new ArrayList<>(max);
+        while (running) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long deadline = first.enqueuedNanos() + windowNanos;
+                while (batch.size() < max) {
+                    long wait = deadline - System.nanoTime();
+                    if (wait <= 0) break;
+                    Pending next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                queue.drainTo(batch, max - batch.size());
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("progress batch failed", e);
+                batch.forEach(p -> p.future().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+        List<Pending> rest = new ArrayList<>(batch);
+        rest.forEach(this::evaluateInline);
+    }
+
+    /**
+     * 트립 상태를 한 번에 로드(TripStore.loadAll, Redis 면 MGET 1회) → leg 별 그룹 → 그룹 병렬 평가.
+     * 그룹 안에서는 fix 마다 판정만 하고, 트립별 저장은 그룹 끝에 한 번 한 뒤 응답을 완료한다.
+     * 전부 끝날 때까지 대기.
+     */
+    private void process(List<Pending> batch) {
+        Map<Pending, SkTransitRootDto.MetaDataDto> metas = new IdentityHashMap<>();
+        Set<String> tripIds = new LinkedHashSet<>();
+        for (Pending p : batch) {
+            try {
+                metas.put(p, coordinator.resolvePlan(p.tripId(), p.envelope()));   // 메모리 조회
+                tripIds.add(p.tripId());
+            } catch (RuntimeException e) {
+                p.future().completeExceptionally(e);
+            }
+        }
+        if (tripIds.isEmpty()) return;
+
+        Map<String, TripState> states;
+        try {
+            states = coordinator.loadOrInitAll(tripIds);
+        } catch (RuntimeException e) {
+            metas.keySet().forEach(p -> p.future().completeExceptionally(e));
+            return;
+        }
+
+        Map<String, SkTransitRootDto.LegDto> keys = new HashMap<>();
+        Map<SkTransitRootDto.LegDto, List<Resolved>> byLeg = new IdentityHashMap<>();
+        Map<String, List<Resolved>> byTrip = new HashMap<>();   // leg 정보가 없는 트립은 트립 단위 그룹
+        List<List<Resolved>> groupList = new ArrayList<>();
+
+        for (Pending p : batch) {
+            SkTransitRootDto.MetaDataDto meta = metas.get(p);
+            if (meta == null) continue;
+            try {
+                TripState state = states.get(p.tripId());
+                // 트립의 그룹 키는 배치에서 처음 본 fix 기준으로 고정 → 한 트립은 한 그룹에만 속한다
+                SkTransitRootDto.LegDto key = keys.containsKey(p.tripId())
+                        ? keys.get(p.tripId())
+                        : ProgressCoordinator.activeLeg(state, meta);
+                keys.put(p.tripId(), key);
+                List<Resolved> group = key != null ? byLeg.get(key) : byTrip.get(p.tripId());
+                if (group == null) {
+                    group = new ArrayList<>();
+                    groupList.add(group);
+                    if (key != null) byLeg.put(key, group); else byTrip.put(p.tripId(), group);
+                }
+                group.add(new Resolved(p, meta, state));
+            } catch (RuntimeException e) {
+                p.future().completeExceptionally(e);
+            }
+        }
+
+        batches.incrementAndGet();
+        batchedFixes.addAndGet(batch.size());
+        groups.addAndGet(groupList.size());
+
+        if (groupList.size() <= 1) {
+            groupList.forEach(this::evaluateGroup);
+            return;
+        }
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(groupList.size());
+        for (List<Resolved> group : groupList) {
+            tasks.add(CompletableFuture.runAsync(() -> evaluateGroup(group), workers));
+        }
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+    }
+
+    /** 같은 leg 의 fix 들을 도착 순서대로 판정하고, 트립마다 마지막 상태를 한 번 저장한 뒤 응답을 완료한다 */
+    private void evaluateGroup(List<Resolved> group) {
+        Map<String, TripState> touched = new LinkedHashMap<>();
+        List<GuidanceResponse> results = new ArrayList<>(group.size());
+        for (Resolved r : group) {
+            Pending p = r.pending();
+            try {
+                results.add(coordinator.evaluate(p.tripId(), r.state(), r.meta(), p.envelope().progress()));
+                touched.put(p.tripId(), r.state());
+            } catch (RuntimeException e) {
+                results.add(null);
+                p.future().completeExceptionally(e);
+            }
+        }
+        Map<String, RuntimeException> saveFailures = new HashMap<>();
+        touched.forEach((tripId, state) -> {
+            try {
+                coordinator.save(tripId, state);
+            } catch (RuntimeException e) {
+                saveFailures.put(tripId, e);
+            }
+        });
+        for (int i = 0; i < group.size(); i++) {
+            Pending p = group.get(i).pending();
+            if (results.get(i) == null) continue;
+            RuntimeException failed = saveFailures.get(p.tripId());
+            if (failed != null) p.future().completeExceptionally(failed);
+            else p.future().complete(results.get(i));
+        }
+    }
+
+    private void evaluateInline(Pending p) {
+        try {
+            p.future().complete(coordinator.updateProgress(p.tripId(), p.envelope()));
+        } catch (RuntimeException e) {
+            p.future().completeExceptionally(e);
+        }
+    }
+
+    public long batches() { return batches.get(); }
+    public long batchedFixes() { return batchedFixes.get(); }
+    public long groups() { return groups.get(); }
+    public long rejected() { return rejected.get(); }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartcane.progress.batch.queue", queue, BlockingQueue::size).register(registry);
+        Gauge.builder("smartcane.progress.batch.count", batches, AtomicLong::get).register(registry);
+        Gauge.builder("smartcane.progress.batch.fixes", batchedFixes, AtomicLong::get).register(registry);
+        Gauge.builder("smartcane.progress.batch.groups", groups, AtomicLong::get).register(registry);
+        Gauge.builder("smartcane.progress.batch.rejected", rejected, AtomicLong::get)
+                .description("큐 포화로 503 거절한 업링크 수")
+                .register(registry);
+    }
+}
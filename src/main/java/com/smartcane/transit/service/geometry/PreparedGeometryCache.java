@@ -0,0 +1,73 @@
+package com.smartcane.transit.service.geometry;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.util.SegmentKernel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * leg → PreparedLeg 캐시.
+ *
+ * - 키는 LegDto 내용(record equals/hashCode). 인터닝된 계획이면 문자열 비교가
+ *   동일 인스턴스 비교로 끝나 조회가 싸고, 업링크마다 새로 역직렬화된 계획도 같은 항목을 찾는다.
+ * - 같은 노선을 타는 모든 트립이 하나의 PreparedLeg 를 공유한다.
+ * - 크기 상한(preparedLegCacheSize)을 넘으면 일부를 비워 근사적으로 제한한다.
+ * - 최근접 선분 탐색 커널(snapKernel: scalar/vector)은 생성 시 주입된 것을 모든 leg 가 공유한다.
+ * - itinerary 단위 누적합(PreparedItinerary)도 같은 방식(내용 키, 근사 상한)으로 캐시한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PreparedGeometryCache {
+
+    private final GuidanceProperties props;
+    private final SegmentKernel kernel;
+    private final Map<SkTransitRootDto.LegDto, PreparedLeg> legs = new ConcurrentHashMap<>();
+    private final Map<SkTransitRootDto.ItineraryDto, PreparedItinerary> itineraries = new ConcurrentHashMap<>();
+
+    public PreparedLeg leg(SkTransitRootDto.LegDto leg) {
+        PreparedLeg prepared = legs.get(leg);
+        if (prepared != null) return prepared;
+
+        prepared = PreparedLeg.of(leg, kernel);
+        if (legs.size() >= props.getPreparedLegCacheSize()) {
+            evictSome();
+        }
+        PreparedLeg prev = legs.putIfAbsent(leg, prepared);
+        return prev != null ? prev : prepared;
+    }
+
+    public PreparedItinerary itinerary(SkTransitRootDto.ItineraryDto itinerary) {
+        PreparedItinerary prepared = itineraries.get(itinerary);
+        if (prepared != null) return prepared;
+
+        prepared = PreparedItinerary.of(itinerary, this, props.getEtaTransitFallbackSpeedMps());
+        if (itineraries.size() >= props.getPreparedLegCacheSize()) {
+            evictSome(itineraries);
+        }
+        PreparedItinerary prev = itineraries.putIfAbsent(itinerary, prepared);
+        return prev != null ? prev : prepared;
+    }
+
+    public int size() {
+        return legs.size();
+    }
+
+    private void evictSome() {
+        evictSome(legs);
+    }
+
+    /** 약 1/8 을 비운다 (정확한 LRU 대신 핫패스 경합이 없는 근사 제한) */
+    private static void evictSome(Map<?, ?> map) {
+        int toRemove = Math.max(1, map.size() / 8);
+        Iterator<?> it = map.keySet().iterator();
+        while (toRemove-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.smartcane.transit.service.geometry;
+
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+
+import java.util.List;
+
+/**
+ * 경로 후보(itinerary) 1개의 leg 길이/소요시간 누적합.
+ *
+ * - legEndM[i]            : 출발점 ~ leg i 끝까지 거리 (prefix sum)
+ * - walkMetersAfter[i]    : leg i 이후(i+1..) 보행 leg 거리 합 (suffix sum)
+ * - transitSecondsAfter[i]: leg i 이후(i+1..) 대중교통 leg 소요시간 합 (suffix sum)
+ *
+ * 계획 시점에 한 번 만들어 두면 fix 마다 "현재 leg 남은 거리 + 이후 leg 합" 으로
+ * 목적지까지 남은 거리/시간을 O(1) 로 구할 수 있다. 불변.
+ */
+public final class PreparedItinerary {
+
+    private final double[] legLengthM;
+    private final double[] legEndM;
+    private final int[] sectionTimeSec;     // 0 = 정보 없음
+    private final double[] walkMetersAfter;
+    private final double[] transitSecondsAfter;
+
+    private PreparedItinerary(double[] legLengthM, int[] sectionTimeSec, boolean[] walk,
+                              double transitFallbackSpeedMps) {
+        int n = legLengthM.length;
+        this.legLengthM = legLengthM;
+        this.sectionTimeSec = sectionTimeSec;
+        this.legEndM = new double[n];
+        this.walkMetersAfter = new double[n];
+        this.transitSecondsAfter = new double[n];
+
+        double acc = 0;
+        for (int i = 0; i < n; i++) {
+            acc += legLengthM[i];
+            legEndM[i] = acc;
+        }
+        double walkAcc = 0, transitAcc = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            walkMetersAfter[i] = walkAcc;
+            transitSecondsAfter[i] = transitAcc;
+            if (walk[i]) {
+                walkAcc += legLengthM[i];
+            } else {
+                transitAcc += sectionTimeSec[i] > 0
+                        ? sectionTimeSec[i]
+                        : legLengthM[i] / transitFallbackSpeedMps;
+            }
+        }
+    }
+
+    /**
+     * @param cache                   leg 형상 길이 (PreparedLeg) 조회용
+     * @param transitFallbackSpeedMps sectionTime 이 없는 대중교통 leg 의 소요시간 추정 속도
+     */
+    public static PreparedItinerary of(SkTransitRootDto.ItineraryDto itinerary, PreparedGeometryCache cache,
+                                       double transitFallbackSpeedMps) {
+        List<SkTransitRootDto.LegDto> legs = itinerary.legs() != null ? itinerary.legs() : List.of();
+        int n = legs.size();
+        double[] length = new double[n];
+        int[] sectionTime = new int[n];
+        boolean[] walk = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            SkTransitRootDto.LegDto leg = legs.get(i);
+            walk[i] = leg.mode() == null || "WALK".equalsIgnoreCase(leg.mode());
+            sectionTime[i] = leg.sectionTime() != null ? Math.max(0, leg.sectionTime()) : 0;
+
+            // 스냅 기준과 같은 형상 길이 우선, 형상이 없으면 SK 가 준 distance
+            double shape = cache.leg(leg).path().length();
+            length[i] = shape > 0 ? shape
+                    : (leg.distance() != null ? Math.max(0, leg.distance()) : 0);
+        }
+        return new PreparedItinerary(length, sectionTime, walk, transitFallbackSpeedMps);
+    }
+
+    public int legCount() {
+        return legLengthM.length;
+    }
+
+    public double legLength(int i) {
+        return legLengthM[i];
+    }
+
+    /** leg i 의 SK sectionTime(초), 없으면 0 */
+    public int sectionTime(int i) {
+        return sectionTimeSec[i];
+    }
+
+    public double totalLength() {
+        return legLengthM.length == 0 ? 0 : legEndM[legEndM.length - 1];
+    }
+
+    /** leg i 끝 ~ 목적지 거리 */
+    public double metersAfter(int i) {
+        return totalLength() - legEndM[i];
+    }
+
+    public double walkMetersAfter(int i) {
+        return walkMetersAfter[i];
+    }
+
+    public double transitSecondsAfter(int i) {
+        return transitSecondsAfter[i];
+    }
+}
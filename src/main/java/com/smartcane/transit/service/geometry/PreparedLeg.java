@@ -0,0 +1,145 @@
+package com.smartcane.transit.service.geometry;
+
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.util.GeoUtils;
+import com.smartcane.transit.util.PreparedPolyline;
+import com.smartcane.transit.util.SegmentKernel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * leg 1개에 대해 미리 계산해 둔 지오메트리.
+ * - path : 이 leg 의 진행 경로
+ *          · BUS / SUBWAY : passShape.linestring
+ *          · WALK         : steps[].linestring 을 이어 붙인 경로 (없으면 passShape)
+ * - stationOffsets : BUS / SUBWAY 의 passStopList.stations 를 path 에 스냅한 누적거리(m).
+ *          정류장 순서대로 단조 증가하도록 보정해 두므로, 현재 정류장은 스냅 거리로 이진 탐색한다.
+ * - stepEnds / stepFirstSegments : WALK path 가 steps 로 만들어졌을 때 step 별 끝 누적거리(m) 와
+ *          시작 선분 index. leg 전체에 한 번 스냅한 뒤 이진 탐색으로 현재 step 을 정한다.
+ */
+public final class PreparedLeg {
+
+    private final String mode;
+    private final PreparedPolyline path;
+    private final double[] stationOffsets;
+    private final double[] stepEnds;
+    private final int[] stepFirstSegments;
+
+    private PreparedLeg(String mode, PreparedPolyline path, double[] stationOffsets,
+                        double[] stepEnds, int[] stepFirstSegments) {
+        this.mode = mode;
+        this.path = path;
+        this.stationOffsets = stationOffsets;
+        this.stepEnds = stepEnds;
+        this.stepFirstSegments = stepFirstSegments;
+    }
+
+    static PreparedLeg of(SkTransitRootDto.LegDto leg, SegmentKernel kernel) {
+        String mode = leg.mode() != null ? leg.mode().toUpperCase() : "WALK";
+        List<double[]> pts = new ArrayList<>();
+        int[] stepEndVertex = null;
+        if ("WALK".equals(mode) && leg.steps() != null) {
+            stepEndVertex = new int[leg.steps().size()];
+            for (int i = 0; i < stepEndVertex.length; i++) {
+                var step = leg.steps().get(i);
+                if (step != null) {
+                    List<double[]> sp = GeoUtils.parseLineString(step.linestring());
+                    // 앞 step 의 끝점과 같은 시작점은 중복 제거
+                    int from = (!pts.isEmpty() && !sp.isEmpty() && samePoint(pts.get(pts.size() - 1), sp.get(0))) ? 1 : 0;
+                    pts.addAll(sp.subList(from, sp.size()));
+                }
+                stepEndVertex[i] = pts.size() - 1;   // 형상 없는 step 은 직전 step 끝에서 바로 끝남
+            }
+        }
+        if (pts.isEmpty()) {
+            stepEndVertex = null;
+            if (leg.passShape() != null) {
+                pts = GeoUtils.parseLineString(leg.passShape().linestring());
+            }
+        }
+        PreparedPolyline path = PreparedPolyline.of(pts, kernel);
+
+        double[] stepEnds = new double[0];
+        int[] stepFirstSegments = new int[0];
+        if (stepEndVertex != null) {
+            stepEnds = new double[stepEndVertex.length];
+            stepFirstSegments = new int[stepEndVertex.length];
+            for (int i = 0; i < stepEndVertex.length; i++) {
+                stepEnds[i] = stepEndVertex[i] < 0 ? 0 : path.offsetAt(stepEndVertex[i]);
+                // step i 는 직전 step 끝 정점에서 시작하는 선분부터 (step 사이 이음 선분 포함)
+                stepFirstSegments[i] = i == 0 ? 0 : Math.max(0, stepEndVertex[i - 1]);
+            }
+        }
+        return new PreparedLeg(mode, path, stationOffsets(leg, path), stepEnds, stepFirstSegments);
+    }
+
+    /** 정류장별 along-track 오프셋 (좌표 파싱 실패 정류장은 직전 정류장 값) */
+    private static double[] stationOffsets(SkTransitRootDto.LegDto leg, PreparedPolyline path) {
+        if (path.isEmpty() || leg.passStopList() == null || leg.passStopList().stations() == null) {
+            return new double[0];
+        }
+        var stations = leg.passStopList().stations();
+        double[] offsets = new double[stations.size()];
+        double prev = 0;
+        for (int i = 0; i < offsets.length; i++) {
+            var st = stations.get(i);
+            double off = prev;
+            if (st != null && st.lat() != null && st.lon() != null) {
+                try {
+                    off = path.snap(Double.parseDouble(st.lat()), Double.parseDouble(st.lon())).snappedMetersFromStart;
+                } catch (NumberFormatException ignore) {
+                    // 좌표 파싱 실패 시 직전 정류장 위치로 간주
+                }
+            }
+            offsets[i] = Math.max(prev, off);   // 형상이 되돌아가는 구간에서도 순서 유지
+            prev = offsets[i];
+        }
+        return offsets;
+    }
+
+    private static boolean samePoint(double[] a, double[] b) {
+        return a[0] == b[0] && a[1] == b[1];
+    }
+
+    public String mode() { return mode; }
+    public boolean isWalk() { return "WALK".equals(mode); }
+    public PreparedPolyline path() { return path; }
+    public boolean hasStationOffsets() { return stationOffsets.length > 0; }
+    public double stationOffset(int index) { return stationOffsets[index]; }
+
+    /** steps 기반 WALK path 의 step 수 (passShape 로 만든 path 면 0) */
+    public int stepCount() { return stepEnds.length; }
+    public double stepEnd(int step) { return stepEnds[step]; }
+    public int stepFirstSegment(int step) { return stepFirstSegments[step]; }
+
+    /**
+     * along-track 거리가 속한 step (끝 누적거리가 alongM 보다 큰 첫 step, 이진 탐색).
+     * 마지막 step 끝을 넘으면 마지막 step.
+     */
+    public int stepAt(double alongM) {
+        int n = stepEnds.length;
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (stepEnds[mid] <= alongM) lo = mid + 1; else hi = mid;
+        }
+        return Math.min(lo, n - 1);
+    }
+
+    /**
+     * along-track 거리에 가장 가까운 정류장 index (이진 탐색, 정류장이 없으면 -1).
+     */
+    public int nearestStation(double alongM) {
+        int n = stationOffsets.length;
+        if (n == 0) return -1;
+        int lo = 0, hi = n;   // 첫 offset >= alongM 위치
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (stationOffsets[mid] < alongM) lo = mid + 1; else hi = mid;
+        }
+        if (lo == n) return n - 1;
+        if (lo == 0) return 0;
+        return (alongM - stationOffsets[lo - 1] <= stationOffsets[lo] - alongM) ? lo - 1 : lo;
+    }
+}
@@ -0,0 +1,228 @@
+package com.smartcane.transit.service.plan;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 트립 간에 공유되는 노선/정류장/형상 데이터의 Flyweight 인터닝.
+ *
+ * - 같은 버스 노선을 타는 수백 명의 계획(plan)은 StationDto, 정류장명, routeId,
+ *   passShape 라인스트링이 내용상 완전히 같다. SK DTO 는 record 라서 내용 기반
+ *   equals/hashCode 를 가지므로, 내용 해시로 조회해 이미 있는 불변 인스턴스로 치환한다.
+ * - leg 단위로 먼저 조회하고(hit 이면 하위 트리 전체 공유), miss 이면 하위 요소를
+ *   인터닝한 뒤 재조립해 등록한다.
+ * - 각 풀은 크기 제한 LRU 라 오래 안 쓰인 노선은 자연히 빠진다(공유 중인 계획은 영향 없음).
+ * - 절약 바이트는 치환된 객체 그래프의 추정 크기로 누적한다.
+ */
+@Component
+public class PlanInterner implements MeterBinder {
+
+    private final Pool<String> strings;
+    private final Pool<SkTransitRootDto.StationDto> stations;
+    private final Pool<SkTransitRootDto.PassStopListDto> stopLists;
+    private final Pool<SkTransitRootDto.PassShapeDto> shapes;
+    private final Pool<SkTransitRootDto.WalkStepDto> steps;
+    private final Pool<SkTransitRootDto.PlaceDto> places;
+    private final Pool<SkTransitRootDto.LegDto> legs;
+
+    private final AtomicLong bytesSaved = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public PlanInterner(GuidanceProperties props) {
+        int max = props.getInternMaxEntries();
+        this.strings = new Pool<>(max * 4);
+        this.stations = new Pool<>(max * 2);
+        this.stopLists = new Pool<>(max);
+        this.shapes = new Pool<>(max);
+        this.steps = new Pool<>(max);
+        this.places = new Pool<>(max);
+        this.legs = new Pool<>(max);
+    }
+
+    public SkTransitRootDto.MetaDataDto intern(SkTransitRootDto.MetaDataDto meta) {
+        if (meta == null || meta.plan() == null || meta.plan().itineraries() == null) return meta;
+        List<SkTransitRootDto.ItineraryDto> itins = new ArrayList<>(meta.plan().itineraries().size());
+        for (var it : meta.plan().itineraries()) {
+            itins.add(intern(it));
+        }
+        return new SkTransitRootDto.MetaDataDto(meta.requestParameters(), new SkTransitRootDto.PlanDto(Collections.unmodifiableList(itins)));
+    }
+
+    SkTransitRootDto.ItineraryDto intern(SkTransitRootDto.ItineraryDto it) {
+        if (it == null || it.legs() == null) return it;
+        List<SkTransitRootDto.LegDto> ls = new ArrayList<>(it.legs().size());
+        for (var leg : it.legs()) {
+            ls.add(intern(leg));
+        }
+        return new SkTransitRootDto.ItineraryDto(it.fare(), it.totalTime(), it.totalDistance(), it.totalWalkTime(),
+                it.totalWalkDistance(), it.transferCount(), it.pathType(), Collections.unmodifiableList(ls));
+    }
+
+    SkTransitRootDto.LegDto intern(SkTransitRootDto.LegDto leg) {
+        if (leg == null) return null;
+        SkTransitRootDto.LegDto shared = legs.get(leg);
+        if (shared != null) return hit(leg, shared);
+        misses.incrementAndGet();
+
+        List<SkTransitRootDto.WalkStepDto> st = null;
+        if (leg.steps() != null) {
+            st = new ArrayList<>(leg.steps().size());
+            for (var s : leg.steps()) st.add(intern(s));
+            st = Collections.unmodifiableList(st);
+        }
+        SkTransitRootDto.LegDto rebuilt = new SkTransitRootDto.LegDto(
+                str(leg.mode()), leg.sectionTime(), leg.distance(), str(leg.routeColor()), str(leg.route()),
+                str(leg.routeId()), leg.service(), leg.type(), intern(leg.start()), intern(leg.end()),
+                st, intern(leg.passStopList()), intern(leg.passShape()));
+        return legs.putIfAbsent(rebuilt);
+    }
+
+    SkTransitRootDto.PassStopListDto intern(SkTransitRootDto.PassStopListDto list) {
+        if (list == null || list.stations() == null) return list;
+        SkTransitRootDto.PassStopListDto shared = stopLists.get(list);
+        if (shared != null) return hit(list, shared);
+        List<SkTransitRootDto.StationDto> out = new ArrayList<>(list.stations().size());
+        for (var s : list.stations()) out.add(intern(s));
+        return stopLists.putIfAbsent(new SkTransitRootDto.PassStopListDto(Collections.unmodifiableList(out)));
+    }
+
+    SkTransitRootDto.StationDto intern(SkTransitRootDto.StationDto s) {
+        if (s == null) return null;
+        SkTransitRootDto.StationDto shared = stations.get(s);
+        if (shared != null) return hit(s, shared);
+        return stations.putIfAbsent(new SkTransitRootDto.StationDto(
+                s.index(), str(s.stationName()), str(s.lon()), str(s.lat()), str(s.stationID())));
+    }
+
+    SkTransitRootDto.PassShapeDto intern(SkTransitRootDto.PassShapeDto shape) {
+        if (shape == null) return null;
+        SkTransitRootDto.PassShapeDto shared = shapes.get(shape);
+        if (shared != null) return hit(shape, shared);
+        return shapes.putIfAbsent(new SkTransitRootDto.PassShapeDto(str(shape.linestring())));
+    }
+
+    SkTransitRootDto.WalkStepDto intern(SkTransitRootDto.WalkStepDto step) {
+        if (step == null) return null;
+        SkTransitRootDto.WalkStepDto shared = steps.get(step);
+        if (shared != null) return hit(step, shared);
+        return steps.putIfAbsent(new SkTransitRootDto.WalkStepDto(
+                str(step.streetName()), step.distance(), str(step.description()), str(step.linestring())));
+    }
+
+    SkTransitRootDto.PlaceDto intern(SkTransitRootDto.PlaceDto place) {
+        if (place == null) return null;
+        SkTransitRootDto.PlaceDto shared = places.get(place);
+        if (shared != null) return hit(place, shared);
+        return places.putIfAbsent(new SkTransitRootDto.PlaceDto(str(place.name()), place.lon(), place.lat()));
+    }
+
+    private String str(String s) {
+        if (s == null) return null;
+        String shared = strings.get(s);
+        if (shared != null) return hit(s, shared);
+        return strings.putIfAbsent(s);
+    }
+
+    private <T> T hit(T original, T shared) {
+        hits.incrementAndGet();
+        if (original != shared) bytesSaved.addAndGet(estimateBytes(original));
+        return shared;
+    }
+
+    public long bytesSaved() { return bytesSaved.get(); }
+    public long hits() { return hits.get(); }
+    public long misses() { return misses.get(); }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartcane.plan.intern.bytes.saved", bytesSaved, AtomicLong::get)
+                .description("공유 인스턴스로 치환되어 절약된 추정 힙 바이트")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("smartcane.plan.intern.hits", hits, AtomicLong::get).register(registry);
+        Gauge.builder("smartcane.plan.intern.leg.misses", misses, AtomicLong::get).register(registry);
+    }
+
+    // --- 추정 크기 (64bit, compressed oops 기준 근사) ---
+
+    static long estimateBytes(Object o) {
+        if (o == null) return 0;
+        if (o instanceof String s) return 40 + (long) s.length() * (isLatin1(s) ? 1 : 2);
+        if (o instanceof Integer || o instanceof Double) return 16;
+        if (o instanceof SkTransitRootDto.StationDto s) {
+            return 32 + estimateBytes(s.index()) + estimateBytes(s.stationName()) + estimateBytes(s.lon())
+                    + estimateBytes(s.lat()) + estimateBytes(s.stationID());
+        }
+        if (o instanceof SkTransitRootDto.PassStopListDto l) {
+            long sum = 16 + 16 + 4L * (l.stations() == null ? 0 : l.stations().size());
+            if (l.stations() != null) for (var s : l.stations()) sum += estimateBytes(s);
+            return sum;
+        }
+        if (o instanceof SkTransitRootDto.PassShapeDto p) return 16 + estimateBytes(p.linestring());
+        if (o instanceof SkTransitRootDto.WalkStepDto w) {
+            return 24 + estimateBytes(w.streetName()) + estimateBytes(w.distance())
+                    + estimateBytes(w.description()) + estimateBytes(w.linestring());
+        }
+        if (o instanceof SkTransitRootDto.PlaceDto p) {
+            return 24 + estimateBytes(p.name()) + estimateBytes(p.lon()) + estimateBytes(p.lat());
+        }
+        if (o instanceof SkTransitRootDto.LegDto l) {
+            long sum = 64 + estimateBytes(l.mode()) + estimateBytes(l.sectionTime()) + estimateBytes(l.distance())
+                    + estimateBytes(l.routeColor()) + estimateBytes(l.route()) + estimateBytes(l.routeId())
+                    + estimateBytes(l.service()) + estimateBytes(l.type()) + estimateBytes(l.start())
+                    + estimateBytes(l.end()) + estimateBytes(l.passStopList()) + estimateBytes(l.passShape());
+            if (l.steps() != null) {
+                sum += 16 + 4L * l.steps().size();
+                for (var s : l.steps()) sum += estimateBytes(s);
+            }
+            return sum;
+        }
+        return 16;
+    }
+
+    private static boolean isLatin1(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0xFF) return false;
+        }
+        return true;
+    }
+
+    /** 크기 제한 LRU 인터닝 풀 (계획 등록 빈도가 낮아 단순 동기화로 충분) */
+    static final class Pool<T> {
+        private final Map<T, T> map;
+
+        Pool(int maxEntries) {
+            this.map = new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<T, T> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        synchronized T get(T key) {
+            return map.get(key);
+        }
+
+        synchronized T putIfAbsent(T value) {
+            T prev = map.putIfAbsent(value, value);
+            return prev != null ? prev : value;
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.smartcane.transit.service.plan;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.geometry.PreparedGeometryCache;
+import com.smartcane.transit.service.geometry.PreparedItinerary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * tripId → 경로 계획(MetaData) 등록소.
+ *
+ * - /plan 시점에 PlanInterner 를 거친 공유 인스턴스로 등록하므로,
+ *   같은 노선을 타는 트립들은 정류장/형상 데이터를 하나만 들고 있다.
+ * - 진행 업링크가 metaData 를 생략하면 여기 등록된 계획을 사용한다.
+ * - 등록 순서 큐를 함께 두어, maxRegisteredPlans 를 넘으면 가장 오래 전에 등록된 계획부터 축출한다 (실제 상한).
+ * - TTL(planTtlMinutes) 이 지난 계획은 스케줄(purgeExpired)로 큐 앞쪽부터 정리한다. 등록 경로에서 전체를 훑지 않는다.
+ * - 등록 시 후보 itinerary 별 누적합(PreparedItinerary)을 한 번 만들어 항목에 함께 들고 있는다.
+ *   fix 마다 itinerary 내용으로 캐시를 조회(깊은 해시)하지 않고 참조로 바로 쓴다 (prepared()).
+ */
+@Component
+@RequiredArgsConstructor
+public class PlanRegistry implements MeterBinder {
+
+    /**
+     * 등록 1건. 큐에 남은 옛 항목과 현재 항목을 구분해야 하므로 값이 아니라 동일성(==)으로 비교한다
+     * (같은 ms 에 같은 계획으로 재등록해도 별개 항목).
+     */
+    private static final class Registered {
+        final String tripId;
+        final SkTransitRootDto.MetaDataDto meta;
+        final long registeredAtMs;
+        final List<PreparedItinerary> prepared;   // itinerary 순서와 같음
+
+        Registered(String tripId, SkTransitRootDto.MetaDataDto meta, long registeredAtMs,
+                   List<PreparedItinerary> prepared) {
+            this.tripId = tripId;
+            this.meta = meta;
+            this.registeredAtMs = registeredAtMs;
+            this.prepared = prepared;
+        }
+    }
+
+    /** 스냅샷용 등록 항목 (TripSnapshotService) */
+    public record Entry(String tripId, SkTransitRootDto.MetaDataDto meta, long registeredAtMs) {}
+
+    private final PlanInterner interner;
+    private final PreparedGeometryCache geometryCache;
+    private final GuidanceProperties props;
+
+    private final Map<String, Registered> plans = new ConcurrentHashMap<>();
+    /** 등록 순(= 등록 시각 순). 재등록/삭제된 항목은 남아 있다가 꺼낼 때 건너뛴다 */
+    private final Queue<Registered> order = new ConcurrentLinkedQueue<>();
+    private final AtomicLong evicted = new AtomicLong();
+
+    /** @return 인터닝된(공유) MetaData — 응답에도 이 인스턴스를 사용한다 */
+    public SkTransitRootDto.MetaDataDto register(String tripId, SkTransitRootDto.MetaDataDto meta) {
+        SkTransitRootDto.MetaDataDto shared = interner.intern(meta);
+        put(new Registered(tripId, shared, System.currentTimeMillis(), prepare(shared)));
+        return shared;
+    }
+
+    private void put(Registered r) {
+        plans.put(r.tripId, r);
+        order.add(r);
+        while (plans.size() > props.getMaxRegisteredPlans()) {
+            Registered oldest = order.poll();
+            if (oldest == null) break;
+            if (plans.remove(oldest.tripId, oldest)) evicted.incrementAndGet();
+        }
+    }
+
+    /** 없거나 만료되었으면 null */
+    public SkTransitRootDto.MetaDataDto find(String tripId) {
+        Registered r = plans.get(tripId);
+        if (r == null) return null;
+        if (isExpired(r, System.currentTimeMillis())) {
+            plans.remove(tripId, r);
+            return null;
+        }
+        return r.meta;
+    }
+
+    /**
+     * 스냅샷 복원: 이미 인터닝된 계획을 원래 등록 시각 그대로 다시 넣는다 (TTL 이 이어지도록).
+     * 축출 순서가 맞도록 entries() 순서(등록 시각 오름차순)대로 넣어야 한다.
+     */
+    public void restore(String tripId, SkTransitRootDto.MetaDataDto sharedMeta, long registeredAtMs) {
+        put(new Registered(tripId, sharedMeta, registeredAtMs, prepare(sharedMeta)));
+    }
+
+    /**
+     * 등록 시 만들어 둔 itinerary 누적합.
+     * meta 가 이 트립에 등록된 인스턴스가 아니면(업링크에 계획을 직접 실어 보낸 경우 등) null.
+     */
+    public PreparedItinerary prepared(String tripId, SkTransitRootDto.MetaDataDto meta, int itineraryIndex) {
+        Registered r = plans.get(tripId);
+        if (r == null || r.meta != meta || itineraryIndex < 0 || itineraryIndex >= r.prepared.size()) return null;
+        return r.prepared.get(itineraryIndex);
+    }
+
+    private List<PreparedItinerary> prepare(SkTransitRootDto.MetaDataDto meta) {
+        if (meta == null || meta.plan() == null || meta.plan().itineraries() == null) return List.of();
+        List<PreparedItinerary> out = new ArrayList<>(meta.plan().itineraries().size());
+        for (SkTransitRootDto.ItineraryDto itin : meta.plan().itineraries()) {
+            out.add(geometryCache.itinerary(itin));
+        }
+        return List.copyOf(out);
+    }
+
+    /** 등록 시각 오름차순 */
+    public List<Entry> entries() {
+        List<Entry> out = new ArrayList<>(plans.size());
+        plans.forEach((tripId, r) -> out.add(new Entry(tripId, r.meta, r.registeredAtMs)));
+        out.sort(Comparator.comparingLong(Entry::registeredAtMs));
+        return out;
+    }
+
+    public void remove(String tripId) {
+        plans.remove(tripId);
+    }
+
+    public int size() {
+        return plans.size();
+    }
+
+    @Scheduled(fixedDelayString = "${smartcane.transit.planPurgeIntervalMs:60000}",
+            initialDelayString = "${smartcane.transit.planPurgeIntervalMs:60000}")
+    public void purgeExpired() {
+        purgeExpired(System.currentTimeMillis());
+    }
+
+    /** 큐 앞쪽(오래된 등록)부터 만료분만 꺼낸다 — O(만료 수) */
+    public void purgeExpired(long nowMs) {
+        Registered head;
+        while ((head = order.peek()) != null && (isExpired(head, nowMs) || plans.get(head.tripId) != head)) {
+            if (order.remove(head)) plans.remove(head.tripId, head);
+        }
+    }
+
+    private boolean isExpired(Registered r, long nowMs) {
+        return nowMs - r.registeredAtMs > props.getPlanTtlMinutes() * 60_000L;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartcane.plan.registry.size", plans, Map::size).register(registry);
+        Gauge.builder("smartcane.plan.registry.evicted", evicted, AtomicLong::get)
+                .description("maxRegisteredPlans 를 넘어 만료 전에 축출한 계획 수")
+                .register(registry);
+    }
+}
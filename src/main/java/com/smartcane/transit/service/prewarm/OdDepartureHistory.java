@@ -0,0 +1,67 @@
+package com.smartcane.transit.service.prewarm;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * OD(출발지-목적지) × 출발 시간대별 /plan 요청 횟수 (V1__od_departure_history.sql).
+ */
+@Entity
+@Table(name = "od_departure_history")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OdDepartureHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "od_key", nullable = false, length = 96)
+    private String odKey;
+
+    @Column(name = "start_x", nullable = false, length = 32)
+    private String startX;
+
+    @Column(name = "start_y", nullable = false, length = 32)
+    private String startY;
+
+    @Column(name = "end_x", nullable = false, length = 32)
+    private String endX;
+
+    @Column(name = "end_y", nullable = false, length = 32)
+    private String endY;
+
+    @Column(name = "departure_slot", nullable = false)
+    private int departureSlot;
+
+    @Column(name = "request_count", nullable = false)
+    private int requestCount;
+
+    @Column(name = "last_requested_at", nullable = false)
+    private LocalDateTime lastRequestedAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public OdDepartureHistory(String odKey, String startX, String startY, String endX, String endY,
+                              int departureSlot, LocalDateTime now) {
+        this.odKey = odKey;
+        this.startX = startX;
+        this.startY = startY;
+        this.endX = endX;
+        this.endY = endY;
+        this.departureSlot = departureSlot;
+        this.requestCount = 1;
+        this.lastRequestedAt = now;
+        this.createdAt = now;
+    }
+}
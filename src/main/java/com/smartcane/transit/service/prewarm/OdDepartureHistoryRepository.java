@@ -0,0 +1,31 @@
+package com.smartcane.transit.service.prewarm;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OdDepartureHistoryRepository extends JpaRepository<OdDepartureHistory, Long> {
+
+    /** 기존 (OD, 시간대) 행의 요청 횟수 +1, @return 갱신된 행 수 (0 이면 새로 저장) */
+    @Transactional
+    @Modifying
+    @Query("update OdDepartureHistory h set h.requestCount = h.requestCount + 1, h.lastRequestedAt = :now " +
+            "where h.odKey = :odKey and h.departureSlot = :slot")
+    int increment(@Param("odKey") String odKey, @Param("slot") int slot, @Param("now") LocalDateTime now);
+
+    /** 곧 다가오는 시간대에 자주(minCount 이상), 최근(since 이후) 요청된 OD — 요청 횟수 내림차순 */
+    @Query("select h from OdDepartureHistory h " +
+            "where h.departureSlot in :slots and h.requestCount >= :minCount and h.lastRequestedAt >= :since " +
+            "order by h.requestCount desc")
+    List<OdDepartureHistory> findPrewarmCandidates(@Param("slots") Collection<Integer> slots,
+                                                   @Param("minCount") int minCount,
+                                                   @Param("since") LocalDateTime since,
+                                                   Pageable page);
+}
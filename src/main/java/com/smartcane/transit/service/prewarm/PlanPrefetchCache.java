@@ -0,0 +1,78 @@
+package com.smartcane.transit.service.prewarm;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.RoutePlanRequest;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 미리 받아 둔 경로 계획 (odKey → 버스 우선 필터까지 끝난 SK 응답).
+ *
+ * - 키는 좌표를 소수 4자리(약 10m)로 반올림한 OD 라서, 매일 같은 집 앞에서 요청해도 같은 항목을 찾는다.
+ * - planPrewarmTtlMinutes 가 지나면 쓰지 않는다 (배차/소요시간이 바뀌므로).
+ * - searchDttm 을 지정한 요청(특정 시각 출발 검색)은 캐시를 쓰지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PlanPrefetchCache {
+
+    private record Entry(SkTransitRootDto root, long fetchedAtMs) {}
+
+    private final GuidanceProperties props;
+    private final Map<String, Entry> plans = new ConcurrentHashMap<>();
+
+    /** 좌표 문자열 4개 → OD 키, 좌표가 숫자가 아니면 null */
+    public static String odKey(String startX, String startY, String endX, String endY) {
+        try {
+            return String.format(Locale.ROOT, "%.4f,%.4f>%.4f,%.4f",
+                    Double.parseDouble(startX), Double.parseDouble(startY),
+                    Double.parseDouble(endX), Double.parseDouble(endY));
+        } catch (NumberFormatException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    public static String odKey(RoutePlanRequest query) {
+        return odKey(query.startX(), query.startY(), query.endX(), query.endY());
+    }
+
+    /** 유효한 예열 계획, 없으면 null */
+    public SkTransitRootDto find(RoutePlanRequest query, long nowMs) {
+        if (query.searchDttm() != null && !query.searchDttm().isBlank()) return null;
+        String key = odKey(query);
+        if (key == null) return null;
+        Entry e = plans.get(key);
+        if (e == null) return null;
+        if (isExpired(e, nowMs)) {
+            plans.remove(key, e);
+            return null;
+        }
+        return e.root();
+    }
+
+    public boolean isFresh(String odKey, long nowMs) {
+        Entry e = plans.get(odKey);
+        return e != null && !isExpired(e, nowMs);
+    }
+
+    public void put(String odKey, SkTransitRootDto root, long nowMs) {
+        plans.put(odKey, new Entry(root, nowMs));
+    }
+
+    public int size() {
+        return plans.size();
+    }
+
+    public void purgeExpired(long nowMs) {
+        plans.entrySet().removeIf(e -> isExpired(e.getValue(), nowMs));
+    }
+
+    private boolean isExpired(Entry e, long nowMs) {
+        return nowMs - e.fetchedAtMs() > props.getPlanPrewarmTtlMinutes() * 60_000L;
+    }
+}
@@ -0,0 +1,189 @@
+package com.smartcane.transit.service.prewarm;
+
+import com.smartcane.transit.config.ExecutionLanes;
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.RoutePlanRequest;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.RouteService;
+import com.smartcane.transit.service.sk.SkCallPriority;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 반복 이용 OD 의 경로 계획 예열 (smartcane.transit.planPrewarmEnabled).
+ *
+ * - /plan 마다 (OD, 출발 시간대) 요청 횟수를 MySQL(od_departure_history)에 누적한다. (비동기, 실패해도 무시)
+ * - 스케줄러가 planPrewarmIntervalMs 마다 "지금 ~ planPrewarmLeadMinutes 뒤" 시간대에
+ *   최근 planPrewarmLookbackDays 동안 planPrewarmMinCount 회 이상 요청된 OD 를 골라
+ *   SK 경로를 미리 받아 PlanPrefetchCache 에 넣는다 (이미 유효한 항목은 건너뜀).
+ * - SK 호출은 하루 planPrewarmDailyQuota 회, 1회 실행당 planPrewarmMaxPerRun 회로 제한한다.
+ *   실제 사용자 /plan 호출과 같은 API 키 할당량을 나눠 쓰므로 예열이 본 요청을 밀어내지 않게 한다.
+ * - lean 프로파일처럼 JPA 가 빠진 노드에서는 리포지토리가 없어 기록/예열 모두 건너뛴다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlanPrewarmer implements MeterBinder {
+
+    private static final DateTimeFormatter SEARCH_DTTM = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+
+    private final GuidanceProperties props;
+    private final PlanPrefetchCache cache;
+    private final RouteService routeService;
+    private final ObjectProvider<OdDepartureHistoryRepository> repositoryProvider;
+    private final ExecutionLanes lanes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong prefetched = new AtomicLong();
+    private final AtomicLong prefetchFailures = new AtomicLong();
+
+    private LocalDate quotaDay;
+    private int quotaUsed;
+
+    /** 예열된 계획, 없으면 null (기능이 꺼져 있으면 항상 null) */
+    public SkTransitRootDto cached(RoutePlanRequest query) {
+        if (!props.isPlanPrewarmEnabled()) return null;
+        SkTransitRootDto root = cache.find(query, System.currentTimeMillis());
+        (root != null ? hits : misses).incrementAndGet();
+        return root;
+    }
+
+    /** (OD, 출발 시간대) 요청 횟수 +1 — 요청 스레드를 막지 않도록 io 레인에서 처리 */
+    public void record(RoutePlanRequest query) {
+        if (!props.isPlanPrewarmEnabled()) return;
+        OdDepartureHistoryRepository repository = repositoryProvider.getIfAvailable();
+        String odKey = PlanPrefetchCache.odKey(query);
+        if (repository == null || odKey == null) return;
+
+        LocalDateTime now = LocalDateTime.now(zone());
+        int slot = departureSlot(departureTime(query, now), props.getPlanPrewarmSlotMinutes());
+        Mono.fromRunnable(() -> upsert(repository, odKey, query, slot, now))
+                .subscribeOn(lanes.ioScheduler())
+                .subscribe(null, e -> log.debug("OD 이력 기록 실패: {}", e.toString()));
+    }
+
+    private void upsert(OdDepartureHistoryRepository repository, String odKey, RoutePlanRequest q,
+                        int slot, LocalDateTime now) {
+        if (repository.increment(odKey, slot, now) > 0) return;
+        try {
+            repository.save(new OdDepartureHistory(odKey, q.startX(), q.startY(), q.endX(), q.endY(), slot, now));
+        } catch (DataIntegrityViolationException race) {
+            // 다른 요청이 먼저 행을 만들었다
+            repository.increment(odKey, slot, now);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${smartcane.transit.planPrewarmIntervalMs:60000}",
+            initialDelayString = "${smartcane.transit.planPrewarmIntervalMs:60000}")
+    public void prewarm() {
+        if (!props.isPlanPrewarmEnabled()) return;
+        OdDepartureHistoryRepository repository = repositoryProvider.getIfAvailable();
+        if (repository == null) return;
+
+        long nowMs = System.currentTimeMillis();
+        cache.purgeExpired(nowMs);
+
+        LocalDateTime now = LocalDateTime.now(zone());
+        Set<Integer> slots = upcomingSlots(now.toLocalTime(),
+                props.getPlanPrewarmLeadMinutes(), props.getPlanPrewarmSlotMinutes());
+        List<OdDepartureHistory> candidates = repository.findPrewarmCandidates(slots,
+                props.getPlanPrewarmMinCount(),
+                now.minusDays(props.getPlanPrewarmLookbackDays()),
+                PageRequest.of(0, Math.max(1, props.getPlanPrewarmMaxPerRun() * 2)));
+
+        int issued = 0;
+        for (OdDepartureHistory h : candidates) {
+            if (issued >= props.getPlanPrewarmMaxPerRun()) break;
+            if (cache.isFresh(h.getOdKey(), nowMs)) continue;   // 같은 OD 의 다른 시간대로 이미 받음
+            if (!tryAcquireQuota(now.toLocalDate())) {
+                log.debug("plan 예열 일일 할당량 소진 ({}회)", props.getPlanPrewarmDailyQuota());
+                break;
+            }
+            issued++;
+            RoutePlanRequest query = new RoutePlanRequest(h.getStartX(), h.getStartY(), h.getEndX(), h.getEndY(),
+                    0, "json", null, null);
+            String odKey = h.getOdKey();
+            routeService.searchRoutes(query, SkCallPriority.PREFETCH).subscribe(
+                    root -> {
+                        cache.put(odKey, root, System.currentTimeMillis());
+                        prefetched.incrementAndGet();
+                    },
+                    e -> {
+                        prefetchFailures.incrementAndGet();
+                        log.debug("plan 예열 실패 od={}: {}", odKey, e.toString());
+                    });
+        }
+    }
+
+    /** 하루 SK 호출 할당량 (zone 기준 날짜가 바뀌면 초기화) */
+    synchronized boolean tryAcquireQuota(LocalDate today) {
+        if (!today.equals(quotaDay)) {
+            quotaDay = today;
+            quotaUsed = 0;
+        }
+        if (quotaUsed >= props.getPlanPrewarmDailyQuota()) return false;
+        quotaUsed++;
+        return true;
+    }
+
+    private ZoneId zone() {
+        return ZoneId.of(props.getPlanPrewarmZone());
+    }
+
+    /** 출발 시각: searchDttm(yyyyMMddHHmm) 이 있으면 그 시각, 없으면 지금 */
+    static LocalTime departureTime(RoutePlanRequest query, LocalDateTime now) {
+        if (query.searchDttm() != null && !query.searchDttm().isBlank()) {
+            try {
+                return LocalDateTime.parse(query.searchDttm(), SEARCH_DTTM).toLocalTime();
+            } catch (DateTimeParseException ignore) {
+                // 형식이 다르면 요청 시각 사용
+            }
+        }
+        return now.toLocalTime();
+    }
+
+    /** 하루 중 분을 slotMinutes 단위로 내린 값 (07:52, 15분 → 465 = 07:45) */
+    static int departureSlot(LocalTime t, int slotMinutes) {
+        int minuteOfDay = t.getHour() * 60 + t.getMinute();
+        return minuteOfDay / slotMinutes * slotMinutes;
+    }
+
+    /** now ~ now+leadMinutes 사이에 걸치는 시간대들 (자정 넘김 포함) */
+    static Set<Integer> upcomingSlots(LocalTime now, int leadMinutes, int slotMinutes) {
+        Set<Integer> slots = new TreeSet<>();
+        for (int m = 0; m <= leadMinutes; m++) {
+            slots.add(departureSlot(now.plusMinutes(m), slotMinutes));
+        }
+        return slots;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartcane.plan.prewarm.hits", hits, AtomicLong::get).register(registry);
+        Gauge.builder("smartcane.plan.prewarm.misses", misses, AtomicLong::get).register(registry);
+        Gauge.builder("smartcane.plan.prewarm.prefetched", prefetched, AtomicLong::get).register(registry);
+        Gauge.builder("smartcane.plan.prewarm.failures", prefetchFailures, AtomicLong::get).register(registry);
+        Gauge.builder("smartcane.plan.prewarm.cached", cache, PlanPrefetchCache::size).register(registry);
+    }
+}
@@ -0,0 +1,13 @@
+package com.smartcane.transit.service.sk;
+
+/**
+ * SK API 호출 우선순위 (선언 순서 = 높은 우선순위 먼저).
+ */
+public enum SkCallPriority {
+    /** 진행 중인 트립의 경로 재탐색 — 사용자가 길 위에서 기다리는 중 */
+    REROUTE,
+    /** 새 /plan 요청 */
+    PLAN,
+    /** 반복 OD 예열(PlanPrewarmer) — 할당량이 남을 때만 */
+    PREFETCH
+}
@@ -0,0 +1,326 @@
+package com.smartcane.transit.service.sk;
+
+import com.smartcane.transit.config.SKTransitProperties;
+import com.smartcane.transit.exception.SkCallRejectedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * SK API 아웃바운드 호출 스케줄러 (RouteService 앞단).
+ *
+ * - 토큰 버킷(ratePerSecond, burst)으로 SK 호출 속도를 할당량에 맞추고, 동시 호출 수는 maxConcurrent 로 제한한다.
+ * - 대기열은 우선순위별(REROUTE > PLAN > PREFETCH)로 두고 항상 높은 우선순위부터 내보낸다.
+ *   전체 queueCapacity 를 넘으면 더 낮은 우선순위의 가장 최근 요청을 밀어내고, 없으면 새 요청을 버린다.
+ * - 우선순위별 대기 기한(*MaxWaitMs)을 넘긴 요청은 내보내지 않고 SkCallRejectedException 으로 끝낸다.
+ *   (사용자가 이미 포기했을 요청에 할당량을 쓰지 않는다)
+ * - 시도마다 timeoutMs 를 적용하고, hedgeAfterMs 안에 응답이 없으면 두 번째 시도를 병행해 먼저 온 응답을 쓴다.
+ *   첫 시도가 재시도 가능한 오류(5xx/타임아웃/연결 실패)로 끝나면 바로 두 번째 시도를 한다.
+ *   추가 시도는 요청당 1회, 토큰이 남아 있을 때만 한다. 예열(PREFETCH)은 헤지하지 않는다.
+ * - 지표: 우선순위별 대기열 길이/대기 시간, 진행 중 호출 수, 버림/재시도/헤지 횟수.
+ */
+@Slf4j
+@Component
+public class SkCallScheduler implements MeterBinder {
+
+    private static final class Pending<T> {
+        final SkCallPriority priority;
+        final long enqueuedNanos;
+        final long deadlineNanos;
+        final Supplier<Mono<T>> call;
+        final MonoSink<T> sink;
+        volatile boolean cancelled;
+        volatile Disposable running;
+
+        Pending(SkCallPriority priority, long enqueuedNanos, long deadlineNanos,
+                Supplier<Mono<T>> call, MonoSink<T> sink) {
+            this.priority = priority;
+            this.enqueuedNanos = enqueuedNanos;
+            this.deadlineNanos = deadlineNanos;
+            this.call = call;
+            this.sink = sink;
+        }
+    }
+
+    private final SKTransitProperties props;
+
+    private final Map<SkCallPriority, ArrayDeque<Pending<?>>> queues = new EnumMap<>(SkCallPriority.class);
+    private int queued;
+    private int inFlight;
+    private boolean drainScheduled;
+
+    // 토큰 버킷 (this 락 안에서만 접근)
+    private double tokens;
+    private long refilledAtNanos;
+
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong droppedOverflow = new AtomicLong();
+    private final AtomicLong droppedDeadline = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private volatile Map<SkCallPriority, Timer> waitTimers;
+
+    public SkCallScheduler(SKTransitProperties props) {
+        this.props = props;
+        for (SkCallPriority p : SkCallPriority.values()) {
+            queues.put(p, new ArrayDeque<>());
+        }
+        this.tokens = Math.max(1, props.getBurst());
+        this.refilledAtNanos = System.nanoTime();
+    }
+
+    /**
+     * 호출을 대기열에 넣고, 순서/토큰이 되면 call 을 구독한다.
+     * 대기 중 버려지면 SkCallRejectedException 으로 끝난다.
+     */
+    public <T> Mono<T> submit(SkCallPriority priority, Supplier<Mono<T>> call) {
+        return Mono.create(sink -> {
+            long now = System.nanoTime();
+            Pending<T> p = new Pending<>(priority, now, now + maxWaitNanos(priority), call, sink);
+            sink.onCancel(() -> {
+                p.cancelled = true;
+                Disposable d = p.running;
+                if (d != null) d.dispose();
+            });
+            Pending<?> evicted;
+            synchronized (this) {
+                evicted = enqueue(p);
+            }
+            if (evicted != null) {
+                droppedOverflow.incrementAndGet();
+                reject(evicted, "대기열 초과");
+            }
+            drain();
+        });
+    }
+
+    /** @return 밀려난 요청 (새 요청 자신일 수도 있음), 없으면 null */
+    private Pending<?> enqueue(Pending<?> p) {
+        if (queued < props.getQueueCapacity()) {
+            queues.get(p.priority).addLast(p);
+            queued++;
+            return null;
+        }
+        // 가장 낮은 우선순위부터 새 요청보다 덜 급한 요청을 찾아 밀어낸다
+        SkCallPriority[] all = SkCallPriority.values();
+        for (int i = all.length - 1; i > p.priority.ordinal(); i--) {
+            ArrayDeque<Pending<?>> q = queues.get(all[i]);
+            if (!q.isEmpty()) {
+                Pending<?> victim = q.pollLast();
+                queues.get(p.priority).addLast(p);
+                return victim;
+            }
+        }
+        return p;
+    }
+
+    private void drain() {
+        List<Pending<?>> expired = new ArrayList<>();
+        List<Pending<?>> ready = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            sweep(now, expired);
+            while (inFlight < props.getMaxConcurrent() && queued > 0) {
+                refill(now);
+                if (tokens < 1) {
+                    scheduleDrain((long) Math.ceil((1 - tokens) / props.getRatePerSecond() * 1e9));
+                    break;
+                }
+                Pending<?> next = pollHighest();
+                tokens -= 1;
+                inFlight++;
+                ready.add(next);
+            }
+        }
+        for (Pending<?> p : expired) {
+            droppedDeadline.incrementAndGet();
+            reject(p, "대기 기한 초과");
+        }
+        for (Pending<?> p : ready) {
+            dispatch(p);
+        }
+    }
+
+    /** 기한 초과/취소된 요청을 대기열에서 걷어낸다 */
+    private void sweep(long now, List<Pending<?>> expired) {
+        for (ArrayDeque<Pending<?>> q : queues.values()) {
+            for (Iterator<Pending<?>> it = q.iterator(); it.hasNext(); ) {
+                Pending<?> p = it.next();
+                if (p.cancelled || now - p.deadlineNanos > 0) {
+                    it.remove();
+                    queued--;
+                    if (!p.cancelled) expired.add(p);
+                }
+            }
+        }
+    }
+
+    private Pending<?> pollHighest() {
+        for (ArrayDeque<Pending<?>> q : queues.values()) {   // EnumMap: 선언 순서 = 우선순위 순
+            Pending<?> p = q.pollFirst();
+            if (p != null) {
+                queued--;
+                return p;
+            }
+        }
+        return null;
+    }
+
+    private void refill(long now) {
+        double add = (now - refilledAtNanos) / 1e9 * props.getRatePerSecond();
+        tokens = Math.min(props.getBurst(), tokens + add);
+        refilledAtNanos = now;
+    }
+
+    /** 토큰이 즉시 있으면 1개 사용 (재시도/헤지용) */
+    private synchronized boolean tryAcquireToken() {
+        refill(System.nanoTime());
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    private void scheduleDrain(long delayNanos) {
+        if (drainScheduled) return;
+        drainScheduled = true;
+        Schedulers.parallel().schedule(() -> {
+            synchronized (this) {
+                drainScheduled = false;
+            }
+            drain();
+        }, Math.max(1, delayNanos), TimeUnit.NANOSECONDS);
+    }
+
+    private <T> void dispatch(Pending<T> p) {
+        dispatched.incrementAndGet();
+        Map<SkCallPriority, Timer> timers = waitTimers;
+        if (timers != null) {
+            timers.get(p.priority).record(System.nanoTime() - p.enqueuedNanos, TimeUnit.NANOSECONDS);
+        }
+        p.running = execute(p)
+                .doFinally(s -> {
+                    synchronized (this) {
+                        inFlight--;
+                    }
+                    drain();
+                })
+                .subscribe(p.sink::success, p.sink::error, p.sink::success);
+    }
+
+    /** 시도 1회 + (재시도 또는 헤지) 최대 1회 */
+    private <T> Mono<T> execute(Pending<T> p) {
+        AtomicBoolean extraUsed = new AtomicBoolean();
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        Sinks.One<Boolean> primaryDone = Sinks.one();
+
+        Mono<T> primary = attempt(p)
+                .onErrorResume(e -> {
+                    firstError.compareAndSet(null, e);
+                    if (!isRetryable(e) || !claimExtraAttempt(extraUsed)) return Mono.error(e);
+                    retries.incrementAndGet();
+                    return attempt(p);
+                })
+                .doFinally(s -> primaryDone.tryEmitValue(Boolean.TRUE));
+
+        long hedgeAfterMs = props.getHedgeAfterMs();
+        if (hedgeAfterMs <= 0 || p.priority == SkCallPriority.PREFETCH) return primary;
+
+        Mono<T> hedge = Mono.delay(Duration.ofMillis(hedgeAfterMs))
+                .flux()
+                .takeUntilOther(primaryDone.asMono())
+                .next()
+                .flatMap(t -> {
+                    if (!claimExtraAttempt(extraUsed)) return Mono.<T>empty();
+                    hedges.incrementAndGet();
+                    return attempt(p);
+                });
+
+        return Mono.firstWithValue(primary, hedge)
+                .onErrorMap(NoSuchElementException.class,
+                        e -> firstError.get() != null ? firstError.get() : e);
+    }
+
+    private boolean claimExtraAttempt(AtomicBoolean extraUsed) {
+        return extraUsed.compareAndSet(false, true) && tryAcquireToken();
+    }
+
+    private <T> Mono<T> attempt(Pending<T> p) {
+        return Mono.defer(p.call).timeout(Duration.ofMillis(props.getTimeoutMs()));
+    }
+
+    /** 5xx / 타임아웃 / 연결 실패만 다시 시도 (4xx 는 같은 결과) */
+    static boolean isRetryable(Throwable e) {
+        if (e instanceof TimeoutException || e instanceof WebClientRequestException) return true;
+        return e instanceof WebClientResponseException r && r.getStatusCode().is5xxServerError();
+    }
+
+    private void reject(Pending<?> p, String reason) {
+        log.debug("SK 호출 버림 priority={} reason={}", p.priority, reason);
+        p.sink.error(new SkCallRejectedException(p.priority, reason));
+    }
+
+    private long maxWaitNanos(SkCallPriority priority) {
+        long ms = switch (priority) {
+            case REROUTE -> props.getRerouteMaxWaitMs();
+            case PLAN -> props.getPlanMaxWaitMs();
+            case PREFETCH -> props.getPrefetchMaxWaitMs();
+        };
+        return TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+
+    public synchronized int queueDepth(SkCallPriority priority) {
+        return queues.get(priority).size();
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Map<SkCallPriority, Timer> timers = new EnumMap<>(SkCallPriority.class);
+        for (SkCallPriority p : SkCallPriority.values()) {
+            String tag = p.name().toLowerCase();
+            Gauge.builder("smartcane.sk.queue.depth", this, s -> s.queueDepth(p))
+                    .tag("priority", tag)
+                    .register(registry);
+            timers.put(p, Timer.builder("smartcane.sk.queue.wait")
+                    .description("SK 호출 대기열 대기 시간")
+                    .tag("priority", tag)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry));
+        }
+        waitTimers = timers;
+        Gauge.builder("smartcane.sk.inflight", this, SkCallScheduler::inFlight).register(registry);
+        Gauge.builder("smartcane.sk.dispatched", dispatched, AtomicLong::get).register(registry);
+        Gauge.builder("smartcane.sk.dropped.overflow", droppedOverflow, AtomicLong::get).register(registry);
+        Gauge.builder("smartcane.sk.dropped.deadline", droppedDeadline, AtomicLong::get).register(registry);
+        Gauge.builder("smartcane.sk.retries", retries, AtomicLong::get).register(registry);
+        Gauge.builder("smartcane.sk.hedges", hedges, AtomicLong::get).register(registry);
+    }
+}
@@ -0,0 +1,79 @@
+package com.smartcane.transit.service.snapshot;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * MappedSnapshotWriter 로 쓴 파일의 순차 판독기. 읽기 전용 매핑 창을 옮겨 가며 읽는다.
+ */
+final class MappedSnapshotReader implements Closeable {
+
+    private final FileChannel channel;
+    private final long size;
+    private MappedByteBuffer buf;
+    private long base;
+
+    MappedSnapshotReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(MappedSnapshotWriter.CHUNK, size));
+    }
+
+    long size() {
+        return size;
+    }
+
+    private void ensure(int n) throws IOException {
+        if (buf.remaining() >= n) return;
+        long pos = base + buf.position();
+        if (pos + n > size) throw new EOFException("snapshot truncated at " + pos);
+        base = pos;
+        buf = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(Math.max(MappedSnapshotWriter.CHUNK, n), size - pos));
+    }
+
+    int getInt() throws IOException {
+        ensure(4);
+        return buf.getInt();
+    }
+
+    long getLong() throws IOException {
+        ensure(8);
+        return buf.getLong();
+    }
+
+    double getDouble() throws IOException {
+        ensure(8);
+        return buf.getDouble();
+    }
+
+    boolean getBoolean() throws IOException {
+        ensure(1);
+        return buf.get() != 0;
+    }
+
+    byte[] getBytes() throws IOException {
+        int n = getInt();
+        if (n < 0) return null;
+        ensure(n);
+        byte[] b = new byte[n];
+        buf.get(b);
+        return b;
+    }
+
+    String getString() throws IOException {
+        byte[] b = getBytes();
+        return b == null ? null : new String(b, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        buf = null;
+        channel.close();
+    }
+}
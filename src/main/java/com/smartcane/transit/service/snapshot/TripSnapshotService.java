@@ -0,0 +1,355 @@
+package com.smartcane.transit.service.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.InMemoryTripStore;
+import com.smartcane.transit.service.TripState;
+import com.smartcane.transit.service.plan.PlanInterner;
+import com.smartcane.transit.service.plan.PlanRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * InMemoryTripStore 노드 재배포용 스냅샷 (정상 종료 시 저장 → 기동 시 복원).
+ *
+ * - 웹 서버가 요청을 다 받고 멈춘 뒤(stop) 모든 TripState 와 등록 계획(PlanRegistry)을 한 파일로 쓰고,
+ *   다음 기동 때 웹 서버가 뜨기 전(start) 복원한다. 복원이 끝나기 전에는 readiness 도 올라가지 않는다.
+ * - 파일은 메모리 매핑 채널로 순차 기록한 바이너리. 계획은 인터닝으로 공유 중인 leg 를 한 번만
+ *   (JSON) 쓰고 itinerary 는 leg 번호로 참조해서, 같은 노선 트립이 많아도 크기가 트립 수에 비례하지 않는다.
+ * - 임시 파일에 쓴 뒤 rename 하고, 끝 표식(END)까지 읽혀야만 적용한다. 실패하면 빈 상태로 그냥 뜬다.
+ * - snapshotMaxAgeMinutes 보다 오래된 스냅샷은 버린다. 적용한 스냅샷은 지워 두 번 복원되지 않게 한다.
+ *
+ * 형식(v4): MAGIC, VERSION, createdAtMs
+ *          | legs[n]        : JSON
+ *          | plans[n]       : requestParameters JSON, itineraries[n](헤더 JSON + leg 번호[])
+ *          | registrations[n]: tripId, plan 번호, registeredAtMs
+ *          | trips[n]       : TripState 필드 (writeTrip 참고)
+ *          | END
+ */
+@Slf4j
+@Component
+@Profile("!redis") // Redis 상태는 노드 재시작과 무관하게 남는다
+@RequiredArgsConstructor
+public class TripSnapshotService implements SmartLifecycle {
+
+    private static final int MAGIC = 0x53435453;   // "SCTS"
+    private static final int VERSION = 4;
+    private static final int END = 0x454E4421;     // "END!"
+
+    /** 스냅샷 1회 결과 */
+    public record Result(int trips, int plans, int legs, long bytes, long elapsedMs) {}
+
+    private final InMemoryTripStore tripStore;
+    private final PlanRegistry planRegistry;
+    private final PlanInterner planInterner;
+    private final ObjectMapper objectMapper;
+    private final GuidanceProperties props;
+
+    private volatile boolean running;
+
+    // ---------------------------------------------------------------- lifecycle
+
+    /** 웹 서버 시작(DEFAULT_PHASE - 2048)보다 먼저 시작하고, 웹 서버가 멈춘 뒤에 멈춘다 */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Path file = configuredFile();
+        if (file == null || !Files.exists(file)) return;
+        try {
+            Result r = restore(file);
+            Files.deleteIfExists(file);
+            if (r != null) {
+                log.info("trip snapshot 복원: trips={} plans={} legs={} bytes={} in {}ms",
+                        r.trips(), r.plans(), r.legs(), r.bytes(), r.elapsedMs());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("trip snapshot 복원 실패, 빈 상태로 시작: {}", file, e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (!running) return;
+        running = false;
+        Path file = configuredFile();
+        if (file == null) return;
+        try {
+            Result r = write(file);
+            log.info("trip snapshot 저장: trips={} plans={} legs={} bytes={} in {}ms",
+                    r.trips(), r.plans(), r.legs(), r.bytes(), r.elapsedMs());
+        } catch (IOException | RuntimeException e) {
+            log.warn("trip snapshot 저장 실패: {}", file, e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private Path configuredFile() {
+        String f = props.getSnapshotFile();
+        return (f == null || f.isBlank()) ? null : Path.of(f);
+    }
+
+    // ---------------------------------------------------------------- write
+
+    public Result write(Path file) throws IOException {
+        long t0 = System.nanoTime();
+        List<PlanRegistry.Entry> registrations = planRegistry.entries();
+        List<TripState> trips = new ArrayList<>(tripStore.size());
+        tripStore.forEach((id, state) -> trips.add(state));
+
+        // 계획은 값 기준(트립마다 래퍼는 따로지만 내용이 같음), leg 는 인스턴스 기준(인터닝으로 이미 공유)으로 한 번씩
+        Map<SkTransitRootDto.MetaDataDto, Integer> planIds = new HashMap<>();
+        Map<SkTransitRootDto.LegDto, Integer> legIds = new IdentityHashMap<>();
+        List<SkTransitRootDto.MetaDataDto> plans = new ArrayList<>();
+        List<SkTransitRootDto.LegDto> legs = new ArrayList<>();
+        for (PlanRegistry.Entry e : registrations) {
+            if (planIds.putIfAbsent(e.meta(), plans.size()) != null) continue;
+            plans.add(e.meta());
+            for (var itin : itinerariesOf(e.meta())) {
+                for (var leg : legsOf(itin)) {
+                    if (legIds.putIfAbsent(leg, legs.size()) == null) legs.add(leg);
+                }
+            }
+        }
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        long bytes;
+        try (MappedSnapshotWriter out = new MappedSnapshotWriter(tmp)) {
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putLong(System.currentTimeMillis());
+
+            out.putInt(legs.size());
+            for (var leg : legs) out.putBytes(objectMapper.writeValueAsBytes(leg));
+
+            out.putInt(plans.size());
+            for (var meta : plans) {
+                out.putBytes(objectMapper.writeValueAsBytes(meta.requestParameters()));
+                // 계획 자체가 없는 응답(-1)은 그대로 되살린다
+                var itins = itinerariesOf(meta);
+                out.putInt(meta.plan() == null || meta.plan().itineraries() == null ? -1 : itins.size());
+                for (var itin : itins) {
+                    out.putBytes(objectMapper.writeValueAsBytes(withLegs(itin, null)));
+                    var itinLegs = legsOf(itin);
+                    out.putInt(itin.legs() == null ? -1 : itinLegs.size());
+                    for (var leg : itinLegs) out.putInt(legIds.get(leg));
+                }
+            }
+
+            out.putInt(registrations.size());
+            for (var e : registrations) {
+                out.putString(e.tripId());
+                out.putInt(planIds.get(e.meta()));
+                out.putLong(e.registeredAtMs());
+            }
+
+            out.putInt(trips.size());
+            for (TripState s : trips) writeTrip(out, s);
+
+            out.putInt(END);
+            bytes = out.position();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new Result(trips.size(), plans.size(), legs.size(), bytes, elapsedMs(t0));
+    }
+
+    private static void writeTrip(MappedSnapshotWriter out, TripState s) throws IOException {
+        out.putString(s.getTripId());
+        out.putInt(s.getItineraryIndex());
+        out.putInt(s.getLegIndex());
+        out.putBoolean(s.getStepIndex() != null);
+        out.putInt(s.getStepIndex() != null ? s.getStepIndex() : 0);
+        out.putString(s.getPhase());
+        out.putDouble(s.getLastLon());
+        out.putDouble(s.getLastLat());
+        out.putLong(s.getLastTs());
+        out.putLong(s.getLastClientTs());
+        out.putDouble(s.getCumulativeWalkMeter());
+        out.putDouble(s.getSmoothedSpeedMps());
+        out.putDouble(s.getWalkSpeedMps());
+        out.putLong(s.getTransitionSeq());
+        out.putInt(s.getArrivalStreak());
+        putDeque(out, s.getLatBuf());
+        putDeque(out, s.getLonBuf());
+        putDoubles(out, s.getCandidateScores());
+        putInts(out, s.getCandidateLegs());
+        putInts(out, s.getCandidateSegments());
+        out.putInt(s.getOnboardItineraryIndex());
+        out.putInt(s.getOnboardLegIndex());
+        out.putLong(s.getScheduleAnchorTs());
+        out.putDouble(s.getScheduleAnchorFraction());
+        out.putInt(s.getStationCursor());
+    }
+
+    private static void putDeque(MappedSnapshotWriter out, Collection<Double> values) throws IOException {
+        out.putInt(values.size());
+        for (double v : values) out.putDouble(v);
+    }
+
+    private static void putDoubles(MappedSnapshotWriter out, double[] values) throws IOException {
+        out.putInt(values == null ? -1 : values.length);
+        if (values != null) for (double v : values) out.putDouble(v);
+    }
+
+    private static void putInts(MappedSnapshotWriter out, int[] values) throws IOException {
+        out.putInt(values == null ? -1 : values.length);
+        if (values != null) for (int v : values) out.putInt(v);
+    }
+
+    // ---------------------------------------------------------------- restore
+
+    /** 다 읽은 뒤에만 저장소/등록소에 반영한다. 너무 오래된 스냅샷이면 null */
+    public Result restore(Path file) throws IOException {
+        long t0 = System.nanoTime();
+        List<SkTransitRootDto.MetaDataDto> plans;
+        List<PlanRegistry.Entry> registrations;
+        List<TripState> trips;
+        int legCount;
+        long bytes;
+        try (MappedSnapshotReader in = new MappedSnapshotReader(file)) {
+            bytes = in.size();
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+                throw new IOException("알 수 없는 snapshot 형식: " + file);
+            }
+            long createdAtMs = in.getLong();
+            if (System.currentTimeMillis() - createdAtMs > props.getSnapshotMaxAgeMinutes() * 60_000L) {
+                log.info("trip snapshot 이 너무 오래되어 건너뜀: {}", file);
+                return null;
+            }
+
+            legCount = in.getInt();
+            List<SkTransitRootDto.LegDto> legs = new ArrayList<>(legCount);
+            for (int i = 0; i < legCount; i++) {
+                legs.add(objectMapper.readValue(in.getBytes(), SkTransitRootDto.LegDto.class));
+            }
+
+            int planCount = in.getInt();
+            plans = new ArrayList<>(planCount);
+            for (int i = 0; i < planCount; i++) {
+                var params = objectMapper.readValue(in.getBytes(), SkTransitRootDto.RequestParametersDto.class);
+                int itinCount = in.getInt();
+                List<SkTransitRootDto.ItineraryDto> itins = new ArrayList<>(Math.max(0, itinCount));
+                for (int j = 0; j < itinCount; j++) {
+                    var header = objectMapper.readValue(in.getBytes(), SkTransitRootDto.ItineraryDto.class);
+                    int n = in.getInt();
+                    List<SkTransitRootDto.LegDto> itinLegs = n < 0 ? null : new ArrayList<>(n);
+                    for (int k = 0; k < n; k++) itinLegs.add(legs.get(in.getInt()));
+                    itins.add(withLegs(header, itinLegs));
+                }
+                // 인터닝 풀도 다시 채워서 이후 /plan 이 복원된 노선과 인스턴스를 공유하게
+                var plan = itinCount < 0 ? null : new SkTransitRootDto.PlanDto(itins);
+                plans.add(planInterner.intern(new SkTransitRootDto.MetaDataDto(params, plan)));
+            }
+
+            int regCount = in.getInt();
+            registrations = new ArrayList<>(regCount);
+            for (int i = 0; i < regCount; i++) {
+                String tripId = in.getString();
+                registrations.add(new PlanRegistry.Entry(tripId, plans.get(in.getInt()), in.getLong()));
+            }
+
+            int tripCount = in.getInt();
+            trips = new ArrayList<>(tripCount);
+            for (int i = 0; i < tripCount; i++) trips.add(readTrip(in));
+
+            if (in.getInt() != END) throw new IOException("snapshot 끝 표식 없음: " + file);
+        }
+
+        for (var e : registrations) planRegistry.restore(e.tripId(), e.meta(), e.registeredAtMs());
+        for (TripState s : trips) tripStore.save(s.getTripId(), s);
+        return new Result(trips.size(), plans.size(), legCount, bytes, elapsedMs(t0));
+    }
+
+    private static TripState readTrip(MappedSnapshotReader in) throws IOException {
+        String tripId = in.getString();
+        int itin = in.getInt();
+        int leg = in.getInt();
+        boolean hasStep = in.getBoolean();
+        int step = in.getInt();
+        TripState s = new TripState(tripId, itin, leg, hasStep ? step : null, in.getString());
+        s.setLastLon(in.getDouble());
+        s.setLastLat(in.getDouble());
+        s.setLastTs(in.getLong());
+        s.setLastClientTs(in.getLong());
+        s.setCumulativeWalkMeter(in.getDouble());
+        s.setSmoothedSpeedMps(in.getDouble());
+        s.setWalkSpeedMps(in.getDouble());
+        s.setTransitionSeq(in.getLong());
+        s.setArrivalStreak(in.getInt());
+        readDeque(in, s.getLatBuf());
+        readDeque(in, s.getLonBuf());
+        s.setCandidateScores(readDoubles(in));
+        s.setCandidateLegs(readInts(in));
+        s.setCandidateSegments(readInts(in));
+        s.setOnboardItineraryIndex(in.getInt());
+        s.setOnboardLegIndex(in.getInt());
+        s.setScheduleAnchorTs(in.getLong());
+        s.setScheduleAnchorFraction(in.getDouble());
+        s.setStationCursor(in.getInt());
+        return s;
+    }
+
+    private static void readDeque(MappedSnapshotReader in, Collection<Double> into) throws IOException {
+        int n = in.getInt();
+        for (int i = 0; i < n; i++) into.add(in.getDouble());
+    }
+
+    private static double[] readDoubles(MappedSnapshotReader in) throws IOException {
+        int n = in.getInt();
+        if (n < 0) return null;
+        double[] v = new double[n];
+        for (int i = 0; i < n; i++) v[i] = in.getDouble();
+        return v;
+    }
+
+    private static int[] readInts(MappedSnapshotReader in) throws IOException {
+        int n = in.getInt();
+        if (n < 0) return null;
+        int[] v = new int[n];
+        for (int i = 0; i < n; i++) v[i] = in.getInt();
+        return v;
+    }
+
+    // ---------------------------------------------------------------- util
+
+    private static List<SkTransitRootDto.ItineraryDto> itinerariesOf(SkTransitRootDto.MetaDataDto meta) {
+        return (meta.plan() != null && meta.plan().itineraries() != null) ? meta.plan().itineraries() : List.of();
+    }
+
+    private static List<SkTransitRootDto.LegDto> legsOf(SkTransitRootDto.ItineraryDto itin) {
+        return itin.legs() != null ? itin.legs() : List.of();
+    }
+
+    private static SkTransitRootDto.ItineraryDto withLegs(SkTransitRootDto.ItineraryDto it,
+                                                          List<SkTransitRootDto.LegDto> legs) {
+        return new SkTransitRootDto.ItineraryDto(it.fare(), it.totalTime(), it.totalDistance(), it.totalWalkTime(),
+                it.totalWalkDistance(), it.transferCount(), it.pathType(), legs);
+    }
+
+    private static long elapsedMs(long t0) {
+        return (System.nanoTime() - t0) / 1_000_000;
+    }
+}
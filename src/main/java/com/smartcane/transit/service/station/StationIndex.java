@@ -0,0 +1,167 @@
+package com.smartcane.transit.service.station;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.response.NearbyStopResponse;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.util.GeoUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 정류장/역 인메모리 공간 인덱스 (고정 격자, geohash 유사).
+ *
+ * - 위경도를 약 220m 크기의 셀로 나누고, 셀 키(long) → 정류장 배열로 보관한다.
+ * - 반경 검색은 반경을 덮는 셀(150m 기준 보통 2x2~3x3)만 훑고 거리순 정렬하므로 수 µs 수준.
+ * - 초기 데이터: smartcane.transit.stations-file (CSV: stationId,stationName,lat,lon)
+ * - 갱신: /plan 때마다 SK 응답의 passStopList.stations 를 harvest 하여 누적.
+ *   문자열 좌표는 최초 등록 시 1회만 파싱한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StationIndex {
+
+    private static final double CELL_DEG_LAT = 0.002;   // ≈ 222m
+    private static final double CELL_DEG_LON = 0.0025;  // ≈ 220m (위도 37.5° 기준)
+    private static final double M_PER_DEG_LAT = 111_320.0;
+    /** 이 위도 이상은 경도 셀 폭이 0 에 가까워져 훑을 셀 수가 폭증한다 (서비스 지역과도 무관) */
+    public static final double MAX_QUERY_LAT = 85.0;
+
+    /** 파싱이 끝난 정류장 (불변) */
+    public record IndexedStation(String key, String stationId, String stationName, double lat, double lon) {}
+
+    private final GuidanceProperties props;
+
+    private final Map<String, IndexedStation> byKey = new ConcurrentHashMap<>();
+    private final Map<Long, IndexedStation[]> cells = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void loadStationFile() {
+        String location = props.getStationsFile();
+        if (location == null || location.isBlank()) return;
+
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        if (!resource.exists()) {
+            log.warn("stations file {} not found, starting with an empty station index", location);
+            return;
+        }
+        int loaded = 0;
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                String[] c = line.split(",", -1);
+                if (c.length < 4 || line.startsWith("#") || line.startsWith("stationId")) continue;
+                try {
+                    if (add(c[0].trim(), c[1].trim(), Double.parseDouble(c[2]), Double.parseDouble(c[3]))) loaded++;
+                } catch (NumberFormatException ignore) {
+                    // 좌표 파싱 실패 줄은 스킵
+                }
+            }
+        } catch (IOException e) {
+            log.warn("stations file {} could not be read: {}", location, e.getMessage());
+        }
+        log.info("station index loaded {} stations from {}", loaded, location);
+    }
+
+    /** SK 응답 전체에서 정류장을 수집한다 (이미 있는 정류장은 파싱 없이 스킵) */
+    public void harvest(SkTransitRootDto.MetaDataDto meta) {
+        if (meta == null || meta.plan() == null || meta.plan().itineraries() == null) return;
+        for (var itin : meta.plan().itineraries()) {
+            if (itin.legs() == null) continue;
+            for (var leg : itin.legs()) {
+                if (leg.passStopList() == null || leg.passStopList().stations() == null) continue;
+                for (var st : leg.passStopList().stations()) {
+                    harvest(st);
+                }
+            }
+        }
+    }
+
+    void harvest(SkTransitRootDto.StationDto st) {
+        if (st == null || st.lat() == null || st.lon() == null) return;
+        if (st.stationID() != null && byKey.containsKey(st.stationID())) return;
+        try {
+            add(st.stationID(), st.stationName(), Double.parseDouble(st.lat()), Double.parseDouble(st.lon()));
+        } catch (NumberFormatException ignore) {
+            // 좌표 파싱 실패 시 해당 정류장은 스킵
+        }
+    }
+
+    /** @return 새로 등록되었으면 true */
+    boolean add(String stationId, String stationName, double lat, double lon) {
+        String key = (stationId != null && !stationId.isBlank())
+                ? stationId
+                : stationName + "@" + Math.round(lat * 1e5) + "," + Math.round(lon * 1e5);
+        IndexedStation s = new IndexedStation(key, stationId, stationName, lat, lon);
+        if (byKey.putIfAbsent(key, s) != null) return false;
+
+        // 셀 배열은 copy-on-write 로 교체 (조회는 락 없이 읽음)
+        cells.compute(cellKey(latCell(lat), lonCell(lon)), (k, arr) -> {
+            if (arr == null) return new IndexedStation[]{s};
+            IndexedStation[] next = Arrays.copyOf(arr, arr.length + 1);
+            next[arr.length] = s;
+            return next;
+        });
+        return true;
+    }
+
+    /** 질의 좌표로 받을 수 있는지 (유한값, |lat| < MAX_QUERY_LAT) */
+    public static boolean isQueryable(double lat, double lon) {
+        return Double.isFinite(lat) && Double.isFinite(lon) && Math.abs(lat) < MAX_QUERY_LAT;
+    }
+
+    /**
+     * 반경 검색. 반경은 nearbyStopsMaxRadiusM 으로 자른다 (훑는 셀 수 상한).
+     * @return 반경 안의 정류장, 거리 오름차순 (최대 limit 개). 좌표가 질의 불가면 빈 목록
+     */
+    public List<NearbyStopResponse> nearby(double lat, double lon, double radiusM, int limit) {
+        if (!isQueryable(lat, lon) || !(radiusM >= 0)) return List.of();
+        radiusM = Math.min(radiusM, props.getNearbyStopsMaxRadiusM());
+        double cosLat = GeoUtils.cosLat(lat);   // 질의 1회에 한 번 (반경 150m 수준이라 오차 mm 단위)
+        double dLat = radiusM / M_PER_DEG_LAT;
+        double dLon = radiusM / (M_PER_DEG_LAT * cosLat);
+        int lat0 = latCell(lat - dLat), lat1 = latCell(lat + dLat);
+        int lon0 = lonCell(lon - dLon), lon1 = lonCell(lon + dLon);
+
+        List<NearbyStopResponse> out = new ArrayList<>();
+        for (int i = lat0; i <= lat1; i++) {
+            for (int j = lon0; j <= lon1; j++) {
+                IndexedStation[] arr = cells.get(cellKey(i, j));
+                if (arr == null) continue;
+                for (IndexedStation s : arr) {
+                    double d = GeoUtils.planarDistance(lat, lon, s.lat(), s.lon(), cosLat);
+                    if (d <= radiusM) {
+                        out.add(new NearbyStopResponse(s.stationId(), s.stationName(), s.lat(), s.lon(), d));
+                    }
+                }
+            }
+        }
+        out.sort(Comparator.comparingDouble(NearbyStopResponse::distanceM));
+        return out.size() > limit ? out.subList(0, limit) : out;
+    }
+
+    public int size() {
+        return byKey.size();
+    }
+
+    private static int latCell(double lat) { return (int) Math.floor(lat / CELL_DEG_LAT); }
+    private static int lonCell(double lon) { return (int) Math.floor(lon / CELL_DEG_LON); }
+    private static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+}
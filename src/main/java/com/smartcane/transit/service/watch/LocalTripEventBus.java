@@ -0,0 +1,38 @@
+package com.smartcane.transit.service.watch;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 단일 노드(InMemoryTripStore)용: 판정한 노드가 곧 구독 노드라 바로 로컬 구독자에게 전달한다.
+ */
+@Component
+@Profile("!redis") // redis 프로파일에서는 RedisTripEventBus 사용
+public class LocalTripEventBus implements TripEventBus, MeterBinder {
+
+    private final TripWatchHub hub = new TripWatchHub(null);
+
+    @Override
+    public void publish(TripTransition transition) {
+        hub.deliver(transition.tripId(), transition);
+    }
+
+    @Override
+    public Flux<TripTransition> watch(String tripId) {
+        return hub.watch(tripId);
+    }
+
+    @Override
+    public Mono<Void> subscribed(String tripId) {
+        return hub.subscribed(tripId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        hub.bindTo(registry);
+    }
+}
@@ -0,0 +1,101 @@
+package com.smartcane.transit.service.watch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.function.Function;
+
+/**
+ * 여러 노드용: 판정 노드가 Redis 채널(trip-events:{tripId})로 PUBLISH 하고,
+ * 구독자가 붙은 노드만 그 채널을 SUBSCRIBE 한다.
+ *
+ * - 노드당 pub/sub 연결은 ReactiveRedisMessageListenerContainer 하나. 구독 중인 트립 채널을 모두 여기에 다중화하고,
+ *   같은 트립의 로컬 구독자 N 명은 TripWatchHub 가 채널 구독 하나를 나눠 쓴다.
+ * - 채널 구독은 receiveLater 로 열어 SUBSCRIBE 가 확인된 시점을 subscribed() 로 알린다.
+ * - PUBLISH 는 Lettuce 논블로킹 호출이라 판정 스레드는 명령을 넣고 바로 돌아온다 (실패는 로그만).
+ */
+@Slf4j
+@Component
+@Profile("redis")
+public class RedisTripEventBus implements TripEventBus, MeterBinder {
+
+    private static final String CHANNEL_PREFIX = "trip-events:";
+
+    private final ReactiveStringRedisTemplate redis;
+    private final ReactiveRedisMessageListenerContainer container;
+    private final ObjectMapper objectMapper;
+    private final TripWatchHub hub;
+
+    public RedisTripEventBus(ReactiveRedisConnectionFactory connectionFactory, ObjectMapper objectMapper) {
+        this.redis = new ReactiveStringRedisTemplate(connectionFactory);
+        this.container = new ReactiveRedisMessageListenerContainer(connectionFactory);
+        this.objectMapper = objectMapper;
+        this.hub = new TripWatchHub(this::subscribeChannel);
+    }
+
+    private static String channel(String tripId) {
+        return CHANNEL_PREFIX + tripId;
+    }
+
+    @Override
+    public void publish(TripTransition transition) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(transition);
+        } catch (JsonProcessingException e) {
+            log.warn("trip transition 직렬화 실패: {}", transition, e);
+            return;
+        }
+        redis.convertAndSend(channel(transition.tripId()), json)
+                .subscribe(null, e -> log.debug("trip transition publish 실패: {}", transition.tripId(), e));
+    }
+
+    @Override
+    public Flux<TripTransition> watch(String tripId) {
+        return hub.watch(tripId);
+    }
+
+    @Override
+    public Mono<Void> subscribed(String tripId) {
+        return hub.subscribed(tripId);
+    }
+
+    /** 이 노드에 첫 구독자가 붙을 때 한 번 (마지막 구독자가 떠나면 dispose) */
+    private Disposable subscribeChannel(String tripId, Sinks.Empty<Void> ready) {
+        return container.receiveLater(ChannelTopic.of(channel(tripId)))
+                .doOnNext(messages -> ready.tryEmitEmpty())
+                .doOnError(ready::tryEmitError)
+                .flatMapMany(Function.identity())
+                .subscribe(msg -> {
+                    try {
+                        hub.deliver(tripId, objectMapper.readValue(msg.getMessage(), TripTransition.class));
+                    } catch (JsonProcessingException e) {
+                        log.warn("잘못된 trip transition 메시지: {}", msg.getMessage());
+                    }
+                }, e -> log.warn("trip-events 구독 종료: {}", tripId, e));
+    }
+
+    @PreDestroy
+    public void close() {
+        container.destroy();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        hub.bindTo(registry);
+    }
+}
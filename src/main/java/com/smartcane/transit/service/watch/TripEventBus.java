@@ -0,0 +1,18 @@
+package com.smartcane.transit.service.watch;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 트립 상태 전이 팬아웃.
+ *
+ * - publish 는 진행 판정 핫패스에서 호출되므로 블로킹/예외 없이 즉시 돌아와야 한다.
+ * - watch 는 구독자가 없어질 때 정리되는 hot Flux. 느린 구독자 처리는 호출자(TripWatchService)가 한다.
+ * - subscribed 는 watch 를 구독한 뒤, 이 노드가 실제로 전이를 받기 시작했을 때(Redis SUBSCRIBE 확인 등) 완료된다.
+ *   그 전에 읽은 상태는 전이를 놓칠 수 있으므로 스냅샷은 이 신호 뒤에 읽는다.
+ */
+public interface TripEventBus {
+    void publish(TripTransition transition);
+    Flux<TripTransition> watch(String tripId);
+    Mono<Void> subscribed(String tripId);
+}
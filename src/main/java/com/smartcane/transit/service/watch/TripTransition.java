@@ -0,0 +1,24 @@
+package com.smartcane.transit.service.watch;
+
+/**
+ * 보호자/운영자 구독 스트림으로 내보내는 트립 상태 전이.
+ *
+ * type: SNAPSHOT(구독 직후 현재 상태) / PHASE / LEG / STEP / ARRIVAL(마지막 leg 도착 확정)
+ * ts  : 전이를 만든 fix 시각 (이벤트 업링크는 서버 시각). 표시용이며 시계가 섞이므로 순서 판단에 쓰지 않는다
+ * seq : 트립별 전이 순번 (TripState.transitionSeq). SNAPSHOT 은 그 시점까지의 순번
+ */
+public record TripTransition(
+        String tripId,
+        String type,
+        String phase,
+        int itineraryIndex,
+        int legIndex,
+        Integer stepIndex,
+        long ts,
+        long seq
+) {
+    /** 더 이상 전이가 없는 phase (구독 스트림 종료) */
+    public boolean terminal() {
+        return "ARRIVED".equals(phase) || "CANCELLED".equals(phase);
+    }
+}
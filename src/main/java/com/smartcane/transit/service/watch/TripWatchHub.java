@@ -0,0 +1,97 @@
+package com.smartcane.transit.service.watch;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * 노드 로컬 구독 다중화: 트립별 sink 하나를 그 노드의 모든 구독자가 나눠 쓴다.
+ *
+ * - 첫 구독자가 붙을 때 upstream(예: Redis 채널 구독)을 열고, 마지막 구독자가 떠나면 닫는다.
+ *   upstream 은 구독이 성립되면 ready 를 완료한다 (로컬 전용이면 처음부터 완료).
+ * - 전달은 tryEmitNext 한 번이라 호출 스레드를 붙잡지 않는다. 동시 방출 경합은 버리고 dropped 로 센다.
+ */
+final class TripWatchHub {
+
+    private static final class Topic {
+        final Sinks.Many<TripTransition> sink = Sinks.many().multicast().directBestEffort();
+        final Sinks.Empty<Void> ready = Sinks.empty();
+        int subscribers;
+        Disposable upstream;
+    }
+
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+    private final BiFunction<String, Sinks.Empty<Void>, Disposable> upstreamFactory;   // null = 로컬 전용
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    TripWatchHub(BiFunction<String, Sinks.Empty<Void>, Disposable> upstreamFactory) {
+        this.upstreamFactory = upstreamFactory;
+    }
+
+    Flux<TripTransition> watch(String tripId) {
+        return Flux.defer(() -> {
+            Topic topic = acquire(tripId);
+            return topic.sink.asFlux().doFinally(s -> release(tripId, topic));
+        });
+    }
+
+    /** 구독 중인 트립의 upstream 구독 성립 신호 (구독 중이 아니면 바로 완료) */
+    Mono<Void> subscribed(String tripId) {
+        Topic topic = topics.get(tripId);
+        return topic != null ? topic.ready.asMono() : Mono.empty();
+    }
+
+    void deliver(String tripId, TripTransition transition) {
+        Topic topic = topics.get(tripId);
+        if (topic == null) return;
+        if (topic.sink.tryEmitNext(transition).isSuccess()) {
+            delivered.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    int topicCount() {
+        return topics.size();
+    }
+
+    private Topic acquire(String tripId) {
+        return topics.compute(tripId, (k, t) -> {
+            if (t == null) {
+                t = new Topic();
+                if (upstreamFactory != null) {
+                    t.upstream = upstreamFactory.apply(k, t.ready);
+                } else {
+                    t.ready.tryEmitEmpty();
+                }
+            }
+            t.subscribers++;
+            return t;
+        });
+    }
+
+    private void release(String tripId, Topic topic) {
+        topics.computeIfPresent(tripId, (k, t) -> {
+            if (t != topic || --t.subscribers > 0) return t;
+            if (t.upstream != null) t.upstream.dispose();
+            return null;
+        });
+    }
+
+    void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartcane.watch.topics", topics, Map::size)
+                .description("이 노드에서 구독 중인 트립 수")
+                .register(registry);
+        Gauge.builder("smartcane.watch.delivered", delivered, AtomicLong::get).register(registry);
+        Gauge.builder("smartcane.watch.dropped", dropped, AtomicLong::get).register(registry);
+    }
+}
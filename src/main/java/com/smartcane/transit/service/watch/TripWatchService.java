@@ -0,0 +1,94 @@
+package com.smartcane.transit.service.watch;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.service.TripState;
+import com.smartcane.transit.service.TripStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+/**
+ * 보호자/운영자용 트립 상태 구독 (SSE).
+ *
+ * - 구독 시작 때만 저장소를 한 번 읽어 SNAPSHOT 을 보내고, 이후는 TripEventBus 전이만 흘린다 (폴링 없음).
+ *   순서: 버스 구독 → 구독 성립(subscribed) 대기 → 스냅샷 읽기(boundedElastic). 그 사이 전이는 버퍼에 모아 두었다가
+ *   스냅샷보다 뒤 순번(seq > snapshot.seq)만 흘린다. 스냅샷을 먼저 읽으면 비동기 SUBSCRIBE 가 끝나기 전 전이를 놓친다.
+ *   ts 는 클라이언트 시계(fix)와 서버 시계(이벤트 업링크)가 섞이므로 비교하지 않는다.
+ * - 없는 트립은 스냅샷 읽기 결과로 판단해 빈 Mono (→ 404). 요청 스레드에서 저장소를 읽지 않는다.
+ * - 느린 구독자: 전이는 최신 것만 남기고(onBackpressureLatest) 소켓 쓰기는 boundedElastic 에서 한다.
+ *   판정 스레드는 sink 에 넣고 바로 돌아오므로 구독자 때문에 진행 파이프라인이 막히지 않는다.
+ * - 전이는 항상 전체 상태(phase/leg/step)를 담고 있어 중간 전이를 건너뛰어도 마지막 상태는 맞다.
+ * - ARRIVED / CANCELLED 가 되면 스트림을 끝낸다. 연결이 끊기면 EventSource 재연결로 다시 SNAPSHOT 부터 받는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class TripWatchService {
+
+    private static final int WRITE_PREFETCH = 8;
+    private static final Duration SUBSCRIBE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final TripEventBus tripEventBus;
+    private final TripStore tripStore;
+    private final GuidanceProperties props;
+
+    /** 현재 상태 (없는 트립이면 null). 저장소를 읽으므로 이벤트 루프에서 부르지 않는다 */
+    public TripTransition snapshot(String tripId) {
+        TripState state = tripStore.load(tripId);
+        if (state == null) return null;
+        return new TripTransition(tripId, "SNAPSHOT", state.getPhase(), state.getItineraryIndex(),
+                state.getLegIndex(), state.getStepIndex(), state.getLastTs(), state.getTransitionSeq());
+    }
+
+    /**
+     * SNAPSHOT 후 전이 스트림. 스냅샷은 버스 구독이 성립된 뒤 boundedElastic 에서 읽고,
+     * 트립이 없으면 빈 Mono 를 돌려준다 (버스 구독도 정리).
+     */
+    public Mono<Flux<ServerSentEvent<TripTransition>>> open(String tripId) {
+        return Mono.defer(() -> {
+            Sinks.Many<TripTransition> pending = Sinks.many().unicast().onBackpressureBuffer();
+            Disposable live = tripEventBus.watch(tripId)
+                    .subscribe(pending::tryEmitNext, pending::tryEmitError, pending::tryEmitComplete);
+            return tripEventBus.subscribed(tripId)
+                    .timeout(SUBSCRIBE_TIMEOUT)
+                    .then(Mono.fromCallable(() -> snapshot(tripId)).subscribeOn(Schedulers.boundedElastic()))
+                    .map(snapshot -> toEvents(transitions(snapshot, pending).doFinally(s -> live.dispose())))
+                    .switchIfEmpty(Mono.<Flux<ServerSentEvent<TripTransition>>>fromRunnable(live::dispose))
+                    .doOnError(e -> live.dispose())
+                    .doOnCancel(live::dispose);
+        });
+    }
+
+    private static Flux<TripTransition> transitions(TripTransition snapshot, Sinks.Many<TripTransition> pending) {
+        if (snapshot.terminal()) return Flux.just(snapshot);
+        return pending.asFlux()
+                .filter(t -> t.seq() > snapshot.seq())
+                .onBackpressureLatest()
+                .takeUntil(TripTransition::terminal)
+                .startWith(snapshot);
+    }
+
+    private Flux<ServerSentEvent<TripTransition>> toEvents(Flux<TripTransition> transitions) {
+        Flux<ServerSentEvent<TripTransition>> keepalive = Flux.interval(Duration.ofMillis(props.getWatchHeartbeatMs()))
+                .onBackpressureDrop()
+                .map(i -> ServerSentEvent.<TripTransition>builder().comment("keepalive").build());
+
+        return transitions
+                .publish(shared -> Flux.merge(
+                        shared.map(TripWatchService::toEvent),
+                        keepalive.takeUntilOther(shared.then())))
+                .publishOn(Schedulers.boundedElastic(), WRITE_PREFETCH);
+    }
+
+    private static ServerSentEvent<TripTransition> toEvent(TripTransition t) {
+        ServerSentEvent.Builder<TripTransition> b = ServerSentEvent.<TripTransition>builder(t).event(t.type());
+        if ("SNAPSHOT".equals(t.type())) b.retry(Duration.ofSeconds(3));
+        return b.build();
+    }
+}
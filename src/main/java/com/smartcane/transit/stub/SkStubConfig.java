@@ -0,0 +1,22 @@
+package com.smartcane.transit.stub;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * sk-stub 프로파일: SK API 대신 같은 JVM 안의 스텁 서버를 띄운다.
+ * - application-sk-stub.yml 에서 sk.transit.base-url 을 스텁 주소로 바꿔
+ *   WebClientConfig 의 skTransitWebClient 가 스텁을 호출하게 한다.
+ */
+@Configuration
+@Profile("sk-stub")
+@EnableConfigurationProperties(SkStubProperties.class)
+public class SkStubConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public SkStubServer skStubServer(SkStubProperties props) {
+        return new SkStubServer(props);
+    }
+}
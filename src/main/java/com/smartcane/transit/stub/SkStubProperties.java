@@ -0,0 +1,47 @@
+package com.smartcane.transit.stub;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 로컬 SK 대중교통 API 스텁 서버 설정 (sk-stub 프로파일)
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "sk.stub")
+public class SkStubProperties {
+
+    private String host = "127.0.0.1";
+    private int    port = 18090;                 // 0 이면 임의 포트
+
+    // 녹화된 SK 응답 위치 (Spring 리소스 패턴)
+    private List<String> fixtures = new ArrayList<>(List.of("classpath*:sk-fixtures/*.json"));
+    private double matchToleranceM = 500.0;     // 출발/도착 좌표 매칭 허용 오차(각각)
+    private boolean fallbackToNearest = false;  // 허용 오차 밖이어도 가장 가까운 픽스처 응답
+
+    // --- 지연 주입 ---
+    private Latency latency = new Latency();
+
+    // --- 오류 주입 ---
+    private double errorRate   = 0.0;           // 0~1
+    private int    errorStatus = 500;           // 500 / 429 / 503 ...
+
+    // --- 페이로드 크기 ---
+    private int itineraryCopies = 1;            // itineraries 를 N배 복제해 응답 크기 확대
+    private int padBytes        = 0;            // 응답 끝에 JSON 공백 패딩
+
+    @Getter @Setter
+    public static class Latency {
+        public enum Type { FIXED, UNIFORM, LOGNORMAL }
+
+        private Type   type     = Type.FIXED;
+        private long   fixedMs  = 0;            // FIXED
+        private long   minMs    = 0;            // UNIFORM
+        private long   maxMs    = 0;            // UNIFORM, LOGNORMAL 상한
+        private double medianMs = 120;          // LOGNORMAL 중앙값
+        private double sigma    = 0.5;          // LOGNORMAL 형상(로그 표준편차)
+    }
+}
@@ -0,0 +1,214 @@
+package com.smartcane.transit.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.smartcane.transit.util.GeoUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * SK /transit/routes/ API 로컬 스텁 서버.
+ *
+ * - 녹화된 SK 응답(JSON)을 로드해 요청의 출발/도착 좌표와 가장 가까운 픽스처를 돌려준다.
+ * - 지연 분포(FIXED/UNIFORM/LOGNORMAL), 오류율, 페이로드 크기를 설정으로 주입할 수 있다.
+ * - reactor-netty 위에서 논블로킹으로 동작하므로 같은 JVM 안에서 통합 벤치마크에 그대로 쓸 수 있다.
+ *
+ * 사용:
+ *   - 스프링: sk-stub 프로파일 (SkStubConfig 가 기동, sk.transit.base-url 이 스텁을 가리킴)
+ *   - 테스트/벤치: new SkStubServer(props).start() → baseUrl() 로 WebClient 구성
+ */
+@Slf4j
+public class SkStubServer {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** 로드된 픽스처 1건: 매칭 키(출발/도착 좌표) + 응답 바이트 */
+    record Fixture(String name, double startLat, double startLon, double endLat, double endLon, byte[] body) {}
+
+    private final SkStubProperties props;
+    private final List<Fixture> fixtures;
+    private volatile DisposableServer server;
+
+    public SkStubServer(SkStubProperties props) {
+        this.props = props;
+        this.fixtures = loadFixtures(props);
+    }
+
+    public synchronized SkStubServer start() {
+        if (server != null) return this;
+        server = HttpServer.create()
+                .host(props.getHost())
+                .port(props.getPort())
+                .route(routes -> routes.route(
+                        req -> req.method().name().equals("POST") && req.uri().startsWith("/transit/routes"),
+                        this::handle))
+                .bindNow();
+        log.info("SK stub server listening on {} ({} fixtures)", baseUrl(), fixtures.size());
+        return this;
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.disposeNow();
+            server = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /** WebClient baseUrl 로 그대로 쓸 수 있는 주소 (예: http://127.0.0.1:18090) */
+    public String baseUrl() {
+        int port = server != null ? server.port() : props.getPort();
+        return "http://" + props.getHost() + ":" + port;
+    }
+
+    private Mono<Void> handle(HttpServerRequest req, HttpServerResponse res) {
+        return req.receive().aggregate().asByteArray()
+                .defaultIfEmpty(new byte[0])
+                .flatMap(body -> {
+                    Duration delay = sampleLatency();
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+
+                    int status;
+                    byte[] out;
+                    if (props.getErrorRate() > 0 && rnd.nextDouble() < props.getErrorRate()) {
+                        status = props.getErrorStatus();
+                        out = "{\"error\":{\"id\":\"STUB_INJECTED\",\"message\":\"injected failure\"}}"
+                                .getBytes(StandardCharsets.UTF_8);
+                    } else {
+                        Fixture f = match(body);
+                        if (f == null) {
+                            status = 404;
+                            out = "{\"error\":{\"id\":\"NO_FIXTURE\",\"message\":\"no recorded route for origin/destination\"}}"
+                                    .getBytes(StandardCharsets.UTF_8);
+                        } else {
+                            status = 200;
+                            out = f.body();
+                        }
+                    }
+                    return Mono.delay(delay)
+                            .then(res.status(status)
+                                    .header("content-type", "application/json")
+                                    .sendByteArray(Mono.just(out))
+                                    .then());
+                });
+    }
+
+    /** 요청의 startX/startY/endX/endY 와 출발·도착 모두 허용 오차 안인 가장 가까운 픽스처 */
+    Fixture match(byte[] requestBody) {
+        double sx, sy, ex, ey;
+        try {
+            JsonNode q = MAPPER.readTree(requestBody);
+            sx = q.path("startX").asDouble(Double.NaN);
+            sy = q.path("startY").asDouble(Double.NaN);
+            ex = q.path("endX").asDouble(Double.NaN);
+            ey = q.path("endY").asDouble(Double.NaN);
+        } catch (IOException e) {
+            return null;
+        }
+        if (Double.isNaN(sx) || Double.isNaN(sy) || Double.isNaN(ex) || Double.isNaN(ey)) return null;
+
+        Fixture best = null;
+        double bestScore = Double.POSITIVE_INFINITY;
+        for (Fixture f : fixtures) {
+            double ds = GeoUtils.haversine(sy, sx, f.startLat(), f.startLon());
+            double de = GeoUtils.haversine(ey, ex, f.endLat(), f.endLon());
+            boolean within = ds <= props.getMatchToleranceM() && de <= props.getMatchToleranceM();
+            if (!within && !props.isFallbackToNearest()) continue;
+            if (ds + de < bestScore) {
+                bestScore = ds + de;
+                best = f;
+            }
+        }
+        return best;
+    }
+
+    Duration sampleLatency() {
+        SkStubProperties.Latency l = props.getLatency();
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        long ms = switch (l.getType()) {
+            case FIXED -> l.getFixedMs();
+            case UNIFORM -> l.getMaxMs() > l.getMinMs() ? rnd.nextLong(l.getMinMs(), l.getMaxMs() + 1) : l.getMinMs();
+            case LOGNORMAL -> {
+                double v = l.getMedianMs() * Math.exp(l.getSigma() * rnd.nextGaussian());
+                yield (long) (l.getMaxMs() > 0 ? Math.min(v, l.getMaxMs()) : v);
+            }
+        };
+        return Duration.ofMillis(Math.max(0, ms));
+    }
+
+    // --- 픽스처 로딩 ---
+
+    private static List<Fixture> loadFixtures(SkStubProperties props) {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        List<Fixture> out = new ArrayList<>();
+        for (String pattern : props.getFixtures()) {
+            Resource[] resources;
+            try {
+                resources = resolver.getResources(pattern);
+            } catch (IOException e) {
+                log.warn("SK stub fixture pattern {} could not be resolved: {}", pattern, e.getMessage());
+                continue;
+            }
+            Arrays.stream(resources).forEach(r -> {
+                Fixture f = toFixture(r, props);
+                if (f != null) out.add(f);
+            });
+        }
+        return List.copyOf(out);
+    }
+
+    private static Fixture toFixture(Resource r, SkStubProperties props) {
+        try (InputStream in = r.getInputStream()) {
+            JsonNode root = MAPPER.readTree(in);
+            JsonNode rp = root.path("metaData").path("requestParameters");
+            double sx = rp.path("startX").asDouble(Double.NaN);
+            double sy = rp.path("startY").asDouble(Double.NaN);
+            double ex = rp.path("endX").asDouble(Double.NaN);
+            double ey = rp.path("endY").asDouble(Double.NaN);
+            if (Double.isNaN(sx) || Double.isNaN(sy) || Double.isNaN(ex) || Double.isNaN(ey)) {
+                log.warn("SK stub fixture {} has no requestParameters start/end, skipped", r.getDescription());
+                return null;
+            }
+            return new Fixture(r.getFilename(), sy, sx, ey, ex, shape(root, props));
+        } catch (IOException e) {
+            throw new UncheckedIOException("SK stub fixture load failed: " + r.getDescription(), e);
+        }
+    }
+
+    /** 페이로드 크기 조절: itineraries 복제 + 후행 공백 패딩 */
+    private static byte[] shape(JsonNode root, SkStubProperties props) throws IOException {
+        if (props.getItineraryCopies() > 1
+                && root.path("metaData").path("plan").path("itineraries") instanceof ArrayNode itins) {
+            ArrayNode copy = itins.deepCopy();
+            for (int i = 1; i < props.getItineraryCopies(); i++) {
+                itins.addAll(copy.deepCopy());
+            }
+        }
+        byte[] json = MAPPER.writeValueAsBytes(root);
+        if (props.getPadBytes() <= 0) return json;
+
+        byte[] padded = Arrays.copyOf(json, json.length + props.getPadBytes());
+        Arrays.fill(padded, json.length, padded.length, (byte) ' ');
+        return padded;
+    }
+}
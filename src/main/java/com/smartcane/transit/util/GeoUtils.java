@@ -5,6 +5,7 @@ import java.util.List;
 /**
  * 경로/거리 계산에 쓰이는 지오메트리 유틸 모음.
  * - 하버사인 거리(m) 계산
+ * - 근거리 평면(등장방형) 거리(m) 계산: 핫패스용, 오차 범위는 각 메서드 주석 참고
  * - "lon,lat lon,lat ..." 형태의 라인스트링 파싱
  * - 폴리라인 길이(m) 계산
  */
@@ -25,6 +26,35 @@ public final class GeoUtils {
         return 2*R*Math.asin(Math.sqrt(a));
     }
 
+    /**
+     * 근거리용 평면(등장방형) 거리(m). 두 점의 평균 위도로 cos 을 한 번만 계산한다
+     * (하버사인은 sin/cos/asin/sqrt 를 여러 번 호출).
+     *
+     * 오차: 한국 위도(33°~39°), 10m~2km 에서 같은 구면(R=6371km) 하버사인 대비
+     * 상대 오차 1e-7 미만 (2km 에서 1mm 미만). 수십 km 이상에서는 haversine 을 쓴다.
+     */
+    public static double planarDistance(double lat1, double lon1, double lat2, double lon2) {
+        return planarDistance(lat1, lon1, lat2, lon2, cosLat((lat1 + lat2) * 0.5));
+    }
+
+    /**
+     * 미리 계산한 cos(기준 위도) 로 구하는 평면 거리(m). 삼각함수 호출 없음.
+     * leg/질의 단위로 cosLat 를 한 번 계산해 두고 반복 호출할 때 쓴다.
+     *
+     * 오차: 점들의 위도가 기준 위도에서 δ(라디안) 떨어지면 동서 성분에 약 tan(위도)·δ 의
+     * 상대 오차가 더해진다. 37.5° 에서 기준점 ±2km 이내면 상대 오차 3e-4 미만 (2km 에서 0.6m 미만).
+     */
+    public static double planarDistance(double lat1, double lon1, double lat2, double lon2, double cosLat) {
+        double dy = Math.toRadians(lat2 - lat1);
+        double dx = Math.toRadians(lon2 - lon1) * cosLat;
+        return R * Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /** planarDistance 용 cos(위도) */
+    public static double cosLat(double latDeg) {
+        return Math.cos(Math.toRadians(latDeg));
+    }
+
     /**
      * "lon,lat lon,lat ..." 형태의 라인스트링을 파싱하여
      * 리스트<double[]{lat, lon}> 로 변환한다.
@@ -49,12 +79,12 @@ public final class GeoUtils {
         return out;
     }
     /**
-     * 폴리라인(연속된 점들)의 총 길이(m)를 계산한다.
+     * 폴리라인(연속된 점들)의 총 길이(m)를 계산한다 (선분별 평면 거리 합).
      */
     public static double polylineLength(List<double[]> pts) {
         double sum = 0;
         for (int i = 1; i < pts.size(); i++) {
-            sum += haversine(pts.get(i-1)[0], pts.get(i-1)[1], pts.get(i)[0], pts.get(i)[1]);
+            sum += planarDistance(pts.get(i-1)[0], pts.get(i-1)[1], pts.get(i)[0], pts.get(i)[1]);
         }
         return sum;
     }
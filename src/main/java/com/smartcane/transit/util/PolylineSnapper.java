@@ -2,7 +2,7 @@ package com.smartcane.transit.util;
 
 import java.util.List;
 
-import static com.smartcane.transit.util.GeoUtils.haversine;
+import static com.smartcane.transit.util.GeoUtils.planarDistance;
 
 /**
  * 폴리라인 최근접 스냅 (정밀)
@@ -21,12 +21,18 @@ public final class PolylineSnapper {
         public final double distanceToPolyline;
         public final double snappedLat;
         public final double snappedLon;
+        public final int segmentIndex;   // 최근접 선분의 시작 정점 index (없으면 -1), 증분 스냅 커서용
 
         public SnapResult(double metersFromStart, double dist, double lat, double lon) {
+            this(metersFromStart, dist, lat, lon, -1);
+        }
+
+        public SnapResult(double metersFromStart, double dist, double lat, double lon, int segmentIndex) {
             this.snappedMetersFromStart = metersFromStart;
             this.distanceToPolyline = dist;
             this.snappedLat = lat;
             this.snappedLon = lon;
+            this.segmentIndex = segmentIndex;
         }
     }
 
@@ -35,15 +41,15 @@ public final class PolylineSnapper {
             return new SnapResult(0, Double.POSITIVE_INFINITY, Double.NaN, Double.NaN);
         }
         if (pts.size() == 1) {
-            double d = haversine(lat, lon, pts.get(0)[0], pts.get(0)[1]);
+            double d = planarDistance(lat, lon, pts.get(0)[0], pts.get(0)[1]);
             return new SnapResult(0, d, pts.get(0)[0], pts.get(0)[1]);
         }
 
-        // 누적거리 테이블 (m)
+        // 누적거리 테이블 (m, 선분별 평면 거리)
         final int n = pts.size();
         double[] acc = new double[n];
         for (int i = 1; i < n; i++) {
-            acc[i] = acc[i - 1] + haversine(pts.get(i - 1)[0], pts.get(i - 1)[1], pts.get(i)[0], pts.get(i)[1]);
+            acc[i] = acc[i - 1] + planarDistance(pts.get(i - 1)[0], pts.get(i - 1)[1], pts.get(i)[0], pts.get(i)[1]);
         }
 
         // 로컬 ENU 기준점: 첫 점
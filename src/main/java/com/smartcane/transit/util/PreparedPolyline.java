@@ -0,0 +1,200 @@
+package com.smartcane.transit.util;
+
+import com.smartcane.transit.util.jfr.SnapEvent;
+
+import java.util.List;
+
+import static com.smartcane.transit.util.GeoUtils.planarDistance;
+
+/**
+ * 한 번 파싱/투영해 두고 재사용하는 폴리라인.
+ *
+ * - 정점을 첫 점 기준 로컬 ENU(미터) 로 변환해 x[], y[] 배열에 packed 로 보관
+ * - 누적거리 acc[] (선분별 평면 거리, PolylineSnapper 와 동일 기준) 를 미리 계산
+ * - 선분 방향벡터 vx[], vy[] 와 1/|v|² 를 미리 계산해 최근접 선분 탐색을 SegmentKernel(스칼라/SIMD)에 맡긴다
+ * - snap()      : 전역 최근접 스냅 (PolylineSnapper.snapToPolyline 과 같은 결과).
+ *                 선분이 BVH_MIN_SEGMENTS 이상이면 SegmentBvh 로 O(log n) 근처, 아니면 전체 스캔
+ * - snapScan()  : 항상 전체 선분 스캔 (BVH 검증/벤치마크 기준)
+ * - snapNear()  : 직전 선분 커서 주변만 스캔하는 증분 스냅, 멀리 벗어나면 전체 스캔으로 복구
+ * - snapFrom()  : 특정 선분 이후만 검색 (보행 step 진행처럼 뒤로 가지 않는 스냅, BVH 사용)
+ *
+ * 실제 탐색(구간 스캔 / BVH)마다 JFR SnapEvent 를 남긴다 (기록 중이 아니면 비용 없음).
+ *
+ * 불변 객체라 트립/스레드 간에 공유해도 안전하다.
+ */
+public final class PreparedPolyline {
+
+    private static final double M_PER_DEG_LAT = 111_320.0;
+    /** 이보다 선분이 적으면 BVH 없이 전체 스캔이 더 싸다 */
+    static final int BVH_MIN_SEGMENTS = 64;
+
+    private final double refLat;
+    private final double refLon;
+    private final double mPerDegLon;
+    private final double[] x;
+    private final double[] y;
+    private final double[] acc;
+    private final double[] vx;
+    private final double[] vy;
+    private final double[] invLen2;
+    private final SegmentKernel kernel;
+    private final SegmentBvh bvh;   // 선분이 적으면 null
+
+    private PreparedPolyline(List<double[]> pts, SegmentKernel kernel) {
+        this.kernel = kernel;
+        int n = pts.size();
+        this.refLat = n > 0 ? pts.get(0)[0] : 0;
+        this.refLon = n > 0 ? pts.get(0)[1] : 0;
+        this.mPerDegLon = M_PER_DEG_LAT * Math.cos(Math.toRadians(refLat));
+        this.x = new double[n];
+        this.y = new double[n];
+        this.acc = new double[n];
+        for (int i = 0; i < n; i++) {
+            double[] p = pts.get(i);
+            x[i] = (p[1] - refLon) * mPerDegLon;
+            y[i] = (p[0] - refLat) * M_PER_DEG_LAT;
+            if (i > 0) {
+                double[] q = pts.get(i - 1);
+                acc[i] = acc[i - 1] + planarDistance(q[0], q[1], p[0], p[1]);
+            }
+        }
+        int segs = Math.max(0, n - 1);
+        this.vx = new double[segs];
+        this.vy = new double[segs];
+        this.invLen2 = new double[segs];
+        for (int i = 0; i < segs; i++) {
+            vx[i] = x[i + 1] - x[i];
+            vy[i] = y[i + 1] - y[i];
+            double len2 = vx[i] * vx[i] + vy[i] * vy[i];
+            invLen2[i] = len2 == 0 ? 0 : 1.0 / len2;
+        }
+        this.bvh = segs >= BVH_MIN_SEGMENTS ? SegmentBvh.build(x, y) : null;
+    }
+
+    /** [lat, lon] 점 목록으로부터 생성 (스칼라 커널) */
+    public static PreparedPolyline of(List<double[]> pts) {
+        return of(pts, SegmentKernels.scalar());
+    }
+
+    public static PreparedPolyline of(List<double[]> pts, SegmentKernel kernel) {
+        return new PreparedPolyline(pts == null ? List.of() : pts, kernel);
+    }
+
+    /** "lon,lat lon,lat ..." 라인스트링으로부터 생성 (스칼라 커널) */
+    public static PreparedPolyline parse(String linestring) {
+        return of(GeoUtils.parseLineString(linestring));
+    }
+
+    public boolean isEmpty() { return x.length == 0; }
+    public int vertexCount() { return x.length; }
+    public int segmentCount() { return Math.max(0, x.length - 1); }
+    public double length() { return x.length == 0 ? 0 : acc[acc.length - 1]; }
+
+    /** 정점 i 까지의 누적거리(m) */
+    public double offsetAt(int vertex) { return acc[vertex]; }
+
+    /** 전역 최근접 스냅 (긴 형상은 BVH) — leg 첫 fix, 재접속, 경로 이탈 복구 */
+    public PolylineSnapper.SnapResult snap(double lat, double lon) {
+        return snapIndexed(lat, lon, 0);
+    }
+
+    /** 전체 선분 스캔 스냅 */
+    public PolylineSnapper.SnapResult snapScan(double lat, double lon) {
+        return snapRange(lat, lon, 0, segmentCount());
+    }
+
+    boolean hasBvh() { return bvh != null; }
+
+    /** 선분 fromSegment 이후만 스캔하는 스냅 (이미 지나온 구간으로 되돌아가지 않게) */
+    public PolylineSnapper.SnapResult snapFrom(double lat, double lon, int fromSegment) {
+        int from = Math.max(0, Math.min(fromSegment, segmentCount() - 1));
+        return snapIndexed(lat, lon, from);
+    }
+
+    /** 선분 [from, 끝) 전역 검색: BVH 가 있으면 branch-and-bound, 없으면 스캔 */
+    private PolylineSnapper.SnapResult snapIndexed(double lat, double lon, int from) {
+        if (bvh == null) {
+            return snapRange(lat, lon, from, segmentCount());
+        }
+        SnapEvent event = new SnapEvent();
+        event.begin();
+        double px = (lon - refLon) * mPerDegLon;
+        double py = (lat - refLat) * M_PER_DEG_LAT;
+        SegmentBvh.Search search = new SegmentBvh.Search();
+        int seg = bvh.nearest(x, y, vx, vy, invLen2, kernel, px, py, from, segmentCount(), search);
+        PolylineSnapper.SnapResult result = resultFor(seg, px, py);
+        if (event.shouldCommit()) {
+            commit(event, "bvh", from, search.scanned, result);
+        }
+        return result;
+    }
+
+    /**
+     * 증분 스냅: 직전 선분(hintSegment) 에서 뒤로 1개, 앞으로 window 개 선분만 검사한다.
+     * 결과가 recoverDistanceM 보다 멀면(커서 이탈/재접속) 전역 스냅(snap)으로 다시 찾는다.
+     */
+    public PolylineSnapper.SnapResult snapNear(double lat, double lon, int hintSegment, int window, double recoverDistanceM) {
+        if (hintSegment < 0 || hintSegment >= segmentCount()) {
+            return snap(lat, lon);
+        }
+        int from = Math.max(0, hintSegment - 1);
+        int to = Math.min(segmentCount(), hintSegment + window + 1);
+        PolylineSnapper.SnapResult near = snapRange(lat, lon, from, to);
+        if (near.distanceToPolyline <= recoverDistanceM || (from == 0 && to == segmentCount())) {
+            return near;
+        }
+        return snap(lat, lon);
+    }
+
+    /** 선분 [from, to) 범위 스캔 (선분 i 는 정점 i → i+1) */
+    private PolylineSnapper.SnapResult snapRange(double lat, double lon, int from, int to) {
+        if (x.length == 0) {
+            return new PolylineSnapper.SnapResult(0, Double.POSITIVE_INFINITY, Double.NaN, Double.NaN, -1);
+        }
+        if (x.length == 1) {
+            return new PolylineSnapper.SnapResult(0, planarDistance(lat, lon, refLat, refLon), refLat, refLon, 0);
+        }
+
+        SnapEvent event = new SnapEvent();
+        event.begin();
+        double px = (lon - refLon) * mPerDegLon;
+        double py = (lat - refLat) * M_PER_DEG_LAT;
+
+        int bestSeg = kernel.nearestSegment(x, y, vx, vy, invLen2, px, py, from, to);
+        PolylineSnapper.SnapResult result = resultFor(bestSeg, px, py);
+        if (event.shouldCommit()) {
+            commit(event, "scan", from, Math.max(0, to - from), result);
+        }
+        return result;
+    }
+
+    private void commit(SnapEvent event, String kind, int from, int scanned, PolylineSnapper.SnapResult result) {
+        event.kind = kind;
+        event.vertexCount = x.length;
+        event.segmentsScanned = scanned;
+        event.fromSegment = from;
+        event.lengthM = length();
+        event.originLat = refLat;
+        event.originLon = refLon;
+        event.distanceM = result.distanceToPolyline;
+        event.commit();
+    }
+
+    /** 최근접 선분 1개에 대해서만 투영점/거리 확정 (커널과 같은 식) */
+    private PolylineSnapper.SnapResult resultFor(int bestSeg, double px, double py) {
+        if (bestSeg < 0) {
+            return new PolylineSnapper.SnapResult(0, Double.POSITIVE_INFINITY, Double.NaN, Double.NaN, -1);
+        }
+        double wx = px - x[bestSeg];
+        double wy = py - y[bestSeg];
+        double t = Math.min(Math.max((wx * vx[bestSeg] + wy * vy[bestSeg]) * invLen2[bestSeg], 0.0), 1.0);
+        double bestX = x[bestSeg] + t * vx[bestSeg];
+        double bestY = y[bestSeg] + t * vy[bestSeg];
+        double bestDist = Math.hypot(wx - t * vx[bestSeg], wy - t * vy[bestSeg]);
+
+        double along = Math.hypot(bestX - x[bestSeg], bestY - y[bestSeg]);
+        double snappedLat = refLat + bestY / M_PER_DEG_LAT;
+        double snappedLon = refLon + bestX / mPerDegLon;
+        return new PolylineSnapper.SnapResult(acc[bestSeg] + along, bestDist, snappedLat, snappedLon, bestSeg);
+    }
+}
@@ -0,0 +1,36 @@
+package com.smartcane.transit.util;
+
+/**
+ * 기본(스칼라) 최근접 선분 커널. 벡터 커널의 기준 구현이자 fallback.
+ */
+public final class ScalarSegmentKernel implements SegmentKernel {
+
+    static final ScalarSegmentKernel INSTANCE = new ScalarSegmentKernel();
+
+    private ScalarSegmentKernel() {}
+
+    @Override
+    public int nearestSegment(double[] ax, double[] ay, double[] vx, double[] vy, double[] invLen2,
+                              double px, double py, int from, int to) {
+        double best = Double.POSITIVE_INFINITY;
+        int bestIdx = -1;
+        for (int i = from; i < to; i++) {
+            double wx = px - ax[i];
+            double wy = py - ay[i];
+            double t = Math.min(Math.max((wx * vx[i] + wy * vy[i]) * invLen2[i], 0.0), 1.0);
+            double dx = wx - t * vx[i];
+            double dy = wy - t * vy[i];
+            double d2 = dx * dx + dy * dy;
+            if (d2 < best) {
+                best = d2;
+                bestIdx = i;
+            }
+        }
+        return bestIdx;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
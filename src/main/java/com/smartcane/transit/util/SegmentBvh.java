@@ -0,0 +1,176 @@
+package com.smartcane.transit.util;
+
+/**
+ * 폴리라인 선분용 packed BVH (bounding-volume hierarchy).
+ *
+ * - 노선 형상은 선분 순서 자체가 공간적으로 연속이므로, 정렬 없이 연속한 LEAF_SIZE 개 선분을
+ *   잎으로 묶고 이웃 노드를 둘씩 합쳐 올라가는 bottom-up 트리를 배열에 packed 로 보관한다.
+ * - 모든 노드는 연속한 선분 구간 [lo, hi) 를 덮으므로 "선분 from 이후만" 같은 구간 제한도
+ *   노드 단위로 바로 걸러낼 수 있다.
+ * - 최근접 선분 질의는 branch-and-bound: 가까운 자식부터 내려가고, 박스까지 거리가
+ *   현재 최선보다 멀면 가지를 친다. 잎에서는 SegmentKernel 로 선분들을 훑는다.
+ * - 같은 거리면 선분 index 가 작은 쪽을 택해 전체 스캔과 같은 결과를 낸다.
+ *
+ * 좌표는 PreparedPolyline 의 로컬 ENU(미터) 배열을 그대로 참조한다. 불변.
+ */
+final class SegmentBvh {
+
+    static final int LEAF_SIZE = 8;
+
+    private final double[] minX;
+    private final double[] minY;
+    private final double[] maxX;
+    private final double[] maxY;
+    private final int[] lo;
+    private final int[] hi;
+    /** levelStart[k] : k 레벨(0 = 잎) 첫 노드 위치, levelStart[levels] = 노드 수 */
+    private final int[] levelStart;
+    private final int levels;
+
+    private SegmentBvh(int segs, double[] x, double[] y) {
+        // 레벨별 노드 수
+        int leaves = (segs + LEAF_SIZE - 1) / LEAF_SIZE;
+        int nLevels = 1;
+        int total = leaves;
+        for (int n = leaves; n > 1; n = (n + 1) / 2) {
+            total += (n + 1) / 2;
+            nLevels++;
+        }
+        this.levels = nLevels;
+        this.levelStart = new int[nLevels + 1];
+        this.minX = new double[total];
+        this.minY = new double[total];
+        this.maxX = new double[total];
+        this.maxY = new double[total];
+        this.lo = new int[total];
+        this.hi = new int[total];
+
+        // 잎: 연속 선분 LEAF_SIZE 개
+        for (int i = 0; i < leaves; i++) {
+            int a = i * LEAF_SIZE;
+            int b = Math.min(segs, a + LEAF_SIZE);
+            double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY;
+            double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY;
+            for (int v = a; v <= b; v++) {   // 선분 a..b-1 의 정점 a..b
+                x0 = Math.min(x0, x[v]);
+                y0 = Math.min(y0, y[v]);
+                x1 = Math.max(x1, x[v]);
+                y1 = Math.max(y1, y[v]);
+            }
+            set(i, x0, y0, x1, y1, a, b);
+        }
+
+        // 위 레벨: 이웃 두 노드 합치기
+        levelStart[1] = leaves;
+        for (int k = 1; k < nLevels; k++) {
+            int prevStart = levelStart[k - 1];
+            int prevCount = levelStart[k] - prevStart;
+            int count = (prevCount + 1) / 2;
+            for (int j = 0; j < count; j++) {
+                int l = prevStart + 2 * j;
+                int r = Math.min(l + 1, prevStart + prevCount - 1);
+                set(levelStart[k] + j,
+                        Math.min(minX[l], minX[r]), Math.min(minY[l], minY[r]),
+                        Math.max(maxX[l], maxX[r]), Math.max(maxY[l], maxY[r]),
+                        lo[l], hi[r]);
+            }
+            levelStart[k + 1] = levelStart[k] + count;
+        }
+    }
+
+    /** 정점 배열 x/y (선분 i 는 정점 i → i+1) 로부터 생성, 선분이 없으면 null */
+    static SegmentBvh build(double[] x, double[] y) {
+        int segs = Math.max(0, x.length - 1);
+        return segs == 0 ? null : new SegmentBvh(segs, x, y);
+    }
+
+    private void set(int node, double x0, double y0, double x1, double y1, int a, int b) {
+        minX[node] = x0;
+        minY[node] = y0;
+        maxX[node] = x1;
+        maxY[node] = y1;
+        lo[node] = a;
+        hi[node] = b;
+    }
+
+    int nodeCount() {
+        return levelStart[levels];
+    }
+
+    /**
+     * [from, to) 선분 중 (px, py) 에 가장 가까운 선분 index (없으면 -1).
+     */
+    int nearest(double[] x, double[] y, double[] vx, double[] vy, double[] invLen2,
+                SegmentKernel kernel, double px, double py, int from, int to) {
+        return nearest(x, y, vx, vy, invLen2, kernel, px, py, from, to, new Search());
+    }
+
+    /** 결과와 함께 잎에서 실제로 검사한 선분 수(s.scanned)를 남긴다 (JFR SnapEvent 용) */
+    int nearest(double[] x, double[] y, double[] vx, double[] vy, double[] invLen2,
+                SegmentKernel kernel, double px, double py, int from, int to, Search s) {
+        visit(levels - 1, 0, x, y, vx, vy, invLen2, kernel, px, py, from, to, s);
+        return s.bestSeg;
+    }
+
+    /** 질의 1회의 현재 최선 (스레드 간 공유하지 않음) */
+    static final class Search {
+        double bestD2 = Double.POSITIVE_INFINITY;
+        int bestSeg = -1;
+        int scanned;
+    }
+
+    private void visit(int level, int j, double[] x, double[] y, double[] vx, double[] vy, double[] invLen2,
+                       SegmentKernel kernel, double px, double py, int from, int to, Search s) {
+        int node = levelStart[level] + j;
+        if (hi[node] <= from || lo[node] >= to) return;
+        if (boxDist2(node, px, py) > s.bestD2) return;
+
+        if (level == 0) {
+            int a = Math.max(lo[node], from);
+            int b = Math.min(hi[node], to);
+            s.scanned += b - a;
+            int seg = kernel.nearestSegment(x, y, vx, vy, invLen2, px, py, a, b);
+            if (seg < 0) return;
+            double d2 = segDist2(x, y, vx, vy, invLen2, seg, px, py);
+            if (d2 < s.bestD2 || (d2 == s.bestD2 && seg < s.bestSeg)) {
+                s.bestD2 = d2;
+                s.bestSeg = seg;
+            }
+            return;
+        }
+
+        int childCount = levelStart[level] - levelStart[level - 1];
+        int l = 2 * j;
+        int r = 2 * j + 1;
+        if (r >= childCount) {
+            visit(level - 1, l, x, y, vx, vy, invLen2, kernel, px, py, from, to, s);
+            return;
+        }
+        // 가까운 자식부터 (같으면 앞쪽 선분 먼저)
+        int base = levelStart[level - 1];
+        if (boxDist2(base + r, px, py) < boxDist2(base + l, px, py)) {
+            visit(level - 1, r, x, y, vx, vy, invLen2, kernel, px, py, from, to, s);
+            visit(level - 1, l, x, y, vx, vy, invLen2, kernel, px, py, from, to, s);
+        } else {
+            visit(level - 1, l, x, y, vx, vy, invLen2, kernel, px, py, from, to, s);
+            visit(level - 1, r, x, y, vx, vy, invLen2, kernel, px, py, from, to, s);
+        }
+    }
+
+    private double boxDist2(int node, double px, double py) {
+        double dx = Math.max(Math.max(minX[node] - px, 0.0), px - maxX[node]);
+        double dy = Math.max(Math.max(minY[node] - py, 0.0), py - maxY[node]);
+        return dx * dx + dy * dy;
+    }
+
+    /** 커널과 같은 식의 점-선분 거리² */
+    static double segDist2(double[] x, double[] y, double[] vx, double[] vy, double[] invLen2,
+                           int i, double px, double py) {
+        double wx = px - x[i];
+        double wy = py - y[i];
+        double t = Math.min(Math.max((wx * vx[i] + wy * vy[i]) * invLen2[i], 0.0), 1.0);
+        double dx = wx - t * vx[i];
+        double dy = wy - t * vy[i];
+        return dx * dx + dy * dy;
+    }
+}
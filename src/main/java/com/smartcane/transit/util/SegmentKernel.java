@@ -0,0 +1,19 @@
+package com.smartcane.transit.util;
+
+/**
+ * 폴리라인 최근접 선분 탐색 커널.
+ *
+ * - 입력은 packed ENU 배열: 선분 i 의 시작점 (ax[i], ay[i]), 방향벡터 (vx[i], vy[i]),
+ *   1/|v|² (invLen2[i], 길이 0 선분은 0)
+ * - 선분 [from, to) 중 점 (px, py) 까지의 제곱거리가 최소인 선분 index 를 반환한다.
+ *   최소값이 여러 개면 가장 작은 index (스칼라 순차 스캔과 동일).
+ * - 투영 스칼라 t 는 [0,1] 로 clamp, 제곱거리는 |w - t·v|² (w = p - a) 로 계산한다.
+ *   모든 구현은 이 연산 순서를 그대로 따라야 결과가 비트 단위로 같다.
+ */
+public interface SegmentKernel {
+
+    int nearestSegment(double[] ax, double[] ay, double[] vx, double[] vy, double[] invLen2,
+                       double px, double py, int from, int to);
+
+    String name();
+}
@@ -0,0 +1,33 @@
+package com.smartcane.transit.util;
+
+/**
+ * SegmentKernel 선택.
+ * - "vector" 를 요청해도 jdk.incubator.vector 모듈이 로드되지 않았으면 스칼라로 fallback 한다.
+ * - VectorSegmentKernel 은 incubator 모듈이 필요한 별도 소스셋(src/vector/java)에 있어서
+ *   main 은 그 클래스를 직접 참조하지 않고 이름으로 생성한다 (main 컴파일에 --add-modules 불필요).
+ */
+public final class SegmentKernels {
+    private SegmentKernels() {}
+
+    public static final String VECTOR_KERNEL_CLASS = "com.smartcane.transit.util.VectorSegmentKernel";
+
+    public static SegmentKernel scalar() {
+        return ScalarSegmentKernel.INSTANCE;
+    }
+
+    public static boolean vectorAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    /** @param name "scalar" | "vector" */
+    public static SegmentKernel select(String name) {
+        if ("vector".equalsIgnoreCase(name) && vectorAvailable()) {
+            try {
+                return (SegmentKernel) Class.forName(VECTOR_KERNEL_CLASS).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return ScalarSegmentKernel.INSTANCE;   // vector 소스셋 없이 빌드된 경우
+            }
+        }
+        return ScalarSegmentKernel.INSTANCE;
+    }
+}
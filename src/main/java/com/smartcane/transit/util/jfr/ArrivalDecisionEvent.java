@@ -0,0 +1,50 @@
+package com.smartcane.transit.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * ProgressCoordinator.evaluate 1회 (중앙값 → 스냅 → 도착 판정 → 상태 전이 → 안내/ETA).
+ * 같은 스레드의 Snap 이벤트가 이 구간 안에 들어온다.
+ */
+@Name("smartcane.ArrivalDecision")
+@Label("Arrival Decision")
+@Category({"SmartCane", "Progress"})
+@Description("진행 fix 1개 판정 (트립, leg, 도착 여부, 남은 거리)")
+@StackTrace(false)
+@Threshold("200 us")
+public class ArrivalDecisionEvent extends jdk.jfr.Event {
+
+    @Label("Trip Id")
+    public String tripId;
+
+    @Label("Mode")
+    public String mode;
+
+    @Label("Itinerary Index")
+    public int itineraryIndex;
+
+    @Label("Leg Index")
+    public int legIndex;
+
+    @Label("Step Index")
+    public int stepIndex;
+
+    @Label("Arrived")
+    @Description("이번 fix 의 도착 조건 만족 여부 (히스테리시스 전)")
+    public boolean arrived;
+
+    @Label("Arrival Confirmed")
+    public boolean arrivedStable;
+
+    @Label("Remaining (m)")
+    public double remainingMeters;
+
+    @Label("Transition")
+    @Description("PHASE / LEG / ARRIVAL / STEP, 전이가 없으면 null")
+    public String transition;
+}
@@ -0,0 +1,32 @@
+package com.smartcane.transit.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * SK 길찾기 HTTP 시도 1회 (스케줄러 대기 제외, 헤지/재시도는 시도마다 따로).
+ * 구독 시점에 begin, 종료 신호(성공/오류/취소) 스레드에서 commit 한다.
+ */
+@Name("smartcane.SkFetch")
+@Label("SK Route Fetch")
+@Category({"SmartCane", "SK"})
+@StackTrace(false)
+public class SkFetchEvent extends jdk.jfr.Event {
+
+    @Label("Priority")
+    public String priority;
+
+    @Label("Origin")
+    public String origin;
+
+    @Label("Destination")
+    public String destination;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Error")
+    public String error;
+}
@@ -0,0 +1,46 @@
+package com.smartcane.transit.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * PreparedPolyline 최근접 선분 탐색 1회 (전체/구간 스캔 또는 BVH).
+ * originLat/originLon + vertexCount 로 어느 형상인지 구분한다 (같은 스레드의 ArrivalDecision 안에 중첩).
+ */
+@Name("smartcane.Snap")
+@Label("Polyline Snap")
+@Category({"SmartCane", "Geometry"})
+@Description("최근접 선분 탐색 (정점 수, 검사한 선분 수, 소요 시간)")
+@StackTrace(false)
+@Threshold("20 us")
+public class SnapEvent extends jdk.jfr.Event {
+
+    @Label("Kind")
+    @Description("scan = 선분 구간 스캔, bvh = BVH branch-and-bound")
+    public String kind;
+
+    @Label("Vertex Count")
+    public int vertexCount;
+
+    @Label("Segments Scanned")
+    public int segmentsScanned;
+
+    @Label("From Segment")
+    public int fromSegment;
+
+    @Label("Length (m)")
+    public double lengthM;
+
+    @Label("Origin Latitude")
+    public double originLat;
+
+    @Label("Origin Longitude")
+    public double originLon;
+
+    @Label("Distance To Polyline (m)")
+    public double distanceM;
+}
@@ -0,0 +1,30 @@
+package com.smartcane.transit.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * TripStore 호출 1회 (InMemoryTripStore / RedisTripStore).
+ */
+@Name("smartcane.TripStore")
+@Label("Trip Store Operation")
+@Category({"SmartCane", "Store"})
+@StackTrace(false)
+@Threshold("1 ms")
+public class TripStoreEvent extends jdk.jfr.Event {
+
+    @Label("Store")
+    public String store;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Trip Id")
+    public String tripId;
+
+    @Label("Found")
+    public boolean found;
+}
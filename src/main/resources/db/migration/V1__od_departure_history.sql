@@ -0,0 +1,20 @@
+-- 반복 이용 OD(출발지-목적지)와 평소 출발 시간대 기록 (plan 예열용, PlanPrewarmer)
+-- od_key: 좌표를 소수 4자리(약 10m)로 반올림한 "startX,startY>endX,endY"
+-- departure_slot: 출발 시각(하루 중 분)을 planPrewarmSlotMinutes 단위로 내린 값
+CREATE TABLE IF NOT EXISTS od_departure_history (
+    id                BIGINT       NOT NULL AUTO_INCREMENT,
+    od_key            VARCHAR(96)  NOT NULL,
+    start_x           VARCHAR(32)  NOT NULL,
+    start_y           VARCHAR(32)  NOT NULL,
+    end_x             VARCHAR(32)  NOT NULL,
+    end_y             VARCHAR(32)  NOT NULL,
+    departure_slot    SMALLINT     NOT NULL,
+    request_count     INT          NOT NULL DEFAULT 1,
+    last_requested_at DATETIME(3)  NOT NULL,
+    created_at        DATETIME(3)  NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_od_departure (od_key, departure_slot),
+    KEY idx_od_departure_slot (departure_slot, request_count)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_general_ci;
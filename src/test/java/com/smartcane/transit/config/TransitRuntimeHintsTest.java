@@ -0,0 +1,26 @@
+package com.smartcane.transit.config;
+
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.TripState;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransitRuntimeHintsTest {
+
+    @Test
+    void registersBindingHintsForSkRecordsAndTripState() throws Exception {
+        RuntimeHints hints = new RuntimeHints();
+        new TransitRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        for (Class<?> type : SkTransitRootDto.class.getDeclaredClasses()) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(type)).as(type.getSimpleName()).accepts(hints);
+        }
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onMethod(SkTransitRootDto.StationDto.class.getMethod("stationName"))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onMethod(TripState.class.getMethod("setLegIndex", int.class))).accepts(hints);
+    }
+}
@@ -0,0 +1,107 @@
+package com.smartcane.transit.controller;
+
+import com.smartcane.transit.config.RedisConfig;
+import com.smartcane.transit.dto.response.TripIdListResponse;
+import com.smartcane.transit.service.RedisTripIndex;
+import com.smartcane.transit.service.RedisTripStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** 공개 집계와 관리 포트 조회/정리를 실제 Redis 인덱스 위에서 확인한다 (Docker 가 없으면 건너뜀) */
+@Testcontainers(disabledWithoutDocker = true)
+class TripOpsControllerTest {
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private LettuceConnectionFactory factory;
+    private StringRedisTemplate redis;
+    private RedisTripIndex index;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        factory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        factory.afterPropertiesSet();
+        redis = new StringRedisTemplate(factory);
+        redis.execute(conn -> { conn.serverCommands().flushAll(); return null; }, true);
+
+        index = new RedisTripIndex(factory);
+        RedisTripStore store = new RedisTripStore(new RedisConfig().tripRedisTemplate(factory), index);
+        store.init("walk-1", 0, 0, 0, "WALKING");
+        store.init("walk-2", 0, 0, 0, "WALKING");
+        store.init("bus-1", 0, 1, null, "ONBOARD");
+        redis.opsForZSet().add("trips:lastSeen", "walk-2", System.currentTimeMillis() - 600_000);
+
+        mvc = MockMvcBuilders.standaloneSetup(new TripOpsController(index)).build();
+    }
+
+    @AfterEach
+    void close() {
+        factory.destroy();
+    }
+
+    @Test
+    void summaryCountsTripsByPhase() throws Exception {
+        mvc.perform(get("/api/transit/ops/trips"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(3))
+                .andExpect(jsonPath("$.byPhase.WALKING").value(2))
+                .andExpect(jsonPath("$.byPhase.ONBOARD").value(1));
+    }
+
+    @Test
+    void publicPrefixDoesNotListTripIds() throws Exception {
+        mvc.perform(get("/api/transit/ops/trips/phase/WALKING")).andExpect(status().isNotFound());
+        mvc.perform(get("/api/transit/ops/trips/silent")).andExpect(status().isNotFound());
+        mvc.perform(post("/api/transit/ops/trips/sweep").param("minutes", "1")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void managementListsTripsInPhaseUpToLimit() {
+        TripIndexEndpoint endpoint = new TripIndexEndpoint(index);
+        TripIdListResponse all = endpoint.byPhase("WALKING", null);
+        assertThat(all.count()).isEqualTo(2);
+        assertThat(all.tripIds()).containsExactlyInAnyOrder("walk-1", "walk-2");
+
+        TripIdListResponse one = endpoint.byPhase("WALKING", 1);
+        assertThat(one.count()).isEqualTo(2);
+        assertThat(one.tripIds()).hasSize(1);
+    }
+
+    @Test
+    void managementListsSilentTripsOldestFirst() {
+        TripIdListResponse silent = new TripIndexEndpoint(index).silent(5L, null);
+        assertThat(silent.count()).isEqualTo(1);
+        assertThat(silent.tripIds()).containsExactly("walk-2");
+    }
+
+    @Test
+    void managementSweepRemovesSilentTripState() {
+        TripIndexEndpoint endpoint = new TripIndexEndpoint(index);
+        assertThatThrownBy(() -> endpoint.sweep(0)).isInstanceOf(InvalidEndpointRequestException.class);
+
+        assertThat(endpoint.sweep(5)).containsEntry("removed", 1L);
+        assertThat(redis.hasKey("trip:walk-2")).isFalse();
+        assertThat(index.activeCount()).isEqualTo(2);
+    }
+}
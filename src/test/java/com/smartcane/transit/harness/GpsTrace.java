@@ -0,0 +1,46 @@
+package com.smartcane.transit.harness;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 하나의 트립에 대한 GPS 트레이스.
+ * - offsetMs: 트레이스 시작 기준 상대 시각(ms)
+ * - truthLegIndex: 이 fix 시점의 실제(정답) leg index. 녹화 트레이스에 정답이 없으면 -1
+ * - truthRemainingM: 노이즈 없는 위치에서 정답 leg 끝까지 남은 경로 거리. 모르면 NaN
+ */
+public record GpsTrace(String name, int itineraryIndex, List<Fix> fixes) {
+
+    public record Fix(long offsetMs, double lat, double lon, Double speedMps, int truthLegIndex, double truthRemainingM) {}
+
+    public long durationMs() {
+        return fixes.isEmpty() ? 0 : fixes.get(fixes.size() - 1).offsetMs();
+    }
+
+    /**
+     * 녹화 트레이스 CSV 로드.
+     * 형식: offsetMs,lat,lon[,speedMps[,truthLegIndex]]  ('#' 으로 시작하는 줄은 주석)
+     */
+    public static GpsTrace fromCsv(Path path, int itineraryIndex) {
+        List<Fix> fixes = new ArrayList<>();
+        try {
+            for (String raw : Files.readAllLines(path)) {
+                String line = raw.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] c = line.split(",");
+                if (c.length < 3) continue;
+                Double speed = (c.length > 3 && !c[3].isBlank()) ? Double.parseDouble(c[3]) : null;
+                int truth = (c.length > 4 && !c[4].isBlank()) ? Integer.parseInt(c[4].trim()) : -1;
+                fixes.add(new Fix(Long.parseLong(c[0].trim()),
+                        Double.parseDouble(c[1]), Double.parseDouble(c[2]), speed, truth, Double.NaN));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new GpsTrace(path.getFileName().toString(), itineraryIndex, List.copyOf(fixes));
+    }
+}
@@ -0,0 +1,57 @@
+package com.smartcane.transit.harness;
+
+import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
+import com.smartcane.transit.dto.response.GuidanceResponse;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * 실행 중인 서버의 진행 업링크 엔드포인트를 호출하는 리플레이 대상.
+ * - baseUrl 예: http://localhost:8084
+ * - progressPath 는 "{tripId}" 자리표시자를 포함한다.
+ */
+public class HttpTarget implements ReplayTarget {
+
+    public static final String DEFAULT_PROGRESS_PATH = "/api/transit/trips/{tripId}/progress";
+
+    private final String baseUrl;
+    private final String progressPath;
+    private final HttpClient client;
+
+    public HttpTarget(String baseUrl) {
+        this(baseUrl, DEFAULT_PROGRESS_PATH);
+    }
+
+    public HttpTarget(String baseUrl, String progressPath) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.progressPath = progressPath;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    @Override
+    public GuidanceResponse send(String tripId, ProgressUpdateEnvelope envelope) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(baseUrl + progressPath.replace("{tripId}", tripId)))
+                .timeout(Duration.ofSeconds(10))
+                .header("content-type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(SkFixtures.MAPPER.writeValueAsBytes(envelope)))
+                .build();
+        HttpResponse<byte[]> res = client.send(req, HttpResponse.BodyHandlers.ofByteArray());
+        if (res.statusCode() / 100 != 2) {
+            throw new IllegalStateException("HTTP " + res.statusCode() + ": " + new String(res.body()));
+        }
+        return SkFixtures.MAPPER.readValue(res.body(), GuidanceResponse.class);
+    }
+
+    @Override
+    public String describe() {
+        return "http " + baseUrl + progressPath;
+    }
+}
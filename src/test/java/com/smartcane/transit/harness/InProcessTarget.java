@@ -0,0 +1,94 @@
+package com.smartcane.transit.harness;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
+import com.smartcane.transit.dto.response.GuidanceResponse;
+import com.smartcane.transit.service.GuidanceTextGenerator;
+import com.smartcane.transit.service.InMemoryTripStore;
+import com.smartcane.transit.service.ItineraryDetector;
+import com.smartcane.transit.service.LastGuidanceCache;
+import com.smartcane.transit.service.ProgressCoordinator;
+import com.smartcane.transit.service.TripStore;
+import com.smartcane.transit.service.TripEtaEstimator;
+import com.smartcane.transit.service.UplinkAdvisor;
+import com.smartcane.transit.service.arrival.OnboardScheduleEstimator;
+import com.smartcane.transit.service.arrival.TransitArrivalService;
+import com.smartcane.transit.service.arrival.WalkArrivalService;
+import com.smartcane.transit.service.batch.ProgressBatcher;
+import com.smartcane.transit.service.geometry.PreparedGeometryCache;
+import com.smartcane.transit.service.plan.PlanInterner;
+import com.smartcane.transit.service.plan.PlanRegistry;
+import com.smartcane.transit.service.watch.LocalTripEventBus;
+import com.smartcane.transit.service.watch.TripEventBus;
+import com.smartcane.transit.util.SegmentKernels;
+
+/**
+ * 같은 JVM 안에서 ProgressCoordinator 를 직접 호출하는 리플레이 대상.
+ * - 스프링 컨텍스트 없이 운영과 동일한 구성요소를 수동 조립한다.
+ * - progressBatchEnabled 이면 ProgressBatcher 를 거쳐 보낸다 (요청 스레드는 future 를 기다림).
+ */
+public class InProcessTarget implements ReplayTarget {
+
+    private final TripStore tripStore;
+    private final ProgressCoordinator coordinator;
+    private final ProgressBatcher batcher;
+
+    public InProcessTarget() {
+        this(new InMemoryTripStore(), new GuidanceProperties());
+    }
+
+    public InProcessTarget(TripStore tripStore, GuidanceProperties props) {
+        this.tripStore = tripStore;
+        this.coordinator = newCoordinator(tripStore, props);
+        this.batcher = new ProgressBatcher(coordinator, props);
+        batcher.start();
+    }
+
+    /** 운영 빈 구성과 동일한 ProgressCoordinator 조립 */
+    public static ProgressCoordinator newCoordinator(TripStore tripStore, GuidanceProperties props) {
+        return newCoordinator(tripStore, props, new LocalTripEventBus());
+    }
+
+    /** 상태 전이 구독을 확인하는 테스트용 (TripEventBus 지정) */
+    public static ProgressCoordinator newCoordinator(TripStore tripStore, GuidanceProperties props, TripEventBus tripEventBus) {
+        PreparedGeometryCache geometryCache = new PreparedGeometryCache(props, SegmentKernels.select(props.getSnapKernel()));
+        return new ProgressCoordinator(
+                tripStore,
+                new GuidanceTextGenerator(),
+                new WalkArrivalService(geometryCache),
+                new TransitArrivalService(geometryCache, new OnboardScheduleEstimator(props)),
+                props,
+                new PlanRegistry(new PlanInterner(props), geometryCache, props),
+                new ItineraryDetector(geometryCache, props),
+                new UplinkAdvisor(props),
+                new TripEtaEstimator(geometryCache, props),
+                new LastGuidanceCache(props),
+                tripEventBus
+        );
+    }
+
+    public ProgressCoordinator coordinator() {
+        return coordinator;
+    }
+
+    /** RouteController.plan 과 동일한 초기 상태(보행 시작, step 0) */
+    @Override
+    public void registerTrip(String tripId) {
+        tripStore.init(tripId, 0, 0, 0, "WALKING");
+    }
+
+    @Override
+    public GuidanceResponse send(String tripId, ProgressUpdateEnvelope envelope) {
+        return batcher.submit(tripId, envelope).join();
+    }
+
+    @Override
+    public String describe() {
+        return batcher.isEnabled() ? "in-process ProgressCoordinator (micro-batched)" : "in-process ProgressCoordinator";
+    }
+
+    @Override
+    public void close() {
+        batcher.stop();
+    }
+}
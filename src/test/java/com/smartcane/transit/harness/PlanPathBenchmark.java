@@ -0,0 +1,100 @@
+package com.smartcane.transit.harness;
+
+import com.smartcane.transit.config.SKTransitProperties;
+import com.smartcane.transit.config.WebClientConfig;
+import com.smartcane.transit.dto.request.RoutePlanRequest;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.RouteService;
+import com.smartcane.transit.service.sk.SkCallScheduler;
+import com.smartcane.transit.stub.SkStubProperties;
+import com.smartcane.transit.stub.SkStubServer;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * /plan 경로(RouteService → WebClient → SK) 통합 벤치마크.
+ * - 같은 JVM 에 SkStubServer 를 띄우고, WebClientConfig 로 만든 클라이언트가 스텁을 호출한다.
+ *
+ * 실행 예:
+ *   ./gradlew planBenchmark -Pargs="--requests=5000 --concurrency=256 --latency=LOGNORMAL --medianMs=150 --errorRate=0.02"
+ */
+public class PlanPathBenchmark {
+
+    public static void main(String[] args) {
+        Map<String, String> m = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (a.startsWith("--") && eq > 0) m.put(a.substring(2, eq), a.substring(eq + 1));
+        }
+        int requests = Integer.parseInt(m.getOrDefault("requests", "2000"));
+        int concurrency = Integer.parseInt(m.getOrDefault("concurrency", "128"));
+
+        SkStubProperties stubProps = new SkStubProperties();
+        stubProps.setPort(0);
+        stubProps.getLatency().setType(SkStubProperties.Latency.Type.valueOf(m.getOrDefault("latency", "FIXED")));
+        stubProps.getLatency().setFixedMs(Long.parseLong(m.getOrDefault("fixedMs", "100")));
+        stubProps.getLatency().setMedianMs(Double.parseDouble(m.getOrDefault("medianMs", "150")));
+        stubProps.getLatency().setSigma(Double.parseDouble(m.getOrDefault("sigma", "0.5")));
+        stubProps.setErrorRate(Double.parseDouble(m.getOrDefault("errorRate", "0")));
+        stubProps.setItineraryCopies(Integer.parseInt(m.getOrDefault("copies", "1")));
+
+        SkStubServer stub = new SkStubServer(stubProps).start();
+        try {
+            run(stub, requests, concurrency);
+        } finally {
+            stub.stop();
+        }
+    }
+
+    static void run(SkStubServer stub, int requests, int concurrency) {
+        SKTransitProperties skProps = new SKTransitProperties();
+        skProps.setBaseUrl(stub.baseUrl());
+        skProps.setAppKey("stub-app-key");
+        // 스텁 처리량 측정이므로 스케줄러 한도는 풀어 둔다
+        skProps.setRatePerSecond(1e9);
+        skProps.setBurst(Integer.MAX_VALUE);
+        skProps.setMaxConcurrent(Math.max(1, concurrency));
+        skProps.setMaxConnections(Math.max(1, concurrency));
+        skProps.setPendingAcquireMax(Math.max(1, requests));
+        skProps.setQueueCapacity(Math.max(1, requests));
+        RouteService routeService = new RouteService(new WebClientConfig().skTransitWebClient(skProps),
+                new SkCallScheduler(skProps));
+
+        SkTransitRootDto.RequestParametersDto rp = SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS)
+                .metaData().requestParameters();
+        RoutePlanRequest query = new RoutePlanRequest(rp.startX(), rp.startY(), rp.endX(), rp.endY(),
+                0, "json", 10, null);
+
+        Histogram latencyUs = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(60), 3);
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+
+        Flux.range(0, requests)
+                .flatMap(i -> {
+                    long t0 = System.nanoTime();
+                    return routeService.searchRoutes(query)
+                            .doOnSuccess(r -> latencyUs.recordValue(Math.min(latencyUs.getHighestTrackableValue(),
+                                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - t0))))
+                            .onErrorResume(e -> {
+                                errors.incrementAndGet();
+                                return Mono.empty();
+                            });
+                }, concurrency)
+                .blockLast();
+
+        long wallMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.printf("=== plan path benchmark: %s ===%n", stub.baseUrl());
+        System.out.printf("requests=%d errors=%d wall=%dms throughput=%.1f req/s%n",
+                requests, errors.get(), wallMs, wallMs == 0 ? 0 : requests * 1000.0 / wallMs);
+        System.out.printf("latency(us) p50=%d p90=%d p99=%d max=%d%n",
+                latencyUs.getValueAtPercentile(50), latencyUs.getValueAtPercentile(90),
+                latencyUs.getValueAtPercentile(99), latencyUs.getMaxValue());
+    }
+}
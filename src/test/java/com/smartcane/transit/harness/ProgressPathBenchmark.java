@@ -0,0 +1,193 @@
+package com.smartcane.transit.harness;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
+import com.smartcane.transit.dto.request.ProgressUpdateRequest;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.InMemoryReactiveTripStore;
+import com.smartcane.transit.service.InMemoryTripStore;
+import com.smartcane.transit.service.ProgressCoordinator;
+import com.smartcane.transit.service.ReactiveProgressCoordinator;
+import com.smartcane.transit.service.ReactiveTripStore;
+import com.smartcane.transit.service.TripState;
+import com.smartcane.transit.service.TripStore;
+import com.smartcane.transit.util.GeoUtils;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 진행 업링크 블로킹 경로 vs 리액티브 경로 비교 벤치마크 (스레드 수 / p99).
+ *
+ * - 같은 JVM 에서 동일한 판정 로직(ProgressCoordinator.evaluate)을 두 방식으로 감싼다.
+ *   · blocking : 고정 크기 요청 스레드 풀(Tomcat maxThreads 모델), 느린 업로드/저장소 RTT 동안 스레드 점유
+ *   · reactive : ReactiveProgressCoordinator, 같은 지연을 Mono.delay 로 기다림 (스레드 점유 없음)
+ * - 느린 모바일 연결은 "요청 본문 수신 시간(uploadMs)" 으로, Redis 는 load/save 각각 storeRttMs 로 모델링한다.
+ * - clients 개의 트립이 intervalMs 마다 fix 를 보내는 open-loop 부하. 지연은 예정 발사 시각부터 잰다(대기열 포함).
+ *
+ * 실행 예:
+ *   ./gradlew progressPathBenchmark -Pargs="--clients=5000 --intervalMs=1000 --uploadMs=300 --storeRttMs=2 --threads=200"
+ */
+public class ProgressPathBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> m = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (a.startsWith("--") && eq > 0) m.put(a.substring(2, eq), a.substring(eq + 1));
+        }
+        Config c = new Config(
+                m.getOrDefault("mode", "both"),
+                Integer.parseInt(m.getOrDefault("clients", "5000")),
+                Integer.parseInt(m.getOrDefault("intervalMs", "1000")),
+                Integer.parseInt(m.getOrDefault("durationSec", "20")),
+                Integer.parseInt(m.getOrDefault("uploadMs", "300")),
+                Integer.parseInt(m.getOrDefault("storeRttMs", "2")),
+                Integer.parseInt(m.getOrDefault("threads", "200")));
+
+        if (!"reactive".equals(c.mode())) run(c, false);
+        if (!"blocking".equals(c.mode())) run(c, true);
+    }
+
+    record Config(String mode, int clients, int intervalMs, int durationSec, int uploadMs, int storeRttMs, int threads) {}
+
+    static void run(Config c, boolean reactive) throws InterruptedException {
+        GuidanceProperties props = new GuidanceProperties();
+        InMemoryTripStore memory = new InMemoryTripStore();
+        ProgressCoordinator coordinator = InProcessTarget.newCoordinator(new SlowTripStore(memory, c.storeRttMs()), props);
+        ReactiveProgressCoordinator rx = new ReactiveProgressCoordinator(coordinator,
+                new SlowReactiveTripStore(new InMemoryReactiveTripStore(memory), c.storeRttMs()));
+
+        SkTransitRootDto.MetaDataDto meta = SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData();
+        List<double[]> path = GeoUtils.parseLineString(meta.plan().itineraries().get(0).legs().get(1).passShape().linestring());
+        for (int i = 0; i < c.clients(); i++) memory.init("bench-" + i, 0, 0, 0, "WALKING");
+
+        ExecutorService requestThreads = reactive ? null : Executors.newFixedThreadPool(c.threads());
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+        Histogram latencyUs = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(10), 3);
+        AtomicLong sent = new AtomicLong(), done = new AtomicLong(), errors = new AtomicLong();
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + TimeUnit.SECONDS.toNanos(c.durationSec());
+
+        // 1ms 마다 이번 슬롯에 해당하는 클라이언트들이 fix 를 보낸다 (균등 분산)
+        ticker.scheduleAtFixedRate(new Runnable() {
+            long tick;
+            @Override
+            public void run() {
+                if (System.nanoTime() > endNanos) return;
+                int slot = (int) (tick++ % c.intervalMs());
+                for (int client = slot; client < c.clients(); client += c.intervalMs()) {
+                    String tripId = "bench-" + client;
+                    double[] p = path.get((int) ((tick / c.intervalMs() + client) % path.size()));
+                    ProgressUpdateEnvelope env = new ProgressUpdateEnvelope(meta,
+                            new ProgressUpdateRequest(p[1], p[0], 8.0, System.currentTimeMillis(), null, null, null));
+                    long t0 = System.nanoTime();
+                    sent.incrementAndGet();
+                    if (reactive) {
+                        Mono.delay(Duration.ofMillis(c.uploadMs()))
+                                .then(rx.updateProgress(tripId, env))
+                                .subscribe(r -> record(latencyUs, t0, done), e -> errors.incrementAndGet());
+                    } else {
+                        requestThreads.execute(() -> {
+                            try {
+                                Thread.sleep(c.uploadMs());
+                                coordinator.updateProgress(tripId, env);
+                                record(latencyUs, t0, done);
+                            } catch (Exception e) {
+                                errors.incrementAndGet();
+                            }
+                        });
+                    }
+                }
+            }
+        }, 0, 1, TimeUnit.MILLISECONDS);
+
+        // 실행 중 최대 스레드 수 (요청 처리 + 스케줄러 포함)
+        Thread.sleep(TimeUnit.SECONDS.toMillis(c.durationSec()));
+        int peakThreads = threads.getPeakThreadCount();
+        ticker.shutdown();
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (done.get() + errors.get() < sent.get() && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        long wallMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        if (requestThreads != null) requestThreads.shutdownNow();
+
+        System.out.printf("=== progress path benchmark: %s ===%n", reactive ? "reactive (Mono + ReactiveTripStore)"
+                : "blocking (" + c.threads() + " request threads)");
+        System.out.printf("clients=%d interval=%dms upload=%dms storeRtt=%dms duration=%ds%n",
+                c.clients(), c.intervalMs(), c.uploadMs(), c.storeRttMs(), c.durationSec());
+        System.out.printf("sent=%d completed=%d errors=%d unfinished=%d wall=%dms peakThreads=%d%n",
+                sent.get(), done.get(), errors.get(), sent.get() - done.get() - errors.get(), wallMs, peakThreads);
+        System.out.printf("latency(ms) p50=%.1f p90=%.1f p99=%.1f max=%.1f%n",
+                latencyUs.getValueAtPercentile(50) / 1000.0, latencyUs.getValueAtPercentile(90) / 1000.0,
+                latencyUs.getValueAtPercentile(99) / 1000.0, latencyUs.getMaxValue() / 1000.0);
+    }
+
+    private static void record(Histogram h, long t0, AtomicLong done) {
+        h.recordValue(Math.min(h.getHighestTrackableValue(), TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - t0)));
+        done.incrementAndGet();
+    }
+
+    /** 원격 저장소 RTT 를 흉내 내는 블로킹 TripStore */
+    record SlowTripStore(TripStore delegate, int rttMs) implements TripStore {
+        @Override
+        public void init(String tripId, int itineraryIndex, int legIndex, Integer stepIndex, String phase) {
+            pause();
+            delegate.init(tripId, itineraryIndex, legIndex, stepIndex, phase);
+        }
+
+        @Override
+        public TripState load(String tripId) {
+            pause();
+            return delegate.load(tripId);
+        }
+
+        @Override
+        public void save(String tripId, TripState state) {
+            pause();
+            delegate.save(tripId, state);
+        }
+
+        private void pause() {
+            try {
+                Thread.sleep(rttMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /** 같은 RTT 를 타이머로 기다리는 논블로킹 TripStore */
+    record SlowReactiveTripStore(ReactiveTripStore delegate, int rttMs) implements ReactiveTripStore {
+        @Override
+        public Mono<Void> init(String tripId, int itineraryIndex, int legIndex, Integer stepIndex, String phase) {
+            return Mono.delay(Duration.ofMillis(rttMs)).then(delegate.init(tripId, itineraryIndex, legIndex, stepIndex, phase));
+        }
+
+        @Override
+        public Mono<TripState> load(String tripId) {
+            return Mono.delay(Duration.ofMillis(rttMs)).then(delegate.load(tripId));
+        }
+
+        @Override
+        public Mono<Void> save(String tripId, TripState state) {
+            return Mono.delay(Duration.ofMillis(rttMs)).then(delegate.save(tripId, state));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.smartcane.transit.harness;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+
+/**
+ * 리플레이 결과 요약.
+ * - latencyUs          : 업링크 1건 처리 지연(µs) 분포
+ * - legTransitionDelayMs : 정답 leg 전이 시각 대비 서버 leg 전이 지연(트레이스 시간, ms)
+ * - falseArrivals      : 직전 leg 끝의 도착 반경에 들기 전에 다음 leg 로 넘어간 횟수(조기 도착 판정)
+ * - missedTransitions  : 정답은 도달했지만 서버가 끝까지 전이하지 못한 leg 수
+ */
+public record ReplayReport(
+        String target,
+        int trips,
+        long fixesSent,
+        long errors,
+        long wallMs,
+        Histogram latencyUs,
+        Histogram legTransitionDelayMs,
+        long falseArrivals,
+        long missedTransitions,
+        long itineraryMismatches
+) {
+
+    public double throughputPerSec() {
+        return wallMs == 0 ? 0 : fixesSent * 1000.0 / wallMs;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("=== trace replay: %s ===%n", target);
+        out.printf("trips=%d fixes=%d errors=%d wall=%dms throughput=%.1f fix/s%n",
+                trips, fixesSent, errors, wallMs, throughputPerSec());
+        out.printf("latency(us) p50=%d p90=%d p99=%d p99.9=%d max=%d%n",
+                latencyUs.getValueAtPercentile(50), latencyUs.getValueAtPercentile(90),
+                latencyUs.getValueAtPercentile(99), latencyUs.getValueAtPercentile(99.9),
+                latencyUs.getMaxValue());
+        if (legTransitionDelayMs.getTotalCount() > 0) {
+            out.printf("leg transition delay(ms) n=%d p50=%d p95=%d max=%d%n",
+                    legTransitionDelayMs.getTotalCount(),
+                    legTransitionDelayMs.getValueAtPercentile(50),
+                    legTransitionDelayMs.getValueAtPercentile(95),
+                    legTransitionDelayMs.getMaxValue());
+        }
+        out.printf("false arrivals=%d missed transitions=%d itinerary mismatches=%d%n",
+                falseArrivals, missedTransitions, itineraryMismatches);
+    }
+}
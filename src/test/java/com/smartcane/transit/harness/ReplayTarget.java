@@ -0,0 +1,22 @@
+package com.smartcane.transit.harness;
+
+import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
+import com.smartcane.transit.dto.response.GuidanceResponse;
+
+/**
+ * 리플레이 대상: 진행 업링크 1건을 보내고 GuidanceResponse 를 받는다.
+ * - InProcessTarget : 같은 JVM 의 ProgressCoordinator 직접 호출
+ * - HttpTarget      : 실제 /api/transit/trips/{tripId}/progress 엔드포인트 호출
+ */
+public interface ReplayTarget extends AutoCloseable {
+
+    /** 트립 시작 전 1회 호출: /plan 과 동일한 초기 상태 등록이 필요한 대상만 구현 */
+    default void registerTrip(String tripId) {}
+
+    GuidanceResponse send(String tripId, ProgressUpdateEnvelope envelope) throws Exception;
+
+    String describe();
+
+    @Override
+    default void close() {}
+}
@@ -0,0 +1,173 @@
+package com.smartcane.transit.harness;
+
+import com.smartcane.transit.config.ExecutionLanes;
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
+import com.smartcane.transit.dto.request.ProgressUpdateRequest;
+import com.smartcane.transit.dto.response.GuidanceResponse;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.InMemoryTripStore;
+import com.smartcane.transit.service.ProgressCoordinator;
+import com.smartcane.transit.service.RouteProgressService;
+import com.smartcane.transit.service.TripAdmission;
+import com.smartcane.transit.service.TripState;
+import com.smartcane.transit.service.batch.ProgressBatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 장애 격리: SK 가 느려져 계획 후처리가 io 레인을 모두 붙잡고 있는 상황을 latch 로 재현하고,
+ * 진행 판정(cpu 레인)이 그와 무관하게 끝나는지 확인한다. 시간 측정 없이 "끝났는가" 만 본다.
+ */
+class SkDegradationIsolationTest {
+
+    private static final int IO_CONCURRENT = 2;
+    private static final int IO_QUEUE = 2;
+
+    private final GuidanceProperties props = new GuidanceProperties();
+    private final CountDownLatch skStuck = new CountDownLatch(1);
+    private final SkTransitRootDto.MetaDataDto meta = SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData();
+    private final GpsTrace trace = new SyntheticTraceGenerator().generate(meta.plan().itineraries().get(0), 0, 7L);
+    private ExecutionLanes lanes;
+
+    private ExecutionLanes newLanes() {
+        props.setLaneCpuThreads(2);
+        props.setLaneIoMaxConcurrent(IO_CONCURRENT);
+        props.setLaneIoQueueCapacity(IO_QUEUE);
+        props.setProgressBatchEnabled(false);
+        return new ExecutionLanes(props);
+    }
+
+    @AfterEach
+    void release() {
+        skStuck.countDown();
+        if (lanes != null) lanes.shutdown();
+    }
+
+    /** SK 응답을 기다리는 계획 후처리로 io 레인의 실행 슬롯과 대기열을 모두 채운다 */
+    private void saturateIo(CountDownLatch running) {
+        for (int i = 0; i < IO_CONCURRENT + IO_QUEUE; i++) {
+            lanes.io().execute(() -> {
+                running.countDown();
+                awaitQuietly(skStuck);
+            });
+        }
+    }
+
+    @Test
+    void cpuLaneKeepsEvaluatingWhileIoLaneIsSaturated() throws Exception {
+        lanes = newLanes();
+        InMemoryTripStore store = new InMemoryTripStore();
+        ProgressCoordinator coordinator = InProcessTarget.newCoordinator(store, props);
+        store.init("t", 0, 0, 0, "WALKING");
+        TripState state = store.load("t");
+
+        CountDownLatch running = new CountDownLatch(IO_CONCURRENT);
+        saturateIo(running);
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        // io 레인이 꽉 찼다: 더 넣으면 거절 (→ 503)
+        assertThatThrownBy(() -> lanes.io().execute(() -> { })).isInstanceOf(RejectedExecutionException.class);
+
+        // 판정은 cpu 레인에서 그대로 끝난다
+        for (int i = 0; i < trace.fixes().size(); i += 10) {
+            ProgressUpdateRequest fix = fix(i);
+            GuidanceResponse res = lanes.supplyCpu(() -> coordinator.evaluate("t", state, meta, fix))
+                    .get(5, TimeUnit.SECONDS);
+            assertThat(res.tripId()).isEqualTo("t");
+        }
+        assertThat(skStuck.getCount()).isEqualTo(1);   // 그동안 io 작업은 한 건도 풀리지 않았다
+    }
+
+    @Test
+    void sharedPoolStallsEvaluationBehindBlockedPlanWork() throws Exception {
+        // 대조군: 같은 크기의 풀 하나를 나눠 쓰면 판정이 막힌 계획 작업 뒤에 줄을 선다
+        ExecutorService shared = Executors.newFixedThreadPool(IO_CONCURRENT);
+        try {
+            CountDownLatch running = new CountDownLatch(IO_CONCURRENT);
+            for (int i = 0; i < IO_CONCURRENT; i++) {
+                shared.execute(() -> {
+                    running.countDown();
+                    awaitQuietly(skStuck);
+                });
+            }
+            assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<?> evaluation = shared.submit(() -> { });
+            assertThat(awaitDone(evaluation, 200)).isFalse();
+
+            skStuck.countDown();
+            evaluation.get(5, TimeUnit.SECONDS);
+        } finally {
+            shared.shutdownNow();
+        }
+    }
+
+    @Test
+    void progressRunsStoreIoOnIoLaneAndRejectsWhenItIsFull() throws Exception {
+        lanes = newLanes();
+        AtomicReference<String> loadThread = new AtomicReference<>();
+        AtomicReference<String> saveThread = new AtomicReference<>();
+        InMemoryTripStore store = new InMemoryTripStore() {
+            @Override
+            public TripState load(String tripId) {
+                loadThread.set(Thread.currentThread().getName());
+                return super.load(tripId);
+            }
+
+            @Override
+            public void save(String tripId, TripState state) {
+                saveThread.set(Thread.currentThread().getName());
+                super.save(tripId, state);
+            }
+        };
+        ProgressCoordinator coordinator = InProcessTarget.newCoordinator(store, props);
+        RouteProgressService service = new RouteProgressService(coordinator,
+                new ProgressBatcher(coordinator, props), null, lanes, new TripAdmission(props));
+        store.init("t", 0, 0, 0, "WALKING");
+
+        GuidanceResponse res = service.updateProgressAsync("t", new ProgressUpdateEnvelope(meta, fix(0)))
+                .get(5, TimeUnit.SECONDS);
+        assertThat(res.tripId()).isEqualTo("t");
+        assertThat(List.of(loadThread.get(), saveThread.get())).allMatch(name -> name.startsWith("io-lane-"));
+
+        // io 레인이 포화되면 상태 I/O 를 맡길 곳이 없으므로 거절 (→ 503)
+        saturateIo(new CountDownLatch(IO_CONCURRENT));
+        assertThatThrownBy(() -> service.updateProgressAsync("t", new ProgressUpdateEnvelope(meta, fix(60))))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    private ProgressUpdateRequest fix(int i) {
+        GpsTrace.Fix f = trace.fixes().get(i);
+        return new ProgressUpdateRequest(f.lon(), f.lat(), f.speedMps(), 1_700_000_000_000L + f.offsetMs(),
+                null, null, null);
+    }
+
+    private static boolean awaitDone(Future<?> future, long ms) {
+        try {
+            future.get(ms, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.smartcane.transit.harness;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * 녹화된 SK /transit/routes/ 응답(JSON) 픽스처 로더.
+ * - 픽스처는 src/test/resources/sk-fixtures/ 아래에 원본 응답 형태 그대로 둔다.
+ */
+public final class SkFixtures {
+    private SkFixtures() {}
+
+    public static final String GANGNAM_APGUJEONG_BUS = "sk-fixtures/gangnam-apgujeong-bus.json";
+
+    static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    public static SkTransitRootDto load(String classpathResource) {
+        try (InputStream in = SkFixtures.class.getClassLoader().getResourceAsStream(classpathResource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("픽스처를 찾을 수 없습니다: " + classpathResource);
+            }
+            return MAPPER.readValue(in, SkTransitRootDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.smartcane.transit.harness;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.InMemoryTripStore;
+import com.smartcane.transit.service.TripState;
+import com.smartcane.transit.service.geometry.PreparedGeometryCache;
+import com.smartcane.transit.service.plan.PlanInterner;
+import com.smartcane.transit.service.plan.PlanRegistry;
+import com.smartcane.transit.service.snapshot.TripSnapshotService;
+import com.smartcane.transit.util.SegmentKernels;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 재배포 스냅샷(TripSnapshotService) 저장/복원 시간과 파일 크기.
+ * - 같은 노선 계획을 공유하는 트립 N 개를 만들어 임시 파일로 쓰고 새 저장소로 복원한다.
+ *
+ * 실행 예:
+ *   ./gradlew snapshotBenchmark -Pargs="--trips=100000"
+ */
+public class SnapshotBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> m = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (a.startsWith("--") && eq > 0) m.put(a.substring(2, eq), a.substring(eq + 1));
+        }
+        int trips = Integer.parseInt(m.getOrDefault("trips", "100000"));
+
+        Path dir = Files.createTempDirectory("snapshot-bench");
+        Path file = dir.resolve("trips.snap");
+        try {
+            run(trips, file);
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    static void run(int trips, Path file) throws IOException {
+        GuidanceProperties props = new GuidanceProperties();
+        props.setMaxRegisteredPlans(Math.max(props.getMaxRegisteredPlans(), trips));
+        ObjectMapper objectMapper = new ObjectMapper();
+        SkTransitRootDto.MetaDataDto meta = SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData();
+
+        InMemoryTripStore store = new InMemoryTripStore();
+        PlanRegistry registry = newRegistry(props);
+        for (int i = 0; i < trips; i++) {
+            String tripId = "trip-" + i;
+            registry.register(tripId, meta);
+            store.init(tripId, 0, i % 3, 0, "WALKING");
+            TripState s = store.load(tripId);
+            s.setLastTs(1_700_000_000_000L + i);
+            for (int k = 0; k < props.getMedianWindow(); k++) {
+                s.getLatBuf().add(37.5 + k * 1e-5);
+                s.getLonBuf().add(127.0 + k * 1e-5);
+            }
+            store.save(tripId, s);
+        }
+
+        TripSnapshotService.Result written = new TripSnapshotService(store, registry, new PlanInterner(props),
+                objectMapper, props).write(file);
+        long bytes = Files.size(file);
+        InMemoryTripStore restoredStore = new InMemoryTripStore();
+        TripSnapshotService.Result read = new TripSnapshotService(restoredStore, newRegistry(props),
+                new PlanInterner(props), objectMapper, props).restore(file);
+
+        System.out.printf("=== snapshot benchmark: %d trips ===%n", trips);
+        System.out.printf("write=%dms restore=%dms size=%dKB plans=%d legs=%d restoredTrips=%d%n",
+                written.elapsedMs(), read.elapsedMs(), bytes / 1024, read.plans(), read.legs(),
+                restoredStore.size());
+    }
+
+    private static PlanRegistry newRegistry(GuidanceProperties props) {
+        return new PlanRegistry(new PlanInterner(props), new PreparedGeometryCache(props, SegmentKernels.scalar()), props);
+    }
+}
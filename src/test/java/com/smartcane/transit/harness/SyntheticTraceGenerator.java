@@ -0,0 +1,126 @@
+package com.smartcane.transit.harness;
+
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.util.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * SK 픽스처 itinerary 를 따라 이동하는 합성 GPS 트레이스 생성기.
+ *
+ * - WALK : steps[].linestring 을 이어 붙인 경로를 보행 속도로 이동
+ * - BUS / SUBWAY : 승차 전 정류장 대기(dwell) 후 passShape 를 차량 속도로 이동
+ * - 각 fix 에 가우시안 위치 노이즈를 더하고, 정답 leg index 와 (노이즈 없는) leg 끝까지 남은 거리를 함께 기록한다.
+ */
+public class SyntheticTraceGenerator {
+
+    private static final double M_PER_DEG_LAT = 111_320.0;
+
+    private double walkSpeedMps = 1.1;
+    private double busSpeedMps = 7.0;
+    private double subwaySpeedMps = 11.0;
+    private long boardingDwellMs = 60_000;
+    private long sampleIntervalMs = 1_000;
+    private double noiseSigmaM = 4.0;
+
+    public SyntheticTraceGenerator walkSpeedMps(double v) { this.walkSpeedMps = v; return this; }
+    public SyntheticTraceGenerator busSpeedMps(double v) { this.busSpeedMps = v; return this; }
+    public SyntheticTraceGenerator subwaySpeedMps(double v) { this.subwaySpeedMps = v; return this; }
+    public SyntheticTraceGenerator boardingDwellMs(long v) { this.boardingDwellMs = v; return this; }
+    public SyntheticTraceGenerator sampleIntervalMs(long v) { this.sampleIntervalMs = v; return this; }
+    public SyntheticTraceGenerator noiseSigmaM(double v) { this.noiseSigmaM = v; return this; }
+
+    public GpsTrace generate(SkTransitRootDto.ItineraryDto itinerary, int itineraryIndex, long seed) {
+        Random rnd = new Random(seed);
+        List<GpsTrace.Fix> fixes = new ArrayList<>();
+        long t = 0;
+
+        List<SkTransitRootDto.LegDto> legs = itinerary.legs();
+        for (int legIndex = 0; legIndex < legs.size(); legIndex++) {
+            SkTransitRootDto.LegDto leg = legs.get(legIndex);
+            List<double[]> pts = legPoints(leg);
+            if (pts.isEmpty()) continue;
+
+            String mode = leg.mode() != null ? leg.mode().toUpperCase() : "WALK";
+            double speed = switch (mode) {
+                case "BUS" -> busSpeedMps;
+                case "SUBWAY" -> subwaySpeedMps;
+                default -> walkSpeedMps;
+            };
+
+            double[] acc = cumulative(pts);
+            double total = acc[acc.length - 1];
+
+            // 대중교통 구간: 출발 정류장에서 대기 (정지 상태 fix 연속)
+            if (!"WALK".equals(mode)) {
+                for (long w = 0; w < boardingDwellMs; w += sampleIntervalMs) {
+                    fixes.add(noisyFix(t, pts.get(0), 0.0, legIndex, total, rnd));
+                    t += sampleIntervalMs;
+                }
+            }
+
+            double stepM = speed * sampleIntervalMs / 1000.0;
+            for (double s = 0; s < total; s += stepM) {
+                fixes.add(noisyFix(t, pointAt(pts, acc, s), speed, legIndex, total - s, rnd));
+                t += sampleIntervalMs;
+            }
+        }
+
+        // 최종 목적지에서 잠시 머무름 (도착 판정 히스테리시스 통과용)
+        SkTransitRootDto.LegDto last = legs.get(legs.size() - 1);
+        List<double[]> lastPts = legPoints(last);
+        if (!lastPts.isEmpty()) {
+            double[] end = lastPts.get(lastPts.size() - 1);
+            for (int i = 0; i < 5; i++) {
+                fixes.add(noisyFix(t, end, 0.0, legs.size() - 1, 0.0, rnd));
+                t += sampleIntervalMs;
+            }
+        }
+        return new GpsTrace("synthetic-" + seed, itineraryIndex, List.copyOf(fixes));
+    }
+
+    /** leg 의 진행 경로: WALK 는 steps 를 이어 붙이고, 없으면 passShape 사용 */
+    static List<double[]> legPoints(SkTransitRootDto.LegDto leg) {
+        List<double[]> out = new ArrayList<>();
+        if (leg.steps() != null && !leg.steps().isEmpty()) {
+            for (var step : leg.steps()) {
+                out.addAll(GeoUtils.parseLineString(step.linestring()));
+            }
+        }
+        if (out.isEmpty() && leg.passShape() != null) {
+            out.addAll(GeoUtils.parseLineString(leg.passShape().linestring()));
+        }
+        return out;
+    }
+
+    private static double[] cumulative(List<double[]> pts) {
+        double[] acc = new double[pts.size()];
+        for (int i = 1; i < pts.size(); i++) {
+            acc[i] = acc[i - 1] + GeoUtils.haversine(pts.get(i - 1)[0], pts.get(i - 1)[1], pts.get(i)[0], pts.get(i)[1]);
+        }
+        return acc;
+    }
+
+    private static double[] pointAt(List<double[]> pts, double[] acc, double s) {
+        for (int i = 1; i < pts.size(); i++) {
+            if (acc[i] >= s) {
+                double seg = acc[i] - acc[i - 1];
+                double f = seg == 0 ? 0 : (s - acc[i - 1]) / seg;
+                double[] a = pts.get(i - 1);
+                double[] b = pts.get(i);
+                return new double[]{a[0] + (b[0] - a[0]) * f, a[1] + (b[1] - a[1]) * f};
+            }
+        }
+        return pts.get(pts.size() - 1);
+    }
+
+    private GpsTrace.Fix noisyFix(long t, double[] p, double speed, int legIndex, double remainingM, Random rnd) {
+        double dn = rnd.nextGaussian() * noiseSigmaM;
+        double de = rnd.nextGaussian() * noiseSigmaM;
+        double lat = p[0] + dn / M_PER_DEG_LAT;
+        double lon = p[1] + de / (M_PER_DEG_LAT * Math.cos(Math.toRadians(p[0])));
+        return new GpsTrace.Fix(t, lat, lon, speed, legIndex, remainingM);
+    }
+}
@@ -0,0 +1,294 @@
+package com.smartcane.transit.harness;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
+import com.smartcane.transit.dto.request.ProgressUpdateRequest;
+import com.smartcane.transit.dto.response.GuidanceResponse;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.InMemoryTripStore;
+import com.smartcane.transit.util.GeoUtils;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GPS 트레이스 리플레이 / 부하 생성 하네스.
+ *
+ * - SK 픽스처 itinerary 를 따라 합성(또는 녹화) 트레이스를 만들고
+ * - 수천 개의 트립을 동시에, 가속된 시간(speedup 배)으로 진행 업링크에 흘려보낸 뒤
+ * - 처리량, 지연 백분위(HdrHistogram), leg 전이 지연/조기 도착 같은 정합성 지표를 보고한다.
+ *
+ * 실행 예:
+ *   ./gradlew replayHarness -Pargs="--trips=2000 --concurrency=64 --speedup=30"
+ *   ./gradlew replayHarness -Pargs="--target=http://localhost:8084 --trips=500"
+ *   ./gradlew replayHarness -Pargs="--itineraries=all --detectItinerary=true"
+ *   ./gradlew replayHarness -Pargs="--trips=4000 --concurrency=256 --batch=true --batchWindowMs=2"
+ */
+public class TraceReplayHarness {
+
+    /**
+     * @param itineraries "first" 면 0번 itinerary 만, "all" 이면 트립마다 itinerary 를 돌아가며 사용
+     * @param recordedTrace null 이 아니면 합성 대신 해당 CSV 트레이스를 모든 트립에 사용
+     * @param adaptiveUplink true 면 응답의 nextUplinkAfterMs/M 권고를 따라 fix 를 건너뛴다
+     */
+    public record Config(
+            String fixture,
+            int trips,
+            int concurrency,
+            double speedup,
+            long rampUpMs,
+            long seed,
+            double noiseSigmaM,
+            long sampleIntervalMs,
+            String itineraries,
+            Path recordedTrace,
+            boolean adaptiveUplink
+    ) {
+        public static Config defaults() {
+            return new Config(SkFixtures.GANGNAM_APGUJEONG_BUS, 1000, 32, 20.0, 2_000,
+                    42L, 4.0, 1_000, "first", null, false);
+        }
+
+        static Config fromArgs(String[] args) {
+            Map<String, String> m = new HashMap<>();
+            for (String a : args) {
+                if (!a.startsWith("--")) continue;
+                int eq = a.indexOf('=');
+                if (eq > 0) m.put(a.substring(2, eq), a.substring(eq + 1));
+            }
+            Config d = defaults();
+            return new Config(
+                    m.getOrDefault("fixture", d.fixture()),
+                    Integer.parseInt(m.getOrDefault("trips", String.valueOf(d.trips()))),
+                    Integer.parseInt(m.getOrDefault("concurrency", String.valueOf(d.concurrency()))),
+                    Double.parseDouble(m.getOrDefault("speedup", String.valueOf(d.speedup()))),
+                    Long.parseLong(m.getOrDefault("rampUpMs", String.valueOf(d.rampUpMs()))),
+                    Long.parseLong(m.getOrDefault("seed", String.valueOf(d.seed()))),
+                    Double.parseDouble(m.getOrDefault("noise", String.valueOf(d.noiseSigmaM()))),
+                    Long.parseLong(m.getOrDefault("interval", String.valueOf(d.sampleIntervalMs()))),
+                    m.getOrDefault("itineraries", d.itineraries()),
+                    m.containsKey("trace") ? Path.of(m.get("trace")) : null,
+                    Boolean.parseBoolean(m.getOrDefault("adaptiveUplink", String.valueOf(d.adaptiveUplink())))
+            );
+        }
+    }
+
+    private final Config config;
+    private final ReplayTarget target;
+    private final GuidanceProperties props;
+
+    public TraceReplayHarness(Config config, ReplayTarget target) {
+        this(config, target, new GuidanceProperties());
+    }
+
+    /** @param props 도착 반경을 정답 비교에 쓴다 (대상 서버와 같은 값이어야 함) */
+    public TraceReplayHarness(Config config, ReplayTarget target, GuidanceProperties props) {
+        this.config = config;
+        this.target = target;
+        this.props = props;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = Config.fromArgs(args);
+        String targetArg = null;
+        for (String a : args) {
+            if (a.startsWith("--target=")) targetArg = a.substring("--target=".length());
+        }
+        GuidanceProperties props = new GuidanceProperties();
+        for (String a : args) {
+            if (a.equals("--detectItinerary=true")) props.setItineraryDetectionEnabled(true);
+            if (a.startsWith("--snapKernel=")) props.setSnapKernel(a.substring("--snapKernel=".length()));
+            if (a.equals("--batch=true")) props.setProgressBatchEnabled(true);
+            if (a.startsWith("--batchWindowMs=")) props.setProgressBatchWindowMs(Double.parseDouble(a.substring("--batchWindowMs=".length())));
+        }
+        try (ReplayTarget target = (targetArg == null || "inprocess".equals(targetArg))
+                ? new InProcessTarget(new InMemoryTripStore(), props)
+                : new HttpTarget(targetArg)) {
+            new TraceReplayHarness(config, target, props).run().print(System.out);
+        }
+    }
+
+    public ReplayReport run() throws InterruptedException {
+        SkTransitRootDto root = SkFixtures.load(config.fixture());
+        SkTransitRootDto.MetaDataDto meta = root.metaData();
+        List<SkTransitRootDto.ItineraryDto> itineraries = meta.plan().itineraries();
+
+        // 1) 트립별 트레이스 준비
+        SyntheticTraceGenerator generator = new SyntheticTraceGenerator()
+                .noiseSigmaM(config.noiseSigmaM())
+                .sampleIntervalMs(config.sampleIntervalMs());
+        TripRun[] runs = new TripRun[config.trips()];
+        for (int i = 0; i < runs.length; i++) {
+            GpsTrace trace;
+            if (config.recordedTrace() != null) {
+                trace = GpsTrace.fromCsv(config.recordedTrace(), 0);
+            } else {
+                int itin = "all".equals(config.itineraries()) ? i % itineraries.size() : 0;
+                trace = generator.generate(itineraries.get(itin), itin, config.seed() + i);
+            }
+            runs[i] = new TripRun(UUID.randomUUID().toString(), trace, meta, props);
+            target.registerTrip(runs[i].tripId);
+        }
+
+        // 2) 가속 시간으로 동시 리플레이
+        Histogram latency = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(60), 3);
+        Histogram legDelay = new ConcurrentHistogram(TimeUnit.HOURS.toMillis(3), 3);
+        AtomicLong sent = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong falseArrivals = new AtomicLong();
+        AtomicLong missed = new AtomicLong();
+        AtomicLong itinMismatch = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(runs.length);
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(config.concurrency());
+        long baseEpochMs = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+
+        for (int i = 0; i < runs.length; i++) {
+            TripRun run = runs[i];
+            long startDelayMs = runs.length <= 1 ? 0 : config.rampUpMs() * i / runs.length;
+            run.startNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(startDelayMs);
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    GpsTrace.Fix fix = run.trace.fixes().get(run.next);
+                    ProgressUpdateEnvelope env = new ProgressUpdateEnvelope(run.meta, new ProgressUpdateRequest(
+                            fix.lon(), fix.lat(), fix.speedMps(), baseEpochMs + fix.offsetMs(), null, null, null));
+                    long t0 = System.nanoTime();
+                    try {
+                        GuidanceResponse res = target.send(run.tripId, env);
+                        latency.recordValue(Math.min(latency.getHighestTrackableValue(),
+                                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - t0)));
+                        run.observe(fix, res, legDelay, falseArrivals);
+                        run.next = config.adaptiveUplink() ? run.nextAdvised(res) : run.next + 1;
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                        run.next++;
+                    }
+                    sent.incrementAndGet();
+
+                    if (run.next < run.trace.fixes().size()) {
+                        long due = run.startNanos
+                                + (long) (TimeUnit.MILLISECONDS.toNanos(run.trace.fixes().get(run.next).offsetMs()) / config.speedup());
+                        scheduler.schedule(this, Math.max(0, due - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    } else {
+                        missed.addAndGet(run.missedTransitions());
+                        if (run.lastItinerary != run.trace.itineraryIndex()) itinMismatch.incrementAndGet();
+                        done.countDown();
+                    }
+                }
+            }, startDelayMs, TimeUnit.MILLISECONDS);
+        }
+
+        done.await();
+        long wallMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        scheduler.shutdownNow();
+
+        return new ReplayReport(target.describe(), runs.length, sent.get(), errors.get(), wallMs,
+                latency, legDelay, falseArrivals.get(), missed.get(), itinMismatch.get());
+    }
+
+    /**
+     * 트립 1개의 리플레이 진행 상태. 한 트립의 fix 는 순차 전송되므로 동기화가 필요 없다.
+     */
+    private static final class TripRun {
+        final String tripId;
+        final GpsTrace trace;
+        final SkTransitRootDto.MetaDataDto meta;
+        /** truthFirstOffset[k] : 정답 leg 가 처음 k 이상이 된 fix 의 offset (없으면 -1) */
+        final long[] truthFirstOffset;
+        /** legEnd[k] / arriveRadius[k] : leg k 의 끝점과 도착 반경. 이 안에서의 k+1 전이는 조기가 아니다 */
+        final double[][] legEnd;
+        final double[] arriveRadius;
+        int next;
+        long startNanos;
+        int lastLeg;
+        int lastItinerary;
+
+        TripRun(String tripId, GpsTrace trace, SkTransitRootDto.MetaDataDto meta, GuidanceProperties props) {
+            this.tripId = tripId;
+            this.trace = trace;
+            this.meta = meta;
+            List<SkTransitRootDto.LegDto> legList = meta.plan().itineraries().get(trace.itineraryIndex()).legs();
+            int legs = legList.size();
+            this.legEnd = new double[legs][];
+            this.arriveRadius = new double[legs];
+            for (int k = 0; k < legs; k++) {
+                List<double[]> pts = SyntheticTraceGenerator.legPoints(legList.get(k));
+                legEnd[k] = pts.isEmpty() ? null : pts.get(pts.size() - 1);
+                boolean walk = legList.get(k).mode() == null || "WALK".equalsIgnoreCase(legList.get(k).mode());
+                arriveRadius[k] = walk ? props.getArriveRadiusWalkM() : props.getArriveRadiusTransitM();
+            }
+            this.truthFirstOffset = new long[legs];
+            java.util.Arrays.fill(truthFirstOffset, -1);
+            for (GpsTrace.Fix f : trace.fixes()) {
+                for (int k = 0; k <= f.truthLegIndex() && k < legs; k++) {
+                    if (truthFirstOffset[k] < 0) truthFirstOffset[k] = f.offsetMs();
+                }
+            }
+        }
+
+        void observe(GpsTrace.Fix fix, GuidanceResponse res, Histogram legDelay, AtomicLong falseArrivals) {
+            lastItinerary = res.itineraryIndex();
+            if (fix.truthLegIndex() < 0) {
+                lastLeg = res.legIndex();
+                return;
+            }
+            for (int k = lastLeg + 1; k <= res.legIndex() && k < truthFirstOffset.length; k++) {
+                if (fix.truthLegIndex() < k) {
+                    // 직전 leg 끝의 도착 반경 안에서 넘어간 것은 서버 규칙대로의 정시 전이
+                    if (fix.truthLegIndex() == k - 1 && withinArriveRadius(fix, k - 1)) {
+                        legDelay.recordValue(0);
+                    } else {
+                        falseArrivals.incrementAndGet();
+                    }
+                } else {
+                    legDelay.recordValue(Math.max(0, fix.offsetMs() - truthFirstOffset[k]));
+                }
+            }
+            lastLeg = Math.max(lastLeg, res.legIndex());
+        }
+
+        /** 합성 트레이스는 노이즈 없는 남은 경로 거리로, 녹화 트레이스는 fix 와 leg 끝점의 거리로 본다 */
+        private boolean withinArriveRadius(GpsTrace.Fix fix, int leg) {
+            if (!Double.isNaN(fix.truthRemainingM())) return fix.truthRemainingM() <= arriveRadius[leg];
+            double[] end = legEnd[leg];
+            return end != null && GeoUtils.haversine(fix.lat(), fix.lon(), end[0], end[1]) <= arriveRadius[leg];
+        }
+
+        /** 권고 시간이 지나거나 권고 거리만큼 이동한 첫 fix (클라이언트 적응형 업링크 흉내) */
+        int nextAdvised(GuidanceResponse res) {
+            List<GpsTrace.Fix> fixes = trace.fixes();
+            if (res.nextUplinkAfterMs() == null || res.nextUplinkAfterM() == null) return next + 1;
+            GpsTrace.Fix sentFix = fixes.get(next);
+            int i = next + 1;
+            for (; i < fixes.size(); i++) {
+                GpsTrace.Fix f = fixes.get(i);
+                if (f.offsetMs() - sentFix.offsetMs() >= res.nextUplinkAfterMs()
+                        || GeoUtils.haversine(sentFix.lat(), sentFix.lon(), f.lat(), f.lon()) >= res.nextUplinkAfterM()) {
+                    break;
+                }
+            }
+            // 트레이스 끝까지 조건을 못 채우면 마지막 fix 는 보낸다
+            return Math.min(i, fixes.size() - 1) == next ? next + 1 : Math.min(i, fixes.size() - 1);
+        }
+
+        int missedTransitions() {
+            int missed = 0;
+            for (int k = lastLeg + 1; k < truthFirstOffset.length; k++) {
+                if (truthFirstOffset[k] >= 0) missed++;
+            }
+            return missed;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.smartcane.transit.harness;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TraceReplayHarnessTest {
+
+    @Test
+    void replaysSyntheticTripsInProcess() throws Exception {
+        TraceReplayHarness.Config config = new TraceReplayHarness.Config(
+                SkFixtures.GANGNAM_APGUJEONG_BUS, 20, 4, 1000.0, 50, 7L, 3.0, 1_000, "first", null, false);
+
+        try (InProcessTarget target = new InProcessTarget()) {
+            ReplayReport report = new TraceReplayHarness(config, target).run();
+
+            assertThat(report.errors()).isZero();
+            assertThat(report.fixesSent()).isGreaterThan(20L * 100);
+            assertThat(report.latencyUs().getTotalCount()).isEqualTo(report.fixesSent());
+            // 정합성: 도착 반경 밖 조기 전이/끝까지 못한 전이가 없고, 전이는 샘플 몇 개 안에 따라온다
+            assertThat(report.falseArrivals()).isZero();
+            assertThat(report.missedTransitions()).isZero();
+            assertThat(report.legTransitionDelayMs().getTotalCount()).isPositive();
+            assertThat(report.legTransitionDelayMs().getValueAtPercentile(95)).isLessThanOrEqualTo(5_000);
+        }
+    }
+}
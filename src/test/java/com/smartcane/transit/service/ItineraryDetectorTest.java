@@ -0,0 +1,61 @@
+package com.smartcane.transit.service;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.harness.GpsTrace;
+import com.smartcane.transit.harness.SkFixtures;
+import com.smartcane.transit.harness.SyntheticTraceGenerator;
+import com.smartcane.transit.service.geometry.PreparedGeometryCache;
+import com.smartcane.transit.util.SegmentKernels;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 보행 leg 로 시작해 서로 다른 버스(140 / 4412)로 갈라지는 두 itinerary 로 판별기를 확인한다.
+ */
+class ItineraryDetectorTest {
+
+    private final List<SkTransitRootDto.ItineraryDto> itineraries =
+            SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData().plan().itineraries();
+
+    private ItineraryDetector detector(GuidanceProperties props) {
+        props.setItineraryDetectionEnabled(true);
+        return new ItineraryDetector(new PreparedGeometryCache(props, SegmentKernels.select(props.getSnapKernel())), props);
+    }
+
+    @Test
+    void switchesOnceAfterTraceDivergesOntoAlternativeItinerary() {
+        ItineraryDetector detector = detector(new GuidanceProperties());
+        GpsTrace trace = new SyntheticTraceGenerator().generate(itineraries.get(1), 1, 11L);
+        TripState state = new TripState("t", 0, 0, 0, "WALKING");
+
+        int switches = 0;
+        int firstSwitchLeg = -1;
+        for (GpsTrace.Fix fix : trace.fixes()) {
+            state.setLegIndex(fix.truthLegIndex());   // 코디네이터가 진행시키는 leg 를 흉내
+            if (detector.observe(state, itineraries, fix.lat(), fix.lon())) {
+                if (switches++ == 0) firstSwitchLeg = fix.truthLegIndex();
+            }
+        }
+
+        assertThat(state.getItineraryIndex()).isEqualTo(1);
+        assertThat(switches).isEqualTo(1);                 // 전환 후 되돌아가지 않음
+        assertThat(firstSwitchLeg).isGreaterThanOrEqualTo(1); // 공통 보행 구간에서는 전환하지 않음
+    }
+
+    @Test
+    void noisyTraceOnTrackedItineraryNeverSwitches() {
+        ItineraryDetector detector = detector(new GuidanceProperties());
+        GpsTrace trace = new SyntheticTraceGenerator().noiseSigmaM(10.0).generate(itineraries.get(0), 0, 5L);
+        TripState state = new TripState("t", 0, 0, 0, "WALKING");
+
+        for (GpsTrace.Fix fix : trace.fixes()) {
+            state.setLegIndex(fix.truthLegIndex());
+            assertThat(detector.observe(state, itineraries, fix.lat(), fix.lon())).isFalse();
+        }
+        assertThat(state.getItineraryIndex()).isZero();
+    }
+}
@@ -0,0 +1,121 @@
+package com.smartcane.transit.service;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
+import com.smartcane.transit.dto.request.ProgressUpdateRequest;
+import com.smartcane.transit.dto.response.GuidanceResponse;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.harness.InProcessTarget;
+import com.smartcane.transit.harness.SkFixtures;
+import com.smartcane.transit.util.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LastGuidanceCacheTest {
+
+    private static ProgressUpdateEnvelope fix(SkTransitRootDto.MetaDataDto meta, double lat, double lon, long ts) {
+        return new ProgressUpdateEnvelope(meta, new ProgressUpdateRequest(lon, lat, 0.0, ts, null, null, null));
+    }
+
+    @Test
+    void stationaryAndRetriedFixesSkipEvaluationAndWrites() {
+        GuidanceProperties props = new GuidanceProperties();
+        CountingStore store = new CountingStore();
+        ProgressCoordinator coordinator = InProcessTarget.newCoordinator(store, props);
+        SkTransitRootDto.MetaDataDto meta = SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData();
+        double[] start = GeoUtils.parseLineString(
+                meta.plan().itineraries().get(0).legs().get(0).steps().get(0).linestring()).get(0);
+        double lat = start[0], lon = start[1];
+        store.init("t", 0, 0, 0, "WALKING");
+
+        GuidanceResponse first = coordinator.updateProgress("t", fix(meta, lat, lon, 10_000));
+        int saves = store.saves;
+
+        // 1m 이내 이동, 1초 뒤 → 직전 응답 재사용
+        assertThat(coordinator.updateProgress("t", fix(meta, lat + 0.000005, lon, 11_000))).isSameAs(first);
+        // 같은 timestamp 재전송 → 위치가 달라도 재사용
+        assertThat(coordinator.updateProgress("t", fix(meta, lat + 0.001, lon, 10_000))).isSameAs(first);
+        assertThat(store.saves).isEqualTo(saves);
+
+        // 기준 시각은 마지막 판정 fix 라서 maxAge 가 지나면 다시 판정
+        coordinator.updateProgress("t", fix(meta, lat, lon, 10_000 + props.getStationaryMaxAgeMs() + 1));
+        assertThat(store.saves).isEqualTo(saves + 1);
+
+        // 충분히 움직이면 판정
+        coordinator.updateProgress("t", fix(meta, lat + 0.0001, lon, 16_000));
+        assertThat(store.saves).isEqualTo(saves + 2);
+    }
+
+    @Test
+    void replanInvalidatesButResentPlanCopyStillReuses() {
+        GuidanceProperties props = new GuidanceProperties();
+        CountingStore store = new CountingStore();
+        ProgressCoordinator coordinator = InProcessTarget.newCoordinator(store, props);
+        SkTransitRootDto.MetaDataDto meta = SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData();
+        store.init("t", 0, 0, 0, "WALKING");
+
+        GuidanceResponse first = coordinator.updateProgress("t", fix(meta, 37.49795, 127.0276, 10_000));
+        int saves = store.saves;
+
+        // 업링크마다 새로 역직렬화된 같은 계획 → 재사용
+        SkTransitRootDto.MetaDataDto resent = SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData();
+        assertThat(resent).isNotSameAs(meta);
+        assertThat(coordinator.updateProgress("t", fix(resent, 37.49795, 127.0276, 11_000))).isSameAs(first);
+        assertThat(store.saves).isEqualTo(saves);
+
+        // 다른 위치에서 다시 탐색한 계획 → 판정부터 다시
+        var rp = meta.requestParameters();
+        SkTransitRootDto.MetaDataDto replanned = new SkTransitRootDto.MetaDataDto(
+                new SkTransitRootDto.RequestParametersDto(rp.busCount(), rp.expressbusCount(), rp.subwayCount(),
+                        rp.airplaneCount(), rp.subwayBusCount(), rp.trainCount(), rp.ferryCount(),
+                        rp.wideareaRouteCount(), rp.locale(), "127.027700", rp.startY(), rp.endX(), rp.endY(),
+                        rp.reqDttm()),
+                meta.plan());
+        coordinator.updateProgress("t", fix(replanned, 37.49795, 127.0276, 12_000));
+        assertThat(store.saves).isEqualTo(saves + 1);
+    }
+
+    @Test
+    void disabledFastPathAlwaysEvaluates() {
+        GuidanceProperties props = new GuidanceProperties();
+        props.setStationaryFastPathEnabled(false);
+        CountingStore store = new CountingStore();
+        ProgressCoordinator coordinator = InProcessTarget.newCoordinator(store, props);
+        SkTransitRootDto.MetaDataDto meta = SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData();
+        store.init("t", 0, 0, 0, "WALKING");
+
+        coordinator.updateProgress("t", fix(meta, 37.5, 127.03, 1_000));
+        coordinator.updateProgress("t", fix(meta, 37.5, 127.03, 1_000));
+        assertThat(store.saves).isEqualTo(2);
+    }
+
+    @Test
+    void fixesWithoutClientTimestampNeverTakeStationaryPath() {
+        GuidanceProperties props = new GuidanceProperties();
+        CountingStore store = new CountingStore();
+        ProgressCoordinator coordinator = InProcessTarget.newCoordinator(store, props);
+        SkTransitRootDto.MetaDataDto meta = SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData();
+        store.init("t", 0, 0, 0, "WALKING");
+
+        // 클라이언트 시각으로 판정한 뒤 timestamp 없는 fix → 서버 시각과 비교하지 않고 판정
+        coordinator.updateProgress("t", fix(meta, 37.49795, 127.0276, 10_000));
+        int saves = store.saves;
+        coordinator.updateProgress("t", new ProgressUpdateEnvelope(meta, new ProgressUpdateRequest(127.0276, 37.49795, 0.0, null, null, null, null)));
+        assertThat(store.saves).isEqualTo(saves + 1);
+
+        // timestamp 없이 판정한 항목 뒤의 클라이언트 fix 도 비교 기준이 없으니 판정
+        coordinator.updateProgress("t", fix(meta, 37.49795, 127.0276, 11_000));
+        assertThat(store.saves).isEqualTo(saves + 2);
+    }
+
+    private static class CountingStore extends InMemoryTripStore {
+        int saves;
+
+        @Override
+        public void save(String tripId, TripState state) {
+            saves++;
+            super.save(tripId, state);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.smartcane.transit.service;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
+import com.smartcane.transit.dto.request.ProgressUpdateRequest;
+import com.smartcane.transit.dto.response.GuidanceResponse;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.harness.InProcessTarget;
+import com.smartcane.transit.harness.SkFixtures;
+import com.smartcane.transit.util.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveProgressCoordinatorTest {
+
+    @Test
+    void reactivePathMatchesBlockingPath() {
+        GuidanceProperties props = new GuidanceProperties();
+        SkTransitRootDto.MetaDataDto meta = SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData();
+        var itin = meta.plan().itineraries().get(0);
+        List<double[]> trace = new ArrayList<>();
+        for (var leg : itin.legs()) {
+            if (leg.steps() != null) {
+                for (var step : leg.steps()) trace.addAll(GeoUtils.parseLineString(step.linestring()));
+            } else {
+                trace.addAll(GeoUtils.parseLineString(leg.passShape().linestring()));
+            }
+        }
+
+        InMemoryTripStore blockingStore = new InMemoryTripStore();
+        ProgressCoordinator blocking = InProcessTarget.newCoordinator(blockingStore, props);
+        InMemoryTripStore reactiveMemory = new InMemoryTripStore();
+        ReactiveProgressCoordinator reactive = new ReactiveProgressCoordinator(
+                InProcessTarget.newCoordinator(reactiveMemory, props), new InMemoryReactiveTripStore(reactiveMemory));
+
+        // /plan 과 같은 초기 상태
+        blockingStore.init("t", 0, 0, 0, "WALKING");
+        reactiveMemory.init("t", 0, 0, 0, "WALKING");
+
+        for (int i = 0; i < trace.size(); i++) {
+            double[] p = trace.get(i);
+            var env = new ProgressUpdateEnvelope(meta, new ProgressUpdateRequest(p[1], p[0], 1.2, 1_000L * i, null, null, null));
+            GuidanceResponse a = blocking.updateProgress("t", env);
+            GuidanceResponse b = reactive.updateProgress("t", env).block();
+            assertThat(b).isEqualTo(a);
+        }
+        assertThat(reactiveMemory.load("t").getLegIndex()).isEqualTo(blockingStore.load("t").getLegIndex());
+        assertThat(reactiveMemory.load("t").getLegIndex()).isPositive();
+    }
+}
@@ -0,0 +1,97 @@
+package com.smartcane.transit.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** 실제 Redis 에 Lua 스크립트를 돌려 보조 인덱스를 확인한다 (Docker 가 없으면 건너뜀) */
+@Testcontainers(disabledWithoutDocker = true)
+class RedisTripIndexTest {
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static final byte[] JSON = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private LettuceConnectionFactory factory;
+    private StringRedisTemplate redis;
+    private RedisTripIndex index;
+
+    @BeforeEach
+    void connect() {
+        factory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        factory.afterPropertiesSet();
+        redis = new StringRedisTemplate(factory);
+        redis.execute(conn -> { conn.serverCommands().flushAll(); return null; }, true);
+        index = new RedisTripIndex(factory);
+    }
+
+    @AfterEach
+    void close() {
+        factory.destroy();
+    }
+
+    @Test
+    void saveMovesTripBetweenPhaseSets() {
+        index.save("t1", JSON, "WALKING");
+        index.save("t2", JSON, "WALKING");
+        index.save("t1", JSON, "WALKING");   // 같은 phase 재저장은 1 왕복, 집합 변화 없음
+        index.save("t1", JSON, "ONBOARD");   // 예상(ONBOARD)과 실제 이전 phase(WALKING)가 달라 재시도로 이동
+        index.saveReactive("t2", JSON, "ALIGHTED").block();
+
+        assertThat(index.activeCount()).isEqualTo(2);
+        assertThat(index.countByPhase()).isEqualTo(Map.of("ALIGHTED", 1L, "ONBOARD", 1L, "WALKING", 0L));
+        assertThat(index.tripsInPhase("ONBOARD", 10)).containsExactly("t1");
+        assertThat(index.countInPhase("WALKING")).isZero();
+        assertThat(redis.opsForValue().get("trip:t1")).isEqualTo("{}");
+    }
+
+    @Test
+    void sweepRemovesOnlySilentTripsAndTheirPhaseEntries() {
+        index.save("old-1", JSON, "WALKING");
+        index.save("old-2", JSON, "ONBOARD");
+        index.save("fresh", JSON, "WALKING");
+        long now = System.currentTimeMillis();
+        redis.opsForZSet().add("trips:lastSeen", "old-1", now - 3_600_000);
+        redis.opsForZSet().add("trips:lastSeen", "old-2", now - 3_600_000);
+        long cutoff = now - 60_000;
+
+        assertThat(index.countSilentSince(cutoff)).isEqualTo(2);
+        assertThat(index.silentSince(cutoff, 10)).containsExactlyInAnyOrder("old-1", "old-2");
+
+        assertThat(index.sweep(cutoff, true)).isEqualTo(2);
+
+        assertThat(index.activeCount()).isEqualTo(1);
+        assertThat(index.countByPhase()).isEqualTo(Map.of("ONBOARD", 0L, "WALKING", 1L));
+        assertThat(redis.hasKey("trip:old-1")).isFalse();
+        assertThat(redis.hasKey("trip:fresh")).isTrue();
+        assertThat(redis.opsForHash().keys("trips:phaseOf")).containsExactly("fresh");
+    }
+
+    @Test
+    void sweepWithoutDeleteLeavesTripStateAndSkipsResavedTrips() {
+        index.save("old", JSON, "WALKING");
+        index.save("resaved", JSON, "WALKING");
+        long now = System.currentTimeMillis();
+        redis.opsForZSet().add("trips:lastSeen", "old", now - 3_600_000);
+
+        assertThat(index.sweep(now - 60_000, false)).isEqualTo(1);
+        assertThat(redis.hasKey("trip:old")).isTrue();
+        assertThat(index.silentSince(now - 60_000, 10)).isEmpty();
+        assertThat(index.tripsInPhase("WALKING", 10)).isEqualTo(List.of("resaved"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.smartcane.transit.service;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
+import com.smartcane.transit.dto.request.ProgressUpdateRequest;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.exception.FixRejectedException;
+import com.smartcane.transit.harness.InProcessTarget;
+import com.smartcane.transit.harness.SkFixtures;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TripAdmissionTest {
+
+    private static final long SEC = 1_000_000_000L;
+
+    private static ProgressUpdateRequest fix(long ts) {
+        return new ProgressUpdateRequest(127.03, 37.5, 1.2, ts, null, null, null);
+    }
+
+    @Test
+    void rejectsOlderFixesAndRefillsTokensOverTime() {
+        GuidanceProperties props = new GuidanceProperties();
+        props.setAdmissionMaxFixesPerSec(1);
+        props.setAdmissionBurst(2);
+        TripAdmission admission = new TripAdmission(props);
+
+        admission.admit("t", fix(2_000), 0);
+        // 순서가 뒤바뀐 fix 는 토큰을 쓰지 않고 거절
+        assertThatThrownBy(() -> admission.admit("t", fix(1_000), 0))
+                .isInstanceOfSatisfying(FixRejectedException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(FixRejectedException.Reason.STALE));
+        // 같은 시각 재전송은 통과
+        admission.admit("t", fix(2_000), 0);
+        assertThatThrownBy(() -> admission.admit("t", fix(3_000), SEC / 2))
+                .isInstanceOfSatisfying(FixRejectedException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(FixRejectedException.Reason.RATE_LIMITED));
+        admission.admit("t", fix(3_000), SEC);
+        // 다른 트립은 독립
+        admission.admit("u", fix(1_000), SEC);
+
+        assertThat(admission.stale()).isEqualTo(1);
+        assertThat(admission.rateLimited()).isEqualTo(1);
+    }
+
+    @Test
+    void coordinatorRejectsFixOlderThanStoredState() {
+        GuidanceProperties props = new GuidanceProperties();
+        InMemoryTripStore store = new InMemoryTripStore();
+        ProgressCoordinator coordinator = InProcessTarget.newCoordinator(store, props);
+        SkTransitRootDto.MetaDataDto meta = SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData();
+        store.init("t", 0, 0, 0, "WALKING");
+
+        coordinator.updateProgress("t", new ProgressUpdateEnvelope(meta, fix(5_000)));
+        assertThatThrownBy(() -> coordinator.updateProgress("t",
+                new ProgressUpdateEnvelope(meta, new ProgressUpdateRequest(127.04, 37.51, 1.2, 4_000L, null, null, null))))
+                .isInstanceOf(FixRejectedException.class);
+        assertThat(store.load("t").getLastTs()).isEqualTo(5_000);
+    }
+
+    @Test
+    void staleCheckIgnoresServerTimeOfFixesWithoutTimestamp() {
+        GuidanceProperties props = new GuidanceProperties();
+        InMemoryTripStore store = new InMemoryTripStore();
+        ProgressCoordinator coordinator = InProcessTarget.newCoordinator(store, props);
+        SkTransitRootDto.MetaDataDto meta = SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData();
+        store.init("t", 0, 0, 0, "WALKING");
+
+        // 클라이언트 시계가 서버보다 늦다 (또는 timestamp 없이 온 fix 가 서버 시각으로 기록됨)
+        coordinator.updateProgress("t", new ProgressUpdateEnvelope(meta, fix(5_000)));
+        coordinator.updateProgress("t", new ProgressUpdateEnvelope(meta,
+                new ProgressUpdateRequest(127.04, 37.51, 1.2, null, null, null, null)));
+        assertThat(store.load("t").getLastTs()).isGreaterThan(5_000);
+
+        // 서버 시각보다 이르지만 직전 클라이언트 timestamp 보다는 새 fix → 거절하지 않는다
+        coordinator.updateProgress("t", new ProgressUpdateEnvelope(meta, fix(6_000)));
+        assertThat(store.load("t").getLastClientTs()).isEqualTo(6_000);
+        assertThatThrownBy(() -> coordinator.updateProgress("t", new ProgressUpdateEnvelope(meta,
+                new ProgressUpdateRequest(127.04, 37.51, 1.2, 5_500L, null, null, null))))
+                .isInstanceOf(FixRejectedException.class);
+    }
+}
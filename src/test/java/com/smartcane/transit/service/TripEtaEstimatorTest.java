@@ -0,0 +1,57 @@
+package com.smartcane.transit.service;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.geometry.PreparedGeometryCache;
+import com.smartcane.transit.util.SegmentKernels;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TripEtaEstimatorTest {
+
+    private final GuidanceProperties props = new GuidanceProperties();
+    private final TripEtaEstimator estimator = new TripEtaEstimator(
+            new PreparedGeometryCache(props, SegmentKernels.scalar()), props);
+
+    private static SkTransitRootDto.LegDto leg(String mode, Integer sectionTime, int distance) {
+        return new SkTransitRootDto.LegDto(mode, sectionTime, distance, null, null, null, null, null,
+                null, null, null, null, null);
+    }
+
+    /** 보행 100m → 버스 880m(120초) → 보행 50m → 지하철 600m(sectionTime 없음) → 보행 30m (형상 없이 distance 기준) */
+    private static SkTransitRootDto.ItineraryDto itinerary() {
+        return new SkTransitRootDto.ItineraryDto(null, 0, 0, 0, 0, 0, 0, List.of(
+                leg("WALK", 90, 100),
+                leg("BUS", 120, 880),
+                leg("WALK", 45, 50),
+                leg("SUBWAY", null, 600),
+                leg("WALK", 30, 30)));
+    }
+
+    @Test
+    void walkingLegUsesDefaultSpeedBeforeAnySample() {
+        var eta = estimator.estimate(itinerary(), 0, true, 40, new TripState());
+        assertThat(eta.remainingM()).isCloseTo(40 + 880 + 50 + 600 + 30, within(1e-6));
+        // 40/1.0 + 120 + 50/1.0 + 600/6.0 + 30/1.0
+        assertThat(eta.etaSec()).isEqualTo(40 + 120 + 50 + 100 + 30);
+    }
+
+    @Test
+    void onboardLegScalesSectionTimeAndUsesPersonalWalkSpeed() {
+        TripState state = new TripState();
+        state.setWalkSpeedMps(0.5);
+        var eta = estimator.estimate(itinerary(), 1, false, 220, state);
+        assertThat(eta.remainingM()).isCloseTo(220 + 50 + 600 + 30, within(1e-6));
+        // 120 * (220/880) + 50/0.5 + 100 + 30/0.5
+        assertThat(eta.etaSec()).isEqualTo(30 + 100 + 100 + 60);
+    }
+
+    @Test
+    void unknownLegRemainingGivesNoEstimate() {
+        assertThat(estimator.estimate(itinerary(), 0, true, Double.NaN, new TripState())).isNull();
+    }
+}
@@ -0,0 +1,44 @@
+package com.smartcane.transit.service;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UplinkAdvisorTest {
+
+    private final GuidanceProperties props = new GuidanceProperties();
+    private final UplinkAdvisor advisor = new UplinkAdvisor(props);
+
+    @Test
+    void longStraightWalkGetsSparseUplinks() {
+        // 다음 회전까지 800m, 1.3m/s 보행
+        var hint = advisor.advise("WALKING", 800, 25, 14, 1.3);
+        assertThat(hint.afterM()).isEqualTo(props.getUplinkMaxDistanceM());
+        assertThat(hint.afterMs()).isEqualTo(props.getUplinkMaxIntervalMs());
+    }
+
+    @Test
+    void nearDecisionPointGetsDenseUplinks() {
+        // 프리뷰 구역(25m) 안쪽
+        var hint = advisor.advise("WALKING", 20, 25, 14, 1.3);
+        assertThat(hint.afterM()).isEqualTo(props.getUplinkMinDistanceM());
+        assertThat(hint.afterMs()).isLessThanOrEqualTo(3_000);
+    }
+
+    @Test
+    void onboardIntervalShrinksAsTheStopApproaches() {
+        var far = advisor.advise("ONBOARD", 2_000, 0, 22, 9.0);
+        var mid = advisor.advise("ONBOARD", 300, 0, 22, 9.0);
+        var near = advisor.advise("ONBOARD", 30, 0, 22, 9.0);
+        assertThat(far.afterMs()).isGreaterThan(mid.afterMs());
+        assertThat(mid.afterMs()).isGreaterThan(near.afterMs());
+        assertThat(near.afterMs()).isEqualTo(props.getUplinkMinIntervalMs());
+    }
+
+    @Test
+    void stationaryUserStillUplinksWithinMaxInterval() {
+        var hint = advisor.advise("WALKING", 100, 25, 14, 0.0);
+        assertThat(hint.afterMs()).isBetween(props.getUplinkMinIntervalMs(), props.getUplinkMaxIntervalMs());
+    }
+}
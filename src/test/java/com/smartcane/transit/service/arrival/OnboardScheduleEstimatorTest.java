@@ -0,0 +1,129 @@
+package com.smartcane.transit.service.arrival;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.ArrivalCheckRequest;
+import com.smartcane.transit.dto.response.ArrivalCheckResponse;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.TripState;
+import com.smartcane.transit.service.geometry.PreparedGeometryCache;
+import com.smartcane.transit.util.SegmentKernels;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OnboardScheduleEstimatorTest {
+
+    private static final double LAT = 37.5;
+    private static final double LON0 = 127.00;
+    private static final double LON1 = 127.10;   // 동쪽으로 약 8.8km 직선 노선
+    private static final long T0 = 1_700_000_000_000L;
+
+    private final GuidanceProperties props = new GuidanceProperties();
+    private final TransitArrivalService service = new TransitArrivalService(
+            new PreparedGeometryCache(props, SegmentKernels.scalar()), new OnboardScheduleEstimator(props));
+
+    /** 정류장 11개(10구간), 소요 1000초 지하철 leg */
+    private static SkTransitRootDto.ItineraryDto subwayItinerary() {
+        List<SkTransitRootDto.StationDto> stations = new ArrayList<>();
+        for (int i = 0; i <= 10; i++) {
+            double lon = LON0 + (LON1 - LON0) * i / 10.0;
+            stations.add(new SkTransitRootDto.StationDto(i, "역" + i, String.valueOf(lon), String.valueOf(LAT), "S" + i));
+        }
+        var leg = new SkTransitRootDto.LegDto("SUBWAY", 1000, 8800, null, "2호선", null, null, null,
+                new SkTransitRootDto.PlaceDto("역0", LON0, LAT), new SkTransitRootDto.PlaceDto("역10", LON1, LAT),
+                null, new SkTransitRootDto.PassStopListDto(stations),
+                new SkTransitRootDto.PassShapeDto(LON0 + "," + LAT + " " + LON1 + "," + LAT));
+        return new SkTransitRootDto.ItineraryDto(null, 0, 0, 0, 0, 0, 0, List.of(leg));
+    }
+
+    private ArrivalCheckResponse at(SkTransitRootDto.ItineraryDto itin, TripState state, double lat, double lon, long ts) {
+        return service.evaluate(itin, new ArrivalCheckRequest(lat, lon, 0, 0, null, 22.0, null), state, ts);
+    }
+
+    @Test
+    void scheduleCarriesStopsThroughTunnel() {
+        var itin = subwayItinerary();
+        TripState state = new TripState("t", 0, 0, null, "ONBOARD");
+
+        // 출발역에서 좋은 fix 로 탑승
+        assertThat(at(itin, state, LAT, LON0, T0).stopsLeft()).isEqualTo(10);
+
+        // 터널: 형상에서 수 km 떨어진 튄 좌표만 들어와도 시간표로 절반 진행
+        ArrivalCheckResponse mid = at(itin, state, 37.45, 126.90, T0 + 500_000);
+        assertThat(mid.stopsLeft()).isEqualTo(5);
+        assertThat(mid.remainingMeters()).isBetween(4_000.0, 4_800.0);
+        assertThat(mid.arrived()).isFalse();
+    }
+
+    @Test
+    void scheduleAloneNeverDeclaresArrival() {
+        var itin = subwayItinerary();
+        TripState state = new TripState("t", 0, 0, null, "ONBOARD");
+        at(itin, state, LAT, LON0, T0);
+
+        ArrivalCheckResponse late = at(itin, state, 37.45, 126.90, T0 + 2_000_000);
+        assertThat(late.stopsLeft()).isZero();
+        assertThat(late.arrived()).isFalse();
+        assertThat(late.nextLegIndex()).isNull();
+
+        // 좋은 fix 가 도착 반경 안에 들어와야 하차 판정
+        assertThat(at(itin, state, LAT, LON1, T0 + 2_010_000).arrived()).isTrue();
+    }
+
+    @Test
+    void goodFixReanchorsSchedule() {
+        var itin = subwayItinerary();
+        TripState state = new TripState("t", 0, 0, null, "ONBOARD");
+        at(itin, state, LAT, LON0, T0);
+
+        // 열차가 출발역에서 300초 지연: 좋은 fix 가 아직 출발역 근처
+        at(itin, state, LAT, LON0 + 0.0001, T0 + 300_000);
+
+        // 이후 터널에서 200초 → 시간표상 2구간만 진행 (보정 없으면 5구간)
+        assertThat(at(itin, state, 37.45, 126.90, T0 + 500_000).stopsLeft()).isEqualTo(8);
+    }
+
+    @Test
+    void scheduleEstimateDoesNotMoveCursorBackwards() {
+        var itin = subwayItinerary();
+        TripState state = new TripState("t", 0, 0, null, "ONBOARD");
+        double lon4 = LON0 + (LON1 - LON0) * 0.4;
+
+        assertThat(at(itin, state, LAT, lon4, T0).currentStationIndex()).isEqualTo(4);
+        // 직후 터널: 시간표상 진행률은 0.4 근처지만, 반올림으로 뒤 정류장이 나와도 커서는 유지
+        state.setScheduleAnchorFraction(0.34);
+        assertThat(at(itin, state, 37.45, 126.90, T0 + 1_000).currentStationIndex()).isEqualTo(4);
+    }
+
+    @Test
+    void goodFixPullsBackCursorThatScheduleOverestimated() {
+        var itin = subwayItinerary();
+        TripState state = new TripState("t", 0, 0, null, "ONBOARD");
+        at(itin, state, LAT, LON0, T0);
+
+        // 터널 안에서 시간표로 5구간 진행했다고 추정
+        assertThat(at(itin, state, 37.45, 126.90, T0 + 500_000).currentStationIndex()).isEqualTo(5);
+        // 실제로는 지연되어 3번 역에서 좋은 fix → 관측 정류장으로 바로잡는다
+        double lon3 = LON0 + (LON1 - LON0) * 0.3;
+        assertThat(at(itin, state, LAT + 0.0001, lon3, T0 + 510_000).currentStationIndex()).isEqualTo(3);
+        // 이후 시간표 추정은 바로잡은 지점부터 다시 진행
+        assertThat(at(itin, state, 37.45, 126.90, T0 + 610_000).currentStationIndex()).isEqualTo(4);
+    }
+
+    @Test
+    void itinerarySwitchOnSameLegIndexReanchors() {
+        var itin = subwayItinerary();
+        TripState state = new TripState("t", 0, 0, null, "ONBOARD");
+        at(itin, state, LAT, LON0, T0);
+        assertThat(at(itin, state, 37.45, 126.90, T0 + 500_000).currentStationIndex()).isEqualTo(5);
+
+        // ItineraryDetector 가 같은 leg 번호의 다른 itinerary 로 바꿨다: 이전 노선의 기준점/커서를 쓰지 않는다
+        ArrivalCheckResponse switched = service.evaluate(itin,
+                new ArrivalCheckRequest(37.45, 126.90, 1, 0, null, 22.0, null), state, T0 + 500_000);
+        assertThat(switched.currentStationIndex()).isZero();
+        assertThat(state.getOnboardItineraryIndex()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.smartcane.transit.service.arrival;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.ArrivalCheckRequest;
+import com.smartcane.transit.dto.response.ArrivalCheckResponse;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.geometry.PreparedGeometryCache;
+import com.smartcane.transit.util.SegmentKernels;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WalkArrivalServiceTest {
+
+    private static final double LAT = 37.5;
+    private static final double M_PER_DEG_LON = 111_320.0 * Math.cos(Math.toRadians(LAT));
+
+    private final WalkArrivalService service = new WalkArrivalService(
+            new PreparedGeometryCache(new GuidanceProperties(), SegmentKernels.scalar()));
+
+    private static double lonAt(double eastM) {
+        return 127.0 + eastM / M_PER_DEG_LON;
+    }
+
+    private static SkTransitRootDto.WalkStepDto step(String desc, double fromM, double toM) {
+        return new SkTransitRootDto.WalkStepDto(null, (int) (toM - fromM), desc,
+                lonAt(fromM) + "," + LAT + " " + lonAt(toM) + "," + LAT);
+    }
+
+    /** 동쪽 직선 보행 leg: 100m, 6m, 6m, 100m 네 step */
+    private static SkTransitRootDto.ItineraryDto walkItinerary() {
+        var steps = List.of(
+                step("100m 직진", 0, 100),
+                step("횡단보도 건너기", 100, 106),
+                step("우측 진입", 106, 112),
+                step("100m 직진 후 도착", 112, 212));
+        var leg = new SkTransitRootDto.LegDto("WALK", 190, 212, null, null, null, null, null,
+                null, null, steps, null, null);
+        return new SkTransitRootDto.ItineraryDto(null, 0, 0, 0, 0, 0, 0, List.of(leg));
+    }
+
+    private ArrivalCheckResponse at(double eastM, Integer stepIndex) {
+        return service.evaluate(walkItinerary(),
+                new ArrivalCheckRequest(LAT, lonAt(eastM), 0, 0, stepIndex, 5.0, 20.0));
+    }
+
+    @Test
+    void skipsSeveralShortStepsInOneFix() {
+        ArrivalCheckResponse res = at(150, 0);
+        assertThat(res.nextStepIndex()).isEqualTo(3);
+        assertThat(res.currentInstruction()).isEqualTo("100m 직진 후 도착");
+        assertThat(res.remainingMeters()).isBetween(60.0, 64.0);
+        assertThat(res.arrived()).isFalse();
+    }
+
+    @Test
+    void remainingIsToCurrentStepEndWithLookAhead() {
+        ArrivalCheckResponse res = at(85, 0);
+        assertThat(res.nextStepIndex()).isNull();
+        assertThat(res.remainingMeters()).isBetween(13.0, 17.0);
+        assertThat(res.nextInstruction()).isEqualTo("횡단보도 건너기");
+    }
+
+    @Test
+    void doesNotSnapBackToPassedSteps() {
+        // 이미 step 3 인데 fix 가 step 0 쪽으로 튀어도 step 3 시작점 기준
+        ArrivalCheckResponse res = at(40, 3);
+        assertThat(res.nextStepIndex()).isNull();
+        assertThat(res.remainingMeters()).isBetween(99.0, 101.0);
+    }
+
+    @Test
+    void lastStepEndArrivesAtLeg() {
+        ArrivalCheckResponse res = at(210, 3);
+        assertThat(res.arrived()).isTrue();
+        assertThat(res.nextLegIndex()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,136 @@
+package com.smartcane.transit.service.batch;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
+import com.smartcane.transit.dto.request.ProgressUpdateRequest;
+import com.smartcane.transit.dto.response.GuidanceResponse;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.exception.OverloadedException;
+import com.smartcane.transit.exception.PlanNotFoundException;
+import com.smartcane.transit.harness.InProcessTarget;
+import com.smartcane.transit.harness.SkFixtures;
+import com.smartcane.transit.service.InMemoryTripStore;
+import com.smartcane.transit.service.ProgressCoordinator;
+import com.smartcane.transit.service.TripState;
+import com.smartcane.transit.util.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProgressBatcherTest {
+
+    @Test
+    void batchesFixesAndKeepsPerTripOrder() throws Exception {
+        GuidanceProperties props = new GuidanceProperties();
+        props.setProgressBatchEnabled(true);
+        props.setProgressBatchWindowMs(3);
+        props.setStationaryFastPathEnabled(false); // 끝점에서 반복되는 fix 도 전부 배치로 보내 순서를 확인
+        InMemoryTripStore store = new InMemoryTripStore();
+        ProgressCoordinator coordinator = InProcessTarget.newCoordinator(store, props);
+        ProgressBatcher batcher = new ProgressBatcher(coordinator, props);
+        batcher.start();
+
+        SkTransitRootDto.MetaDataDto meta = SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData();
+        List<double[]> walk = GeoUtils.parseLineString(meta.plan().itineraries().get(0).legs().get(0).steps().get(0).linestring());
+        int trips = 40, fixes = 10;
+
+        ExecutorService senders = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<GuidanceResponse>> all = new ArrayList<>();
+        try {
+            List<CompletableFuture<List<CompletableFuture<GuidanceResponse>>>> perTrip = new ArrayList<>();
+            for (int t = 0; t < trips; t++) {
+                String tripId = "trip-" + t;
+                store.init(tripId, 0, 0, 0, "WALKING");
+                perTrip.add(CompletableFuture.supplyAsync(() -> {
+                    List<CompletableFuture<GuidanceResponse>> fs = new ArrayList<>();
+                    for (int i = 0; i < fixes; i++) {
+                        double[] p = walk.get(Math.min(i, walk.size() - 1));
+                        fs.add(batcher.submit(tripId, new ProgressUpdateEnvelope(meta,
+                                new ProgressUpdateRequest(p[1], p[0], 1.2, 1_000L * (i + 1), null, null, null))));
+                    }
+                    return fs;
+                }, senders));
+            }
+            for (var f : perTrip) all.addAll(f.get(10, TimeUnit.SECONDS));
+            CompletableFuture.allOf(all.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        } finally {
+            senders.shutdown();
+            batcher.stop();
+        }
+
+        assertThat(all).allMatch(f -> f.isDone() && !f.isCompletedExceptionally());
+        for (int t = 0; t < trips; t++) {
+            assertThat(store.load("trip-" + t).getLastTs()).isEqualTo(1_000L * fixes);
+        }
+        assertThat(batcher.batchedFixes()).isEqualTo((long) trips * fixes);
+        assertThat(batcher.batches()).isLessThan((long) trips * fixes);
+    }
+
+    @Test
+    void disabledBatcherEvaluatesOnCallerThread() {
+        GuidanceProperties props = new GuidanceProperties();
+        ProgressBatcher batcher = new ProgressBatcher(InProcessTarget.newCoordinator(new InMemoryTripStore(), props), props);
+        batcher.start();
+
+        assertThat(batcher.isEnabled()).isFalse();
+        assertThatThrownBy(() -> batcher.submit("unknown", new ProgressUpdateEnvelope(null,
+                new ProgressUpdateRequest(127.0, 37.5, null, null, null, null, null))))
+                .isInstanceOf(PlanNotFoundException.class);
+    }
+
+    @Test
+    void rejectsInsteadOfEvaluatingInlineWhenQueueIsFull() throws Exception {
+        GuidanceProperties props = new GuidanceProperties();
+        props.setProgressBatchEnabled(true);
+        props.setProgressBatchQueueCapacity(1);
+        props.setProgressBatchOfferTimeoutMs(20);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InMemoryTripStore store = new InMemoryTripStore() {
+            @Override
+            public TripState load(String tripId) {
+                loading.countDown();
+                try {
+                    release.await();   // 수집 스레드를 배치 처리 중에 붙잡아 둔다
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.load(tripId);
+            }
+        };
+        ProgressBatcher batcher = new ProgressBatcher(InProcessTarget.newCoordinator(store, props), props);
+        batcher.start();
+        SkTransitRootDto.MetaDataDto meta = SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData();
+        store.init("t", 0, 0, 0, "WALKING");
+        try {
+            CompletableFuture<GuidanceResponse> first = batcher.submit("t", fix(meta, 1_000));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<GuidanceResponse> queued = batcher.submit("t", fix(meta, 2_000));
+
+            assertThatThrownBy(() -> batcher.submit("t", fix(meta, 3_000)))
+                    .isInstanceOf(OverloadedException.class);
+            assertThat(batcher.rejected()).isEqualTo(1);
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            queued.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            batcher.stop();
+        }
+        assertThat(store.load("t").getLastTs()).isEqualTo(2_000);
+    }
+
+    private static ProgressUpdateEnvelope fix(SkTransitRootDto.MetaDataDto meta, long ts) {
+        return new ProgressUpdateEnvelope(meta, new ProgressUpdateRequest(127.0276, 37.4979, 1.2, ts, null, null, null));
+    }
+}
@@ -0,0 +1,50 @@
+package com.smartcane.transit.service.geometry;
+
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.util.SegmentKernels;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PreparedLegTest {
+
+    private static SkTransitRootDto.StationDto station(int i, String lat, String lon) {
+        return new SkTransitRootDto.StationDto(i, "정류장" + i, lon, lat, "S" + i);
+    }
+
+    /** 동쪽 직선 약 880m 버스 leg, 정류장 4개 (한 개는 좌표 누락) */
+    private static PreparedLeg busLeg() {
+        var stations = List.of(
+                station(0, "37.5", "127.000"),
+                station(1, "37.5001", "127.003"),   // 길 건너편 (형상에서 약 11m)
+                station(2, null, null),
+                station(3, "37.5", "127.010"));
+        var leg = new SkTransitRootDto.LegDto("BUS", 120, 880, null, "146", null, null, null, null, null, null,
+                new SkTransitRootDto.PassStopListDto(stations),
+                new SkTransitRootDto.PassShapeDto("127.000,37.5 127.005,37.5 127.010,37.5"));
+        return PreparedLeg.of(leg, SegmentKernels.scalar());
+    }
+
+    @Test
+    void stationOffsetsAreAlongTrackAndMonotonic() {
+        PreparedLeg leg = busLeg();
+        assertThat(leg.hasStationOffsets()).isTrue();
+        assertThat(leg.stationOffset(0)).isZero();
+        assertThat(leg.stationOffset(1)).isBetween(260.0, 270.0);
+        assertThat(leg.stationOffset(2)).isEqualTo(leg.stationOffset(1));   // 좌표 누락 → 직전 값
+        assertThat(leg.stationOffset(3)).isCloseTo(leg.path().length(), within(1.0));
+    }
+
+    @Test
+    void nearestStationByBinarySearch() {
+        PreparedLeg leg = busLeg();
+        assertThat(leg.nearestStation(-5)).isZero();
+        assertThat(leg.nearestStation(100)).isZero();
+        assertThat(leg.nearestStation(200)).isEqualTo(1);
+        assertThat(leg.nearestStation(700)).isEqualTo(3);
+        assertThat(leg.nearestStation(5_000)).isEqualTo(3);
+    }
+}
@@ -0,0 +1,32 @@
+package com.smartcane.transit.service.plan;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.harness.SkFixtures;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlanInternerTest {
+
+    @Test
+    void plansForTheSameCorridorShareLegsStationsAndShapes() {
+        PlanInterner interner = new PlanInterner(new GuidanceProperties());
+
+        // 매번 새로 역직렬화 → 내용은 같지만 인스턴스는 다른 두 계획
+        SkTransitRootDto.MetaDataDto a = interner.intern(SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData());
+        SkTransitRootDto.MetaDataDto b = interner.intern(SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData());
+
+        var legA = a.plan().itineraries().get(0).legs().get(1);
+        var legB = b.plan().itineraries().get(0).legs().get(1);
+        assertThat(legB).isSameAs(legA);
+        assertThat(legB.passShape().linestring()).isSameAs(legA.passShape().linestring());
+
+        // 두 itinerary 의 첫 정류장(강남역)은 내용이 같으므로 하나의 문자열을 공유
+        var stationNameA = a.plan().itineraries().get(0).legs().get(1).passStopList().stations().get(0).stationName();
+        var stationNameB = a.plan().itineraries().get(1).legs().get(1).passStopList().stations().get(0).stationName();
+        assertThat(stationNameB).isSameAs(stationNameA);
+
+        assertThat(interner.bytesSaved()).isGreaterThan(10_000);
+    }
+}
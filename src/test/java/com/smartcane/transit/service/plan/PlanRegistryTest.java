@@ -0,0 +1,64 @@
+package com.smartcane.transit.service.plan;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.harness.SkFixtures;
+import com.smartcane.transit.service.geometry.PreparedGeometryCache;
+import com.smartcane.transit.util.SegmentKernels;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlanRegistryTest {
+
+    private final SkTransitRootDto.MetaDataDto meta = SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData();
+
+    @Test
+    void staysWithinMaxEntriesByEvictingOldestRegistration() {
+        GuidanceProperties props = new GuidanceProperties();
+        props.setMaxRegisteredPlans(3);
+        PlanRegistry registry = new PlanRegistry(new PlanInterner(props), new PreparedGeometryCache(props, SegmentKernels.scalar()), props);
+
+        for (int i = 0; i < 10; i++) registry.register("t" + i, meta);
+        registry.register("t7", meta);   // 재등록은 가장 최근으로
+        registry.register("t10", meta);
+
+        assertThat(registry.size()).isEqualTo(3);
+        assertThat(registry.find("t0")).isNull();
+        assertThat(registry.find("t8")).isNull();
+        assertThat(registry.find("t9")).isNotNull();
+        assertThat(registry.find("t7")).isNotNull();
+        assertThat(registry.find("t10")).isNotNull();
+    }
+
+    @Test
+    void purgeRemovesOnlyExpiredPlans() {
+        GuidanceProperties props = new GuidanceProperties();
+        PlanRegistry registry = new PlanRegistry(new PlanInterner(props), new PreparedGeometryCache(props, SegmentKernels.scalar()), props);
+        long now = System.currentTimeMillis();
+        long ttlMs = props.getPlanTtlMinutes() * 60_000L;
+        registry.restore("old", meta, now - ttlMs - 1);
+        registry.restore("fresh", meta, now);
+
+        registry.purgeExpired(now);
+
+        assertThat(registry.size()).isEqualTo(1);
+        assertThat(registry.find("fresh")).isNotNull();
+    }
+
+    @Test
+    void carriesPreparedItinerariesForTheRegisteredInstanceOnly() {
+        GuidanceProperties props = new GuidanceProperties();
+        PreparedGeometryCache geometryCache = new PreparedGeometryCache(props, SegmentKernels.scalar());
+        PlanRegistry registry = new PlanRegistry(new PlanInterner(props), geometryCache, props);
+        SkTransitRootDto.MetaDataDto shared = registry.register("t", meta);
+
+        var itineraries = shared.plan().itineraries();
+        assertThat(registry.prepared("t", shared, 0)).isSameAs(geometryCache.itinerary(itineraries.get(0)));
+        assertThat(registry.prepared("t", shared, 1)).isSameAs(geometryCache.itinerary(itineraries.get(1)));
+        assertThat(registry.prepared("t", shared, 2)).isNull();
+        // 업링크에 직접 실린(등록되지 않은) 계획 인스턴스에는 쓰지 않는다
+        assertThat(registry.prepared("t", meta, 0)).isNull();
+        assertThat(registry.prepared("other", shared, 0)).isNull();
+    }
+}
@@ -0,0 +1,67 @@
+package com.smartcane.transit.service.prewarm;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.RoutePlanRequest;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlanPrewarmerTest {
+
+    private static RoutePlanRequest query(String sx, String sy, String searchDttm) {
+        return new RoutePlanRequest(sx, sy, "127.0331", "37.5172", 0, "json", null, searchDttm);
+    }
+
+    @Test
+    void nearbyOriginsShareTheOdKey() {
+        // 소수 4자리 반올림 (약 10m) 안의 차이는 같은 OD
+        assertThat(PlanPrefetchCache.odKey(query("127.02761", "37.49791", null)))
+                .isEqualTo(PlanPrefetchCache.odKey(query("127.02758", "37.49788", null)));
+        assertThat(PlanPrefetchCache.odKey(query("127.0276", "37.4979", null)))
+                .isNotEqualTo(PlanPrefetchCache.odKey(query("127.0286", "37.4979", null)));
+        assertThat(PlanPrefetchCache.odKey(query("abc", "37.4979", null))).isNull();
+    }
+
+    @Test
+    void cacheHonoursTtlAndExplicitDepartureTime() {
+        GuidanceProperties props = new GuidanceProperties();
+        PlanPrefetchCache cache = new PlanPrefetchCache(props);
+        SkTransitRootDto root = new SkTransitRootDto(null);
+        RoutePlanRequest q = query("127.0276", "37.4979", null);
+        cache.put(PlanPrefetchCache.odKey(q), root, 0);
+
+        assertThat(cache.find(q, 60_000)).isSameAs(root);
+        assertThat(cache.find(query("127.0276", "37.4979", "202610190800"), 60_000)).isNull();
+        assertThat(cache.find(q, props.getPlanPrewarmTtlMinutes() * 60_000L + 1)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void departureSlotsWrapAroundMidnight() {
+        assertThat(PlanPrewarmer.departureSlot(LocalTime.of(7, 52), 15)).isEqualTo(7 * 60 + 45);
+        assertThat(PlanPrewarmer.upcomingSlots(LocalTime.of(7, 52), 10, 15))
+                .containsExactly(7 * 60 + 45, 8 * 60);
+        assertThat(PlanPrewarmer.upcomingSlots(LocalTime.of(23, 55), 10, 15))
+                .containsExactly(0, 23 * 60 + 45);
+        assertThat(PlanPrewarmer.departureTime(query("1", "2", "202610190815"), LocalDateTime.of(2026, 10, 19, 7, 0)))
+                .isEqualTo(LocalTime.of(8, 15));
+    }
+
+    @Test
+    void dailyQuotaResetsOnNewDay() {
+        GuidanceProperties props = new GuidanceProperties();
+        props.setPlanPrewarmDailyQuota(2);
+        PlanPrewarmer prewarmer = new PlanPrewarmer(props, new PlanPrefetchCache(props), null, null, null);
+        LocalDate day = LocalDate.of(2026, 10, 19);
+
+        assertThat(prewarmer.tryAcquireQuota(day)).isTrue();
+        assertThat(prewarmer.tryAcquireQuota(day)).isTrue();
+        assertThat(prewarmer.tryAcquireQuota(day)).isFalse();
+        assertThat(prewarmer.tryAcquireQuota(day.plusDays(1))).isTrue();
+    }
+}
@@ -0,0 +1,126 @@
+package com.smartcane.transit.service.sk;
+
+import com.smartcane.transit.config.SKTransitProperties;
+import com.smartcane.transit.exception.SkCallRejectedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SkCallSchedulerTest {
+
+    private static SKTransitProperties props() {
+        SKTransitProperties p = new SKTransitProperties();
+        p.setRatePerSecond(1_000);
+        p.setBurst(100);
+        p.setMaxConcurrent(1);
+        p.setHedgeAfterMs(0);
+        return p;
+    }
+
+    @Test
+    void higherPriorityLeavesTheQueueFirst() {
+        SkCallScheduler scheduler = new SkCallScheduler(props());
+        Sinks.One<String> gate = Sinks.one();
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        // 동시 1개 → 첫 호출이 끝날 때까지 나머지는 대기열
+        Mono<String> blocker = scheduler.submit(SkCallPriority.PLAN, gate::asMono);
+        Mono<String> prefetch = scheduler.submit(SkCallPriority.PREFETCH, () -> Mono.fromCallable(() -> record(order, "prefetch")));
+        Mono<String> plan = scheduler.submit(SkCallPriority.PLAN, () -> Mono.fromCallable(() -> record(order, "plan")));
+        Mono<String> reroute = scheduler.submit(SkCallPriority.REROUTE, () -> Mono.fromCallable(() -> record(order, "reroute")));
+
+        blocker.subscribe();
+        prefetch.subscribe();
+        plan.subscribe();
+        reroute.subscribe();
+        assertThat(scheduler.queueDepth(SkCallPriority.PREFETCH)).isEqualTo(1);
+
+        gate.tryEmitValue("done");
+        assertThat(order).containsExactly("reroute", "plan", "prefetch");
+    }
+
+    @Test
+    void fullQueueEvictsLessUrgentCalls() {
+        SKTransitProperties p = props();
+        p.setQueueCapacity(1);
+        SkCallScheduler scheduler = new SkCallScheduler(p);
+        Sinks.One<String> gate = Sinks.one();
+
+        scheduler.submit(SkCallPriority.PLAN, gate::asMono).subscribe();
+        Mono<String> prefetch = scheduler.submit(SkCallPriority.PREFETCH, () -> Mono.just("prefetch")).cache();
+        prefetch.subscribe(v -> {}, e -> {});
+        Mono<String> reroute = scheduler.submit(SkCallPriority.REROUTE, () -> Mono.just("reroute")).cache();
+        reroute.subscribe();
+        Mono<String> plan = scheduler.submit(SkCallPriority.PLAN, () -> Mono.just("plan"));
+
+        assertThatThrownBy(prefetch::block).isInstanceOf(SkCallRejectedException.class);   // 밀려남
+        assertThatThrownBy(plan::block).isInstanceOf(SkCallRejectedException.class);       // 밀어낼 대상 없음
+        gate.tryEmitValue("done");
+        assertThat(reroute.block(Duration.ofSeconds(1))).isEqualTo("reroute");
+    }
+
+    @Test
+    void callsPastTheirDeadlineAreDroppedWithoutBeingSent() {
+        SKTransitProperties p = props();
+        p.setRatePerSecond(1);
+        p.setBurst(1);
+        p.setMaxConcurrent(10);
+        p.setRerouteMaxWaitMs(50);
+        SkCallScheduler scheduler = new SkCallScheduler(p);
+        AtomicInteger sent = new AtomicInteger();
+
+        assertThat(scheduler.submit(SkCallPriority.PLAN, () -> Mono.just("first")).block()).isEqualTo("first");
+        // 토큰 소진 → 다음 토큰(약 1초 뒤)보다 대기 기한(50ms)이 먼저
+        assertThatThrownBy(() -> scheduler.submit(SkCallPriority.REROUTE,
+                () -> Mono.fromCallable(sent::incrementAndGet)).block(Duration.ofSeconds(3)))
+                .isInstanceOf(SkCallRejectedException.class);
+        assertThat(sent).hasValue(0);
+    }
+
+    @Test
+    void slowAttemptIsHedged() {
+        SKTransitProperties p = props();
+        p.setHedgeAfterMs(50);
+        SkCallScheduler scheduler = new SkCallScheduler(p);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String res = scheduler.submit(SkCallPriority.PLAN, () -> attempts.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(2)).thenReturn("slow")
+                : Mono.just("hedge")).block(Duration.ofSeconds(1));
+
+        assertThat(res).isEqualTo("hedge");
+        assertThat(attempts).hasValue(2);
+    }
+
+    @Test
+    void serverErrorsAreRetriedOnceButClientErrorsAreNot() {
+        SkCallScheduler scheduler = new SkCallScheduler(props());
+        AtomicInteger attempts = new AtomicInteger();
+        String res = scheduler.submit(SkCallPriority.PLAN, () -> attempts.incrementAndGet() == 1
+                ? Mono.error(WebClientResponseException.create(503, "Service Unavailable", null, null, null))
+                : Mono.just("ok")).block(Duration.ofSeconds(1));
+        assertThat(res).isEqualTo("ok");
+
+        AtomicInteger notFound = new AtomicInteger();
+        assertThatThrownBy(() -> scheduler.submit(SkCallPriority.PLAN, () -> {
+            notFound.incrementAndGet();
+            return Mono.error(WebClientResponseException.create(HttpStatus.NOT_FOUND.value(), "Not Found", null, null, null));
+        }).block(Duration.ofSeconds(1))).isInstanceOf(WebClientResponseException.NotFound.class);
+        assertThat(notFound).hasValue(1);
+    }
+
+    private static String record(List<String> order, String name) {
+        order.add(name);
+        return name;
+    }
+}
@@ -0,0 +1,143 @@
+package com.smartcane.transit.service.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.harness.SkFixtures;
+import com.smartcane.transit.service.InMemoryTripStore;
+import com.smartcane.transit.service.TripState;
+import com.smartcane.transit.service.geometry.PreparedGeometryCache;
+import com.smartcane.transit.service.plan.PlanInterner;
+import com.smartcane.transit.service.plan.PlanRegistry;
+import com.smartcane.transit.util.SegmentKernels;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+class TripSnapshotServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final GuidanceProperties props = new GuidanceProperties();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TripSnapshotService newService(InMemoryTripStore store, PlanRegistry registry) {
+        return new TripSnapshotService(store, registry, new PlanInterner(props), objectMapper, props);
+    }
+
+    @Test
+    void restoresEveryTripFieldAndRegisteredPlan() throws Exception {
+        SkTransitRootDto.MetaDataDto meta = SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData();
+        InMemoryTripStore store = new InMemoryTripStore();
+        PlanRegistry registry = new PlanRegistry(new PlanInterner(props), new PreparedGeometryCache(props, SegmentKernels.scalar()), props);
+        registry.register("t1", meta);
+
+        store.init("t1", 0, 1, null, "ONBOARD");
+        TripState s = store.load("t1");
+        s.setLastLon(127.02);
+        s.setLastLat(37.51);
+        s.setLastTs(1_700_000_000_123L);
+        s.setLastClientTs(1_700_000_000_120L);
+        s.setCumulativeWalkMeter(321.5);
+        s.setSmoothedSpeedMps(4.2);
+        s.setWalkSpeedMps(0.9);
+        s.setArrivalStreak(1);
+        s.getLatBuf().add(37.5);
+        s.getLonBuf().add(127.0);
+        s.setCandidateScores(new double[]{-1.5, -20.0});
+        s.setCandidateLegs(new int[]{1, 0});
+        s.setCandidateSegments(new int[]{7, -1});
+        s.setOnboardItineraryIndex(0);
+        s.setOnboardLegIndex(1);
+        s.setScheduleAnchorTs(1_700_000_000_100L);
+        s.setScheduleAnchorFraction(0.25);
+        s.setStationCursor(3);
+        store.save("t1", s);
+
+        Path file = dir.resolve("trips.snap");
+        TripSnapshotService.Result written = newService(store, registry).write(file);
+        assertThat(written.trips()).isEqualTo(1);
+        assertThat(written.plans()).isEqualTo(1);
+
+        InMemoryTripStore restoredStore = new InMemoryTripStore();
+        PlanRegistry restoredRegistry = new PlanRegistry(new PlanInterner(props), new PreparedGeometryCache(props, SegmentKernels.scalar()), props);
+        TripSnapshotService.Result read = newService(restoredStore, restoredRegistry).restore(file);
+
+        assertThat(read.trips()).isEqualTo(1);
+        assertThat(restoredRegistry.find("t1")).isEqualTo(registry.find("t1"));
+        assertThat(restoredStore.load("t1")).usingRecursiveComparison().isEqualTo(s);
+    }
+
+    @Test
+    void skipsSnapshotOlderThanMaxAge() throws Exception {
+        InMemoryTripStore store = new InMemoryTripStore();
+        store.init("t1", 0, 0, 0, "WALKING");
+        Path file = dir.resolve("old.snap");
+        newService(store, new PlanRegistry(new PlanInterner(props), new PreparedGeometryCache(props, SegmentKernels.scalar()), props)).write(file);
+
+        props.setSnapshotMaxAgeMinutes(-1);
+        InMemoryTripStore restored = new InMemoryTripStore();
+        assertThat(newService(restored, new PlanRegistry(new PlanInterner(props), new PreparedGeometryCache(props, SegmentKernels.scalar()), props)).restore(file)).isNull();
+        assertThat(restored.size()).isZero();
+    }
+
+    /**
+     * writeTrip/readTrip 은 필드를 손으로 나열하므로, TripState 의 모든 필드를 리플렉션으로 기본값이 아닌 값으로 채워
+     * 왕복시킨다. 필드를 추가하고 스냅샷에 빠뜨리면(또는 모르는 타입이면) 여기서 실패한다.
+     */
+    @Test
+    void roundTripsEveryTripStateField() throws Exception {
+        InMemoryTripStore store = new InMemoryTripStore();
+        TripState s = new TripState();
+        int seq = 1;
+        for (Field f : TripState.class.getDeclaredFields()) {
+            if (Modifier.isStatic(f.getModifiers())) continue;
+            f.setAccessible(true);
+            fill(s, f, seq++);
+        }
+        store.save(s.getTripId(), s);
+
+        Path file = dir.resolve("fields.snap");
+        newService(store, newRegistry()).write(file);
+        InMemoryTripStore restored = new InMemoryTripStore();
+        newService(restored, newRegistry()).restore(file);
+
+        assertThat(restored.load(s.getTripId())).usingRecursiveComparison().isEqualTo(s);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void fill(TripState s, Field f, int seq) throws IllegalAccessException {
+        Class<?> t = f.getType();
+        if (t == String.class) {
+            f.set(s, f.getName() + "-" + seq);
+        } else if (t == int.class || t == Integer.class) {
+            f.set(s, seq);
+        } else if (t == long.class) {
+            f.set(s, 1_700_000_000_000L + seq);
+        } else if (t == double.class) {
+            f.set(s, seq + 0.25);
+        } else if (t == double[].class) {
+            f.set(s, new double[]{seq, -seq - 0.5});
+        } else if (t == int[].class) {
+            f.set(s, new int[]{seq, seq + 1});
+        } else if (t == ArrayDeque.class) {
+            ArrayDeque<Double> buf = (ArrayDeque<Double>) f.get(s);
+            buf.add(seq + 0.125);
+            buf.add(seq + 0.375);
+        } else {
+            fail("스냅샷 왕복 테스트가 모르는 TripState 필드 타입: " + f.getName() + " (" + t + ")");
+        }
+    }
+
+    private PlanRegistry newRegistry() {
+        return new PlanRegistry(new PlanInterner(props), new PreparedGeometryCache(props, SegmentKernels.scalar()), props);
+    }
+}
@@ -0,0 +1,67 @@
+package com.smartcane.transit.service.station;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.response.NearbyStopResponse;
+import com.smartcane.transit.harness.SkFixtures;
+import com.smartcane.transit.util.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StationIndexTest {
+
+    @Test
+    void harvestsPlanStationsOnceAndReturnsThemSortedByDistance() {
+        StationIndex index = new StationIndex(new GuidanceProperties());
+        index.harvest(SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData());
+        int size = index.size();
+        index.harvest(SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData());
+
+        assertThat(size).isEqualTo(16);
+        assertThat(index.size()).isEqualTo(size);
+
+        List<NearbyStopResponse> near = index.nearby(37.4988, 127.0283, 400, 20);
+        assertThat(near).isNotEmpty();
+        assertThat(near.get(0).distanceM()).isLessThan(5.0);
+        assertThat(near).isSortedAccordingTo((a, b) -> Double.compare(a.distanceM(), b.distanceM()));
+        assertThat(near).allMatch(s -> s.distanceM() <= 400);
+    }
+
+    @Test
+    void radiusQueryMatchesBruteForce() {
+        StationIndex index = new StationIndex(new GuidanceProperties());
+        Random rnd = new Random(1);
+        double[][] pts = new double[20_000][];
+        for (int i = 0; i < pts.length; i++) {
+            pts[i] = new double[]{37.45 + rnd.nextDouble() * 0.15, 126.90 + rnd.nextDouble() * 0.2};
+            index.add("S" + i, "정류장" + i, pts[i][0], pts[i][1]);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            double lat = 37.46 + rnd.nextDouble() * 0.13;
+            double lon = 126.91 + rnd.nextDouble() * 0.18;
+            long expected = java.util.Arrays.stream(pts)
+                    .filter(p -> GeoUtils.haversine(lat, lon, p[0], p[1]) <= 150)
+                    .count();
+            assertThat(index.nearby(lat, lon, 150, Integer.MAX_VALUE)).hasSize((int) expected);
+        }
+    }
+
+    @Test
+    void rejectsPolarOrNonFiniteQueriesAndCapsRadius() {
+        GuidanceProperties props = new GuidanceProperties();
+        props.setNearbyStopsMaxRadiusM(500);
+        StationIndex index = new StationIndex(props);
+        index.add("near", "가까운", 37.5000, 127.0000);
+        index.add("far", "먼", 37.5000 + 1_000 / 111_320.0, 127.0000);   // 약 1km 북쪽
+
+        assertThat(StationIndex.isQueryable(89.9, 127.0)).isFalse();
+        assertThat(StationIndex.isQueryable(Double.NaN, 127.0)).isFalse();
+        assertThat(index.nearby(89.9, 127.0, 1e9, 10)).isEmpty();
+        assertThat(index.nearby(37.5, 127.0, Double.POSITIVE_INFINITY, 10))
+                .extracting(NearbyStopResponse::stationId).containsExactly("near");
+    }
+}
@@ -0,0 +1,200 @@
+package com.smartcane.transit.service.watch;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
+import com.smartcane.transit.dto.request.ProgressUpdateRequest;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.harness.GpsTrace;
+import com.smartcane.transit.harness.InProcessTarget;
+import com.smartcane.transit.harness.SkFixtures;
+import com.smartcane.transit.harness.SyntheticTraceGenerator;
+import com.smartcane.transit.service.InMemoryTripStore;
+import com.smartcane.transit.service.ProgressCoordinator;
+import com.smartcane.transit.service.TripState;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TripWatchServiceTest {
+
+    @Test
+    void watcherReceivesSnapshotThenTransitionsOnly() throws Exception {
+        GuidanceProperties props = new GuidanceProperties();
+        InMemoryTripStore store = new InMemoryTripStore();
+        LocalTripEventBus bus = new LocalTripEventBus();
+        ProgressCoordinator coordinator = InProcessTarget.newCoordinator(store, props, bus);
+        TripWatchService watch = new TripWatchService(bus, store, props);
+
+        SkTransitRootDto.MetaDataDto meta = SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData();
+        GpsTrace trace = new SyntheticTraceGenerator().generate(meta.plan().itineraries().get(0), 0, 7L);
+        store.init("t", 0, 0, 0, "WALKING");
+
+        List<TripTransition> received = new CopyOnWriteArrayList<>();
+        CountDownLatch gotSnapshot = new CountDownLatch(1);
+        var sub = watch.open("t").flatMapMany(Function.identity())
+                .filter(e -> e.data() != null)
+                .subscribe(e -> {
+                    received.add(e.data());
+                    gotSnapshot.countDown();
+                });
+        // 스냅샷은 비동기로 읽히므로 그 뒤에 리플레이해야 모든 전이가 스냅샷 이후가 된다
+        assertThat(gotSnapshot.await(5, TimeUnit.SECONDS)).isTrue();
+        for (GpsTrace.Fix fix : trace.fixes()) {
+            coordinator.updateProgress("t", new ProgressUpdateEnvelope(meta, new ProgressUpdateRequest(
+                    fix.lon(), fix.lat(), fix.speedMps(), fix.offsetMs(), null, null, null)));
+        }
+        TimeUnit.MILLISECONDS.sleep(200);
+        sub.dispose();
+
+        assertThat(received.get(0).type()).isEqualTo("SNAPSHOT");
+        assertThat(received).extracting(TripTransition::type).contains("LEG", "STEP", "PHASE");
+        // 전이가 없는 fix 는 알리지 않는다
+        assertThat(received.size()).isLessThan(trace.fixes().size() / 2);
+        assertThat(received.get(received.size() - 1).legIndex()).isEqualTo(store.load("t").getLegIndex());
+    }
+
+    @Test
+    void stalledWatcherNeverBlocksPublisher() {
+        GuidanceProperties props = new GuidanceProperties();
+        InMemoryTripStore store = new InMemoryTripStore();
+        LocalTripEventBus bus = new LocalTripEventBus();
+        TripWatchService watch = new TripWatchService(bus, store, props);
+        store.init("t", 0, 0, 0, "WALKING");
+
+        // 첫 이벤트만 요청하고 더는 읽지 않는 구독자
+        List<ServerSentEvent<TripTransition>> got = new CopyOnWriteArrayList<>();
+        BaseSubscriber<ServerSentEvent<TripTransition>> stalled = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription s) {
+                s.request(1);
+            }
+
+            @Override
+            protected void hookOnNext(ServerSentEvent<TripTransition> e) {
+                got.add(e);
+            }
+        };
+        watch.open("t").flatMapMany(Function.identity()).subscribe(stalled);
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            bus.publish(new TripTransition("t", "STEP", "WALKING", 0, 0, i, i, i + 1));
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        stalled.dispose();
+
+        assertThat(elapsedMs).isLessThan(2_000);
+        assertThat(got).hasSizeLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void transitionsDuringAsyncSubscribeAreNotLost() throws Exception {
+        GuidanceProperties props = new GuidanceProperties();
+        InMemoryTripStore store = new InMemoryTripStore();
+        SlowSubscribeBus bus = new SlowSubscribeBus();
+        TripWatchService watch = new TripWatchService(bus, store, props);
+        store.init("t", 0, 0, 0, "WALKING");
+
+        List<TripTransition> received = new CopyOnWriteArrayList<>();
+        CountDownLatch gotSnapshot = new CountDownLatch(1);
+        CountDownLatch gotLive = new CountDownLatch(1);
+        var sub = watch.open("t").flatMapMany(Function.identity())
+                .filter(e -> e.data() != null)
+                .subscribe(e -> {
+                    received.add(e.data());
+                    if ("SNAPSHOT".equals(e.data().type())) gotSnapshot.countDown();
+                    if (e.data().ts() == 3_000) gotLive.countDown();
+                });
+
+        // SUBSCRIBE 확인 전: 상태 저장 + 전이 발행이 일어난다
+        TripState s = store.load("t");
+        s.setLegIndex(1);
+        s.setLastTs(2_000);
+        s.setTransitionSeq(2);
+        store.save("t", s);
+        bus.publish(new TripTransition("t", "LEG", "WALKING", 0, 1, 0, 2_000, 2));   // 스냅샷에 이미 반영됨
+        bus.publish(new TripTransition("t", "STEP", "WALKING", 0, 1, 1, 2_500, 3));  // 스냅샷 이후
+        bus.publish(new TripTransition("t", "STEP", "WALKING", 0, 0, 3, 500, 1));    // 늦게 도착한 옛 전이
+        assertThat(received).isEmpty();
+
+        bus.ready.tryEmitEmpty();
+        assertThat(gotSnapshot.await(5, TimeUnit.SECONDS)).isTrue();
+        bus.publish(new TripTransition("t", "STEP", "WALKING", 0, 1, 2, 3_000, 4));
+        assertThat(gotLive.await(5, TimeUnit.SECONDS)).isTrue();
+        sub.dispose();
+
+        assertThat(received).extracting(TripTransition::type).containsExactly("SNAPSHOT", "STEP", "STEP");
+        assertThat(received).extracting(TripTransition::ts).containsExactly(2_000L, 2_500L, 3_000L);
+        assertThat(received.get(0).legIndex()).isEqualTo(1);
+    }
+
+    @Test
+    void serverStampedEventsAreNotDroppedWhenClientClockRunsAhead() throws Exception {
+        GuidanceProperties props = new GuidanceProperties();
+        InMemoryTripStore store = new InMemoryTripStore();
+        LocalTripEventBus bus = new LocalTripEventBus();
+        TripWatchService watch = new TripWatchService(bus, store, props);
+        store.init("t", 0, 0, 0, "WALKING");
+        TripState s = store.load("t");
+        s.setLastTs(System.currentTimeMillis() + 3_600_000);   // 폰 시계가 한 시간 빠름
+        s.setTransitionSeq(5);
+        store.save("t", s);
+
+        List<TripTransition> received = new CopyOnWriteArrayList<>();
+        CountDownLatch gotSnapshot = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        watch.open("t").flatMapMany(Function.identity())
+                .filter(e -> e.data() != null)
+                .subscribe(e -> {
+                    received.add(e.data());
+                    gotSnapshot.countDown();
+                }, e -> { }, completed::countDown);
+        assertThat(gotSnapshot.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 서버 시각이 찍힌 CANCEL 전이: ts 는 스냅샷보다 작지만 순번은 뒤
+        bus.publish(new TripTransition("t", "PHASE", "CANCELLED", 0, 0, 0, System.currentTimeMillis(), 6));
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).extracting(TripTransition::phase).containsExactly("WALKING", "CANCELLED");
+    }
+
+    @Test
+    void missingTripOpensNothing() {
+        InMemoryTripStore store = new InMemoryTripStore();
+        TripWatchService watch = new TripWatchService(new LocalTripEventBus(), store, new GuidanceProperties());
+        assertThat(watch.open("nope").blockOptional(Duration.ofSeconds(5))).isEmpty();
+    }
+
+    /** Redis SUBSCRIBE 처럼 구독 확인이 늦게 오는 버스 */
+    private static final class SlowSubscribeBus implements TripEventBus {
+        final LocalTripEventBus delegate = new LocalTripEventBus();
+        final Sinks.Empty<Void> ready = Sinks.empty();
+
+        @Override
+        public void publish(TripTransition transition) {
+            delegate.publish(transition);
+        }
+
+        @Override
+        public Flux<TripTransition> watch(String tripId) {
+            return delegate.watch(tripId);
+        }
+
+        @Override
+        public Mono<Void> subscribed(String tripId) {
+            return ready.asMono();
+        }
+    }
+}
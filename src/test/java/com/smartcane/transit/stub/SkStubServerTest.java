@@ -0,0 +1,72 @@
+package com.smartcane.transit.stub;
+
+import com.smartcane.transit.config.SKTransitProperties;
+import com.smartcane.transit.config.WebClientConfig;
+import com.smartcane.transit.dto.request.RoutePlanRequest;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.service.RouteService;
+import com.smartcane.transit.service.sk.SkCallScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SkStubServerTest {
+
+    private SkStubServer stub;
+
+    @AfterEach
+    void tearDown() {
+        if (stub != null) stub.stop();
+    }
+
+    private RouteService routeServiceFor(SkStubProperties props) {
+        props.setPort(0);
+        stub = new SkStubServer(props).start();
+        SKTransitProperties sk = new SKTransitProperties();
+        sk.setBaseUrl(stub.baseUrl());
+        sk.setAppKey("stub-app-key");
+        return new RouteService(new WebClientConfig().skTransitWebClient(sk), new SkCallScheduler(sk));
+    }
+
+    @Test
+    void servesRecordedPlanMatchedByOriginAndDestination() {
+        RouteService routeService = routeServiceFor(new SkStubProperties());
+
+        SkTransitRootDto root = routeService.searchRawRoutes(
+                new RoutePlanRequest("127.02765", "37.49790", "127.01525", "37.51688", 0, "json", 10, null)).block();
+
+        assertThat(root).isNotNull();
+        assertThat(root.metaData().plan().itineraries()).hasSize(2);
+    }
+
+    @Test
+    void returnsNotFoundWhenNoFixtureIsNearby() {
+        RouteService routeService = routeServiceFor(new SkStubProperties());
+
+        assertThatThrownBy(() -> routeService.searchRawRoutes(
+                new RoutePlanRequest("126.9780", "37.5665", "127.0276", "37.4979", 0, "json", 10, null)).block())
+                .isInstanceOf(WebClientResponseException.NotFound.class);
+    }
+
+    @Test
+    void injectsErrorsAndPayloadSize() {
+        SkStubProperties props = new SkStubProperties();
+        props.setErrorRate(1.0);
+        props.setErrorStatus(503);
+        RouteService failing = routeServiceFor(props);
+
+        assertThatThrownBy(() -> failing.searchRawRoutes(
+                new RoutePlanRequest("127.0276", "37.4979", "127.0152", "37.5169", 0, "json", 10, null)).block())
+                .isInstanceOf(WebClientResponseException.ServiceUnavailable.class);
+        stub.stop();
+
+        SkStubProperties bigger = new SkStubProperties();
+        bigger.setItineraryCopies(3);
+        SkTransitRootDto root = routeServiceFor(bigger).searchRawRoutes(
+                new RoutePlanRequest("127.0276", "37.4979", "127.0152", "37.5169", 0, "json", 10, null)).block();
+        assertThat(root.metaData().plan().itineraries()).hasSize(6);
+    }
+}
@@ -0,0 +1,61 @@
+package com.smartcane.transit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 평면 거리 커널이 한국 위도 범위(33°~39°, 10m~2km)에서 주석에 적은 오차 안에 드는지 하버사인과 비교한다.
+ */
+class GeoUtilsTest {
+
+    private static final double R = 6_371_000.0;
+
+    /** 시작점에서 방위 brg 로 d 미터 떨어진 점 [lat, lon] */
+    private static double[] offset(double lat, double lon, double d, double brg) {
+        return new double[]{
+                lat + Math.toDegrees(d * Math.cos(brg) / R),
+                lon + Math.toDegrees(d * Math.sin(brg) / R / Math.cos(Math.toRadians(lat)))
+        };
+    }
+
+    @Test
+    void meanLatitudePlanarDistanceMatchesHaversine() {
+        Random rnd = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            double lat = 33 + rnd.nextDouble() * 6;
+            double lon = 124 + rnd.nextDouble() * 8;
+            double d = 10 + rnd.nextDouble() * 1_990;
+            double[] q = offset(lat, lon, d, rnd.nextDouble() * 2 * Math.PI);
+
+            double h = GeoUtils.haversine(lat, lon, q[0], q[1]);
+            double p = GeoUtils.planarDistance(lat, lon, q[0], q[1]);
+            assertThat(Math.abs(p - h) / h).as("lat=%f d=%f", lat, d).isLessThan(1e-7);
+            assertThat(Math.abs(p - h)).isLessThan(0.001);
+        }
+    }
+
+    @Test
+    void precomputedCosWithinTwoKilometresOfReference() {
+        Random rnd = new Random(4);
+        for (int i = 0; i < 100_000; i++) {
+            double lat = 33 + rnd.nextDouble() * 6;
+            double lon = 124 + rnd.nextDouble() * 8;
+            double d = 10 + rnd.nextDouble() * 1_990;
+            double[] q = offset(lat, lon, d, rnd.nextDouble() * 2 * Math.PI);
+            double refLat = lat + Math.toDegrees((rnd.nextDouble() * 2 - 1) * 2_000 / R);
+
+            double h = GeoUtils.haversine(lat, lon, q[0], q[1]);
+            double p = GeoUtils.planarDistance(lat, lon, q[0], q[1], GeoUtils.cosLat(refLat));
+            assertThat(Math.abs(p - h) / h).as("lat=%f ref=%f d=%f", lat, refLat, d).isLessThan(3e-4);
+            assertThat(Math.abs(p - h)).isLessThan(0.6);
+        }
+    }
+
+    @Test
+    void zeroDistance() {
+        assertThat(GeoUtils.planarDistance(37.5, 127.0, 37.5, 127.0)).isZero();
+    }
+}
@@ -0,0 +1,81 @@
+package com.smartcane.transit.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 선분 BVH 전역 스냅이 전체 스캔과 같은 결과를 내는지 확인한다.
+ * (홀수 잎/노드, 같은 길을 되돌아오는 형상의 동률, 구간 제한 snapFrom 포함)
+ */
+class SegmentBvhTest {
+
+    private static List<double[]> randomWalk(Random rnd, int vertices, boolean backtrack) {
+        List<double[]> pts = new ArrayList<>(vertices);
+        double lat = 37.4979, lon = 127.0276, heading = rnd.nextDouble() * Math.PI * 2;
+        for (int i = 0; i < vertices; i++) {
+            pts.add(new double[]{lat, lon});
+            heading += rnd.nextGaussian() * 0.3;
+            lat += Math.cos(heading) * 0.00015;
+            lon += Math.sin(heading) * 0.00019;
+        }
+        if (backtrack) {
+            // 같은 길로 되돌아오기 → 거리 동률 선분이 생긴다 (앞쪽 선분을 골라야 함)
+            for (int i = vertices - 2; i >= vertices / 2; i--) pts.add(pts.get(i));
+        }
+        return pts;
+    }
+
+    @Test
+    void bvhSnapMatchesFullScan() {
+        Random rnd = new Random(11);
+        for (int round = 0; round < 40; round++) {
+            int vertices = PreparedPolyline.BVH_MIN_SEGMENTS + 1 + rnd.nextInt(3_000);
+            List<double[]> pts = randomWalk(rnd, vertices, round % 4 == 0);
+            PreparedPolyline line = PreparedPolyline.of(pts);
+            assertThat(line.hasBvh()).isTrue();
+
+            for (int k = 0; k < 50; k++) {
+                double[] p = pts.get(rnd.nextInt(pts.size()));
+                double lat = p[0] + rnd.nextGaussian() * (k % 10 == 0 ? 0.01 : 0.0002);
+                double lon = p[1] + rnd.nextGaussian() * (k % 10 == 0 ? 0.01 : 0.0002);
+                var bvh = line.snap(lat, lon);
+                var scan = line.snapScan(lat, lon);
+                assertThat(bvh.segmentIndex).as("round=%d k=%d", round, k).isEqualTo(scan.segmentIndex);
+                assertThat(bvh.snappedMetersFromStart).isEqualTo(scan.snappedMetersFromStart);
+                assertThat(bvh.distanceToPolyline).isEqualTo(scan.distanceToPolyline);
+            }
+        }
+    }
+
+    @Test
+    void snapFromOnlyConsidersLaterSegments() {
+        Random rnd = new Random(5);
+        List<double[]> pts = randomWalk(rnd, 800, true);
+        PreparedPolyline line = PreparedPolyline.of(pts);
+        for (int k = 0; k < 200; k++) {
+            int from = rnd.nextInt(line.segmentCount());
+            double[] p = pts.get(rnd.nextInt(pts.size()));
+            double lat = p[0] + rnd.nextGaussian() * 0.0003;
+            double lon = p[1] + rnd.nextGaussian() * 0.0003;
+
+            var res = line.snapFrom(lat, lon, from);
+            // 같은 구간만 잘라 만든 폴리라인의 전체 스캔과 같아야 한다
+            var tail = PreparedPolyline.of(pts.subList(from, pts.size())).snapScan(lat, lon);
+            assertThat(res.segmentIndex).isGreaterThanOrEqualTo(from);
+            // 투영 기준점이 달라 생기는 작은 차이(공유 정점 동률의 선분 index 차이 포함)는 허용
+            assertThat(res.distanceToPolyline).isCloseTo(tail.distanceToPolyline, within(0.05 + tail.distanceToPolyline * 1e-3));
+        }
+    }
+
+    @Test
+    void shortPolylinesSkipTheIndex() {
+        List<double[]> pts = randomWalk(new Random(1), PreparedPolyline.BVH_MIN_SEGMENTS, false);
+        assertThat(PreparedPolyline.of(pts).hasBvh()).isFalse();
+    }
+}
@@ -0,0 +1,103 @@
+package com.smartcane.transit.util;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Vector API 커널이 스칼라 커널과 항상 같은 선분 index 를 고르는지 확인한다.
+ * (레인 수의 배수가 아닌 길이, 길이 0 선분, 부분 범위, 동률 포함)
+ */
+class SegmentKernelEquivalenceTest {
+
+    private static SegmentKernel vector;
+    private final SegmentKernel scalar = SegmentKernels.scalar();
+
+    @BeforeAll
+    static void loadVectorKernel() {
+        assumeTrue(SegmentKernels.vectorAvailable(), "jdk.incubator.vector not loaded");
+        vector = SegmentKernels.select("vector");
+    }
+
+    @Test
+    void randomSegmentsAndRangesPickSameIndex() {
+        Random rnd = new Random(7);
+        for (int round = 0; round < 500; round++) {
+            int n = 1 + rnd.nextInt(97);
+            double[][] seg = randomSegments(rnd, n, round % 5 == 0);
+            for (int k = 0; k < 10; k++) {
+                int from = rnd.nextInt(n);
+                int to = from + rnd.nextInt(n - from + 1);
+                double px = rnd.nextGaussian() * 300;
+                double py = rnd.nextGaussian() * 300;
+                assertThat(vector.nearestSegment(seg[0], seg[1], seg[2], seg[3], seg[4], px, py, from, to))
+                        .as("n=%d [%d,%d)", n, from, to)
+                        .isEqualTo(scalar.nearestSegment(seg[0], seg[1], seg[2], seg[3], seg[4], px, py, from, to));
+            }
+        }
+    }
+
+    @Test
+    void tiesResolveToLowestIndex() {
+        // 같은 선분을 반복 → 모든 거리가 동률
+        int n = 37;
+        double[] ax = new double[n], ay = new double[n], vx = new double[n], vy = new double[n], inv = new double[n];
+        for (int i = 0; i < n; i++) {
+            vx[i] = 10;
+            inv[i] = 1.0 / 100;
+        }
+        assertThat(vector.nearestSegment(ax, ay, vx, vy, inv, 5, 3, 0, n)).isZero();
+        assertThat(vector.nearestSegment(ax, ay, vx, vy, inv, 5, 3, 11, n)).isEqualTo(11);
+        assertThat(vector.nearestSegment(ax, ay, vx, vy, inv, 5, 3, 4, 4)).isEqualTo(-1);
+    }
+
+    @Test
+    void preparedPolylineSnapsIdentically() {
+        Random rnd = new Random(11);
+        List<double[]> pts = new ArrayList<>();
+        double lat = 37.5, lon = 127.03;
+        for (int i = 0; i < 1003; i++) {
+            pts.add(new double[]{lat, lon});
+            if (i % 50 != 0) {   // 가끔 같은 점 반복 (길이 0 선분)
+                lat += rnd.nextGaussian() * 0.0002;
+                lon += rnd.nextGaussian() * 0.0002;
+            }
+        }
+        PreparedPolyline s = PreparedPolyline.of(pts, scalar);
+        PreparedPolyline v = PreparedPolyline.of(pts, vector);
+        for (int i = 0; i < 2000; i++) {
+            double qLat = 37.5 + rnd.nextGaussian() * 0.003;
+            double qLon = 127.03 + rnd.nextGaussian() * 0.003;
+            var a = s.snap(qLat, qLon);
+            var b = v.snap(qLat, qLon);
+            assertThat(b.segmentIndex).isEqualTo(a.segmentIndex);
+            assertThat(b.snappedMetersFromStart).isEqualTo(a.snappedMetersFromStart);
+            assertThat(b.distanceToPolyline).isEqualTo(a.distanceToPolyline);
+
+            int hint = rnd.nextInt(s.segmentCount());
+            assertThat(v.snapNear(qLat, qLon, hint, 8, 60).segmentIndex)
+                    .isEqualTo(s.snapNear(qLat, qLon, hint, 8, 60).segmentIndex);
+        }
+    }
+
+    /** [ax, ay, vx, vy, invLen2] */
+    private static double[][] randomSegments(Random rnd, int n, boolean withDegenerate) {
+        double[][] out = new double[5][n];
+        for (int i = 0; i < n; i++) {
+            out[0][i] = rnd.nextGaussian() * 300;
+            out[1][i] = rnd.nextGaussian() * 300;
+            boolean zero = withDegenerate && rnd.nextInt(4) == 0;
+            out[2][i] = zero ? 0 : rnd.nextGaussian() * 40;
+            out[3][i] = zero ? 0 : rnd.nextGaussian() * 40;
+            double len2 = out[2][i] * out[2][i] + out[3][i] * out[3][i];
+            out[4][i] = len2 == 0 ? 0 : 1.0 / len2;
+        }
+        return out;
+    }
+}
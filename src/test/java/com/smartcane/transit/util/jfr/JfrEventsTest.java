@@ -0,0 +1,84 @@
+package com.smartcane.transit.util.jfr;
+
+import com.smartcane.transit.config.GuidanceProperties;
+import com.smartcane.transit.dto.request.ProgressUpdateEnvelope;
+import com.smartcane.transit.dto.request.ProgressUpdateRequest;
+import com.smartcane.transit.dto.response.SkTransitRootDto;
+import com.smartcane.transit.harness.GpsTrace;
+import com.smartcane.transit.harness.InProcessTarget;
+import com.smartcane.transit.harness.SkFixtures;
+import com.smartcane.transit.harness.SyntheticTraceGenerator;
+import com.smartcane.transit.service.InMemoryTripStore;
+import com.smartcane.transit.service.ProgressCoordinator;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JfrEventsTest {
+
+    @Test
+    void shippedProfileParsesAndEnablesSmartcaneEvents() throws Exception {
+        try (Reader r = new InputStreamReader(
+                getClass().getResourceAsStream("/jfr/smartcane.jfc"), StandardCharsets.UTF_8)) {
+            Configuration c = Configuration.create(r);
+            assertThat(c.getSettings())
+                    .containsEntry("smartcane.Snap#enabled", "true")
+                    .containsEntry("smartcane.ArrivalDecision#enabled", "true")
+                    .containsEntry("smartcane.TripStore#enabled", "true")
+                    .containsEntry("smartcane.SkFetch#enabled", "true");
+        }
+    }
+
+    @Test
+    void progressPathEmitsSnapDecisionAndStoreEvents() throws Exception {
+        GuidanceProperties props = new GuidanceProperties();
+        InMemoryTripStore store = new InMemoryTripStore();
+        ProgressCoordinator coordinator = InProcessTarget.newCoordinator(store, props);
+        SkTransitRootDto.MetaDataDto meta = SkFixtures.load(SkFixtures.GANGNAM_APGUJEONG_BUS).metaData();
+        GpsTrace trace = new SyntheticTraceGenerator().generate(meta.plan().itineraries().get(0), 0, 7L);
+
+        Path file = Files.createTempFile("smartcane", ".jfr");
+        try (Recording rec = new Recording()) {
+            // 임계값 없이 전부 기록
+            for (String name : List.of("smartcane.Snap", "smartcane.ArrivalDecision", "smartcane.TripStore")) {
+                rec.enable(name).withoutThreshold();
+            }
+            rec.start();
+            store.init("t", 0, 0, 0, "WALKING");
+            for (GpsTrace.Fix fix : trace.fixes()) {
+                coordinator.updateProgress("t", new ProgressUpdateEnvelope(meta, new ProgressUpdateRequest(
+                        fix.lon(), fix.lat(), fix.speedMps(), fix.offsetMs(), null, null, null)));
+            }
+            rec.stop();
+            rec.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            Map<String, Long> counts = events.stream()
+                    .collect(Collectors.groupingBy(e -> e.getEventType().getName(), Collectors.counting()));
+            assertThat(counts).containsKeys("smartcane.Snap", "smartcane.ArrivalDecision", "smartcane.TripStore");
+
+            RecordedEvent snap = events.stream()
+                    .filter(e -> e.getEventType().getName().equals("smartcane.Snap")).findFirst().orElseThrow();
+            assertThat(snap.getInt("vertexCount")).isPositive();
+            assertThat(snap.getInt("segmentsScanned")).isPositive();
+            RecordedEvent decision = events.stream()
+                    .filter(e -> e.getEventType().getName().equals("smartcane.ArrivalDecision")).findFirst().orElseThrow();
+            assertThat(decision.getString("tripId")).isEqualTo("t");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.smartcane.transit.util;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Java Vector API(jdk.incubator.vector) 최근접 선분 커널.
+ *
+ * - 선분 L개(SPECIES_PREFERRED 레인 수)를 한 번에 투영하고 레인별 최소 제곱거리/선분 index 를 유지한 뒤
+ *   마지막에 레인을 축약한다. 나머지(tail)는 스칼라 루프로 처리한다.
+ * - 연산 순서는 ScalarSegmentKernel 과 같아(FMA 미사용) 결과 index 가 정확히 일치한다.
+ * - 실행 시 --add-modules jdk.incubator.vector 가 필요하다. 반드시 SegmentKernels.select 로 생성할 것.
+ */
+public final class VectorSegmentKernel implements SegmentKernel {
+
+    private static final VectorSpecies<Double> S = DoubleVector.SPECIES_PREFERRED;
+    private static final double[] LANE_INDEX = new double[S.length()];
+
+    static {
+        for (int i = 0; i < LANE_INDEX.length; i++) LANE_INDEX[i] = i;
+    }
+
+    VectorSegmentKernel() {}
+
+    @Override
+    public int nearestSegment(double[] ax, double[] ay, double[] vx, double[] vy, double[] invLen2,
+                              double px, double py, int from, int to) {
+        final int lanes = S.length();
+        DoubleVector pX = DoubleVector.broadcast(S, px);
+        DoubleVector pY = DoubleVector.broadcast(S, py);
+        DoubleVector zero = DoubleVector.zero(S);
+        DoubleVector one = DoubleVector.broadcast(S, 1.0);
+        DoubleVector best = DoubleVector.broadcast(S, Double.POSITIVE_INFINITY);
+        DoubleVector bestIdx = DoubleVector.broadcast(S, -1.0);
+        DoubleVector idx = DoubleVector.fromArray(S, LANE_INDEX, 0).add(from);
+        DoubleVector step = DoubleVector.broadcast(S, lanes);
+
+        int i = from;
+        int upper = from + S.loopBound(to - from);
+        for (; i < upper; i += lanes) {
+            DoubleVector vX = DoubleVector.fromArray(S, vx, i);
+            DoubleVector vY = DoubleVector.fromArray(S, vy, i);
+            DoubleVector wX = pX.sub(DoubleVector.fromArray(S, ax, i));
+            DoubleVector wY = pY.sub(DoubleVector.fromArray(S, ay, i));
+            DoubleVector t = wX.mul(vX).add(wY.mul(vY)).mul(DoubleVector.fromArray(S, invLen2, i))
+                    .max(zero).min(one);
+            DoubleVector dX = wX.sub(t.mul(vX));
+            DoubleVector dY = wY.sub(t.mul(vY));
+            DoubleVector d2 = dX.mul(dX).add(dY.mul(dY));
+
+            VectorMask<Double> closer = d2.lt(best);
+            best = best.blend(d2, closer);
+            bestIdx = bestIdx.blend(idx, closer);
+            idx = idx.add(step);
+        }
+
+        // 레인 축약: 최소 제곱거리, 동률이면 작은 index
+        double bestD = Double.POSITIVE_INFINITY;
+        int bestI = -1;
+        for (int l = 0; l < lanes; l++) {
+            double d = best.lane(l);
+            int li = (int) bestIdx.lane(l);
+            if (li < 0) continue;
+            if (d < bestD || (d == bestD && li < bestI)) {
+                bestD = d;
+                bestI = li;
+            }
+        }
+
+        // tail: 스칼라와 동일한 식 (index 가 더 크므로 strict < 로 충분)
+        for (; i < to; i++) {
+            double wx = px - ax[i];
+            double wy = py - ay[i];
+            double t = Math.min(Math.max((wx * vx[i] + wy * vy[i]) * invLen2[i], 0.0), 1.0);
+            double dx = wx - t * vx[i];
+            double dy = wy - t * vy[i];
+            double d2 = dx * dx + dy * dy;
+            if (d2 < bestD) {
+                bestD = d2;
+                bestI = i;
+            }
+        }
+        return bestI;
+    }
+
+    @Override
+    public String name() {
+        return "vector(" + S.length() + "x" + S.elementSize() + "bit)";
+    }
+}